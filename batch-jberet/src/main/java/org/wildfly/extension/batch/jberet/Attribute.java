@@ -33,7 +33,8 @@ public enum Attribute {
     UNKNOWN(null),
     DATA_SOURCE("data-source"),
     NAME("name"),
-    VALUE("value");
+    VALUE("value"),
+    WRITE_BEHIND_INTERVAL("write-behind-interval");
 
     private final String name;
 
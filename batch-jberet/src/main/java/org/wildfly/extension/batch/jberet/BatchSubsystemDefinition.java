@@ -127,7 +127,7 @@ public class BatchSubsystemDefinition extends SimpleResourceDefinition {
     public void registerChildren(final ManagementResourceRegistration resourceRegistration) {
         super.registerChildren(resourceRegistration);
         resourceRegistration.registerSubModel(new InMemoryJobRepositoryDefinition());
-        resourceRegistration.registerSubModel(new JdbcJobRepositoryDefinition());
+        resourceRegistration.registerSubModel(new JdbcJobRepositoryDefinition(registerRuntimeOnly));
         // thread-pool resource
         resourceRegistration.registerSubModel(new BatchThreadPoolResourceDefinition(registerRuntimeOnly));
 
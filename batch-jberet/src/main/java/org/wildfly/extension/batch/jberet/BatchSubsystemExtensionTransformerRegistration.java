@@ -17,18 +17,22 @@
 package org.wildfly.extension.batch.jberet;
 
 import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.transform.ExtensionTransformerRegistration;
 import org.jboss.as.controller.transform.SubsystemTransformerRegistration;
 import org.jboss.as.controller.transform.description.ChainedTransformationDescriptionBuilder;
 import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
 import org.jboss.as.controller.transform.description.RejectAttributeChecker;
 import org.jboss.as.controller.transform.description.TransformationDescriptionBuilder;
+import org.jboss.dmr.ModelNode;
+import org.wildfly.extension.batch.jberet.job.repository.JdbcJobRepositoryDefinition;
 
 /**
  * @author <a href="mailto:jperkins@redhat.com">James R. Perkins</a>
  */
 public class BatchSubsystemExtensionTransformerRegistration implements ExtensionTransformerRegistration {
     private static final ModelVersion VERSION_1_1_0 = ModelVersion.create(1, 1, 0);
+    private static final ModelVersion VERSION_2_0_0 = ModelVersion.create(2, 0, 0);
 
     @Override
     public String getSubsystemName() {
@@ -39,12 +43,19 @@ public class BatchSubsystemExtensionTransformerRegistration implements Extension
     public void registerTransformers(final SubsystemTransformerRegistration subsystemRegistration) {
         final ChainedTransformationDescriptionBuilder chainedBuilder = TransformationDescriptionBuilder.Factory.createChainedSubystemInstance(subsystemRegistration.getCurrentSubsystemVersion());
 
-        chainedBuilder.createBuilder(subsystemRegistration.getCurrentSubsystemVersion(), VERSION_1_1_0)
+        chainedBuilder.createBuilder(subsystemRegistration.getCurrentSubsystemVersion(), VERSION_2_0_0)
+                .addChildResource(PathElement.pathElement(JdbcJobRepositoryDefinition.NAME))
+                .getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(0L)), JdbcJobRepositoryDefinition.WRITE_BEHIND_INTERVAL)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, JdbcJobRepositoryDefinition.WRITE_BEHIND_INTERVAL)
+                .end();
+
+        chainedBuilder.createBuilder(VERSION_2_0_0, VERSION_1_1_0)
                 .getAttributeBuilder()
                 .setDiscard(DiscardAttributeChecker.UNDEFINED, BatchSubsystemDefinition.SECURITY_DOMAIN)
                 .addRejectCheck(RejectAttributeChecker.DEFINED, BatchSubsystemDefinition.SECURITY_DOMAIN)
                 .end();
 
-        chainedBuilder.buildAndRegister(subsystemRegistration, new ModelVersion[]{VERSION_1_1_0});
+        chainedBuilder.buildAndRegister(subsystemRegistration, new ModelVersion[]{VERSION_2_0_0, VERSION_1_1_0});
     }
 }
\ No newline at end of file
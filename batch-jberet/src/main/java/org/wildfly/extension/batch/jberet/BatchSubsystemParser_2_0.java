@@ -18,8 +18,10 @@ package org.wildfly.extension.batch.jberet;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import javax.xml.stream.XMLStreamConstants;
 
+import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.dmr.ModelNode;
 import org.jboss.staxmapper.XMLElementReader;
 
@@ -29,6 +31,10 @@ import org.jboss.staxmapper.XMLElementReader;
 class BatchSubsystemParser_2_0 extends BatchSubsystemParser_1_0 implements XMLStreamConstants, XMLElementReader<List<ModelNode>> {
 
     public BatchSubsystemParser_2_0() {
-        super(Collections.singletonMap(Element.SECURITY_DOMAIN, BatchSubsystemDefinition.SECURITY_DOMAIN));
+        this(Collections.emptyMap());
+    }
+
+    BatchSubsystemParser_2_0(final Map<Attribute, SimpleAttributeDefinition> additionalJdbcAttributes) {
+        super(Collections.singletonMap(Element.SECURITY_DOMAIN, BatchSubsystemDefinition.SECURITY_DOMAIN), additionalJdbcAttributes);
     }
 }
\ No newline at end of file
@@ -69,6 +69,7 @@ public class BatchSubsystemWriter implements XMLElementWriter<SubsystemMarshalli
                 writeNameAttribute(writer, property.getName());
                 writer.writeStartElement(Element.JDBC.getLocalName());
                 JdbcJobRepositoryDefinition.DATA_SOURCE.marshallAsAttribute(property.getValue(), writer);
+                JdbcJobRepositoryDefinition.WRITE_BEHIND_INTERVAL.marshallAsAttribute(property.getValue(), writer);
                 writer.writeEndElement();
                 writer.writeEndElement(); // end job-repository
             }
@@ -34,12 +34,13 @@ enum Namespace {
 
     BATCH_1_0("urn:jboss:domain:batch-jberet:1.0"),
     BATCH_2_0("urn:jboss:domain:batch-jberet:2.0"),
+    BATCH_3_0("urn:jboss:domain:batch-jberet:3.0"),
     ;
 
     /**
      * The current namespace version.
      */
-    public static final Namespace CURRENT = BATCH_2_0;
+    public static final Namespace CURRENT = BATCH_3_0;
 
     private final String name;
 
@@ -215,4 +215,15 @@ public interface BatchLogger extends BasicLogger {
      */
     @Message(id = 20, value = "Permission denied. User %s does not have %s permissions.")
     JobSecurityException unauthorized(String user, Permission permission);
+
+    /**
+     * Logs a warning indicating the deferred updates of a step or partition execution could not be written to the job
+     * repository.
+     *
+     * @param cause           the cause of the error
+     * @param stepExecutionId the id of the step execution
+     */
+    @LogMessage(level = Level.WARN)
+    @Message(id = 21, value = "Failed to write deferred updates of step execution %d to the job repository")
+    void failedToWriteDeferredUpdates(@Cause Throwable cause, long stepExecutionId);
 }
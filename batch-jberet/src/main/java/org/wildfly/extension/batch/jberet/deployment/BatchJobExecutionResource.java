@@ -22,14 +22,9 @@
 
 package org.wildfly.extension.batch.jberet.deployment;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashSet;
-import java.util.List;
 import java.util.Set;
-import java.util.function.Supplier;
-import javax.batch.runtime.JobExecution;
-import javax.batch.runtime.JobInstance;
 
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
@@ -49,8 +44,7 @@ public class BatchJobExecutionResource implements Resource {
     private final Resource delegate;
     private final WildFlyJobOperator jobOperator;
     private final String jobName;
-    // Should be guarded by it's instance
-    private final Set<String> children = new LinkedHashSet<>();
+    private final JobExecutionIndex executions;
 
     BatchJobExecutionResource(final WildFlyJobOperator jobOperator, final String jobName) {
         this(Factory.create(true), jobOperator, jobName);
@@ -60,6 +54,7 @@ public class BatchJobExecutionResource implements Resource {
         this.delegate = delegate;
         this.jobOperator = jobOperator;
         this.jobName = jobName;
+        this.executions = jobOperator.getJobExecutionIndex(jobName);
     }
 
     @Override
@@ -110,7 +105,8 @@ public class BatchJobExecutionResource implements Resource {
     @Override
     public boolean hasChildren(final String childType) {
         if (BatchJobExecutionResourceDefinition.EXECUTION.equals(childType)) {
-            return !getChildrenNames(BatchJobExecutionResourceDefinition.EXECUTION).isEmpty();
+            executions.refresh();
+            return !executions.isEmpty();
         }
         return delegate.hasChildren(childType);
     }
@@ -136,10 +132,8 @@ public class BatchJobExecutionResource implements Resource {
     @Override
     public Set<String> getChildrenNames(final String childType) {
         if (BatchJobExecutionResourceDefinition.EXECUTION.equals(childType)) {
-            synchronized (children) {
-                refreshChildren();
-                return new LinkedHashSet<>(children);
-            }
+            executions.refresh();
+            return executions.getExecutionNames();
         }
         return delegate.getChildrenNames(childType);
     }
@@ -201,32 +195,6 @@ public class BatchJobExecutionResource implements Resource {
     }
 
     private boolean hasJobExecution(final String executionName) {
-        synchronized (children) {
-            if (children.contains(executionName)) {
-                return true;
-            }
-            // Load a cache of the names
-            refreshChildren();
-            return children.contains(executionName);
-        }
-    }
-
-    /**
-     * Note the access to the {@link #children} is <strong>not</strong> guarded here and needs to be externally
-     * guarded.
-     */
-    private void refreshChildren() {
-        final List<JobExecution> executions = new ArrayList<>();
-        // Casting to (Supplier<List<JobInstance>>) is done here on purpose as a workaround for a bug in 1.8.0_45
-        final List<JobInstance> instances = jobOperator.allowMissingJob((Supplier<List<JobInstance>>)() -> jobOperator.getJobInstances(jobName, 0, jobOperator.getJobInstanceCount(jobName))
-                , Collections.emptyList());
-        for (JobInstance instance : instances) {
-            executions.addAll(jobOperator.getJobExecutions(instance));
-        }
-        children.clear();
-        for (JobExecution execution : executions) {
-            final String name = Long.toString(execution.getExecutionId());
-            children.add(name);
-        }
+        return executions.contains(executionName);
     }
 }
@@ -0,0 +1,253 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.batch.jberet.deployment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import javax.batch.operations.BatchRuntimeException;
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.JobInstance;
+
+import org.wildfly.extension.batch.jberet._private.BatchLogger;
+
+/**
+ * An incrementally maintained index of the execution ids of a job, used to resolve the {@code execution} children of
+ * the job resource without re-reading every job instance from the job repository on each management read.
+ * <p>
+ * Executions created through the {@linkplain WildFlyJobOperator job operator} are added as they are started or
+ * restarted. Executions created elsewhere, e.g. by the deployment itself, are picked up by {@link #refresh()} which
+ * only reads the job instances created since the last refresh, along with any running executions, which include
+ * executions restarted elsewhere. If job instances were removed from the repository the index is rebuilt. At most
+ * {@code maxSize} of the most recent executions are retained; older executions are not listed, but can still be
+ * resolved by id.
+ * </p>
+ */
+final class JobExecutionIndex {
+    private static final int PAGE_SIZE = 100;
+
+    private final WildFlyJobOperator jobOperator;
+    private final String jobName;
+    private final int maxSize;
+    // Execution ids are assigned in ascending order by the job repositories, so the last id is the most recent
+    private final NavigableSet<Long> executionIds = new ConcurrentSkipListSet<>();
+    // ConcurrentSkipListSet.size() is not a constant-time operation
+    private final AtomicInteger size = new AtomicInteger();
+    private final Lock refreshLock = new ReentrantLock();
+    // The number of job instances seen by the last refresh, or -1 if the index was never loaded
+    private volatile int instanceCount = -1;
+    // The id of the most recent job instance seen by the last refresh, or -1 if there was none
+    private volatile long latestInstanceId = -1L;
+
+    JobExecutionIndex(final WildFlyJobOperator jobOperator, final String jobName, final int maxSize) {
+        this.jobOperator = jobOperator;
+        this.jobName = jobName;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Adds the execution to the index. Invoked by the job operator when it starts or restarts an execution of this job.
+     *
+     * @param executionId the id of the new execution
+     */
+    void executionCreated(final long executionId) {
+        // The execution will be read by the next refresh if the index was never loaded
+        if (instanceCount >= 0) {
+            add(executionId);
+        }
+    }
+
+    /**
+     * Reads any job instances created since the last refresh and any running executions. The index is rebuilt if job
+     * instances were removed since the last refresh. If another thread is already refreshing a loaded index, this
+     * returns immediately and the current view of the index is used.
+     */
+    void refresh() {
+        if (instanceCount < 0) {
+            refreshLock.lock();
+        } else if (!refreshLock.tryLock()) {
+            return;
+        }
+        try {
+            // Casting to (Supplier<Integer>) is done here on purpose as a workaround for a bug in 1.8.0_45
+            final int currentCount = jobOperator.allowMissingJob((Supplier<Integer>) () -> jobOperator.getJobInstanceCount(jobName), 0);
+            final int previousCount = instanceCount;
+            final long currentLatestInstanceId = getInstanceId(0);
+            if (previousCount < 0 || currentCount < previousCount) {
+                rebuild(currentCount);
+            } else {
+                final int created = currentCount - previousCount;
+                // The most recent instance of the last refresh must be preceded by exactly the instances created since,
+                // otherwise instances were both removed and created
+                if ((created == 0 ? currentLatestInstanceId : getInstanceId(created)) != latestInstanceId) {
+                    rebuild(currentCount);
+                } else if (created > 0) {
+                    load(created);
+                }
+            }
+            // Restarts create executions of existing job instances, pick up those which were not created by the job
+            // operator and are still running
+            // Casting to (Supplier<List<Long>>) is done here on purpose as a workaround for a bug in 1.8.0_45
+            for (Long executionId : jobOperator.allowMissingJob((Supplier<List<Long>>) () -> jobOperator.getRunningExecutions(jobName), Collections.emptyList())) {
+                add(executionId);
+            }
+            instanceCount = currentCount;
+            latestInstanceId = currentLatestInstanceId;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether the execution belongs to this job. Executions which are not indexed are looked up in the job
+     * repository.
+     *
+     * @param executionName the execution id
+     *
+     * @return {@code true} if the execution exists for this job, otherwise {@code false}
+     */
+    boolean contains(final String executionName) {
+        final long executionId;
+        try {
+            executionId = Long.parseLong(executionName);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (executionIds.contains(executionId)) {
+            return true;
+        }
+        refresh();
+        if (executionIds.contains(executionId)) {
+            return true;
+        }
+        try {
+            final JobExecution execution = jobOperator.getJobExecution(executionId);
+            return execution != null && jobName.equals(execution.getJobName());
+        } catch (BatchRuntimeException e) {
+            BatchLogger.LOGGER.tracef(e, "Execution %d could not be found for job %s", executionId, jobName);
+            return false;
+        }
+    }
+
+    /**
+     * Returns the names of the indexed executions, most recent first.
+     *
+     * @return the execution names
+     */
+    Set<String> getExecutionNames() {
+        return getExecutionNames(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns a page of the names of the indexed executions, most recent first.
+     *
+     * @param offset the number of executions to skip
+     * @param count  the maximum number of executions to return
+     *
+     * @return the execution names
+     */
+    Set<String> getExecutionNames(final int offset, final int count) {
+        if (count <= 0) {
+            return Collections.emptySet();
+        }
+        final Set<String> result = new LinkedHashSet<>();
+        final Iterator<Long> ids = executionIds.descendingIterator();
+        for (int i = 0; i < offset && ids.hasNext(); i++) {
+            ids.next();
+        }
+        while (ids.hasNext() && result.size() < count) {
+            result.add(Long.toString(ids.next()));
+        }
+        return result;
+    }
+
+    boolean isEmpty() {
+        return executionIds.isEmpty();
+    }
+
+    /**
+     * Clears the index and reads the executions of the most recent job instances. Note the calling thread must hold
+     * the {@link #refreshLock}.
+     */
+    private void rebuild(final int instances) {
+        executionIds.clear();
+        size.set(0);
+        load(instances);
+    }
+
+    /**
+     * Returns the id of the job instance at the offset, where the most recent job instance is at offset 0, or -1 if
+     * there is no such job instance.
+     */
+    private long getInstanceId(final int offset) {
+        // Casting to (Supplier<List<JobInstance>>) is done here on purpose as a workaround for a bug in 1.8.0_45
+        final List<JobInstance> jobInstances = jobOperator.allowMissingJob((Supplier<List<JobInstance>>) () -> jobOperator.getJobInstances(jobName, offset, 1),
+                Collections.emptyList());
+        return jobInstances.isEmpty() ? -1L : jobInstances.get(0).getInstanceId();
+    }
+
+    /**
+     * Reads the executions of the most recent job instances, in pages, until either the instances are exhausted or the
+     * index is full. Note the calling thread must hold the {@link #refreshLock}.
+     */
+    private void load(final int instances) {
+        final List<Long> ids = new ArrayList<>();
+        int start = 0;
+        while (start < instances && ids.size() < maxSize) {
+            final int page = Math.min(PAGE_SIZE, instances - start);
+            final int offset = start;
+            // Casting to (Supplier<List<JobInstance>>) is done here on purpose as a workaround for a bug in 1.8.0_45
+            final List<JobInstance> jobInstances = jobOperator.allowMissingJob((Supplier<List<JobInstance>>) () -> jobOperator.getJobInstances(jobName, offset, page),
+                    Collections.emptyList());
+            for (JobInstance instance : jobInstances) {
+                for (JobExecution execution : jobOperator.getJobExecutions(instance)) {
+                    ids.add(execution.getExecutionId());
+                }
+            }
+            if (jobInstances.size() < page) {
+                break;
+            }
+            start += page;
+        }
+        for (Long id : ids) {
+            add(id);
+        }
+    }
+
+    private void add(final long executionId) {
+        if (executionIds.add(executionId) && size.incrementAndGet() > maxSize) {
+            if (executionIds.pollFirst() != null) {
+                size.decrementAndGet();
+            }
+        }
+    }
+}
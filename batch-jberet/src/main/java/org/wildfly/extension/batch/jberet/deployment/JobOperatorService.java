@@ -32,6 +32,8 @@ import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -87,6 +89,8 @@ import org.wildfly.security.manager.WildFlySecurityManager;
  */
 public class JobOperatorService extends AbstractJobOperator implements WildFlyJobOperator, JobOperator, Service<JobOperator> {
     private static final Properties RESTART_PROPS = new Properties();
+    // The maximum number of executions per job listed as children of the job resources
+    private static final int MAX_INDEXED_EXECUTIONS = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged("org.wildfly.extension.batch.jberet.max-indexed-executions", "10000"));
 
     private final InjectedValue<BatchConfiguration> batchConfigurationInjector = new InjectedValue<>();
     private final InjectedValue<SecurityAwareBatchEnvironment> batchEnvironmentInjector = new InjectedValue<>();
@@ -99,6 +103,7 @@ public class JobOperatorService extends AbstractJobOperator implements WildFlyJo
     private final WildFlyJobXmlResolver resolver;
     private final BatchJobServerActivity serverActivity;
     private final String deploymentName;
+    private final ConcurrentMap<String, JobExecutionIndex> executionIndexes = new ConcurrentHashMap<>();
 
     private final ThreadLocal<Boolean> permissionsCheckEnabled = ThreadLocal.withInitial(() -> Boolean.TRUE);
 
@@ -227,7 +232,9 @@ public class JobOperatorService extends AbstractJobOperator implements WildFlyJo
                 jobXml = jobXMLName + ".xml";
             }
             if (resolver.isValidJobXmlName(jobXml)) {
-                return super.start(jobXml, jobParameters, getBatchEnvironment().getCurrentUserName());
+                final long executionId = super.start(jobXml, jobParameters, getBatchEnvironment().getCurrentUserName());
+                executionCreated(executionId);
+                return executionId;
             }
             throw BatchLogger.LOGGER.couldNotFindJobXml(jobXMLName);
         } finally {
@@ -243,7 +250,9 @@ public class JobOperatorService extends AbstractJobOperator implements WildFlyJo
             WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(classLoader);
             final JobInstance instance = super.getJobInstance(executionId);
             validateJob(instance.getJobName());
-            return super.restart(executionId, restartParameters, getBatchEnvironment().getCurrentUserName());
+            final long newExecutionId = super.restart(executionId, restartParameters, getBatchEnvironment().getCurrentUserName());
+            executionCreated(newExecutionId);
+            return newExecutionId;
         } finally {
             WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(current);
         }
@@ -347,6 +356,11 @@ public class JobOperatorService extends AbstractJobOperator implements WildFlyJo
         return resolver.getJobNames();
     }
 
+    @Override
+    public JobExecutionIndex getJobExecutionIndex(final String jobName) {
+        return executionIndexes.computeIfAbsent(jobName, name -> new JobExecutionIndex(this, name, MAX_INDEXED_EXECUTIONS));
+    }
+
     public InjectedValue<BatchConfiguration> getBatchConfigurationInjector() {
         return batchConfigurationInjector;
     }
@@ -399,6 +413,17 @@ public class JobOperatorService extends AbstractJobOperator implements WildFlyJo
         }
     }
 
+    /**
+     * Notifies the execution index of the job, if the index is in use, that an execution was created.
+     */
+    private void executionCreated(final long executionId) {
+        final String jobName = getJobExecutionImpl(executionId).getJobName();
+        final JobExecutionIndex index = executionIndexes.get(jobName);
+        if (index != null) {
+            index.executionCreated(executionId);
+        }
+    }
+
     private synchronized void validateJob(final String name) {
         // In JBeret 1.2.x null means all jobs, in JBeret 1.3.x+ * means all jobs if the name is null or * then ignore
         // the check
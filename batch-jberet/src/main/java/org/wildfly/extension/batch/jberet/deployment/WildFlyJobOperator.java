@@ -53,6 +53,16 @@ interface WildFlyJobOperator extends JobOperator {
      */
     Set<String> getAllJobNames();
 
+    /**
+     * Returns the index of the executions of a job. Executions started or restarted by this operator are added to the
+     * index as they are created.
+     *
+     * @param jobName the job name to get the index for
+     *
+     * @return the execution index for the job
+     */
+    JobExecutionIndex getJobExecutionIndex(String jobName);
+
     /**
      * Allows safe execution of a method catching any {@link NoSuchJobException} thrown. If the exception is thrown the
      * default value is returned, otherwise the value from the supplier is returned.
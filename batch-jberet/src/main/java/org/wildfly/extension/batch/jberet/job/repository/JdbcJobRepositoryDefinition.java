@@ -26,6 +26,7 @@ import javax.sql.DataSource;
 
 import org.jberet.repository.JobRepository;
 import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathElement;
@@ -34,10 +35,13 @@ import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.server.Services;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceTarget;
 import org.wildfly.extension.batch.jberet.BatchResourceDescriptionResolver;
 import org.wildfly.extension.batch.jberet._private.Capabilities;
@@ -60,25 +64,77 @@ public class JdbcJobRepositoryDefinition extends SimpleResourceDefinition {
             .setRestartAllServices()
             .build();
 
+    /**
+     * The interval at which deferred step and partition execution updates are written. A value of 0 writes all updates
+     * synchronously.
+     */
+    public static final SimpleAttributeDefinition WRITE_BEHIND_INTERVAL = SimpleAttributeDefinitionBuilder.create("write-behind-interval", ModelType.LONG, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(0L))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setRestartAllServices()
+            .build();
+
+    static final SimpleAttributeDefinition WRITE_BEHIND_QUEUE_DEPTH = SimpleAttributeDefinitionBuilder.create("write-behind-queue-depth", ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition WRITE_BEHIND_FLUSH_TIME = SimpleAttributeDefinitionBuilder.create("write-behind-flush-time", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
+    private final boolean registerRuntimeOnly;
+
     public JdbcJobRepositoryDefinition() {
+        this(false);
+    }
+
+    public JdbcJobRepositoryDefinition(final boolean registerRuntimeOnly) {
         super(
                 new Parameters(PATH, BatchResourceDescriptionResolver.getResourceDescriptionResolver(NAME))
                         .setAddHandler(new JdbcRepositoryAddHandler())
                         .setRemoveHandler(new ReloadRequiredRemoveStepHandler(Capabilities.JOB_REPOSITORY_CAPABILITY))
                         .setCapabilities(Capabilities.JOB_REPOSITORY_CAPABILITY)
         );
+        this.registerRuntimeOnly = registerRuntimeOnly;
     }
 
     @Override
     public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
         super.registerAttributes(resourceRegistration);
-        resourceRegistration.registerReadWriteAttribute(DATA_SOURCE, null, new ReloadRequiredWriteAttributeHandler(DATA_SOURCE));
+        final ReloadRequiredWriteAttributeHandler writeHandler = new ReloadRequiredWriteAttributeHandler(DATA_SOURCE, WRITE_BEHIND_INTERVAL);
+        resourceRegistration.registerReadWriteAttribute(DATA_SOURCE, null, writeHandler);
+        resourceRegistration.registerReadWriteAttribute(WRITE_BEHIND_INTERVAL, null, writeHandler);
+        if (registerRuntimeOnly) {
+            resourceRegistration.registerMetric(WRITE_BEHIND_QUEUE_DEPTH, WriteBehindMetricsHandler.INSTANCE);
+            resourceRegistration.registerMetric(WRITE_BEHIND_FLUSH_TIME, WriteBehindMetricsHandler.INSTANCE);
+        }
+    }
+
+    private static class WriteBehindMetricsHandler extends AbstractRuntimeOnlyHandler {
+        static final WriteBehindMetricsHandler INSTANCE = new WriteBehindMetricsHandler();
+
+        @Override
+        protected void executeRuntimeStep(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            final String name = context.getCurrentAddressValue();
+            final ServiceController<?> controller = context.getServiceRegistry(false).getService(context.getCapabilityServiceName(Capabilities.JOB_REPOSITORY_CAPABILITY.getName(), name, JobRepository.class));
+            if (controller != null && controller.getService() instanceof JdbcJobRepositoryService) {
+                final JdbcJobRepositoryService service = (JdbcJobRepositoryService) controller.getService();
+                final String attributeName = operation.require(ModelDescriptionConstants.NAME).asString();
+                if (WRITE_BEHIND_QUEUE_DEPTH.getName().equals(attributeName)) {
+                    context.getResult().set(service.getDeferredUpdateCount());
+                } else if (WRITE_BEHIND_FLUSH_TIME.getName().equals(attributeName)) {
+                    context.getResult().set(service.getLastFlushTime());
+                }
+            }
+        }
     }
 
     private static class JdbcRepositoryAddHandler extends AbstractAddStepHandler {
 
         JdbcRepositoryAddHandler() {
-            super(Capabilities.JOB_REPOSITORY_CAPABILITY, DATA_SOURCE);
+            super(Capabilities.JOB_REPOSITORY_CAPABILITY, DATA_SOURCE, WRITE_BEHIND_INTERVAL);
         }
 
         @Override
@@ -87,7 +143,8 @@ public class JdbcJobRepositoryDefinition extends SimpleResourceDefinition {
             final String name = context.getCurrentAddressValue();
             final String dsName = DATA_SOURCE.resolveModelAttribute(context, model).asString();
             final ServiceTarget target = context.getServiceTarget();
-            final JdbcJobRepositoryService service = new JdbcJobRepositoryService();
+            final long writeBehindInterval = WRITE_BEHIND_INTERVAL.resolveModelAttribute(context, model).asLong();
+            final JdbcJobRepositoryService service = new JdbcJobRepositoryService(writeBehindInterval);
             Services.addServerExecutorDependency(
                     target.addService(context.getCapabilityServiceName(Capabilities.JOB_REPOSITORY_CAPABILITY.getName(), name, JobRepository.class), service),
                     service.getExecutorServiceInjector())
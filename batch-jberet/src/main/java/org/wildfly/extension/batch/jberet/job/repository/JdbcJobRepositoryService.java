@@ -22,30 +22,86 @@
 
 package org.wildfly.extension.batch.jberet.job.repository;
 
+import java.io.IOException;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.JobInstance;
+import javax.batch.runtime.StepExecution;
 import javax.sql.DataSource;
 
 import org.jberet.repository.JdbcRepository;
+import org.jberet.repository.JobExecutionSelector;
 import org.jberet.repository.JobRepository;
+import org.jberet.runtime.AbstractStepExecution;
+import org.jberet.runtime.JobExecutionImpl;
+import org.jberet.runtime.PartitionExecutionImpl;
+import org.jberet.runtime.StepExecutionImpl;
+import org.jberet.util.BatchUtil;
 import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.jboss.threads.JBossThreadFactory;
 import org.wildfly.extension.batch.jberet._private.BatchLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * A service which provides a JDBC job repository.
+ * <p>
+ * If a write-behind interval is configured, updates of step and partition executions which do not complete the
+ * execution, i.e. metrics and intermediate checkpoints, are deferred and written at the end of each interval. Only the
+ * latest state of each execution is written. That state is copied when the update is deferred, so that the written
+ * checkpoints always match the chunks committed by then. Updates that move an execution to a final status are always
+ * written synchronously, as are job execution updates, after writing any deferred updates. Deferred updates are also
+ * written before reading step or job executions from the repository, and when the service stops. A deferred update that
+ * fails to be written is deferred again, unless superseded, such that the next synchronous write of its execution fails.
+ * </p>
  *
  * @author <a href="mailto:jperkins@redhat.com">James R. Perkins</a>
  */
 public class JdbcJobRepositoryService extends JobRepositoryService implements Service<JobRepository> {
 
+    private static final Set<BatchStatus> FINAL_STATUSES = EnumSet.of(BatchStatus.COMPLETED, BatchStatus.FAILED, BatchStatus.STOPPED, BatchStatus.ABANDONED);
+
     private final InjectedValue<DataSource> dataSourceValue = new InjectedValue<>();
     private final InjectedValue<ExecutorService> executor = new InjectedValue<>();
+    private final long writeBehindInterval;
+    // Deferred updates keyed by step or partition execution
+    private final Map<AbstractStepExecution, DeferredUpdate> deferredUpdates = new IdentityHashMap<>();
+    // Serializes the writes of step and partition executions, so that a stale deferred update cannot overwrite a final status
+    private final Object writeLock = new Object();
     private volatile JdbcRepository jobRepository;
+    private volatile ScheduledExecutorService writeBehindExecutor;
+    private volatile long lastFlushTime;
+
+    public JdbcJobRepositoryService() {
+        this(0L);
+    }
+
+    /**
+     * Creates a new JDBC job repository service.
+     *
+     * @param writeBehindInterval the interval, in milliseconds, at which deferred updates are written, or {@code 0} to
+     *                            write all updates synchronously
+     */
+    public JdbcJobRepositoryService(final long writeBehindInterval) {
+        this.writeBehindInterval = writeBehindInterval;
+    }
 
     @Override
     public void startJobRepository(final StartContext context) throws StartException {
@@ -54,6 +110,9 @@ public class JdbcJobRepositoryService extends JobRepositoryService implements Se
             try {
                 // Currently in jBeret tables are created in the constructor which is why this is done asynchronously
                 jobRepository = new JdbcRepository(dataSourceValue.getValue());
+                if (writeBehindInterval > 0L) {
+                    startWriteBehind(context.getController().getName().getSimpleName());
+                }
                 context.complete();
             } catch (Exception e) {
                 context.failed(BatchLogger.LOGGER.failedToCreateJobRepository(e, "JDBC"));
@@ -70,9 +129,101 @@ public class JdbcJobRepositoryService extends JobRepositoryService implements Se
 
     @Override
     public void stopJobRepository(final StopContext context) {
+        final ScheduledExecutorService writeBehindExecutor = this.writeBehindExecutor;
+        if (writeBehindExecutor != null) {
+            writeBehindExecutor.shutdownNow();
+            this.writeBehindExecutor = null;
+            flush();
+        }
         jobRepository = null;
     }
 
+    @Override
+    public void updateStepExecution(final StepExecution stepExecution) {
+        if ((writeBehindExecutor != null) && (stepExecution instanceof AbstractStepExecution) && !FINAL_STATUSES.contains(stepExecution.getBatchStatus())
+                && defer((AbstractStepExecution) stepExecution, null, true)) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (stepExecution instanceof AbstractStepExecution) {
+                write(removeDeferredUpdate((AbstractStepExecution) stepExecution));
+            }
+            super.updateStepExecution(stepExecution);
+        }
+    }
+
+    @Override
+    public void savePersistentData(final JobExecution jobExecution, final AbstractStepExecution stepOrPartitionExecution) {
+        if ((writeBehindExecutor != null) && !FINAL_STATUSES.contains(stepOrPartitionExecution.getBatchStatus())
+                && defer(stepOrPartitionExecution, jobExecution, false)) {
+            return;
+        }
+        synchronized (writeLock) {
+            write(removeDeferredUpdate(stepOrPartitionExecution));
+            super.savePersistentData(jobExecution, stepOrPartitionExecution);
+        }
+    }
+
+    @Override
+    public void updateJobExecution(final JobExecutionImpl jobExecution, final boolean fullUpdate, final boolean saveJobParameters) {
+        flush();
+        super.updateJobExecution(jobExecution, fullUpdate, saveJobParameters);
+    }
+
+    @Override
+    public void removeJobInstance(final long jobInstanceId) {
+        flush();
+        super.removeJobInstance(jobInstanceId);
+    }
+
+    @Override
+    public JobExecution getJobExecution(final long jobExecutionId) {
+        flush();
+        return super.getJobExecution(jobExecutionId);
+    }
+
+    @Override
+    public List<JobExecution> getJobExecutions(final JobInstance jobInstance) {
+        flush();
+        return super.getJobExecutions(jobInstance);
+    }
+
+    @Override
+    public List<Long> getRunningExecutions(final String jobName) {
+        flush();
+        return super.getRunningExecutions(jobName);
+    }
+
+    @Override
+    public void removeJobExecutions(final JobExecutionSelector jobExecutionSelector) {
+        flush();
+        super.removeJobExecutions(jobExecutionSelector);
+    }
+
+    @Override
+    public List<StepExecution> getStepExecutions(final long jobExecutionId, final ClassLoader classLoader) {
+        flush();
+        return super.getStepExecutions(jobExecutionId, classLoader);
+    }
+
+    @Override
+    public StepExecutionImpl findOriginalStepExecutionForRestart(final String stepName, final JobExecutionImpl jobExecutionToRestart, final ClassLoader classLoader) {
+        flush();
+        return super.findOriginalStepExecutionForRestart(stepName, jobExecutionToRestart, classLoader);
+    }
+
+    @Override
+    public int countStepStartTimes(final String stepName, final long jobInstanceId) {
+        flush();
+        return super.countStepStartTimes(stepName, jobInstanceId);
+    }
+
+    @Override
+    public List<PartitionExecutionImpl> getPartitionExecutions(final long stepExecutionId, final StepExecutionImpl stepExecution, final boolean notCompletedOnly, final ClassLoader classLoader) {
+        flush();
+        return super.getPartitionExecutions(stepExecutionId, stepExecution, notCompletedOnly, classLoader);
+    }
+
     @Override
     protected JobRepository getDelegate() {
         return jobRepository;
@@ -85,4 +236,148 @@ public class JdbcJobRepositoryService extends JobRepositoryService implements Se
     protected Injector<ExecutorService> getExecutorServiceInjector() {
         return executor;
     }
+
+    /**
+     * Returns the number of step and partition executions with deferred updates.
+     *
+     * @return the number of deferred updates
+     */
+    int getDeferredUpdateCount() {
+        synchronized (deferredUpdates) {
+            return deferredUpdates.size();
+        }
+    }
+
+    /**
+     * Returns the time, in milliseconds, taken by the most recent write of deferred updates.
+     *
+     * @return the duration of the last flush
+     */
+    long getLastFlushTime() {
+        return lastFlushTime;
+    }
+
+    /**
+     * Starts writing deferred updates at the end of each write-behind interval.
+     *
+     * @param name the name of the job repository
+     */
+    void startWriteBehind(final String name) {
+        final ThreadGroup group = new ThreadGroup(JdbcJobRepositoryService.class.getSimpleName());
+        final String pattern = "Batch job repository write-behind -- " + name;
+        final ThreadFactory factory = AccessController.doPrivileged(new PrivilegedAction<ThreadFactory>() {
+            @Override
+            public ThreadFactory run() {
+                return new JBossThreadFactory(group, Boolean.TRUE, null, pattern, null, null);
+            }
+        });
+        writeBehindExecutor = Executors.newSingleThreadScheduledExecutor(factory);
+        writeBehindExecutor.scheduleWithFixedDelay(this::flush, writeBehindInterval, writeBehindInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes all deferred updates.
+     */
+    void flush() {
+        final long start = System.nanoTime();
+        // Deferred updates are collected while holding the write lock, so that a concurrent synchronous write of an
+        // execution either writes its deferred update itself, or follows the write of that update
+        synchronized (writeLock) {
+            final Map<AbstractStepExecution, DeferredUpdate> updates;
+            synchronized (deferredUpdates) {
+                if (deferredUpdates.isEmpty()) {
+                    return;
+                }
+                updates = new IdentityHashMap<>(deferredUpdates);
+                deferredUpdates.clear();
+            }
+            for (Map.Entry<AbstractStepExecution, DeferredUpdate> entry : updates.entrySet()) {
+                try {
+                    write(entry.getValue());
+                } catch (RuntimeException e) {
+                    BatchLogger.LOGGER.failedToWriteDeferredUpdates(e, entry.getKey().getStepExecutionId());
+                    requeue(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        lastFlushTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    /**
+     * Copies the state of the specified execution.
+     * Checkpoints, persistent user data and metrics continue to change while an update is deferred, so the copy must be
+     * made by the thread executing the step, which also provides the class loader of any application types.
+     *
+     * @param execution a step or partition execution
+     *
+     * @return a copy of the execution
+     *
+     * @throws IOException if the execution could not be serialized
+     * @throws ClassNotFoundException if the execution could not be deserialized
+     */
+    AbstractStepExecution snapshot(final AbstractStepExecution execution) throws IOException, ClassNotFoundException {
+        return (AbstractStepExecution) BatchUtil.bytesToSerializableObject(BatchUtil.objectToBytes(execution), WildFlySecurityManager.getCurrentContextClassLoaderPrivileged());
+    }
+
+    /**
+     * Defers the update of the specified execution.
+     *
+     * @return {@code true} if the update was deferred, or {@code false} if the execution could not be copied, in which
+     * case the update must be written synchronously
+     */
+    private boolean defer(final AbstractStepExecution execution, final JobExecution jobExecution, final boolean updateStepExecution) {
+        final AbstractStepExecution snapshot;
+        try {
+            snapshot = snapshot(execution);
+        } catch (IOException | ClassNotFoundException e) {
+            return false;
+        }
+        synchronized (deferredUpdates) {
+            final DeferredUpdate update = deferredUpdates.computeIfAbsent(execution, key -> new DeferredUpdate());
+            update.snapshot = snapshot;
+            if (jobExecution != null) {
+                update.jobExecution = jobExecution;
+            }
+            update.updateStepExecution |= updateStepExecution;
+        }
+        return true;
+    }
+
+    private void requeue(final AbstractStepExecution execution, final DeferredUpdate failedUpdate) {
+        synchronized (deferredUpdates) {
+            deferredUpdates.merge(execution, failedUpdate, (update, failed) -> {
+                // A more recent snapshot supersedes the failed one
+                if (update.jobExecution == null) {
+                    update.jobExecution = failed.jobExecution;
+                }
+                update.updateStepExecution |= failed.updateStepExecution;
+                return update;
+            });
+        }
+    }
+
+    private DeferredUpdate removeDeferredUpdate(final AbstractStepExecution execution) {
+        synchronized (deferredUpdates) {
+            return deferredUpdates.remove(execution);
+        }
+    }
+
+    private void write(final DeferredUpdate update) {
+        if (update != null) {
+            if (update.jobExecution != null) {
+                super.savePersistentData(update.jobExecution, update.snapshot);
+            }
+            if (update.updateStepExecution) {
+                super.updateStepExecution(update.snapshot);
+            }
+        }
+    }
+
+    private static class DeferredUpdate {
+        // The state of the execution as of the last deferred update
+        AbstractStepExecution snapshot;
+        // The job execution of the last deferred persistent data update, or null if persistent data was not updated
+        JobExecution jobExecution;
+        boolean updateStepExecution;
+    }
 }
@@ -24,6 +24,7 @@ import java.util.List;
 
 import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
 import org.jboss.as.model.test.FailedOperationTransformationConfig;
 import org.jboss.as.model.test.ModelTestControllerVersion;
 import org.jboss.as.model.test.ModelTestUtils;
@@ -33,6 +34,7 @@ import org.jboss.as.subsystem.test.KernelServicesBuilder;
 import org.jboss.dmr.ModelNode;
 import org.junit.Assert;
 import org.junit.Test;
+import org.wildfly.extension.batch.jberet.job.repository.JdbcJobRepositoryDefinition;
 
 /**
  * @author <a href="mailto:jperkins@redhat.com">James R. Perkins</a>
@@ -54,7 +56,10 @@ public class SubsystemTransformerTestCase extends AbstractBatchTestCase {
 
     @Override
     protected AdditionalInitialization createAdditionalInitialization() {
-        return AdditionalInitialization.withCapabilities("org.wildfly.transactions.global-default-local-provider");
+        return AdditionalInitialization.withCapabilities(
+                "org.wildfly.data-source.ExampleDS",
+                "org.wildfly.security.security-domain.ApplicationDomain",
+                "org.wildfly.transactions.global-default-local-provider");
     }
 
     @Test
@@ -106,4 +111,58 @@ public class SubsystemTransformerTestCase extends AbstractBatchTestCase {
                                 new FailedOperationTransformationConfig.NewAttributesConfig(BatchSubsystemDefinition.SECURITY_DOMAIN))
         );
     }
+
+    @Test
+    public void testTransformersEAP710() throws Exception {
+        testTransformersEAP710("/jdbc-default-subsystem_2_0.xml");
+        testTransformersEAP710("/security-domain-subsystem_2_0.xml");
+    }
+
+    @Test
+    public void testFailedTransformersEAP710() throws Exception {
+        final KernelServicesBuilder builder = createKernelServicesBuilder(createAdditionalInitialization());
+        final ModelVersion legacyVersion = ModelVersion.create(2, 0, 0);
+
+        final ModelTestControllerVersion controllerVersion = ModelTestControllerVersion.EAP_7_1_0;
+        // Add legacy subsystems
+        builder.createLegacyKernelServicesBuilder(createAdditionalInitialization(), controllerVersion, legacyVersion)
+                .addMavenResourceURL(controllerVersion.getMavenGroupId() + ":wildfly-batch-jberet:" + controllerVersion.getMavenGavVersion())
+                .addMavenResourceURL(controllerVersion.getCoreMavenGroupId() + ":wildfly-threads:" + controllerVersion.getCoreVersion());
+
+        final KernelServices mainServices = builder.build();
+        final KernelServices legacyServices = mainServices.getLegacyServices(legacyVersion);
+
+        Assert.assertNotNull(legacyServices);
+        Assert.assertTrue("main services did not boot", mainServices.isSuccessfulBoot());
+        Assert.assertTrue(legacyServices.isSuccessfulBoot());
+
+        // A write-behind-interval of 0 is discarded, any other value is rejected
+        final List<ModelNode> ops = builder.parseXmlResource("/jdbc-default-subsystem.xml");
+        ModelTestUtils.checkFailedTransformedBootOperations(mainServices, legacyVersion, ops,
+                new FailedOperationTransformationConfig()
+                        .addFailedAttribute(PathAddress.pathAddress(BatchSubsystemDefinition.SUBSYSTEM_PATH, PathElement.pathElement(JdbcJobRepositoryDefinition.NAME, "jdbc")),
+                                new FailedOperationTransformationConfig.NewAttributesConfig(JdbcJobRepositoryDefinition.WRITE_BEHIND_INTERVAL))
+        );
+    }
+
+    private void testTransformersEAP710(final String subsystemXml) throws Exception {
+        final KernelServicesBuilder builder = createKernelServicesBuilder(createAdditionalInitialization())
+                .setSubsystemXmlResource(subsystemXml);
+        final ModelVersion legacyVersion = ModelVersion.create(2, 0, 0);
+
+        final ModelTestControllerVersion controllerVersion = ModelTestControllerVersion.EAP_7_1_0;
+        // Add legacy subsystems
+        builder.createLegacyKernelServicesBuilder(createAdditionalInitialization(), controllerVersion, legacyVersion)
+                .addMavenResourceURL(controllerVersion.getMavenGroupId() + ":wildfly-batch-jberet:" + controllerVersion.getMavenGavVersion())
+                .addMavenResourceURL(controllerVersion.getCoreMavenGroupId() + ":wildfly-threads:" + controllerVersion.getCoreVersion())
+                .configureReverseControllerCheck(createAdditionalInitialization(), null);
+        final KernelServices mainServices = builder.build();
+        assertTrue(mainServices.isSuccessfulBoot());
+        final KernelServices legacyServices = mainServices.getLegacyServices(legacyVersion);
+        assertNotNull(legacyServices);
+        assertTrue(legacyServices.isSuccessfulBoot());
+
+        checkSubsystemModelTransformation(mainServices, legacyVersion, null, false);
+        mainServices.shutdown();
+    }
 }
@@ -0,0 +1,234 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.batch.jberet.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import javax.batch.operations.NoSuchJobExecutionException;
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.JobInstance;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the paging, retention and refresh of the {@link JobExecutionIndex}.
+ */
+public class JobExecutionIndexTestCase {
+    private static final String JOB_NAME = "test-job";
+
+    private final WildFlyJobOperator jobOperator = mock(WildFlyJobOperator.class);
+    // The job instances in the repository, most recent first
+    private final LinkedList<JobInstance> instances = new LinkedList<>();
+    private final Map<JobInstance, List<JobExecution>> executions = new IdentityHashMap<>();
+    private final List<Long> runningExecutions = new ArrayList<>();
+    private long nextInstanceId = 1L;
+    private long nextExecutionId = 1L;
+
+    @Before
+    public void init() {
+        when(jobOperator.allowMissingJob(any(), any())).thenCallRealMethod();
+        when(jobOperator.getJobInstanceCount(JOB_NAME)).thenAnswer(invocation -> instances.size());
+        when(jobOperator.getJobInstances(eq(JOB_NAME), anyInt(), anyInt())).thenAnswer(invocation -> {
+            final int start = invocation.getArgument(1);
+            final int count = invocation.getArgument(2);
+            return new ArrayList<>(instances.subList(Math.min(start, instances.size()), Math.min(start + count, instances.size())));
+        });
+        when(jobOperator.getJobExecutions(any())).thenAnswer(invocation -> new ArrayList<>(executions.get(invocation.<JobInstance>getArgument(0))));
+        when(jobOperator.getRunningExecutions(JOB_NAME)).thenAnswer(invocation -> new ArrayList<>(runningExecutions));
+        when(jobOperator.getJobExecution(anyLong())).thenAnswer(invocation -> {
+            final long executionId = invocation.getArgument(0);
+            for (List<JobExecution> jobExecutions : executions.values()) {
+                for (JobExecution execution : jobExecutions) {
+                    if (execution.getExecutionId() == executionId) {
+                        return execution;
+                    }
+                }
+            }
+            throw new NoSuchJobExecutionException();
+        });
+    }
+
+    @Test
+    public void paging() {
+        for (int i = 0; i < 250; i++) {
+            createInstance();
+        }
+        final JobExecutionIndex index = new JobExecutionIndex(jobOperator, JOB_NAME, 1000);
+        index.refresh();
+
+        // The instances are read in pages
+        verify(jobOperator).getJobInstances(JOB_NAME, 0, 100);
+        verify(jobOperator).getJobInstances(JOB_NAME, 100, 100);
+        verify(jobOperator).getJobInstances(JOB_NAME, 200, 50);
+        assertEquals(250, index.getExecutionNames().size());
+        assertEquals(names(250, 241), new ArrayList<>(index.getExecutionNames(0, 10)));
+        assertEquals(names(150, 141), new ArrayList<>(index.getExecutionNames(100, 10)));
+        assertEquals(names(5, 1), new ArrayList<>(index.getExecutionNames(245, 10)));
+        assertTrue(index.getExecutionNames(250, 10).isEmpty());
+        assertTrue(index.getExecutionNames(0, 0).isEmpty());
+    }
+
+    @Test
+    public void retention() {
+        for (int i = 0; i < 200; i++) {
+            createInstance();
+        }
+        final JobExecutionIndex index = new JobExecutionIndex(jobOperator, JOB_NAME, 50);
+        index.refresh();
+
+        assertEquals(names(200, 151), executionNames(index));
+
+        // A new execution evicts the oldest one
+        index.executionCreated(createInstance());
+        assertEquals(names(201, 152), executionNames(index));
+
+        // Executions which are no longer retained can still be resolved
+        assertTrue(index.contains("10"));
+        assertFalse(index.contains("1000"));
+        assertFalse(index.contains("invalid"));
+    }
+
+    @Test
+    public void executionCreatedBeforeLoad() {
+        final JobExecutionIndex index = new JobExecutionIndex(jobOperator, JOB_NAME, 100);
+        index.executionCreated(createInstance());
+        index.executionCreated(createInstance());
+        assertTrue(index.isEmpty());
+
+        index.refresh();
+        assertEquals(names(2, 1), executionNames(index));
+    }
+
+    @Test
+    public void refreshCreatedInstances() {
+        createInstance();
+        final JobExecutionIndex index = new JobExecutionIndex(jobOperator, JOB_NAME, 100);
+        index.refresh();
+        assertEquals(names(1, 1), executionNames(index));
+
+        // Instances created outside of the job operator
+        createInstance();
+        createInstance();
+        index.refresh();
+        assertEquals(names(3, 1), executionNames(index));
+    }
+
+    @Test
+    public void refreshRestart() {
+        final JobExecutionIndex index = new JobExecutionIndex(jobOperator, JOB_NAME, 100);
+        createInstance();
+        createInstance();
+        index.refresh();
+        assertEquals(names(2, 1), executionNames(index));
+
+        // Restart outside of the job operator, the number of instances does not change
+        final long executionId = createExecution(instances.getLast());
+        runningExecutions.add(executionId);
+        index.refresh();
+        assertEquals(names(3, 1), executionNames(index));
+    }
+
+    @Test
+    public void refreshRemovedInstances() {
+        final JobExecutionIndex index = new JobExecutionIndex(jobOperator, JOB_NAME, 100);
+        createInstance();
+        createInstance();
+        createInstance();
+        index.refresh();
+
+        executions.remove(instances.removeLast());
+        index.refresh();
+        assertEquals(names(3, 2), executionNames(index));
+    }
+
+    @Test
+    public void refreshRemovedAndCreatedInstances() {
+        final JobExecutionIndex index = new JobExecutionIndex(jobOperator, JOB_NAME, 100);
+        createInstance();
+        createInstance();
+        index.refresh();
+
+        // The number of instances does not change
+        executions.remove(instances.removeLast());
+        createInstance();
+        index.refresh();
+        assertEquals(names(3, 2), executionNames(index));
+
+        // More instances were created than were removed
+        executions.remove(instances.removeLast());
+        createInstance();
+        createInstance();
+        index.refresh();
+        assertEquals(names(5, 3), executionNames(index));
+        assertFalse(index.getExecutionNames().contains("2"));
+    }
+
+    private long createInstance() {
+        final JobInstance instance = mock(JobInstance.class);
+        final long instanceId = nextInstanceId++;
+        when(instance.getInstanceId()).thenReturn(instanceId);
+        when(instance.getJobName()).thenReturn(JOB_NAME);
+        instances.addFirst(instance);
+        executions.put(instance, new ArrayList<>());
+        return createExecution(instance);
+    }
+
+    private long createExecution(final JobInstance instance) {
+        final JobExecution execution = mock(JobExecution.class);
+        final long executionId = nextExecutionId++;
+        when(execution.getExecutionId()).thenReturn(executionId);
+        when(execution.getJobName()).thenReturn(JOB_NAME);
+        executions.get(instance).add(execution);
+        return executionId;
+    }
+
+    private static List<String> executionNames(final JobExecutionIndex index) {
+        return new ArrayList<>(index.getExecutionNames());
+    }
+
+    /**
+     * Returns the names of the executions from the first id down to the last id, in that order.
+     */
+    private static List<String> names(final long first, final long last) {
+        final List<String> result = new ArrayList<>();
+        for (long id = first; id >= last; id--) {
+            result.add(Long.toString(id));
+        }
+        return result;
+    }
+}
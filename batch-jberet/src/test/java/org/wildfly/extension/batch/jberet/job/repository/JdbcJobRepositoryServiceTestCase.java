@@ -0,0 +1,322 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.batch.jberet.job.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+
+import org.jberet.repository.JobRepository;
+import org.jberet.runtime.AbstractStepExecution;
+import org.jberet.runtime.JobExecutionImpl;
+import org.jberet.runtime.PartitionExecutionImpl;
+import org.jberet.runtime.StepExecutionImpl;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StopContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+/**
+ * Tests the write-behind mode of the {@link JdbcJobRepositoryService}.
+ */
+public class JdbcJobRepositoryServiceTestCase {
+
+    private final JobRepository delegate = mock(JobRepository.class);
+    private final JobExecution jobExecution = mock(JobExecution.class);
+    private final StepExecutionImpl stepExecution = mock(StepExecutionImpl.class);
+    private JdbcJobRepositoryService service;
+
+    @Before
+    public void init() throws Exception {
+        // Use an interval long enough that deferred updates are only written when requested by the test
+        service = new TestJdbcJobRepositoryService(TimeUnit.HOURS.toMillis(1L), delegate, false);
+        service.start(mock(StartContext.class));
+        when(stepExecution.getBatchStatus()).thenReturn(BatchStatus.STARTED);
+    }
+
+    @After
+    public void destroy() {
+        service.stop(mock(StopContext.class));
+    }
+
+    @Test
+    public void latestStateOnly() {
+        service.savePersistentData(jobExecution, stepExecution);
+        service.updateStepExecution(stepExecution);
+        service.savePersistentData(jobExecution, stepExecution);
+        service.updateStepExecution(stepExecution);
+
+        assertEquals(1, service.getDeferredUpdateCount());
+        verify(delegate, never()).savePersistentData(any(), any());
+        verify(delegate, never()).updateStepExecution(any());
+
+        service.flush();
+
+        assertEquals(0, service.getDeferredUpdateCount());
+        verify(delegate, times(1)).savePersistentData(jobExecution, stepExecution);
+        verify(delegate, times(1)).updateStepExecution(stepExecution);
+
+        // Nothing left to write
+        service.flush();
+
+        verify(delegate, times(1)).savePersistentData(jobExecution, stepExecution);
+        verify(delegate, times(1)).updateStepExecution(stepExecution);
+    }
+
+    @Test
+    public void partitionExecutions() {
+        final PartitionExecutionImpl partitionExecution = mock(PartitionExecutionImpl.class);
+        when(partitionExecution.getBatchStatus()).thenReturn(BatchStatus.STARTED);
+
+        service.savePersistentData(jobExecution, stepExecution);
+        service.savePersistentData(jobExecution, partitionExecution);
+        service.savePersistentData(jobExecution, partitionExecution);
+
+        assertEquals(2, service.getDeferredUpdateCount());
+
+        service.flush();
+
+        verify(delegate, times(1)).savePersistentData(jobExecution, stepExecution);
+        verify(delegate, times(1)).savePersistentData(jobExecution, partitionExecution);
+        verify(delegate, never()).updateStepExecution(any());
+    }
+
+    @Test
+    public void flushBeforeRead() {
+        service.savePersistentData(jobExecution, stepExecution);
+        service.getJobExecution(1L);
+
+        final InOrder order = inOrder(delegate);
+        order.verify(delegate).savePersistentData(jobExecution, stepExecution);
+        order.verify(delegate).getJobExecution(1L);
+
+        service.updateStepExecution(stepExecution);
+        service.getStepExecutions(1L, null);
+
+        order.verify(delegate).updateStepExecution(stepExecution);
+        order.verify(delegate).getStepExecutions(1L, null);
+        assertEquals(0, service.getDeferredUpdateCount());
+    }
+
+    @Test
+    public void flushBeforeRemoval() {
+        service.savePersistentData(jobExecution, stepExecution);
+        service.removeJobInstance(1L);
+
+        final InOrder order = inOrder(delegate);
+        order.verify(delegate).savePersistentData(jobExecution, stepExecution);
+        order.verify(delegate).removeJobInstance(1L);
+
+        service.updateStepExecution(stepExecution);
+        service.removeJobExecutions(null);
+
+        order.verify(delegate).updateStepExecution(stepExecution);
+        order.verify(delegate).removeJobExecutions(null);
+        assertEquals(0, service.getDeferredUpdateCount());
+    }
+
+    @Test
+    public void flushBeforeJobExecutionUpdate() {
+        final JobExecutionImpl execution = mock(JobExecutionImpl.class);
+
+        service.updateStepExecution(stepExecution);
+        service.updateJobExecution(execution, false, false);
+
+        final InOrder order = inOrder(delegate);
+        order.verify(delegate).updateStepExecution(stepExecution);
+        order.verify(delegate).updateJobExecution(execution, false, false);
+    }
+
+    @Test
+    public void finalStatusSynchronous() {
+        service.savePersistentData(jobExecution, stepExecution);
+        assertEquals(1, service.getDeferredUpdateCount());
+
+        when(stepExecution.getBatchStatus()).thenReturn(BatchStatus.COMPLETED);
+        service.updateStepExecution(stepExecution);
+
+        // The deferred update is written before the final status, and is not written again by a later flush
+        assertEquals(0, service.getDeferredUpdateCount());
+        final InOrder order = inOrder(delegate);
+        order.verify(delegate).savePersistentData(jobExecution, stepExecution);
+        order.verify(delegate).updateStepExecution(stepExecution);
+
+        service.flush();
+
+        verify(delegate, times(1)).savePersistentData(jobExecution, stepExecution);
+        verify(delegate, times(1)).updateStepExecution(stepExecution);
+
+        for (BatchStatus status : new BatchStatus[] { BatchStatus.FAILED, BatchStatus.STOPPED, BatchStatus.ABANDONED }) {
+            when(stepExecution.getBatchStatus()).thenReturn(status);
+            service.savePersistentData(jobExecution, stepExecution);
+            assertEquals(0, service.getDeferredUpdateCount());
+        }
+        verify(delegate, times(4)).savePersistentData(jobExecution, stepExecution);
+    }
+
+    @Test
+    public void flushOnStop() throws Exception {
+        service.savePersistentData(jobExecution, stepExecution);
+        service.updateStepExecution(stepExecution);
+
+        service.stop(mock(StopContext.class));
+
+        verify(delegate).savePersistentData(jobExecution, stepExecution);
+        verify(delegate).updateStepExecution(stepExecution);
+        assertEquals(0, service.getDeferredUpdateCount());
+
+        // Restart, so that the service can be stopped again
+        service.start(mock(StartContext.class));
+    }
+
+    @Test
+    public void noWriteBehind() throws Exception {
+        final JobRepository delegate = mock(JobRepository.class);
+        final JdbcJobRepositoryService service = new TestJdbcJobRepositoryService(0L, delegate, false);
+        service.start(mock(StartContext.class));
+        try {
+            service.savePersistentData(jobExecution, stepExecution);
+            service.updateStepExecution(stepExecution);
+
+            assertEquals(0, service.getDeferredUpdateCount());
+            verify(delegate).savePersistentData(jobExecution, stepExecution);
+            verify(delegate).updateStepExecution(stepExecution);
+        } finally {
+            service.stop(mock(StopContext.class));
+        }
+    }
+
+    @Test
+    public void snapshot() throws Exception {
+        final JobRepository delegate = mock(JobRepository.class);
+        final JdbcJobRepositoryService service = new TestJdbcJobRepositoryService(TimeUnit.HOURS.toMillis(1L), delegate, true);
+        service.start(mock(StartContext.class));
+        try {
+            final StepExecutionImpl execution = new StepExecutionImpl("step");
+            execution.setBatchStatus(BatchStatus.STARTED);
+            execution.setReaderCheckpointInfo(1);
+            execution.setWriterCheckpointInfo(1);
+            service.savePersistentData(jobExecution, execution);
+
+            // The step continues with its next chunk while the update is deferred
+            execution.setReaderCheckpointInfo(2);
+
+            service.flush();
+
+            final ArgumentCaptor<AbstractStepExecution> captor = ArgumentCaptor.forClass(AbstractStepExecution.class);
+            verify(delegate).savePersistentData(same(jobExecution), captor.capture());
+            final AbstractStepExecution written = captor.getValue();
+            assertNotSame(execution, written);
+            assertEquals(execution.getStepExecutionId(), written.getStepExecutionId());
+            assertEquals(1, written.getReaderCheckpointInfo());
+            assertEquals(1, written.getWriterCheckpointInfo());
+        } finally {
+            service.stop(mock(StopContext.class));
+        }
+    }
+
+    @Test
+    public void failedFlush() {
+        doThrow(new IllegalStateException()).doNothing().when(delegate).savePersistentData(jobExecution, stepExecution);
+
+        service.savePersistentData(jobExecution, stepExecution);
+        service.flush();
+
+        // The failed update is deferred again
+        assertEquals(1, service.getDeferredUpdateCount());
+
+        service.flush();
+
+        assertEquals(0, service.getDeferredUpdateCount());
+        verify(delegate, times(2)).savePersistentData(jobExecution, stepExecution);
+    }
+
+    @Test
+    public void failedFlushFailsSynchronousWrite() {
+        doThrow(new IllegalStateException()).when(delegate).savePersistentData(jobExecution, stepExecution);
+
+        service.updateStepExecution(stepExecution);
+        service.savePersistentData(jobExecution, stepExecution);
+        service.flush();
+
+        when(stepExecution.getBatchStatus()).thenReturn(BatchStatus.COMPLETED);
+        try {
+            service.updateStepExecution(stepExecution);
+            fail("Synchronous write should fail while a deferred update cannot be written");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+        verify(delegate, never()).updateStepExecution(stepExecution);
+    }
+
+    private static class TestJdbcJobRepositoryService extends JdbcJobRepositoryService {
+        private final long writeBehindInterval;
+        private final JobRepository delegate;
+        private final boolean snapshots;
+
+        /**
+         * @param snapshots {@code true} to copy deferred executions, or {@code false} to defer the executions themselves,
+         *                  so that mocked executions can be verified
+         */
+        TestJdbcJobRepositoryService(final long writeBehindInterval, final JobRepository delegate, final boolean snapshots) {
+            super(writeBehindInterval);
+            this.writeBehindInterval = writeBehindInterval;
+            this.delegate = delegate;
+            this.snapshots = snapshots;
+        }
+
+        @Override
+        AbstractStepExecution snapshot(final AbstractStepExecution execution) throws IOException, ClassNotFoundException {
+            return snapshots ? super.snapshot(execution) : execution;
+        }
+
+        @Override
+        public void startJobRepository(final StartContext context) {
+            if (writeBehindInterval > 0L) {
+                startWriteBehind(TestJdbcJobRepositoryService.class.getSimpleName());
+            }
+        }
+
+        @Override
+        protected JobRepository getDelegate() {
+            return delegate;
+        }
+    }
+}
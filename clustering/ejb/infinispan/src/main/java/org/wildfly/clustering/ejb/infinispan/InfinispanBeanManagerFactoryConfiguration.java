@@ -28,6 +28,7 @@ import org.infinispan.Cache;
 import org.infinispan.remoting.transport.Address;
 import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
 import org.wildfly.clustering.ejb.BeanContext;
+import org.wildfly.clustering.ejb.BeanManagerFactoryServiceConfiguratorConfiguration.Granularity;
 import org.wildfly.clustering.ejb.BeanPassivationConfiguration;
 import org.wildfly.clustering.infinispan.spi.affinity.KeyAffinityServiceFactory;
 import org.wildfly.clustering.marshalling.jboss.MarshallingConfigurationRepository;
@@ -44,6 +45,7 @@ public interface InfinispanBeanManagerFactoryConfiguration {
     MarshallingConfigurationRepository getMarshallingConfigurationRepository();
     ScheduledExecutorService getScheduler();
     BeanPassivationConfiguration getPassivationConfiguration();
+    Granularity getGranularity();
     NodeFactory<Address> getNodeFactory();
     Registry<String, ?> getRegistry();
     CommandDispatcherFactory getCommandDispatcherFactory();
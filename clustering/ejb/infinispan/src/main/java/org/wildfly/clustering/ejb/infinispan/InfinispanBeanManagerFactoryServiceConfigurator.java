@@ -38,6 +38,7 @@ import org.wildfly.clustering.ee.infinispan.TransactionBatch;
 import org.wildfly.clustering.ejb.BeanContext;
 import org.wildfly.clustering.ejb.BeanManagerFactory;
 import org.wildfly.clustering.ejb.BeanManagerFactoryServiceConfiguratorConfiguration;
+import org.wildfly.clustering.ejb.BeanManagerFactoryServiceConfiguratorConfiguration.Granularity;
 import org.wildfly.clustering.ejb.BeanPassivationConfiguration;
 import org.wildfly.clustering.infinispan.spi.InfinispanCacheRequirement;
 import org.wildfly.clustering.infinispan.spi.InfinispanRequirement;
@@ -124,6 +125,11 @@ public class InfinispanBeanManagerFactoryServiceConfigurator<I, T> extends Simpl
         return this.configuration;
     }
 
+    @Override
+    public Granularity getGranularity() {
+        return this.configuration.getGranularity();
+    }
+
     @Override
     public NodeFactory<Address> getNodeFactory() {
         return this.group.get();
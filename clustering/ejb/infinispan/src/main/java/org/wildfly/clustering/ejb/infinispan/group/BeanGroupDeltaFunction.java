@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ejb.infinispan.group;
+
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import org.wildfly.clustering.ejb.infinispan.BeanGroupEntry;
+import org.wildfly.clustering.ejb.infinispan.BeanGroupKey;
+
+/**
+ * Function that applies the beans, and shared objects, of a fine granularity bean group that changed to the cache entry of the group on its owners.
+ * A null bean indicates that the bean was removed.
+ * If the cache entry no longer exists, e.g. the group was concurrently removed, the delta is discarded.
+ * @param <I> the bean identifier type
+ * @param <T> the bean type
+ */
+public class BeanGroupDeltaFunction<I, T> implements BiFunction<BeanGroupKey<I>, BeanGroupEntry<I, T>, BeanGroupEntry<I, T>> {
+
+    private final Map<I, byte[]> beans;
+    private final byte[] objects;
+    // The beans from which this delta was created, which are never replicated
+    private final FineMarshalledBeans<I, T> origin;
+
+    public BeanGroupDeltaFunction(Map<I, byte[]> beans, byte[] objects) {
+        this(beans, objects, null);
+    }
+
+    BeanGroupDeltaFunction(Map<I, byte[]> beans, byte[] objects, FineMarshalledBeans<I, T> origin) {
+        this.beans = beans;
+        this.objects = objects;
+        this.origin = origin;
+    }
+
+    @Override
+    public BeanGroupEntry<I, T> apply(BeanGroupKey<I> key, BeanGroupEntry<I, T> entry) {
+        if (entry == null) return null;
+        FineMarshalledBeans<I, T> beans = ((FineBeanGroupEntry<I, T>) entry).getBeans();
+        // The entry from which this delta was created already reflects it, and retains its unmarshalled beans
+        if (beans == this.origin) return entry;
+        // Cache entry values must never be modified in place
+        return new FineBeanGroupEntry<>(beans.apply(this.beans, this.objects));
+    }
+
+    Map<I, byte[]> getBeans() {
+        return this.beans;
+    }
+
+    byte[] getObjects() {
+        return this.objects;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ejb.infinispan.group;
+
+import java.io.IOException;
+
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.wildfly.clustering.ee.Mutator;
+import org.wildfly.clustering.ejb.infinispan.BeanGroupEntry;
+import org.wildfly.clustering.ejb.infinispan.BeanGroupKey;
+import org.wildfly.clustering.ejb.infinispan.logging.InfinispanEjbLogger;
+
+/**
+ * Mutator for a bean group of fine granularity that replicates only those beans, and shared objects, that changed.
+ * Changes are shipped to the owners of the bean group cache entry, where they are applied to the existing entry.
+ * @param <I> the bean identifier type
+ * @param <T> the bean type
+ */
+public class BeanGroupDeltaMutator<I, T> implements Mutator {
+
+    private final Cache<BeanGroupKey<I>, BeanGroupEntry<I, T>> cache;
+    private final BeanGroupKey<I> key;
+    private final FineMarshalledBeans<I, T> beans;
+
+    public BeanGroupDeltaMutator(Cache<BeanGroupKey<I>, BeanGroupEntry<I, T>> cache, BeanGroupKey<I> key, FineBeanGroupEntry<I, T> entry) {
+        this.cache = cache;
+        this.key = key;
+        this.beans = entry.getBeans();
+    }
+
+    @Override
+    public void mutate() {
+        BeanGroupDeltaFunction<I, T> function;
+        try {
+            function = this.beans.marshal();
+        } catch (IOException e) {
+            throw InfinispanEjbLogger.ROOT_LOGGER.serializationFailure(e, this.key.getId());
+        }
+        if (function != null) {
+            this.cache.getAdvancedCache().withFlags(Flag.IGNORE_RETURN_VALUES).compute(this.key, function);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ejb.infinispan.group;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.Marshalling;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.SimpleDataInput;
+import org.jboss.marshalling.SimpleDataOutput;
+import org.jboss.marshalling.Unmarshaller;
+import org.wildfly.clustering.marshalling.jboss.MarshallingConfigurationRepository;
+import org.wildfly.clustering.marshalling.jboss.SimpleMarshallingContext;
+import org.wildfly.clustering.marshalling.spi.IndexSerializer;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Marshalling context for bean groups of fine granularity.
+ * In addition to the behavior of {@link SimpleMarshallingContext}, marshals the individual beans of a group
+ * such that the objects they share are written as references to the {@link SharedObjects} of the group.
+ */
+public class BeanGroupMarshallingContext extends SimpleMarshallingContext {
+
+    private final MarshallerFactory factory;
+    private final MarshallingConfigurationRepository repository;
+
+    public BeanGroupMarshallingContext(MarshallingConfigurationRepository repository, ClassLoader loader) {
+        this(Marshalling.getMarshallerFactory("river", Marshalling.class.getClassLoader()), repository, loader);
+    }
+
+    public BeanGroupMarshallingContext(MarshallerFactory factory, MarshallingConfigurationRepository repository, ClassLoader loader) {
+        super(factory, repository, loader);
+        this.factory = factory;
+        this.repository = repository;
+    }
+
+    /**
+     * Marshals the specified object using the current marshalling version.
+     * @param object the object to marshal
+     * @param objects the shared objects of the bean group
+     * @return the marshalled form of the object, prefixed by its marshalling version
+     * @throws IOException if the object could not be marshalled
+     */
+    byte[] write(Object object, SharedObjects objects) throws IOException {
+        int version = this.getCurrentVersion();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ClassLoader loader = setThreadContextClassLoader(this.getClassLoader());
+        try (SimpleDataOutput data = new SimpleDataOutput(Marshalling.createByteOutput(output))) {
+            IndexSerializer.VARIABLE.writeInt(data, version);
+            try (Marshaller marshaller = this.factory.createMarshaller(this.getMarshallingConfiguration(version, objects))) {
+                marshaller.start(data);
+                marshaller.writeObject(object);
+                marshaller.finish();
+            }
+        } finally {
+            setThreadContextClassLoader(loader);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Unmarshals an object written via {@link #write(Object, SharedObjects)}.
+     * @param bytes the marshalled form of an object
+     * @param objects the shared objects of the bean group
+     * @return the unmarshalled object
+     * @throws IOException if the object could not be unmarshalled
+     * @throws ClassNotFoundException if the class of the object, or of any object it references, could not be loaded
+     */
+    Object read(byte[] bytes, SharedObjects objects) throws IOException, ClassNotFoundException {
+        ClassLoader loader = setThreadContextClassLoader(this.getClassLoader());
+        try (SimpleDataInput data = new SimpleDataInput(Marshalling.createByteInput(new ByteArrayInputStream(bytes)))) {
+            int version = IndexSerializer.VARIABLE.readInt(data);
+            try (Unmarshaller unmarshaller = this.factory.createUnmarshaller(this.getMarshallingConfiguration(version, objects))) {
+                unmarshaller.start(data);
+                Object object = unmarshaller.readObject();
+                unmarshaller.finish();
+                return object;
+            }
+        } finally {
+            setThreadContextClassLoader(loader);
+        }
+    }
+
+    private MarshallingConfiguration getMarshallingConfiguration(int version, SharedObjects objects) {
+        MarshallingConfiguration configuration = this.repository.getMarshallingConfiguration(version).clone();
+        configuration.setObjectTable(new SharedObjectTable(configuration.getObjectTable(), objects));
+        return configuration;
+    }
+
+    private static ClassLoader setThreadContextClassLoader(ClassLoader loader) {
+        return (loader != null) ? WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(loader) : null;
+    }
+}
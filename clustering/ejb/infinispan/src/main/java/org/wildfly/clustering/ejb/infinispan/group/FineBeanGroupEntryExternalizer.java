@@ -0,0 +1,99 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ejb.infinispan.group;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.kohsuke.MetaInfServices;
+import org.wildfly.clustering.marshalling.Externalizer;
+import org.wildfly.clustering.marshalling.spi.IndexSerializer;
+
+/**
+ * Externalizer for {@link FineBeanGroupEntry}.
+ * Writes the beans of the group as of their last replication.
+ */
+@MetaInfServices(Externalizer.class)
+public class FineBeanGroupEntryExternalizer<I, T> implements Externalizer<FineBeanGroupEntry<I, T>> {
+
+    @Override
+    public void writeObject(ObjectOutput output, FineBeanGroupEntry<I, T> entry) throws IOException {
+        FineMarshalledBeans<I, T> beans = entry.getBeans();
+        // Obtain a consistent view of the marshalled beans and shared objects
+        synchronized (beans) {
+            writeBeans(output, beans.getMarshalledBeans());
+            writeBytes(output, beans.getMarshalledObjects());
+        }
+    }
+
+    @Override
+    public FineBeanGroupEntry<I, T> readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+        Map<I, byte[]> beans = readBeans(input);
+        byte[] objects = readBytes(input);
+        return new FineBeanGroupEntry<>(new FineMarshalledBeans<>(beans, objects));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Class<FineBeanGroupEntry<I, T>> getTargetClass() {
+        return (Class<FineBeanGroupEntry<I, T>>) (Class<?>) FineBeanGroupEntry.class;
+    }
+
+    static <I> void writeBeans(ObjectOutput output, Map<I, byte[]> beans) throws IOException {
+        IndexSerializer.VARIABLE.writeInt(output, beans.size());
+        for (Map.Entry<I, byte[]> entry : beans.entrySet()) {
+            output.writeObject(entry.getKey());
+            writeBytes(output, entry.getValue());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <I> Map<I, byte[]> readBeans(ObjectInput input) throws IOException, ClassNotFoundException {
+        int size = IndexSerializer.VARIABLE.readInt(input);
+        Map<I, byte[]> beans = new HashMap<>();
+        for (int i = 0; i < size; ++i) {
+            I id = (I) input.readObject();
+            beans.put(id, readBytes(input));
+        }
+        return beans;
+    }
+
+    // Writes the length + 1, so that 0 indicates a null array
+    static void writeBytes(ObjectOutput output, byte[] bytes) throws IOException {
+        IndexSerializer.VARIABLE.writeInt(output, (bytes != null) ? bytes.length + 1 : 0);
+        if (bytes != null) {
+            output.write(bytes);
+        }
+    }
+
+    static byte[] readBytes(ObjectInput input) throws IOException {
+        int length = IndexSerializer.VARIABLE.readInt(input) - 1;
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return bytes;
+    }
+}
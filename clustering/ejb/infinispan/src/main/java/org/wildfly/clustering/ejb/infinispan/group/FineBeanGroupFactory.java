@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ejb.infinispan.group;
+
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.infinispan.notifications.Listener;
+import org.wildfly.clustering.ee.infinispan.CacheProperties;
+import org.wildfly.clustering.ejb.infinispan.BeanEntry;
+import org.wildfly.clustering.ejb.infinispan.BeanGroup;
+import org.wildfly.clustering.ejb.infinispan.BeanGroupEntry;
+import org.wildfly.clustering.ejb.infinispan.BeanGroupKey;
+import org.wildfly.clustering.ejb.infinispan.BeanKey;
+import org.wildfly.clustering.ejb.infinispan.PassivationConfiguration;
+import org.wildfly.clustering.marshalling.jboss.MarshallingContext;
+import org.wildfly.clustering.marshalling.spi.MarshalledValueFactory;
+
+/**
+ * Encapsulates the cache mapping strategy of a bean group of fine granularity.
+ * Each bean of a group is marshalled individually, and only those beans that changed are replicated.
+ * Objects referenced by multiple beans of a group, e.g. an extended persistence context, are marshalled separately, preserving their shared identity.
+ *
+ * @param <I> the bean identifier type
+ * @param <T> the bean type
+ */
+@Listener
+public class FineBeanGroupFactory<I, T> extends InfinispanBeanGroupFactory<I, T> {
+
+    private final Cache<BeanGroupKey<I>, BeanGroupEntry<I, T>> cache;
+    private final BeanGroupMarshallingContext context;
+
+    public FineBeanGroupFactory(Cache<BeanGroupKey<I>, BeanGroupEntry<I, T>> cache, Cache<BeanKey<I>, BeanEntry<I>> beanCache, Predicate<Map.Entry<? super BeanKey<I>, ? super BeanEntry<I>>> beanFilter, MarshalledValueFactory<MarshallingContext> factory, BeanGroupMarshallingContext context, CacheProperties properties, PassivationConfiguration<T> passivation) {
+        super(cache, beanCache, beanFilter, factory, context, properties, passivation);
+        this.cache = cache;
+        this.context = context;
+    }
+
+    @Override
+    public BeanGroupEntry<I, T> createValue(I id, Void context) {
+        BeanGroupEntry<I, T> entry = new FineBeanGroupEntry<>(new FineMarshalledBeans<>(this.context));
+        BeanGroupEntry<I, T> existing = this.cache.getAdvancedCache().withFlags(Flag.FORCE_SYNCHRONOUS).putIfAbsent(this.createKey(id), entry);
+        return (existing == null) ? entry : existing;
+    }
+
+    @Override
+    public BeanGroup<I, T> createGroup(I id, BeanGroupEntry<I, T> entry) {
+        return new InfinispanBeanGroup<>(id, entry, this.context, new BeanGroupDeltaMutator<>(this.cache, this.createKey(id), (FineBeanGroupEntry<I, T>) entry), this);
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ejb.infinispan.group;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.wildfly.clustering.marshalling.jboss.MarshallingContext;
+import org.wildfly.clustering.marshalling.spi.MarshalledValue;
+
+/**
+ * The beans of a fine granularity bean group, where each bean is marshalled individually.
+ * Objects referenced by more than one bean are marshalled once, separately, and are referenced by index from each bean.
+ * The marshalled form always reflects the state of the beans as of their last replication, see {@link #marshal()}.
+ * @param <I> the bean identifier type
+ * @param <T> the bean type
+ */
+public class FineMarshalledBeans<I, T> implements MarshalledValue<Map<I, T>, MarshallingContext> {
+    private static final long serialVersionUID = 4524578263719582476L;
+
+    private volatile Map<I, byte[]> beans;
+    private volatile byte[] objects;
+
+    private transient volatile BeanGroupMarshallingContext context;
+    private transient volatile Map<I, T> values;
+    private transient volatile List<Object> sharedObjects;
+
+    /**
+     * Creates the beans of a new bean group.
+     * @param context a marshalling context
+     */
+    public FineMarshalledBeans(BeanGroupMarshallingContext context) {
+        this(Collections.emptyMap(), null);
+        this.context = context;
+        this.values = new ConcurrentHashMap<>();
+        this.sharedObjects = Collections.emptyList();
+    }
+
+    FineMarshalledBeans(Map<I, byte[]> beans, byte[] objects) {
+        this.beans = beans;
+        this.objects = objects;
+    }
+
+    Map<I, byte[]> getMarshalledBeans() {
+        return this.beans;
+    }
+
+    byte[] getMarshalledObjects() {
+        return this.objects;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public synchronized Map<I, T> get(MarshallingContext context) throws IOException, ClassNotFoundException {
+        if (this.values == null) {
+            BeanGroupMarshallingContext groupContext = (BeanGroupMarshallingContext) context;
+            byte[] marshalledObjects = this.objects;
+            List<Object> sharedObjects = (marshalledObjects != null) ? (List<Object>) groupContext.read(marshalledObjects, new SharedObjects(Collections.emptyList())) : Collections.emptyList();
+            SharedObjects objects = new SharedObjects(sharedObjects);
+            Map<I, T> values = new ConcurrentHashMap<>();
+            for (Map.Entry<I, byte[]> entry : this.beans.entrySet()) {
+                values.put(entry.getKey(), (T) groupContext.read(entry.getValue(), objects));
+            }
+            this.context = groupContext;
+            this.sharedObjects = sharedObjects;
+            this.values = values;
+        }
+        return this.values;
+    }
+
+    /**
+     * Marshals the current state of the beans of this group, and returns a function that replicates only those beans,
+     * and those shared objects, whose marshalled form changed since the previous invocation.
+     * Every bean of the group is marshalled, not only the beans used by the invocation: a bean that was not used may
+     * reference an object that a used bean now references too. Such an object must be moved to the shared objects,
+     * which is only detected by marshalling both beans. Consequently, fine granularity saves replication traffic, but
+     * not marshalling cost.
+     * @return a delta function, or null, if nothing changed
+     * @throws IOException if any bean could not be marshalled
+     */
+    synchronized BeanGroupDeltaFunction<I, T> marshal() throws IOException {
+        Map<I, T> values = this.values;
+        // Beans that were never unmarshalled cannot have changed
+        if (values == null) return null;
+        BeanGroupMarshallingContext context = this.context;
+        SharedObjects objects = new SharedObjects(this.sharedObjects);
+        Map<I, byte[]> beans = new HashMap<>();
+        byte[] marshalledObjects;
+        // Repeat if marshalling revealed objects that are referenced by multiple beans, but that are not yet shared
+        do {
+            objects.setOwner(null);
+            marshalledObjects = context.write(objects.getObjects(), objects);
+            beans.clear();
+            for (Map.Entry<I, T> entry : values.entrySet()) {
+                objects.setOwner(entry.getKey());
+                beans.put(entry.getKey(), context.write(entry.getValue(), objects));
+            }
+        } while (objects.share());
+        if (objects.release()) {
+            objects.setOwner(null);
+            marshalledObjects = context.write(objects.getObjects(), objects);
+        }
+
+        Map<I, byte[]> previousBeans = this.beans;
+        Map<I, byte[]> delta = new HashMap<>();
+        for (Map.Entry<I, byte[]> entry : beans.entrySet()) {
+            if (!Arrays.equals(entry.getValue(), previousBeans.get(entry.getKey()))) {
+                delta.put(entry.getKey(), entry.getValue());
+            }
+        }
+        for (I id : previousBeans.keySet()) {
+            if (!beans.containsKey(id)) {
+                delta.put(id, null);
+            }
+        }
+        byte[] objectsDelta = !Arrays.equals(marshalledObjects, this.objects) ? marshalledObjects : null;
+
+        this.beans = beans;
+        this.objects = marshalledObjects;
+        this.sharedObjects = objects.getObjects();
+
+        return (!delta.isEmpty() || (objectsDelta != null)) ? new BeanGroupDeltaFunction<>(delta, objectsDelta, this) : null;
+    }
+
+    /**
+     * Returns the beans resulting from the application of the specified delta to these beans.
+     * @param delta a set of changed beans, where a null value indicates a removed bean
+     * @param objects the changed shared objects, or null, if unchanged
+     * @return a new set of beans
+     */
+    synchronized FineMarshalledBeans<I, T> apply(Map<I, byte[]> delta, byte[] objects) {
+        Map<I, byte[]> beans = new HashMap<>(this.beans);
+        for (Map.Entry<I, byte[]> entry : delta.entrySet()) {
+            byte[] bean = entry.getValue();
+            if (bean != null) {
+                beans.put(entry.getKey(), bean);
+            } else {
+                beans.remove(entry.getKey());
+            }
+        }
+        return new FineMarshalledBeans<>(beans, (objects != null) ? objects : this.objects);
+    }
+
+    @Override
+    public String toString() {
+        Map<I, T> values = this.values;
+        return (values != null) ? values.toString() : this.beans.keySet().toString();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ejb.infinispan.group;
+
+import java.io.IOException;
+
+import org.jboss.marshalling.ObjectTable;
+import org.jboss.marshalling.Unmarshaller;
+import org.wildfly.clustering.ee.Immutability;
+import org.wildfly.clustering.marshalling.spi.IndexSerializer;
+
+/**
+ * {@link ObjectTable} decorator that writes references to the {@link SharedObjects} of a bean group in place of the objects themselves.
+ * Each object written by this table is prefixed by an index: 0 for an object written by the decorated table, or 1 + the index of a shared object.
+ */
+class SharedObjectTable implements ObjectTable {
+
+    private final ObjectTable table;
+    private final SharedObjects objects;
+
+    SharedObjectTable(ObjectTable table, SharedObjects objects) {
+        this.table = table;
+        this.objects = objects;
+    }
+
+    @Override
+    public Writer getObjectWriter(Object object) throws IOException {
+        int index = this.objects.indexOf(object);
+        if (index >= 0) {
+            return (marshaller, value) -> IndexSerializer.VARIABLE.writeInt(marshaller, index + 1);
+        }
+        Writer writer = (this.table != null) ? this.table.getObjectWriter(object) : null;
+        if (writer != null) {
+            return (marshaller, value) -> {
+                IndexSerializer.VARIABLE.writeInt(marshaller, 0);
+                writer.writeObject(marshaller, value);
+            };
+        }
+        // The identity of immutable objects is irrelevant
+        if (!Immutability.OBJECT.test(object) && !Immutability.CLASS.test(object) && !Immutability.ABSTRACT_CLASS.test(object)) {
+            this.objects.track(object);
+        }
+        return null;
+    }
+
+    @Override
+    public Object readObject(Unmarshaller unmarshaller) throws IOException, ClassNotFoundException {
+        int index = IndexSerializer.VARIABLE.readInt(unmarshaller);
+        if (index == 0) {
+            if (this.table == null) {
+                throw new IllegalStateException();
+            }
+            return this.table.readObject(unmarshaller);
+        }
+        return this.objects.get(index - 1);
+    }
+}
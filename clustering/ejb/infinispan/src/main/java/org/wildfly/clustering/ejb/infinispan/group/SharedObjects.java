@@ -0,0 +1,155 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ejb.infinispan.group;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The objects shared by the beans of a fine granularity bean group, e.g. an extended persistence context.
+ * Shared objects are marshalled together in a dedicated stream, and are referenced by index from the stream of each bean,
+ * so that their identity is preserved across the beans of a group, even though each bean is marshalled individually.
+ * While marshalling, this also tracks which stream first referenced each object, to detect objects that became shared.
+ * Instances are not thread-safe.
+ */
+class SharedObjects {
+
+    private final List<Object> objects;
+    private final Map<Object, Integer> indexes = new IdentityHashMap<>();
+    private final BitSet referenced = new BitSet();
+    private final Map<Object, Object> owners = new IdentityHashMap<>();
+    private final Set<Object> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+    private Object owner = this;
+
+    /**
+     * Creates the shared objects of a bean group.
+     * @param objects the shared objects, indexed by position, where a null element denotes a released index
+     */
+    SharedObjects(List<Object> objects) {
+        this.objects = new ArrayList<>(objects);
+        ListIterator<Object> iterator = this.objects.listIterator();
+        while (iterator.hasNext()) {
+            Object object = iterator.next();
+            if (object != null) {
+                this.indexes.put(object, iterator.previousIndex());
+            }
+        }
+    }
+
+    List<Object> getObjects() {
+        return this.objects;
+    }
+
+    /**
+     * Returns the shared object with the specified index.
+     * @param index an index
+     * @return a shared object
+     */
+    Object get(int index) {
+        Object object = (index < this.objects.size()) ? this.objects.get(index) : null;
+        if (object == null) {
+            throw new IllegalStateException(Integer.toString(index));
+        }
+        return object;
+    }
+
+    /**
+     * Indicates the stream that subsequently marshalled objects belong to.
+     * @param id the identifier of a bean, or null, if the shared objects themselves are being marshalled
+     */
+    void setOwner(Object id) {
+        this.owner = (id != null) ? id : this;
+    }
+
+    /**
+     * Returns the index of the specified object, if it is shared and a bean is being marshalled.
+     * @param object an object to be marshalled
+     * @return the index of the shared object, or -1, if the object must be marshalled inline
+     */
+    int indexOf(Object object) {
+        if (this.owner == this) return -1;
+        Integer index = this.indexes.get(object);
+        if (index == null) return -1;
+        this.referenced.set(index);
+        return index;
+    }
+
+    /**
+     * Records that the specified object is marshalled inline by the current stream.
+     * An object marshalled inline by more than one stream is a candidate for sharing.
+     * @param object a marshalled object
+     */
+    void track(Object object) {
+        Object owner = this.owners.putIfAbsent(object, this.owner);
+        if ((owner != null) && (owner != this.owner)) {
+            this.candidates.add(object);
+        }
+    }
+
+    /**
+     * Shares any objects that were marshalled inline by more than one stream.
+     * If this returns true, all streams need to be marshalled again.
+     * @return true, if additional objects were shared, false otherwise
+     */
+    boolean share() {
+        this.owners.clear();
+        if (this.candidates.isEmpty()) return false;
+        for (Object object : this.candidates) {
+            this.indexes.put(object, this.objects.size());
+            this.objects.add(object);
+        }
+        this.candidates.clear();
+        this.referenced.clear();
+        return true;
+    }
+
+    /**
+     * Releases any shared objects that were not referenced by the last marshalled bean streams.
+     * Indexes of the remaining shared objects are unaffected.
+     * If this returns true, the stream of shared objects needs to be marshalled again.
+     * @return true, if any shared objects were released, false otherwise
+     */
+    boolean release() {
+        boolean released = false;
+        ListIterator<Object> iterator = this.objects.listIterator();
+        while (iterator.hasNext()) {
+            Object object = iterator.next();
+            if ((object != null) && !this.referenced.get(iterator.previousIndex())) {
+                this.indexes.remove(object);
+                iterator.set(null);
+                released = true;
+            }
+        }
+        // Trailing indexes can be reused
+        while (!this.objects.isEmpty() && (this.objects.get(this.objects.size() - 1) == null)) {
+            this.objects.remove(this.objects.size() - 1);
+        }
+        return released;
+    }
+}
@@ -79,4 +79,7 @@ public interface InfinispanEjbLogger extends BasicLogger {
     @LogMessage(level = WARN)
     @Message(id = 10, value = "Disabling expiration for '%s'. SFSB expiration should be configured per \u00A74.3.11 of the EJB specification.")
     void expirationDisabled(String cacheName);
+
+    @Message(id = 11, value = "Failed to serialize %s")
+    IllegalStateException serializationFailure(@Cause Throwable cause, Object key);
 }
@@ -0,0 +1,152 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.ejb.infinispan.group;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.Marshalling;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.junit.Test;
+import org.wildfly.clustering.ejb.infinispan.BeanGroupEntry;
+import org.wildfly.clustering.marshalling.jboss.MarshallingConfigurationRepository;
+import org.wildfly.clustering.marshalling.jboss.SimpleMarshallingConfigurationRepository;
+
+/**
+ * Unit test for {@link FineMarshalledBeans}.
+ */
+public class FineMarshalledBeansTestCase {
+
+    private static final MarshallerFactory factory = Marshalling.getMarshallerFactory("river", FineMarshalledBeansTestCase.class.getClassLoader());
+    private static final MarshallingConfigurationRepository repository = new SimpleMarshallingConfigurationRepository(new MarshallingConfiguration());
+    private static final BeanGroupMarshallingContext context = new BeanGroupMarshallingContext(factory, repository, FineMarshalledBeansTestCase.class.getClassLoader());
+
+    @Test
+    public void test() throws ClassNotFoundException, IOException {
+        FineMarshalledBeans<String, Bean> beans = new FineMarshalledBeans<>(context);
+        Map<String, Bean> values = beans.get(context);
+        List<String> shared = new ArrayList<>();
+        values.put("a", new Bean(shared));
+        values.put("b", new Bean(shared));
+        values.put("c", new Bean(new ArrayList<>()));
+
+        BeanGroupDeltaFunction<String, Bean> function = beans.marshal();
+        assertNotNull(function);
+        assertEquals(values.keySet(), function.getBeans().keySet());
+        assertNotNull(function.getObjects());
+
+        // Nothing changed
+        assertNull(beans.marshal());
+
+        // Replicate to an empty group
+        FineBeanGroupEntry<String, Bean> replica = replicate(function, new FineBeanGroupEntry<>(new FineMarshalledBeans<>(Collections.emptyMap(), null)));
+        Map<String, Bean> replicaValues = replica.getBeans().get(context);
+        assertEquals(values.keySet(), replicaValues.keySet());
+        // References shared between beans must be preserved
+        assertSame(replicaValues.get("a").getState(), replicaValues.get("b").getState());
+        assertNotSame(replicaValues.get("a").getState(), replicaValues.get("c").getState());
+
+        // Only beans whose state changed are replicated
+        values.get("c").getState().add("c");
+        function = beans.marshal();
+        assertNotNull(function);
+        assertEquals(Collections.singleton("c"), function.getBeans().keySet());
+        assertNull(function.getObjects());
+
+        replica = replicate(function, replica);
+        replicaValues = replica.getBeans().get(context);
+        assertEquals(Collections.singletonList("c"), replicaValues.get("c").getState());
+        assertSame(replicaValues.get("a").getState(), replicaValues.get("b").getState());
+
+        // Changes to shared objects replicate the shared objects only
+        shared.add("ab");
+        function = beans.marshal();
+        assertNotNull(function);
+        assertTrue(function.getBeans().isEmpty());
+        assertNotNull(function.getObjects());
+
+        replica = replicate(function, replica);
+        replicaValues = replica.getBeans().get(context);
+        assertEquals(Collections.singletonList("ab"), replicaValues.get("a").getState());
+        assertSame(replicaValues.get("a").getState(), replicaValues.get("b").getState());
+
+        // Removed beans are replicated as such
+        values.remove("a");
+        function = beans.marshal();
+        assertNotNull(function);
+        assertTrue(function.getBeans().containsKey("a"));
+        assertNull(function.getBeans().get("a"));
+
+        replica = replicate(function, replica);
+        replicaValues = replica.getBeans().get(context);
+        assertEquals(values.keySet(), replicaValues.keySet());
+        assertEquals(Collections.singletonList("ab"), replicaValues.get("b").getState());
+
+        // Applying a delta to the group from which it was created retains the unmarshalled beans
+        FineBeanGroupEntry<String, Bean> entry = new FineBeanGroupEntry<>(beans);
+        values.remove("b");
+        assertSame(entry, beans.marshal().apply(null, entry));
+        assertSame(values, entry.getBeans().get(context));
+    }
+
+    private static FineBeanGroupEntry<String, Bean> replicate(BeanGroupDeltaFunction<String, Bean> function, FineBeanGroupEntry<String, Bean> entry) throws ClassNotFoundException, IOException {
+        // Externalize the delta, as if sent to a remote node
+        BeanGroupDeltaFunctionExternalizer<String, Bean> externalizer = new BeanGroupDeltaFunctionExternalizer<>();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            externalizer.writeObject(output, function);
+        }
+        BeanGroupDeltaFunction<String, Bean> remoteFunction;
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            remoteFunction = externalizer.readObject(input);
+        }
+        BeanGroupEntry<String, Bean> result = remoteFunction.apply(null, entry);
+        assertNotSame(entry, result);
+        return (FineBeanGroupEntry<String, Bean>) result;
+    }
+
+    static class Bean implements Serializable {
+        private static final long serialVersionUID = -1509447582466584264L;
+
+        private final List<String> state;
+
+        Bean(List<String> state) {
+            this.state = state;
+        }
+
+        List<String> getState() {
+            return this.state;
+        }
+    }
+}
@@ -29,6 +29,20 @@ public interface BeanManagerFactoryServiceConfiguratorConfiguration extends Bean
     String DEFAULT_CONTAINER_NAME = "ejb";
     String CLIENT_MAPPINGS_CACHE_NAME = "client-mappings";
 
+    /**
+     * Indicates how the beans of a bean group are stored and replicated.
+     */
+    enum Granularity {
+        /** All beans of a group are marshalled and replicated together */
+        GROUP,
+        /** Each bean of a group is marshalled individually, and only beans that changed are replicated */
+        BEAN,
+    }
+
     String getContainerName();
     String getCacheName();
+
+    default Granularity getGranularity() {
+        return Granularity.GROUP;
+    }
 }
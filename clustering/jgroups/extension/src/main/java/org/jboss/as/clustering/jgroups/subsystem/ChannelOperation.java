@@ -0,0 +1,67 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.jgroups.subsystem;
+
+import org.jboss.as.clustering.controller.Operation;
+import org.jboss.as.controller.ExpressionResolver;
+import org.jboss.as.controller.OperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jgroups.JChannel;
+import org.jgroups.conf.ProtocolConfiguration;
+import org.jgroups.stack.Protocol;
+
+/**
+ * Enumerates the runtime operations of a channel.
+ */
+public enum ChannelOperation implements Operation<JChannel> {
+
+    READ_PROTOCOL_METRICS("read-protocol-metrics", ModelType.OBJECT) {
+        @Override
+        public ModelNode execute(ExpressionResolver expressionResolver, ModelNode operation, JChannel channel) {
+            ModelNode result = new ModelNode();
+            for (Protocol protocol : channel.getProtocolStack().getProtocols()) {
+                result.get(getProtocolName(protocol)).set(ProtocolMetricsHandler.readMetrics(protocol));
+            }
+            return result;
+        }
+    },
+    ;
+    private final OperationDefinition definition;
+
+    ChannelOperation(String name, ModelType replyType) {
+        this.definition = new SimpleOperationDefinitionBuilder(name, JGroupsExtension.SUBSYSTEM_RESOLVER.createChildResolver(ChannelResourceDefinition.WILDCARD_PATH)).setReplyType(replyType).setReadOnly().setRuntimeOnly().build();
+    }
+
+    @Override
+    public OperationDefinition getDefinition() {
+        return this.definition;
+    }
+
+    // Native protocols are named relative to the JGroups protocol package, as are their protocol resources
+    static String getProtocolName(Protocol protocol) {
+        String className = protocol.getClass().getName();
+        return className.startsWith(ProtocolConfiguration.protocol_prefix + ".") ? className.substring(ProtocolConfiguration.protocol_prefix.length() + 1) : className;
+    }
+}
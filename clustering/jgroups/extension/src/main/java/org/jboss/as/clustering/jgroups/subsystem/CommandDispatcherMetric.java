@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.jgroups.subsystem;
+
+import org.jboss.as.clustering.controller.Metric;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.PrimitiveListAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.wildfly.clustering.spi.CommandDispatcherStatistics;
+
+/**
+ * Enumerates management metrics for the command dispatchers of a channel.
+ */
+public enum CommandDispatcherMetric implements Metric<CommandDispatcherStatistics> {
+
+    DISPATCHER_SENT_MESSAGES("dispatcher-sent-messages") {
+        @Override
+        public ModelNode execute(CommandDispatcherStatistics statistics) {
+            return new ModelNode(statistics.getSentMessages());
+        }
+    },
+    DISPATCHER_SENT_BYTES("dispatcher-sent-bytes") {
+        @Override
+        public ModelNode execute(CommandDispatcherStatistics statistics) {
+            return new ModelNode(statistics.getSentBytes());
+        }
+    },
+    DISPATCHER_RECEIVED_RESPONSES("dispatcher-received-responses") {
+        @Override
+        public ModelNode execute(CommandDispatcherStatistics statistics) {
+            return new ModelNode(statistics.getReceivedResponses());
+        }
+    },
+    DISPATCHER_LATENCY_HISTOGRAM(new PrimitiveListAttributeDefinition.Builder("dispatcher-latency-histogram", ModelType.LONG).setRequired(false).setStorageRuntime().build()) {
+        @Override
+        public ModelNode execute(CommandDispatcherStatistics statistics) {
+            ModelNode result = new ModelNode().setEmptyList();
+            for (long count : statistics.getLatencyHistogram()) {
+                result.add(count);
+            }
+            return result;
+        }
+    },
+    ;
+    private final AttributeDefinition definition;
+
+    CommandDispatcherMetric(String name) {
+        this(new SimpleAttributeDefinitionBuilder(name, ModelType.LONG, true).setStorageRuntime().build());
+    }
+
+    CommandDispatcherMetric(AttributeDefinition definition) {
+        this.definition = definition;
+    }
+
+    @Override
+    public AttributeDefinition getDefinition() {
+        return this.definition;
+    }
+}
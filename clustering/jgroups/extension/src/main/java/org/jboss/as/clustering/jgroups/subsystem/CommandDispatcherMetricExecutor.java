@@ -0,0 +1,48 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.jgroups.subsystem;
+
+import org.jboss.as.clustering.controller.Metric;
+import org.jboss.as.clustering.controller.MetricExecutor;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceName;
+import org.wildfly.clustering.service.PassiveServiceSupplier;
+import org.wildfly.clustering.spi.ClusteringRequirement;
+import org.wildfly.clustering.spi.CommandDispatcherStatistics;
+
+/**
+ * Handler for reading the command dispatcher statistics of a channel.
+ */
+public class CommandDispatcherMetricExecutor implements MetricExecutor<CommandDispatcherStatistics> {
+
+    @Override
+    public ModelNode execute(OperationContext context, Metric<CommandDispatcherStatistics> metric) throws OperationFailedException {
+        String channelName = context.getCurrentAddressValue();
+        ServiceName serviceName = ClusteringRequirement.COMMAND_DISPATCHER_FACTORY.getServiceName(context, channelName);
+        Object factory = new PassiveServiceSupplier<>(context.getServiceRegistry(true), serviceName).get();
+
+        return (factory instanceof CommandDispatcherStatistics) ? metric.execute((CommandDispatcherStatistics) factory) : null;
+    }
+}
@@ -21,13 +21,19 @@
  */
 package org.jboss.as.clustering.jgroups.subsystem;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -46,6 +52,7 @@ import org.jgroups.util.Util;
 
 /**
  * A generic handler for protocol metrics based on reflection.
+ * The metrics of a protocol class are discovered once, and each is read via a {@link MethodHandle} created on first access.
  *
  * @author Richard Achmatowicz (c) 2013 Red Hat Inc.
  * @author Radoslav Husar
@@ -64,8 +71,10 @@ public class ProtocolMetricsHandler extends AbstractRuntimeOnlyHandler {
         Object read(Object object) throws Exception;
     }
 
-    abstract static class AbstractAttribute<A extends AccessibleObject> implements Attribute {
+    abstract static class AbstractAttribute<A extends AccessibleObject & Member> implements Attribute {
         final A accessible;
+        // Created on first read, then reused by all subsequent reads
+        private volatile MethodHandle reader;
 
         AbstractAttribute(A accessible) {
             this.accessible = accessible;
@@ -96,19 +105,39 @@ public class ProtocolMetricsHandler extends AbstractRuntimeOnlyHandler {
         }
 
         @Override
-        public Object read(final Object object) throws Exception {
-            PrivilegedExceptionAction<Object> action = new PrivilegedExceptionAction<Object>() {
+        public Object read(Object object) throws Exception {
+            MethodHandle reader = this.reader;
+            if (reader == null) {
+                reader = this.createReader();
+                this.reader = reader;
+            }
+            try {
+                return reader.invokeExact(object);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        }
+
+        private MethodHandle createReader() throws Exception {
+            PrivilegedExceptionAction<MethodHandle> action = new PrivilegedExceptionAction<MethodHandle>() {
                 @Override
-                public Object run() throws Exception {
-                    boolean accessible = AbstractAttribute.this.accessible.isAccessible();
-                    if (!accessible) {
-                        AbstractAttribute.this.accessible.setAccessible(true);
+                public MethodHandle run() throws Exception {
+                    A accessible = AbstractAttribute.this.accessible;
+                    boolean wasAccessible = accessible.isAccessible();
+                    if (!wasAccessible) {
+                        accessible.setAccessible(true);
                     }
                     try {
-                        return AbstractAttribute.this.get(object);
+                        MethodHandle handle = AbstractAttribute.this.unreflect(MethodHandles.lookup());
+                        if (Modifier.isStatic(accessible.getModifiers())) {
+                            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                        }
+                        return handle.asType(MethodType.methodType(Object.class, Object.class));
                     } finally {
-                        if (!accessible) {
-                            AbstractAttribute.this.accessible.setAccessible(false);
+                        if (!wasAccessible) {
+                            accessible.setAccessible(false);
                         }
                     }
                 }
@@ -120,7 +149,7 @@ public class ProtocolMetricsHandler extends AbstractRuntimeOnlyHandler {
             }
         }
 
-        abstract Object get(Object object) throws Exception;
+        abstract MethodHandle unreflect(MethodHandles.Lookup lookup) throws IllegalAccessException;
     }
 
     static class FieldAttribute extends AbstractAttribute<Field> {
@@ -140,8 +169,8 @@ public class ProtocolMetricsHandler extends AbstractRuntimeOnlyHandler {
         }
 
         @Override
-        Object get(Object object) throws IllegalAccessException {
-            return this.accessible.get(object);
+        MethodHandle unreflect(MethodHandles.Lookup lookup) throws IllegalAccessException {
+            return lookup.unreflectGetter(this.accessible);
         }
     }
 
@@ -162,8 +191,8 @@ public class ProtocolMetricsHandler extends AbstractRuntimeOnlyHandler {
         }
 
         @Override
-        Object get(Object object) throws IllegalAccessException, InvocationTargetException {
-            return this.accessible.invoke(object);
+        MethodHandle unreflect(MethodHandles.Lookup lookup) throws IllegalAccessException {
+            return lookup.unreflect(this.accessible);
         }
     }
 
@@ -229,6 +258,14 @@ public class ProtocolMetricsHandler extends AbstractRuntimeOnlyHandler {
         }
     }
 
+    // Attributes are discovered once per protocol class
+    private static final ClassValue<Map<String, Attribute>> ATTRIBUTES = new ClassValue<Map<String, Attribute>>() {
+        @Override
+        protected Map<String, Attribute> computeValue(Class<?> protocolClass) {
+            return Collections.unmodifiableMap(discoverProtocolAttributes(protocolClass.asSubclass(Protocol.class)));
+        }
+    };
+
     private final ProtocolLocator locator;
 
     public ProtocolMetricsHandler(ProtocolLocator locator) {
@@ -245,14 +282,8 @@ public class ProtocolMetricsHandler extends AbstractRuntimeOnlyHandler {
             if (protocol != null) {
                 Attribute attribute = getAttribute(protocol.getClass(), name);
                 if (attribute != null) {
-                    FieldType type = FieldType.valueOf(attribute.getType());
                     try {
-                        ModelNode result = new ModelNode();
-                        Object value = attribute.read(protocol);
-                        if (value != null) {
-                            type.setValue(result, value);
-                        }
-                        context.getResult().set(result);
+                        context.getResult().set(readMetric(attribute, protocol));
                     } catch (Exception e) {
                         context.getFailureDescription().set(JGroupsLogger.ROOT_LOGGER.privilegedAccessExceptionForAttribute(name));
                     }
@@ -267,12 +298,44 @@ public class ProtocolMetricsHandler extends AbstractRuntimeOnlyHandler {
         }
     }
 
+    /**
+     * Reads all metrics of the specified protocol in a single pass.
+     * Metrics that cannot be read are undefined.
+     * @param protocol a protocol
+     * @return an object mapping each metric name to its value
+     */
+    static ModelNode readMetrics(Protocol protocol) {
+        ModelNode result = new ModelNode();
+        for (Map.Entry<String, Attribute> entry : findProtocolAttributes(protocol.getClass()).entrySet()) {
+            ModelNode value = result.get(entry.getKey());
+            try {
+                value.set(readMetric(entry.getValue(), protocol));
+            } catch (Exception e) {
+                JGroupsLogger.ROOT_LOGGER.debug(JGroupsLogger.ROOT_LOGGER.privilegedAccessExceptionForAttribute(entry.getKey()), e);
+            }
+        }
+        return result;
+    }
+
+    private static ModelNode readMetric(Attribute attribute, Protocol protocol) throws Exception {
+        ModelNode result = new ModelNode();
+        Object value = attribute.read(protocol);
+        if (value != null) {
+            FieldType.valueOf(attribute.getType()).setValue(result, value);
+        }
+        return result;
+    }
+
     private static Attribute getAttribute(Class<? extends Protocol> targetClass, String name) {
         Map<String, Attribute> attributes = findProtocolAttributes(targetClass);
         return attributes.get(name);
     }
 
     static Map<String, Attribute> findProtocolAttributes(Class<? extends Protocol> protocolClass) {
+        return ATTRIBUTES.get(protocolClass);
+    }
+
+    private static Map<String, Attribute> discoverProtocolAttributes(Class<? extends Protocol> protocolClass) {
         Map<String, Attribute> attributes = new HashMap<>();
         Class<?> targetClass = protocolClass;
         while (Protocol.class.isAssignableFrom(targetClass)) {
@@ -0,0 +1,85 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.jgroups.subsystem;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import org.jboss.as.clustering.jgroups.subsystem.ProtocolMetricsHandler.AbstractAttribute;
+import org.jboss.as.clustering.jgroups.subsystem.ProtocolMetricsHandler.Attribute;
+import org.jboss.as.clustering.jgroups.subsystem.ProtocolMetricsHandler.FieldType;
+import org.jboss.dmr.ModelNode;
+import org.jgroups.protocols.UNICAST3;
+import org.jgroups.protocols.pbcast.NAKACK2;
+import org.jgroups.stack.Protocol;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ProtocolMetricsHandler}.
+ */
+public class ProtocolMetricsHandlerTestCase {
+
+    @Test
+    public void findProtocolAttributes() {
+        Map<String, Attribute> attributes = ProtocolMetricsHandler.findProtocolAttributes(UNICAST3.class);
+        assertFalse(attributes.isEmpty());
+        // Attributes are discovered once per protocol class
+        assertSame(attributes, ProtocolMetricsHandler.findProtocolAttributes(UNICAST3.class));
+    }
+
+    @Test
+    public void readMetrics() throws Exception {
+        this.readMetrics(new NAKACK2());
+        this.readMetrics(new UNICAST3());
+    }
+
+    private void readMetrics(Protocol protocol) throws Exception {
+        Map<String, Attribute> attributes = ProtocolMetricsHandler.findProtocolAttributes(protocol.getClass());
+        ModelNode metrics = ProtocolMetricsHandler.readMetrics(protocol);
+
+        assertEquals(attributes.keySet(), metrics.keys());
+        for (Map.Entry<String, Attribute> entry : attributes.entrySet()) {
+            Attribute attribute = entry.getValue();
+            // Compare against the value read via reflection
+            ModelNode expected = new ModelNode();
+            try {
+                Object value = read(((AbstractAttribute<?>) attribute).accessible, protocol);
+                if (value != null) {
+                    FieldType.valueOf(attribute.getType()).setValue(expected, value);
+                }
+            } catch (Exception e) {
+                // Metric is undefined
+            }
+            assertEquals(entry.getKey(), expected, metrics.get(entry.getKey()));
+        }
+    }
+
+    private static Object read(AccessibleObject accessible, Object object) throws Exception {
+        accessible.setAccessible(true);
+        return (accessible instanceof Field) ? ((Field) accessible).get(object) : ((Method) accessible).invoke(object);
+    }
+}
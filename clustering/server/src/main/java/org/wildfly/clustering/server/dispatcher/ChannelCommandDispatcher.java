@@ -25,6 +25,7 @@ import java.io.IOException;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -74,16 +75,30 @@ public class ChannelCommandDispatcher<C> implements CommandDispatcher<C> {
     private final Runnable closeTask;
     private final Address localAddress;
     private final RequestOptions options;
+    private final RequestOptions groupOptions;
+    private final CommandDispatcherMetrics metrics;
 
     public ChannelCommandDispatcher(MessageDispatcher dispatcher, CommandMarshaller<C> marshaller, Group<Address> group, Duration timeout, CommandDispatcher<C> localDispatcher, Runnable closeTask) {
+        this(dispatcher, marshaller, group, timeout, false, new CommandDispatcherMetrics(), localDispatcher, closeTask);
+    }
+
+    /**
+     * @param bundling indicates whether requests may be bundled by the transport with other messages sent within its bundling window
+     * @param metrics collects the statistics of the messages sent by this dispatcher
+     */
+    public ChannelCommandDispatcher(MessageDispatcher dispatcher, CommandMarshaller<C> marshaller, Group<Address> group, Duration timeout, boolean bundling, CommandDispatcherMetrics metrics, CommandDispatcher<C> localDispatcher, Runnable closeTask) {
         this.dispatcher = dispatcher;
         this.marshaller = marshaller;
         this.group = group;
         this.timeout = timeout;
         this.localDispatcher = localDispatcher;
         this.closeTask = closeTask;
+        this.metrics = metrics;
         this.localAddress = dispatcher.getChannel().getAddress();
-        this.options = new RequestOptions(ResponseMode.GET_ALL, this.timeout.toMillis(), false, FILTER, Message.Flag.DONT_BUNDLE, Message.Flag.OOB);
+        Message.Flag[] flags = bundling ? new Message.Flag[] { Message.Flag.OOB } : new Message.Flag[] { Message.Flag.DONT_BUNDLE, Message.Flag.OOB };
+        this.options = new RequestOptions(ResponseMode.GET_ALL, this.timeout.toMillis(), false, FILTER, flags);
+        // Group requests translate NoSuchService responses themselves
+        this.groupOptions = new RequestOptions(ResponseMode.GET_ALL, this.timeout.toMillis(), true, null, flags);
     }
 
     @Override
@@ -104,7 +119,7 @@ public class ChannelCommandDispatcher<C> implements CommandDispatcher<C> {
             return this.localDispatcher.executeOnMember(command, member);
         }
         Buffer buffer = this.createBuffer(command);
-        ServiceRequest<R> request = new ServiceRequest<>(this.dispatcher.getCorrelator(), this.group.getAddress(member), this.options);
+        ServiceRequest<R> request = new ServiceRequest<>(this.dispatcher.getCorrelator(), this.group.getAddress(member), this.options, this.metrics);
         return request.send(buffer);
     }
 
@@ -112,28 +127,30 @@ public class ChannelCommandDispatcher<C> implements CommandDispatcher<C> {
     public <R> Map<Node, CompletionStage<R>> executeOnGroup(Command<R, ? super C> command, Node... excludedMembers) throws CommandDispatcherException {
         Set<Node> excluded = (excludedMembers != null) ? new HashSet<>(Arrays.asList(excludedMembers)) : Collections.emptySet();
         Map<Node, CompletionStage<R>> results = new ConcurrentHashMap<>();
-        Buffer buffer = this.createBuffer(command);
+        Map<Address, ServiceResponse<R>> responses = new HashMap<>();
+        Node localMember = null;
         for (Node member : this.group.getMembership().getMembers()) {
             if (!excluded.contains(member)) {
                 Address address = this.group.getAddress(member);
                 if (this.localAddress.equals(address)) {
-                    results.put(member, this.localDispatcher.executeOnMember(command, member));
+                    localMember = member;
                 } else {
-                    try {
-                        ServiceRequest<R> request = new ServiceRequest<>(this.dispatcher.getCorrelator(), this.group.getAddress(member), this.options);
-                        CompletionStage<R> future = request.send(buffer);
-                        results.put(member, future);
-                        future.whenComplete(new PruneCancellationTask<>(results, member));
-                    } catch (CommandDispatcherException e) {
-                        // Cancel previously dispatched messages
-                        for (CompletionStage<R> result : results.values()) {
-                            result.toCompletableFuture().cancel(true);
-                        }
-                        throw e;
-                    }
+                    ServiceResponse<R> response = new ServiceResponse<>(this.timeout.toMillis());
+                    responses.put(address, response);
+                    results.put(member, response);
+                    response.whenComplete(new PruneCancellationTask<>(results, member));
                 }
             }
         }
+        if (!responses.isEmpty()) {
+            // Send a single request to all remote members before executing the command locally
+            // The request is always anycast to the members of our membership snapshot, since a multicast would also reach members that joined since
+            ServiceGroupRequest<R> request = new ServiceGroupRequest<>(this.dispatcher.getCorrelator(), responses, this.groupOptions, this.metrics);
+            request.send(this.createBuffer(command), responses.size());
+        }
+        if (localMember != null) {
+            results.put(localMember, this.localDispatcher.executeOnMember(command, localMember));
+        }
         return results;
     }
 
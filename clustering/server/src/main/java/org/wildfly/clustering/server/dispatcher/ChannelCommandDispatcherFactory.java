@@ -71,6 +71,7 @@ import org.wildfly.clustering.server.logging.ClusteringServerLogger;
 import org.wildfly.clustering.service.concurrent.ClassLoaderThreadFactory;
 import org.wildfly.clustering.service.concurrent.ServiceExecutor;
 import org.wildfly.clustering.service.concurrent.StampedLockServiceExecutor;
+import org.wildfly.clustering.spi.CommandDispatcherStatistics;
 import org.wildfly.common.function.ExceptionSupplier;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
@@ -80,7 +81,7 @@ import org.wildfly.security.manager.WildFlySecurityManager;
  * all of which will share the same {@link MessageDispatcher} instance.
  * @author Paul Ferraro
  */
-public class ChannelCommandDispatcherFactory implements AutoCloseableCommandDispatcherFactory, RequestHandler, org.wildfly.clustering.server.group.Group<Address>, MembershipListener, Runnable {
+public class ChannelCommandDispatcherFactory implements AutoCloseableCommandDispatcherFactory, CommandDispatcherStatistics, RequestHandler, org.wildfly.clustering.server.group.Group<Address>, MembershipListener, Runnable {
 
     private static ThreadFactory createThreadFactory(Class<?> targetClass) {
         PrivilegedAction<ThreadFactory> action = () -> new ClassLoaderThreadFactory(new JBossThreadFactory(new ThreadGroup(targetClass.getSimpleName()), Boolean.FALSE, null, "%G - %t", null, null), targetClass.getClassLoader());
@@ -97,11 +98,14 @@ public class ChannelCommandDispatcherFactory implements AutoCloseableCommandDisp
     private final MarshallingContext marshallingContext;
     private final MessageDispatcher dispatcher;
     private final Duration timeout;
+    private final boolean bundling;
+    private final CommandDispatcherMetrics metrics = new CommandDispatcherMetrics();
 
     @SuppressWarnings("resource")
     public ChannelCommandDispatcherFactory(ChannelCommandDispatcherFactoryConfiguration config) {
         this.marshallingContext = config.getMarshallingContext();
         this.timeout = config.getTimeout();
+        this.bundling = config.isBundling();
         JChannel channel = config.getChannel();
         RequestCorrelator correlator = new RequestCorrelator(channel.getProtocolStack(), this, channel.getAddress()).setMarshaller(new CommandResponseMarshaller(config));
         this.dispatcher = new MessageDispatcher()
@@ -181,6 +185,26 @@ public class ChannelCommandDispatcherFactory implements AutoCloseableCommandDisp
         return this;
     }
 
+    @Override
+    public long getSentMessages() {
+        return this.metrics.getSentMessages();
+    }
+
+    @Override
+    public long getSentBytes() {
+        return this.metrics.getSentBytes();
+    }
+
+    @Override
+    public long getReceivedResponses() {
+        return this.metrics.getReceivedResponses();
+    }
+
+    @Override
+    public long[] getLatencyHistogram() {
+        return this.metrics.getLatencyHistogram();
+    }
+
     @Override
     public <C> CommandDispatcher<C> createCommandDispatcher(Object id, C context) {
         if (this.contexts.putIfAbsent(id, Optional.ofNullable(context)) != null) {
@@ -188,7 +212,7 @@ public class ChannelCommandDispatcherFactory implements AutoCloseableCommandDisp
         }
         CommandMarshaller<C> marshaller = new CommandDispatcherMarshaller<>(this.marshallingContext, id);
         CommandDispatcher<C> localDispatcher = new LocalCommandDispatcher<>(this.getLocalMember(), context);
-        return new ChannelCommandDispatcher<>(this.dispatcher, marshaller, this, this.timeout, localDispatcher, () -> {
+        return new ChannelCommandDispatcher<>(this.dispatcher, marshaller, this, this.timeout, this.bundling, this.metrics, localDispatcher, () -> {
             localDispatcher.close();
             this.contexts.remove(id);
         });
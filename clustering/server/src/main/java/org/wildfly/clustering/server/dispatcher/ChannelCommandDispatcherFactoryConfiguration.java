@@ -36,4 +36,13 @@ public interface ChannelCommandDispatcherFactoryConfiguration {
     JChannel getChannel();
     MarshallingContext getMarshallingContext();
     Duration getTimeout();
+
+    /**
+     * Indicates whether command requests may be bundled by the transport with other messages sent within its bundling window.
+     * Bundling trades some latency for fewer, larger network messages.
+     * @return true, if requests may be bundled, false otherwise
+     */
+    default boolean isBundling() {
+        return false;
+    }
 }
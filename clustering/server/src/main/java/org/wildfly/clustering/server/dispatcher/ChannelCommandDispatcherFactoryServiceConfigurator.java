@@ -56,6 +56,7 @@ import org.wildfly.clustering.service.ServiceConfigurator;
 import org.wildfly.clustering.service.ServiceSupplierDependency;
 import org.wildfly.clustering.service.SimpleServiceNameProvider;
 import org.wildfly.clustering.service.SupplierDependency;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Builds a channel-based {@link org.wildfly.clustering.dispatcher.CommandDispatcherFactory} service.
@@ -87,6 +88,8 @@ public class ChannelCommandDispatcherFactoryServiceConfigurator extends SimpleSe
         static final MarshallingVersion CURRENT = VERSION_2;
     }
 
+    static final String BUNDLING_PROPERTY = "org.wildfly.clustering.server.dispatcher.bundling";
+
     private final String group;
 
     private volatile SupplierDependency<ChannelFactory> channelFactory;
@@ -94,6 +97,7 @@ public class ChannelCommandDispatcherFactoryServiceConfigurator extends SimpleSe
     private volatile SupplierDependency<Module> module;
     private volatile Supplier<ModuleLoader> loader;
     private volatile Duration timeout = Duration.ofMinutes(1);
+    private volatile boolean bundling = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(BUNDLING_PROPERTY, Boolean.FALSE.toString()));
 
     public ChannelCommandDispatcherFactoryServiceConfigurator(ServiceName name, String group) {
         super(name);
@@ -127,6 +131,11 @@ public class ChannelCommandDispatcherFactoryServiceConfigurator extends SimpleSe
         return this;
     }
 
+    public ChannelCommandDispatcherFactoryServiceConfigurator bundling(boolean bundling) {
+        this.bundling = bundling;
+        return this;
+    }
+
     @Override
     public Module getModule() {
         return this.module.get();
@@ -152,6 +161,11 @@ public class ChannelCommandDispatcherFactoryServiceConfigurator extends SimpleSe
         return this.timeout;
     }
 
+    @Override
+    public boolean isBundling() {
+        return this.bundling;
+    }
+
     @Override
     public ChannelFactory getChannelFactory() {
         return this.channelFactory.get();
@@ -0,0 +1,93 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.server.dispatcher;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.wildfly.clustering.spi.CommandDispatcherStatistics;
+
+/**
+ * Collects the statistics of the command dispatchers of a {@link ChannelCommandDispatcherFactory}.
+ */
+public class CommandDispatcherMetrics implements CommandDispatcherStatistics {
+
+    static final int LATENCY_BUCKETS = 16;
+
+    private final LongAdder sentMessages = new LongAdder();
+    private final LongAdder sentBytes = new LongAdder();
+    private final LongAdder receivedResponses = new LongAdder();
+    private final LongAdder[] latencies = new LongAdder[LATENCY_BUCKETS];
+
+    public CommandDispatcherMetrics() {
+        for (int i = 0; i < LATENCY_BUCKETS; ++i) {
+            this.latencies[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records the sending of request messages.
+     * @param messages the number of messages
+     * @param bytes the size of each message
+     */
+    void requestsSent(int messages, int bytes) {
+        this.sentMessages.add(messages);
+        this.sentBytes.add((long) messages * bytes);
+    }
+
+    /**
+     * Records the receipt of a response.
+     * @param sendTime the {@link System#nanoTime()} at which the corresponding request was sent
+     */
+    void responseReceived(long sendTime) {
+        this.receivedResponses.increment();
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sendTime);
+        // Index of the smallest power of 2 greater or equal to the latency
+        int bucket = (millis <= 1) ? 0 : 64 - Long.numberOfLeadingZeros(millis - 1);
+        this.latencies[Math.min(bucket, LATENCY_BUCKETS - 1)].increment();
+    }
+
+    @Override
+    public long getSentMessages() {
+        return this.sentMessages.sum();
+    }
+
+    @Override
+    public long getSentBytes() {
+        return this.sentBytes.sum();
+    }
+
+    @Override
+    public long getReceivedResponses() {
+        return this.receivedResponses.sum();
+    }
+
+    @Override
+    public long[] getLatencyHistogram() {
+        long[] histogram = new long[LATENCY_BUCKETS];
+        for (int i = 0; i < LATENCY_BUCKETS; ++i) {
+            histogram[i] = this.latencies[i].sum();
+        }
+        return histogram;
+    }
+}
@@ -30,6 +30,7 @@ import org.wildfly.clustering.dispatcher.CommandDispatcher;
 import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
 import org.wildfly.clustering.group.Group;
 import org.wildfly.clustering.server.logging.ClusteringServerLogger;
+import org.wildfly.clustering.spi.CommandDispatcherStatistics;
 
 /**
  * A {@link CommandDispatcherFactory} decorator that allows multiple invocations of {@link #createCommandDispatcher(Object, Object)} for a given identifier,
@@ -37,13 +38,17 @@ import org.wildfly.clustering.server.logging.ClusteringServerLogger;
  * The managed {@link CommandDispatcher} instance is only closed after {@link CommandDispatcher#close()} is invoked on all instances.
  * @author Paul Ferraro
  */
-public class ManagedCommandDispatcherFactory implements AutoCloseableCommandDispatcherFactory {
+public class ManagedCommandDispatcherFactory implements AutoCloseableCommandDispatcherFactory, CommandDispatcherStatistics {
+
+    private static final CommandDispatcherStatistics NO_STATISTICS = new CommandDispatcherMetrics();
 
     private final AutoCloseableCommandDispatcherFactory factory;
+    private final CommandDispatcherStatistics statistics;
     private final Map<Object, Map.Entry<CommandDispatcher<?>, Integer>> dispatchers = new HashMap<>();
 
     public ManagedCommandDispatcherFactory(AutoCloseableCommandDispatcherFactory factory) {
         this.factory = factory;
+        this.statistics = (factory instanceof CommandDispatcherStatistics) ? (CommandDispatcherStatistics) factory : NO_STATISTICS;
     }
 
     @Override
@@ -56,6 +61,26 @@ public class ManagedCommandDispatcherFactory implements AutoCloseableCommandDisp
         return this.factory.getGroup();
     }
 
+    @Override
+    public long getSentMessages() {
+        return this.statistics.getSentMessages();
+    }
+
+    @Override
+    public long getSentBytes() {
+        return this.statistics.getSentBytes();
+    }
+
+    @Override
+    public long getReceivedResponses() {
+        return this.statistics.getReceivedResponses();
+    }
+
+    @Override
+    public long[] getLatencyHistogram() {
+        return this.statistics.getLatencyHistogram();
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public <C> CommandDispatcher<C> createCommandDispatcher(Object id, C context) {
@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.server.dispatcher;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jgroups.Address;
+import org.jgroups.SuspectedException;
+import org.jgroups.View;
+import org.jgroups.blocks.GroupRequest;
+import org.jgroups.blocks.RequestCorrelator;
+import org.jgroups.blocks.RequestOptions;
+import org.jgroups.util.Buffer;
+import org.jgroups.util.RspList;
+import org.wildfly.clustering.dispatcher.CommandDispatcherException;
+
+/**
+ * Sends a single request to a set of members, and completes the {@link ServiceResponse} of each member as soon as its response arrives.
+ * Translates a {@link NoSuchService} response to a {@link CancellationException}.
+ * The request is cancelled once the responses of all members are complete, e.g. following a timeout.
+ * @param <T> the response type
+ */
+public class ServiceGroupRequest<T> extends GroupRequest<T> {
+
+    private final Map<Address, ServiceResponse<T>> responses;
+    private final CommandDispatcherMetrics metrics;
+    private final AtomicInteger pending;
+    private volatile long sendTime;
+
+    public ServiceGroupRequest(RequestCorrelator correlator, Map<Address, ServiceResponse<T>> responses, RequestOptions options, CommandDispatcherMetrics metrics) {
+        super(correlator, responses.keySet(), options);
+        this.responses = responses;
+        this.metrics = metrics;
+        this.pending = new AtomicInteger(responses.size());
+        for (ServiceResponse<T> response : responses.values()) {
+            response.whenComplete((result, exception) -> {
+                if (this.pending.decrementAndGet() == 0) {
+                    this.cancel(true);
+                }
+            });
+        }
+        // Responses not received by the time this request completes, e.g. from suspected members, are cancelled
+        this.whenComplete((RspList<T> result, Throwable exception) -> {
+            for (ServiceResponse<T> response : this.responses.values()) {
+                response.completeExceptionally(new CancellationException());
+            }
+        });
+    }
+
+    /**
+     * Sends this request.
+     * @param data the marshalled command
+     * @param messages the number of messages used to send the request
+     */
+    public void send(Buffer data, int messages) throws CommandDispatcherException {
+        try {
+            this.sendTime = System.nanoTime();
+            this.sendRequest(data);
+            this.metrics.requestsSent(messages, data.getLength());
+        } catch (Exception e) {
+            for (ServiceResponse<T> response : this.responses.values()) {
+                response.cancel(true);
+            }
+            throw new CommandDispatcherException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void receiveResponse(Object value, Address sender, boolean exceptional) {
+        ServiceResponse<T> response = this.responses.get(sender);
+        if ((response != null) && !response.isDone()) {
+            this.metrics.responseReceived(this.sendTime);
+            if (exceptional) {
+                Throwable exception = (Throwable) value;
+                response.completeExceptionally((exception instanceof SuspectedException) ? new CancellationException() : exception);
+            } else if (value instanceof NoSuchService) {
+                response.completeExceptionally(new CancellationException());
+            } else {
+                response.complete((T) value);
+            }
+        }
+        super.receiveResponse(value, sender, exceptional);
+    }
+
+    @Override
+    public void viewChange(View view) {
+        for (Map.Entry<Address, ServiceResponse<T>> entry : this.responses.entrySet()) {
+            if (!view.containsMember(entry.getKey())) {
+                entry.getValue().completeExceptionally(new CancellationException());
+            }
+        }
+        super.viewChange(view);
+    }
+}
@@ -43,13 +43,23 @@ import org.wildfly.clustering.dispatcher.CommandDispatcherException;
  */
 public class ServiceRequest<T> extends UnicastRequest<T> {
 
+    private final CommandDispatcherMetrics metrics;
+    private volatile long sendTime;
+
     public ServiceRequest(RequestCorrelator correlator, Address target, RequestOptions options) {
+        this(correlator, target, options, new CommandDispatcherMetrics());
+    }
+
+    public ServiceRequest(RequestCorrelator correlator, Address target, RequestOptions options, CommandDispatcherMetrics metrics) {
         super(correlator, target, options);
+        this.metrics = metrics;
     }
 
     public CompletionStage<T> send(Buffer data) throws CommandDispatcherException {
         try {
+            this.sendTime = System.nanoTime();
             this.sendRequest(data);
+            this.metrics.requestsSent(1, data.getLength());
             return this;
         } catch (Exception e) {
             throw new CommandDispatcherException(e);
@@ -61,6 +71,8 @@ public class ServiceRequest<T> extends UnicastRequest<T> {
     public void receiveResponse(Object value, Address sender, boolean exceptional) {
         if (this.isDone()) return;
 
+        this.metrics.responseReceived(this.sendTime);
+
         if (exceptional) {
             this.completeExceptionally((Throwable) value);
         } else if (value instanceof NoSuchService) {
@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.server.dispatcher;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The response of a single member to a {@link ServiceGroupRequest}.
+ * Like {@link ServiceRequest}, waits at most for the configured timeout, after which the response is cancelled.
+ * @param <T> the response type
+ */
+public class ServiceResponse<T> extends CompletableFuture<T> {
+
+    private final long timeout;
+
+    public ServiceResponse(long timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
+        try {
+            // Wait at most for the configured timeout
+            // If the message was dropped by the receiver, this would otherwise block forever
+            return super.get(this.timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Auto-cancel on timeout
+            this.cancel(true);
+            throw new CancellationException(e.getLocalizedMessage());
+        }
+    }
+
+    @Override
+    public T join() {
+        try {
+            return this.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.server.dispatcher;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import org.jgroups.Address;
+import org.jgroups.JChannel;
+import org.jgroups.View;
+import org.jgroups.blocks.MessageDispatcher;
+import org.jgroups.blocks.Request;
+import org.jgroups.blocks.RequestCorrelator;
+import org.jgroups.blocks.RequestOptions;
+import org.jgroups.util.Buffer;
+import org.jgroups.util.UUID;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.clustering.dispatcher.Command;
+import org.wildfly.clustering.dispatcher.CommandDispatcher;
+import org.wildfly.clustering.group.Membership;
+import org.wildfly.clustering.group.Node;
+import org.wildfly.clustering.server.group.Group;
+
+/**
+ * Unit test for {@link ChannelCommandDispatcher}.
+ */
+public class ChannelCommandDispatcherTestCase {
+
+    private final MessageDispatcher messageDispatcher = mock(MessageDispatcher.class);
+    private final JChannel channel = mock(JChannel.class);
+    private final RequestCorrelator correlator = mock(RequestCorrelator.class);
+    private final CommandMarshaller<Void> marshaller = mock(CommandMarshaller.class);
+    private final Group<Address> group = mock(Group.class);
+    private final Membership membership = mock(Membership.class);
+    private final CommandDispatcher<Void> localDispatcher = mock(CommandDispatcher.class);
+    private final Command<String, Void> command = mock(Command.class);
+    private final CommandDispatcherMetrics metrics = new CommandDispatcherMetrics();
+
+    private final Address localAddress = UUID.randomUUID();
+    private final Address remoteAddress1 = UUID.randomUUID();
+    private final Address remoteAddress2 = UUID.randomUUID();
+    private final Node localMember = mock(Node.class);
+    private final Node remoteMember1 = mock(Node.class);
+    private final Node remoteMember2 = mock(Node.class);
+    private final CompletionStage<String> localResult = CompletableFuture.completedFuture("local");
+
+    private CommandDispatcher<Void> dispatcher;
+
+    @Before
+    public void init() throws Exception {
+        when(this.messageDispatcher.getChannel()).thenReturn(this.channel);
+        when(this.messageDispatcher.getCorrelator()).thenReturn(this.correlator);
+        when(this.channel.getAddress()).thenReturn(this.localAddress);
+        when(this.group.getMembership()).thenReturn(this.membership);
+        when(this.membership.getMembers()).thenReturn(Arrays.asList(this.localMember, this.remoteMember1, this.remoteMember2));
+        when(this.group.getAddress(this.localMember)).thenReturn(this.localAddress);
+        when(this.group.getAddress(this.remoteMember1)).thenReturn(this.remoteAddress1);
+        when(this.group.getAddress(this.remoteMember2)).thenReturn(this.remoteAddress2);
+        when(this.marshaller.marshal(this.command)).thenReturn(new byte[] { 1, 2, 3, 4 });
+        when(this.localDispatcher.executeOnMember(this.command, this.localMember)).thenReturn(this.localResult);
+
+        this.dispatcher = new ChannelCommandDispatcher<>(this.messageDispatcher, this.marshaller, this.group, Duration.ofSeconds(1), false, this.metrics, this.localDispatcher, mock(Runnable.class));
+    }
+
+    @Test
+    public void executeOnGroup() throws Exception {
+        // The current view already contains a member that joined after the membership was read
+        when(this.channel.getView()).thenReturn(View.create(this.localAddress, 2L, this.localAddress, this.remoteAddress1, this.remoteAddress2, UUID.randomUUID()));
+
+        Map<Node, CompletionStage<String>> results = this.dispatcher.executeOnGroup(this.command);
+
+        assertEquals(3, results.size());
+        assertSame(this.localResult, results.get(this.localMember));
+        assertFalse(results.get(this.remoteMember1).toCompletableFuture().isDone());
+        assertFalse(results.get(this.remoteMember2).toCompletableFuture().isDone());
+
+        // A single request is sent to the remote members of the membership snapshot only
+        verify(this.correlator).sendRequest(argThat((Collection<Address> targets) -> (targets.size() == 2) && targets.containsAll(Arrays.asList(this.remoteAddress1, this.remoteAddress2))), any(Buffer.class), any(Request.class), argThat(RequestOptions::anycasting));
+        assertEquals(2, this.metrics.getSentMessages());
+        assertEquals(8, this.metrics.getSentBytes());
+    }
+
+    @Test
+    public void executeOnGroupExcluding() throws Exception {
+        Map<Node, CompletionStage<String>> results = this.dispatcher.executeOnGroup(this.command, this.remoteMember2);
+
+        assertEquals(2, results.size());
+        assertSame(this.localResult, results.get(this.localMember));
+        assertFalse(results.containsKey(this.remoteMember2));
+
+        verify(this.correlator).sendRequest(argThat((Collection<Address> targets) -> (targets.size() == 1) && targets.contains(this.remoteAddress1)), any(Buffer.class), any(Request.class), argThat(RequestOptions::anycasting));
+        assertEquals(1, this.metrics.getSentMessages());
+    }
+
+    @Test
+    public void executeOnLocalGroup() throws Exception {
+        Map<Node, CompletionStage<String>> results = this.dispatcher.executeOnGroup(this.command, this.remoteMember1, this.remoteMember2);
+
+        assertEquals(1, results.size());
+        assertSame(this.localResult, results.get(this.localMember));
+
+        verify(this.correlator, never()).sendRequest(anyCollection(), any(Buffer.class), any(Request.class), any(RequestOptions.class));
+        assertEquals(0, this.metrics.getSentMessages());
+    }
+
+    @Test
+    public void executeOnLocalMember() throws Exception {
+        assertSame(this.localResult, this.dispatcher.executeOnMember(this.command, this.localMember));
+
+        verify(this.correlator, never()).sendUnicastRequest(any(Address.class), any(Buffer.class), any(Request.class), any(RequestOptions.class));
+        assertEquals(0, this.metrics.getSentMessages());
+    }
+
+    @Test
+    public void executeOnRemoteMember() throws Exception {
+        CompletionStage<String> result = this.dispatcher.executeOnMember(this.command, this.remoteMember1);
+
+        assertFalse(result.toCompletableFuture().isDone());
+
+        verify(this.correlator).sendUnicastRequest(same(this.remoteAddress1), any(Buffer.class), any(Request.class), any(RequestOptions.class));
+        assertEquals(1, this.metrics.getSentMessages());
+        assertEquals(4, this.metrics.getSentBytes());
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.server.dispatcher;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link CommandDispatcherMetrics}.
+ */
+public class CommandDispatcherMetricsTestCase {
+
+    @Test
+    public void test() {
+        CommandDispatcherMetrics metrics = new CommandDispatcherMetrics();
+
+        assertEquals(0, metrics.getSentMessages());
+        assertEquals(0, metrics.getSentBytes());
+        assertEquals(0, metrics.getReceivedResponses());
+        assertArrayEquals(new long[CommandDispatcherMetrics.LATENCY_BUCKETS], metrics.getLatencyHistogram());
+
+        metrics.requestsSent(1, 100);
+        metrics.requestsSent(3, 10);
+
+        assertEquals(4, metrics.getSentMessages());
+        assertEquals(130, metrics.getSentBytes());
+
+        long now = System.nanoTime();
+        // <= 1 ms
+        metrics.responseReceived(now);
+        // ]4, 8] ms
+        metrics.responseReceived(now - TimeUnit.MILLISECONDS.toNanos(5));
+        // Overflows into the last bucket
+        metrics.responseReceived(now - TimeUnit.HOURS.toNanos(1));
+
+        assertEquals(3, metrics.getReceivedResponses());
+
+        long[] histogram = metrics.getLatencyHistogram();
+
+        assertEquals(CommandDispatcherMetrics.LATENCY_BUCKETS, histogram.length);
+        assertEquals(1, histogram[0]);
+        assertEquals(1, histogram[3]);
+        assertEquals(1, histogram[CommandDispatcherMetrics.LATENCY_BUCKETS - 1]);
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        assertEquals(3, total);
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.server.dispatcher;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+
+import org.jgroups.Address;
+import org.jgroups.SuspectedException;
+import org.jgroups.View;
+import org.jgroups.blocks.Request;
+import org.jgroups.blocks.RequestCorrelator;
+import org.jgroups.blocks.RequestOptions;
+import org.jgroups.blocks.ResponseMode;
+import org.jgroups.util.Buffer;
+import org.jgroups.util.UUID;
+import org.junit.Test;
+import org.wildfly.clustering.dispatcher.CommandDispatcherException;
+
+/**
+ * Unit test for {@link ServiceGroupRequest}.
+ */
+public class ServiceGroupRequestTestCase {
+
+    private final RequestCorrelator correlator = mock(RequestCorrelator.class);
+    private final RequestOptions options = new RequestOptions(ResponseMode.GET_ALL, 1000L, true, null);
+    private final CommandDispatcherMetrics metrics = new CommandDispatcherMetrics();
+    private final Address member1 = UUID.randomUUID();
+    private final Address member2 = UUID.randomUUID();
+    private final Address member3 = UUID.randomUUID();
+
+    private Map<Address, ServiceResponse<String>> createResponses(long timeout, Address... members) {
+        Map<Address, ServiceResponse<String>> responses = new HashMap<>();
+        for (Address member : members) {
+            responses.put(member, new ServiceResponse<>(timeout));
+        }
+        return responses;
+    }
+
+    @Test
+    public void send() throws Exception {
+        Map<Address, ServiceResponse<String>> responses = this.createResponses(1000L, this.member1, this.member2);
+        ServiceGroupRequest<String> request = new ServiceGroupRequest<>(this.correlator, responses, this.options, this.metrics);
+        Buffer buffer = new Buffer(new byte[] { 1, 2, 3 });
+
+        request.send(buffer, 2);
+
+        verify(this.correlator).sendRequest(argThat((Collection<Address> targets) -> (targets.size() == 2) && targets.containsAll(Arrays.asList(this.member1, this.member2))), same(buffer), same(request), same(this.options));
+        assertEquals(2, this.metrics.getSentMessages());
+        assertEquals(6, this.metrics.getSentBytes());
+        assertEquals(0, this.metrics.getReceivedResponses());
+    }
+
+    @Test
+    public void sendFailure() throws Exception {
+        Map<Address, ServiceResponse<String>> responses = this.createResponses(1000L, this.member1, this.member2);
+        ServiceGroupRequest<String> request = new ServiceGroupRequest<>(this.correlator, responses, this.options, this.metrics);
+        Buffer buffer = new Buffer(new byte[] { 1, 2, 3 });
+
+        doThrow(new Exception()).when(this.correlator).sendRequest(anyCollection(), any(Buffer.class), any(Request.class), any(RequestOptions.class));
+
+        try {
+            request.send(buffer, 2);
+            fail();
+        } catch (CommandDispatcherException e) {
+            // Expected
+        }
+        for (ServiceResponse<String> response : responses.values()) {
+            assertTrue(response.isCancelled());
+        }
+        assertEquals(0, this.metrics.getSentMessages());
+    }
+
+    @Test
+    public void receiveResponse() throws Exception {
+        Map<Address, ServiceResponse<String>> responses = this.createResponses(1000L, this.member1, this.member2, this.member3);
+        ServiceGroupRequest<String> request = new ServiceGroupRequest<>(this.correlator, responses, this.options, this.metrics);
+
+        request.send(new Buffer(new byte[0]), 3);
+
+        // Each response completes independently of the others
+        request.receiveResponse("foo", this.member1, false);
+
+        assertEquals("foo", responses.get(this.member1).join());
+        assertFalse(responses.get(this.member2).isDone());
+        assertFalse(responses.get(this.member3).isDone());
+        assertFalse(request.isDone());
+
+        // A member without the service cancels its response
+        request.receiveResponse(new NoSuchService(), this.member2, false);
+
+        assertTrue(responses.get(this.member2).isCompletedExceptionally());
+        this.assertCancelled(responses.get(this.member2));
+        assertFalse(responses.get(this.member3).isDone());
+
+        Exception exception = new Exception();
+        request.receiveResponse(exception, this.member3, true);
+
+        try {
+            responses.get(this.member3).join();
+            fail();
+        } catch (CompletionException e) {
+            assertSame(exception, e.getCause());
+        }
+
+        // Duplicate responses are ignored
+        request.receiveResponse("bar", this.member1, false);
+
+        assertEquals("foo", responses.get(this.member1).join());
+        assertEquals(3, this.metrics.getReceivedResponses());
+        assertTrue(request.isDone());
+    }
+
+    @Test
+    public void suspect() throws Exception {
+        Map<Address, ServiceResponse<String>> responses = this.createResponses(1000L, this.member1, this.member2);
+        ServiceGroupRequest<String> request = new ServiceGroupRequest<>(this.correlator, responses, this.options, this.metrics);
+
+        request.send(new Buffer(new byte[0]), 2);
+
+        request.receiveResponse(new SuspectedException(this.member1), this.member1, true);
+
+        this.assertCancelled(responses.get(this.member1));
+        assertFalse(responses.get(this.member2).isDone());
+    }
+
+    @Test
+    public void viewChange() throws Exception {
+        Map<Address, ServiceResponse<String>> responses = this.createResponses(1000L, this.member1, this.member2);
+        ServiceGroupRequest<String> request = new ServiceGroupRequest<>(this.correlator, responses, this.options, this.metrics);
+
+        request.send(new Buffer(new byte[0]), 2);
+
+        // The response of a member that left the view is cancelled
+        request.viewChange(View.create(this.member1, 2L, this.member1, this.member3));
+
+        this.assertCancelled(responses.get(this.member2));
+        assertFalse(responses.get(this.member1).isDone());
+
+        request.receiveResponse("foo", this.member1, false);
+
+        assertEquals("foo", responses.get(this.member1).join());
+        assertTrue(request.isDone());
+    }
+
+    @Test
+    public void timeout() throws Exception {
+        Map<Address, ServiceResponse<String>> responses = this.createResponses(10L, this.member1, this.member2);
+        ServiceGroupRequest<String> request = new ServiceGroupRequest<>(this.correlator, responses, this.options, this.metrics);
+
+        request.send(new Buffer(new byte[0]), 2);
+
+        request.receiveResponse("foo", this.member1, false);
+
+        assertEquals("foo", responses.get(this.member1).join());
+
+        // Waiting for a response longer than the timeout cancels it
+        this.assertCancelled(responses.get(this.member2));
+
+        // Once all responses are complete, the request itself is cancelled
+        assertTrue(request.isCancelled());
+        // A late response is ignored
+        request.receiveResponse("bar", this.member2, false);
+
+        assertEquals(1, this.metrics.getReceivedResponses());
+    }
+
+    private void assertCancelled(ServiceResponse<String> response) {
+        try {
+            response.join();
+            fail();
+        } catch (CancellationException e) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.spi;
+
+/**
+ * Statistics of the messages sent by the command dispatchers of a command dispatcher factory.
+ */
+public interface CommandDispatcherStatistics {
+
+    /**
+     * Returns the number of request messages sent to remote members.
+     * A multicast request counts as a single message.
+     * @return a number of messages
+     */
+    long getSentMessages();
+
+    /**
+     * Returns the number of bytes sent in request messages.
+     * @return a number of bytes
+     */
+    long getSentBytes();
+
+    /**
+     * Returns the number of responses received from remote members.
+     * @return a number of responses
+     */
+    long getReceivedResponses();
+
+    /**
+     * Returns the distribution of the time between sending a request and receiving a response.
+     * The element at index i counts the responses received within 2^i milliseconds (and after 2^(i-1) milliseconds, for i > 0).
+     * The last element counts all slower responses.
+     * @return the response counts of each latency bucket
+     */
+    long[] getLatencyHistogram();
+}
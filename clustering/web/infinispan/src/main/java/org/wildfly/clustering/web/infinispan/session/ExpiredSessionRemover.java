@@ -48,17 +48,28 @@ public class ExpiredSessionRemover<MV, AV, L> implements Remover<String>, Regist
 
     @Override
     public boolean remove(String id) {
+        return this.remove(id, true);
+    }
+
+    @Override
+    public boolean purge(String id) {
+        return this.remove(id, false);
+    }
+
+    private boolean remove(String id, boolean notify) {
         MV metaDataValue = this.factory.getMetaDataFactory().tryValue(id);
         if (metaDataValue != null) {
             ImmutableSessionMetaData metaData = this.factory.getMetaDataFactory().createImmutableSessionMetaData(id, metaDataValue);
             if (metaData.isExpired()) {
-                AV attributesValue = this.factory.getAttributesFactory().findValue(id);
-                if (attributesValue != null) {
-                    ImmutableSessionAttributes attributes = this.factory.getAttributesFactory().createImmutableSessionAttributes(id, attributesValue);
-                    ImmutableSession session = this.factory.createImmutableSession(id, metaData, attributes);
-                    InfinispanWebLogger.ROOT_LOGGER.tracef("Session %s has expired.", id);
-                    for (SessionExpirationListener listener : this.listeners) {
-                        listener.sessionExpired(session);
+                if (notify) {
+                    AV attributesValue = this.factory.getAttributesFactory().findValue(id);
+                    if (attributesValue != null) {
+                        ImmutableSessionAttributes attributes = this.factory.getAttributesFactory().createImmutableSessionAttributes(id, attributesValue);
+                        ImmutableSession session = this.factory.createImmutableSession(id, metaData, attributes);
+                        InfinispanWebLogger.ROOT_LOGGER.tracef("Session %s has expired.", id);
+                        for (SessionExpirationListener listener : this.listeners) {
+                            listener.sessionExpired(session);
+                        }
                     }
                 }
                 return this.factory.remove(id);
@@ -28,8 +28,6 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import javax.servlet.ServletContext;
 import javax.servlet.http.HttpSession;
@@ -39,7 +37,6 @@ import javax.servlet.http.HttpSessionBindingListener;
 import javax.servlet.http.HttpSessionEvent;
 
 import org.infinispan.Cache;
-import org.infinispan.context.Flag;
 import org.infinispan.distribution.DistributionManager;
 import org.infinispan.notifications.Listener;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryActivated;
@@ -64,9 +61,7 @@ import org.wildfly.clustering.ee.retry.RetryingInvoker;
 import org.wildfly.clustering.group.Group;
 import org.wildfly.clustering.group.Node;
 import org.wildfly.clustering.infinispan.spi.PredicateKeyFilter;
-import org.wildfly.clustering.infinispan.spi.distribution.CacheLocality;
 import org.wildfly.clustering.infinispan.spi.distribution.Key;
-import org.wildfly.clustering.infinispan.spi.distribution.Locality;
 import org.wildfly.clustering.spi.NodeFactory;
 import org.wildfly.clustering.web.IdentifierFactory;
 import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
@@ -75,6 +70,7 @@ import org.wildfly.clustering.web.session.ImmutableSession;
 import org.wildfly.clustering.web.session.ImmutableSessionAttributes;
 import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
 import org.wildfly.clustering.web.session.Session;
+import org.wildfly.clustering.web.session.SessionAttributeStatistics;
 import org.wildfly.clustering.web.session.SessionAttributes;
 import org.wildfly.clustering.web.session.SessionExpirationListener;
 import org.wildfly.clustering.web.session.SessionManager;
@@ -101,6 +97,8 @@ public class InfinispanSessionManager<MV, AV, L> implements SessionManager<L, Tr
     private final Group group;
     private final NodeFactory<Address> memberFactory;
     private final Predicate<Object> filter = new SessionCreationMetaDataKeyFilter();
+    private final SessionIndex index;
+    private final SessionAttributeStatistics attributeStatistics;
     private final Recordable<ImmutableSession> recorder;
     private final ServletContext context;
 
@@ -120,6 +118,8 @@ public class InfinispanSessionManager<MV, AV, L> implements SessionManager<L, Tr
         this.memberFactory = configuration.getMemberFactory();
         this.recorder = configuration.getInactiveSessionRecorder();
         this.context = configuration.getServletContext();
+        this.index = configuration.getSessionIndex();
+        this.attributeStatistics = configuration.getAttributeStatistics();
     }
 
     @Override
@@ -246,25 +246,23 @@ public class InfinispanSessionManager<MV, AV, L> implements SessionManager<L, Tr
     @Override
     public Set<String> getActiveSessions() {
         // Omit remote sessions (i.e. when using DIST mode) as well as passivated sessions
-        return this.getSessions(Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD);
+        return this.index.getActiveSessions();
     }
 
     @Override
     public Set<String> getLocalSessions() {
         // Omit remote sessions (i.e. when using DIST mode)
-        return this.getSessions(Flag.CACHE_MODE_LOCAL);
+        return this.index.getLocalSessions();
     }
 
-    private Set<String> getSessions(Flag... flags) {
-        Locality locality = new CacheLocality(this.cache);
-        try (Stream<Key<String>> keys = this.cache.getAdvancedCache().withFlags(flags).keySet().stream()) {
-            return keys.filter(this.filter.and(key -> locality.isLocal(key))).map(key -> key.getValue()).collect(Collectors.toSet());
-        }
+    @Override
+    public long getActiveSessionCount() {
+        return this.index.getActiveSessions().size();
     }
 
     @Override
-    public long getActiveSessionCount() {
-        return this.getActiveSessions().size();
+    public long getSavedAttributeRoundTrips() {
+        return this.attributeStatistics.getSavedAttributeRoundTrips();
     }
 
     @CacheEntryActivated
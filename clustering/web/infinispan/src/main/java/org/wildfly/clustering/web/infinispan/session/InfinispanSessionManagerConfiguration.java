@@ -36,6 +36,7 @@ import org.wildfly.clustering.infinispan.spi.distribution.Key;
 import org.wildfly.clustering.spi.NodeFactory;
 import org.wildfly.clustering.web.IdentifierFactory;
 import org.wildfly.clustering.web.session.ImmutableSession;
+import org.wildfly.clustering.web.session.SessionAttributeStatistics;
 import org.wildfly.clustering.web.session.SessionExpirationListener;
 
 /**
@@ -54,4 +55,6 @@ public interface InfinispanSessionManagerConfiguration {
     Recordable<ImmutableSession> getInactiveSessionRecorder();
     Registrar<SessionExpirationListener> getExpirationRegistar();
     Group getGroup();
+    SessionIndex getSessionIndex();
+    SessionAttributeStatistics getAttributeStatistics();
 }
@@ -66,8 +66,10 @@ import org.wildfly.clustering.spi.NodeFactory;
 import org.wildfly.clustering.web.IdentifierFactory;
 import org.wildfly.clustering.web.infinispan.AffinityIdentifierFactory;
 import org.wildfly.clustering.web.infinispan.session.coarse.CoarseSessionAttributesFactory;
+import org.wildfly.clustering.web.infinispan.session.coarse.DeltaCoarseSessionAttributesFactory;
 import org.wildfly.clustering.web.infinispan.session.fine.FineSessionAttributesFactory;
 import org.wildfly.clustering.web.session.ImmutableSession;
+import org.wildfly.clustering.web.session.SessionAttributeStatistics;
 import org.wildfly.clustering.web.session.SessionExpirationListener;
 import org.wildfly.clustering.web.session.SessionManager;
 import org.wildfly.clustering.web.session.SessionManagerConfiguration;
@@ -101,6 +103,8 @@ public class InfinispanSessionManagerFactory<C extends Marshallability, L> imple
     private final SessionCreationMetaDataKeyFilter filter = new SessionCreationMetaDataKeyFilter();
     private final ExecutorService executor = Executors.newSingleThreadExecutor(createThreadFactory());
     private final AtomicReference<Future<?>> rehashFuture = new AtomicReference<>();
+    private final SessionIndex index;
+    private final SessionAttributeStatistics attributeStatistics;
 
     public InfinispanSessionManagerFactory(InfinispanSessionManagerFactoryConfiguration<C, L> config) {
         this.affinityFactory = config.getKeyAffinityServiceFactory();
@@ -109,14 +113,18 @@ public class InfinispanSessionManagerFactory<C extends Marshallability, L> imple
         this.batcher = new InfinispanBatcher(this.cache);
         this.properties = new InfinispanCacheProperties(this.cache.getCacheConfiguration());
         SessionMetaDataFactory<InfinispanSessionMetaData<L>, L> metaDataFactory = new InfinispanSessionMetaDataFactory<>(config.getCache(), this.properties);
-        this.factory = new InfinispanSessionFactory<>(metaDataFactory, this.createSessionAttributesFactory(config), config.getSessionManagerFactoryConfiguration().getLocalContextFactory());
+        SessionAttributesFactory<?> attributesFactory = this.createSessionAttributesFactory(config);
+        // Only fine granularity attributes support bulk access
+        this.attributeStatistics = (attributesFactory instanceof SessionAttributeStatistics) ? (SessionAttributeStatistics) attributesFactory : () -> 0L;
+        this.factory = new InfinispanSessionFactory<>(metaDataFactory, attributesFactory, config.getSessionManagerFactoryConfiguration().getLocalContextFactory());
         CommandDispatcherFactory dispatcherFactory = config.getCommandDispatcherFactory();
         ExpiredSessionRemover<?, ?, L> remover = new ExpiredSessionRemover<>(this.factory);
         this.expirationRegistrar = remover;
-        this.scheduler = new SessionExpirationScheduler(this.batcher, remover);
+        this.scheduler = new TimingWheelSessionExpirationScheduler(this.batcher, remover);
         this.dispatcher = dispatcherFactory.createCommandDispatcher(this.cache.getName(), this.scheduler);
         this.group = dispatcherFactory.getGroup();
         this.cache.addListener(this);
+        this.index = config.getSessionManagerFactoryConfiguration().isLocalSessionIndex() ? new LocalSessionIndex(this.cache, this.executor) : new ScanningSessionIndex(this.cache);
         this.schedule(new SimpleLocality(false), new CacheLocality(this.cache));
     }
 
@@ -178,6 +186,16 @@ public class InfinispanSessionManagerFactory<C extends Marshallability, L> imple
             public Recordable<ImmutableSession> getInactiveSessionRecorder() {
                 return configuration.getInactiveSessionRecorder();
             }
+
+            @Override
+            public SessionIndex getSessionIndex() {
+                return InfinispanSessionManagerFactory.this.index;
+            }
+
+            @Override
+            public SessionAttributeStatistics getAttributeStatistics() {
+                return InfinispanSessionManagerFactory.this.attributeStatistics;
+            }
         };
         return new InfinispanSessionManager<>(this.factory, config);
     }
@@ -189,9 +207,12 @@ public class InfinispanSessionManagerFactory<C extends Marshallability, L> imple
 
         switch (config.getAttributePersistenceStrategy()) {
             case FINE: {
-                return new FineSessionAttributesFactory<>(configuration.getCache(), configuration.getCache(), new MarshalledValueMarshaller<>(factory, context), this.properties);
+                return new FineSessionAttributesFactory<>(configuration.getCache(), configuration.getCache(), new MarshalledValueMarshaller<>(factory, context), this.properties, config.isBulkAttributeAccess());
             }
             case COARSE: {
+                if (config.isDeltaAttributeReplication()) {
+                    return new DeltaCoarseSessionAttributesFactory<>(configuration.getCache(), new MarshalledValueMarshaller<>(factory, context), this.properties);
+                }
                 return new CoarseSessionAttributesFactory<>(configuration.getCache(), new MarshalledValueMarshaller<>(factory, context), this.properties);
             }
             default: {
@@ -204,6 +225,7 @@ public class InfinispanSessionManagerFactory<C extends Marshallability, L> imple
     @Override
     public void close() {
         this.cache.removeListener(this);
+        this.index.close();
         PrivilegedAction<List<Runnable>> action = () -> this.executor.shutdownNow();
         WildFlySecurityManager.doUnchecked(action);
         try {
@@ -0,0 +1,280 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.infinispan.session;
+
+import java.util.Collections;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.util.CloseableIterator;
+import org.infinispan.context.Flag;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntriesEvicted;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryActivated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryPassivated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryRemoved;
+import org.infinispan.notifications.cachelistener.annotation.TopologyChanged;
+import org.infinispan.notifications.cachelistener.event.CacheEntriesEvictedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryActivatedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryCreatedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryPassivatedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryRemovedEvent;
+import org.infinispan.notifications.cachelistener.event.TopologyChangedEvent;
+import org.infinispan.notifications.cachelistener.filter.CacheEventFilter;
+import org.wildfly.clustering.infinispan.spi.PredicateKeyFilter;
+import org.wildfly.clustering.infinispan.spi.distribution.CacheLocality;
+import org.wildfly.clustering.infinispan.spi.distribution.Key;
+import org.wildfly.clustering.infinispan.spi.distribution.Locality;
+
+/**
+ * Index of the sessions for which the local member is the primary owner, i.e. the local sessions, and of the subset of these that are not passivated, i.e. the active sessions.
+ * The index is maintained incrementally via cache events, so that reading the local or active sessions does not require a scan of the cache.
+ * The index is built on the executor, and since a topology change alters the primary ownership of entries without generating any entry events, rebuilt following each topology change.
+ * Events received while the index is being rebuilt are applied both to the current index and, once complete, to the rebuilt index.
+ * A rebuild superseded by a subsequent topology change is abandoned.
+ */
+@Listener
+public class LocalSessionIndex implements SessionIndex {
+
+    private final Cache<Key<String>, ?> cache;
+    private final Supplier<Locality> locality;
+    private final ExecutorService executor;
+    private final boolean persistent;
+    private final Predicate<Object> filter = new SessionCreationMetaDataKeyFilter();
+    private final AtomicReference<Future<?>> rebuildFuture = new AtomicReference<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Events received while rebuilding the index
+    private final Queue<Consumer<Sessions>> pendingEvents = new ConcurrentLinkedQueue<>();
+
+    private volatile Sessions sessions = new Sessions();
+    private volatile boolean rebuilding = false;
+    // Identifies the most recently scheduled rebuild
+    private volatile long generation = 0;
+
+    public LocalSessionIndex(Cache<Key<String>, ?> cache, ExecutorService executor) {
+        this(cache, () -> new CacheLocality(cache), executor);
+    }
+
+    LocalSessionIndex(Cache<Key<String>, ?> cache, Supplier<Locality> locality, ExecutorService executor) {
+        this.cache = cache;
+        this.locality = locality;
+        this.executor = executor;
+        // Evicted entries are retained by the cache store, if any
+        this.persistent = cache.getCacheConfiguration().persistence().usingStores();
+        CacheEventFilter<Object, Object> filter = new PredicateKeyFilter<>(this.filter);
+        this.cache.addListener(this, filter, null);
+        this.scheduleRebuild();
+    }
+
+    @Override
+    public void close() {
+        this.cache.removeListener(this);
+        Future<?> future = this.rebuildFuture.getAndSet(null);
+        if (future != null) {
+            future.cancel(true);
+        }
+    }
+
+    @Override
+    public Set<String> getLocalSessions() {
+        return Collections.unmodifiableSet(this.sessions.local.keySet());
+    }
+
+    @Override
+    public Set<String> getActiveSessions() {
+        return Collections.unmodifiableSet(this.sessions.active);
+    }
+
+    @CacheEntryCreated
+    public void created(CacheEntryCreatedEvent<Key<String>, ?> event) {
+        if (!event.isPre()) {
+            Key<String> key = event.getKey();
+            if (this.locality.get().isLocal(key)) {
+                String id = key.getValue();
+                this.update(sessions -> sessions.put(id, Boolean.TRUE));
+            }
+        }
+    }
+
+    @CacheEntryRemoved
+    public void removed(CacheEntryRemovedEvent<Key<String>, ?> event) {
+        if (!event.isPre()) {
+            String id = event.getKey().getValue();
+            this.update(sessions -> sessions.put(id, null));
+        }
+    }
+
+    @CacheEntryActivated
+    public void activated(CacheEntryActivatedEvent<Key<String>, ?> event) {
+        if (!event.isPre()) {
+            Key<String> key = event.getKey();
+            if (this.locality.get().isLocal(key)) {
+                String id = key.getValue();
+                this.update(sessions -> sessions.put(id, Boolean.TRUE));
+            }
+        }
+    }
+
+    @CacheEntryPassivated
+    public void passivated(CacheEntryPassivatedEvent<Key<String>, ?> event) {
+        if (!event.isPre()) {
+            String id = event.getKey().getValue();
+            this.update(sessions -> sessions.passivate(id));
+        }
+    }
+
+    @CacheEntriesEvicted
+    public void evicted(CacheEntriesEvictedEvent<Key<String>, ?> event) {
+        for (Key<String> key : event.getEntries().keySet()) {
+            if (this.filter.test(key)) {
+                String id = key.getValue();
+                this.update(this.persistent ? sessions -> sessions.passivate(id) : sessions -> sessions.put(id, null));
+            }
+        }
+    }
+
+    @TopologyChanged
+    public void topologyChanged(TopologyChangedEvent<Key<String>, ?> event) {
+        if (!event.isPre()) {
+            this.scheduleRebuild();
+        }
+    }
+
+    private synchronized void scheduleRebuild() {
+        long generation = ++this.generation;
+        try {
+            Future<?> future = this.rebuildFuture.getAndSet(this.executor.submit(() -> this.rebuild(generation)));
+            if (future != null) {
+                future.cancel(true);
+            }
+        } catch (RejectedExecutionException e) {
+            // Executor was shutdown
+        }
+    }
+
+    private void update(Consumer<Sessions> event) {
+        Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
+            event.accept(this.sessions);
+            if (this.rebuilding) {
+                this.pendingEvents.add(event);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rebuild(long generation) {
+        Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
+            // Skip rebuild if superseded by a subsequent topology change
+            if (generation != this.generation) return;
+            this.pendingEvents.clear();
+            this.rebuilding = true;
+        } finally {
+            lock.unlock();
+        }
+        Locality locality = this.locality.get();
+        Sessions sessions = new Sessions();
+        // Sessions in memory are active
+        if (!this.scan(sessions, locality, Boolean.TRUE, Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD)) return;
+        // Sessions only in the cache store are passivated
+        if (this.persistent && !this.scan(sessions, locality, Boolean.FALSE, Flag.CACHE_MODE_LOCAL)) return;
+        lock.lock();
+        try {
+            // Discard rebuilt index if superseded by a subsequent topology change, whose rebuild will apply the pending events
+            if (generation != this.generation) return;
+            for (Consumer<Sessions> event = this.pendingEvents.poll(); event != null; event = this.pendingEvents.poll()) {
+                event.accept(sessions);
+            }
+            this.sessions = sessions;
+            this.rebuilding = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean scan(Sessions sessions, Locality locality, Boolean active, Flag... flags) {
+        try (CloseableIterator<Key<String>> keys = this.cache.getAdvancedCache().withFlags(flags).keySet().iterator()) {
+            while (keys.hasNext()) {
+                // Abandon scan if superseded by a subsequent topology change
+                if (Thread.currentThread().isInterrupted()) return false;
+                Key<String> key = keys.next();
+                if (this.filter.test(key) && locality.isLocal(key)) {
+                    sessions.putIfAbsent(key.getValue(), active);
+                }
+            }
+        }
+        return true;
+    }
+
+    private static class Sessions {
+        // Maps each local session to whether or not it is active
+        final ConcurrentMap<String, Boolean> local = new ConcurrentHashMap<>();
+        final Set<String> active = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Updates the state of the specified session.
+         * @param id a session identifier
+         * @param active true, if the session is active, false if passivated, or null if no longer local
+         */
+        void put(String id, Boolean active) {
+            // Compute is atomic per session, keeping the active sessions consistent with the local sessions
+            this.local.compute(id, (key, value) -> this.update(key, active));
+        }
+
+        void putIfAbsent(String id, Boolean active) {
+            this.local.computeIfAbsent(id, key -> this.update(key, active));
+        }
+
+        void passivate(String id) {
+            this.local.computeIfPresent(id, (key, value) -> this.update(key, Boolean.FALSE));
+        }
+
+        private Boolean update(String id, Boolean active) {
+            if (active == Boolean.TRUE) {
+                this.active.add(id);
+            } else {
+                this.active.remove(id);
+            }
+            return active;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.infinispan.session;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.wildfly.clustering.infinispan.spi.distribution.CacheLocality;
+import org.wildfly.clustering.infinispan.spi.distribution.Key;
+import org.wildfly.clustering.infinispan.spi.distribution.Locality;
+
+/**
+ * {@link SessionIndex} that scans the cache for local sessions on every invocation.
+ * Used in lieu of a {@link LocalSessionIndex}, which is only maintained if enabled.
+ */
+public class ScanningSessionIndex implements SessionIndex {
+
+    private final Cache<Key<String>, ?> cache;
+    private final Predicate<Object> filter = new SessionCreationMetaDataKeyFilter();
+
+    public ScanningSessionIndex(Cache<Key<String>, ?> cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public Set<String> getLocalSessions() {
+        // Omit remote sessions (i.e. when using DIST mode)
+        return this.getSessions(Flag.CACHE_MODE_LOCAL);
+    }
+
+    @Override
+    public Set<String> getActiveSessions() {
+        // Omit remote sessions (i.e. when using DIST mode) as well as passivated sessions
+        return this.getSessions(Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD);
+    }
+
+    private Set<String> getSessions(Flag... flags) {
+        Locality locality = new CacheLocality(this.cache);
+        try (Stream<Key<String>> keys = this.cache.getAdvancedCache().withFlags(flags).keySet().stream()) {
+            return Collections.unmodifiableSet(keys.filter(this.filter.and(key -> locality.isLocal(key))).map(key -> key.getValue()).collect(Collectors.toSet()));
+        }
+    }
+
+    @Override
+    public void close() {
+        // Nothing to close
+    }
+}
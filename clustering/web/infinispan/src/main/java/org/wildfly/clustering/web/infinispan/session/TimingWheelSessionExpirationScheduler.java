@@ -0,0 +1,265 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session;
+
+import java.security.PrivilegedAction;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.clustering.ee.Batch;
+import org.wildfly.clustering.ee.Batcher;
+import org.wildfly.clustering.ee.Remover;
+import org.wildfly.clustering.ee.infinispan.TransactionBatch;
+import org.wildfly.clustering.infinispan.spi.distribution.Locality;
+import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
+import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Session expiration scheduler based on a hashed timing wheel.
+ * Rather than maintaining a scheduled future per session, each session is hashed into the wheel bucket corresponding to its expiration tick.
+ * A single periodic task advances the wheel and removes the expired sessions of each bucket in batches.
+ * Rescheduling a session only moves its identifier between buckets, and is thus O(1).
+ * Sessions are never expired early, though a session scheduled concurrently with the advance of the wheel into its bucket may expire one wheel rotation late.
+ */
+public class TimingWheelSessionExpirationScheduler implements Scheduler {
+
+    static final Duration DEFAULT_TICK_DURATION = Duration.ofSeconds(1);
+    static final int DEFAULT_WHEEL_SIZE = 512;
+    static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    // Expiration tick per session
+    final Map<String, Long> expirations = new ConcurrentHashMap<>();
+    private final Set<String>[] wheel;
+    private final int mask;
+    private final long tickMillis;
+    private final int maxBatchSize;
+    private final Batcher<TransactionBatch> batcher;
+    private final Remover<String> remover;
+    private final ScheduledExecutorService executor;
+    private final Clock clock;
+    private final Future<?> future;
+    // The tick of the bucket most recently visited by the wheel
+    private volatile long currentTick;
+
+    public TimingWheelSessionExpirationScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover) {
+        this(batcher, remover, DEFAULT_TICK_DURATION, DEFAULT_WHEEL_SIZE, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    public TimingWheelSessionExpirationScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover, Duration tickDuration, int wheelSize, int maxBatchSize) {
+        this(batcher, remover, tickDuration, wheelSize, maxBatchSize, createScheduledExecutor(createThreadFactory()));
+    }
+
+    public TimingWheelSessionExpirationScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover, Duration tickDuration, int wheelSize, int maxBatchSize, ScheduledExecutorService executor) {
+        this(batcher, remover, tickDuration, wheelSize, maxBatchSize, executor, Clock.systemUTC());
+    }
+
+    @SuppressWarnings("unchecked")
+    TimingWheelSessionExpirationScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover, Duration tickDuration, int wheelSize, int maxBatchSize, ScheduledExecutorService executor, Clock clock) {
+        this.batcher = batcher;
+        this.remover = remover;
+        this.maxBatchSize = maxBatchSize;
+        this.executor = executor;
+        this.clock = clock;
+        this.tickMillis = tickDuration.toMillis();
+        // Round wheel size up to the nearest power of 2 so that buckets can be computed via a mask
+        int size = Integer.highestOneBit(Math.max(wheelSize - 1, 1)) << 1;
+        this.mask = size - 1;
+        this.wheel = new Set[size];
+        for (int i = 0; i < size; ++i) {
+            this.wheel[i] = ConcurrentHashMap.newKeySet();
+        }
+        this.currentTick = this.clock.millis() / this.tickMillis;
+        this.future = this.executor.scheduleWithFixedDelay(this::advance, this.tickMillis, this.tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static ThreadFactory createThreadFactory() {
+        PrivilegedAction<ThreadFactory> action = () -> new JBossThreadFactory(new ThreadGroup(TimingWheelSessionExpirationScheduler.class.getSimpleName()), Boolean.FALSE, null, "%G - %t", null, null);
+        return WildFlySecurityManager.doUnchecked(action);
+    }
+
+    private static ScheduledExecutorService createScheduledExecutor(ThreadFactory factory) {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, factory);
+        executor.setRemoveOnCancelPolicy(true);
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        return executor;
+    }
+
+    @Override
+    public void schedule(String sessionId, ImmutableSessionMetaData metaData) {
+        Duration maxInactiveInterval = metaData.getMaxInactiveInterval();
+        if (!maxInactiveInterval.isZero()) {
+            Instant expiration = metaData.getLastAccessedTime().plus(maxInactiveInterval);
+            // Round up, so that we never expire a session early
+            long tick = Math.max((expiration.toEpochMilli() + this.tickMillis - 1) / this.tickMillis, this.currentTick + 1);
+            InfinispanWebLogger.ROOT_LOGGER.tracef("Session %s will expire in %d ms", sessionId, (tick * this.tickMillis) - this.clock.millis());
+            this.expirations.compute(sessionId, (id, previousTick) -> {
+                if (previousTick != null) {
+                    this.bucket(previousTick).remove(id);
+                }
+                this.bucket(tick).add(id);
+                return tick;
+            });
+        }
+    }
+
+    @Override
+    public void cancel(String sessionId) {
+        this.expirations.computeIfPresent(sessionId, (id, tick) -> {
+            this.bucket(tick).remove(id);
+            return null;
+        });
+    }
+
+    @Override
+    public void cancel(Locality locality) {
+        for (String sessionId : this.expirations.keySet()) {
+            if (Thread.currentThread().isInterrupted()) break;
+            if (!locality.isLocal(sessionId)) {
+                this.cancel(sessionId);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        this.future.cancel(false);
+        this.executor.shutdown();
+        try {
+            this.executor.awaitTermination(this.tickMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.expirations.clear();
+        for (Set<String> bucket : this.wheel) {
+            bucket.clear();
+        }
+    }
+
+    private Set<String> bucket(long tick) {
+        return this.wheel[(int) (tick & this.mask)];
+    }
+
+    /**
+     * Advances the wheel to the current tick, expiring any sessions found in the buckets visited along the way.
+     * Must not throw, otherwise subsequent executions of this periodic task would be suppressed.
+     */
+    void advance() {
+        long now = this.clock.millis() / this.tickMillis;
+        try {
+            this.advance(now);
+        } catch (Throwable e) {
+            InfinispanWebLogger.ROOT_LOGGER.failedToExpireSessions(e, Instant.ofEpochMilli(now * this.tickMillis));
+        }
+    }
+
+    private void advance(long now) {
+        long tick = this.currentTick;
+        // If we fell behind by more than a full rotation, there is no point in visiting any bucket more than once
+        long start = Math.max(tick + 1, now - this.mask);
+        List<String> expired = new ArrayList<>(this.maxBatchSize);
+        for (long t = start; t <= now; ++t) {
+            if (Thread.currentThread().isInterrupted()) return;
+            this.currentTick = t;
+            Set<String> bucket = this.bucket(t);
+            for (String sessionId : bucket) {
+                // Bucket membership is only ever mutated while computing the expiration of a session
+                // Skip sessions scheduled for a future rotation of the wheel
+                boolean[] removed = new boolean[1];
+                this.expirations.computeIfPresent(sessionId, (id, expiration) -> {
+                    removed[0] = (expiration <= now) && bucket.remove(id);
+                    return removed[0] ? null : expiration;
+                });
+                if (removed[0]) {
+                    expired.add(sessionId);
+                    if (expired.size() == this.maxBatchSize) {
+                        this.expire(expired);
+                        expired.clear();
+                    }
+                }
+            }
+        }
+        this.currentTick = now;
+        if (!expired.isEmpty()) {
+            this.expire(expired);
+        }
+    }
+
+    /**
+     * Removes the specified sessions within a single batch.
+     * If the batch fails, including its commit, each session is retried within its own batch.
+     * Listeners of sessions whose removal completed before the failure were already notified, so these sessions are purged instead.
+     */
+    private void expire(List<String> sessionIds) {
+        InfinispanWebLogger.ROOT_LOGGER.tracef("Expiring sessions %s", sessionIds);
+        // Number of sessions whose expiration listeners were notified
+        int notified = 0;
+        try (Batch batch = this.batcher.createBatch()) {
+            try {
+                for (String sessionId : sessionIds) {
+                    this.remover.remove(sessionId);
+                    notified += 1;
+                }
+            } catch (Throwable e) {
+                batch.discard();
+                throw e;
+            }
+        } catch (Throwable e) {
+            if (sessionIds.size() == 1) {
+                InfinispanWebLogger.ROOT_LOGGER.failedToExpireSession(e, sessionIds.get(0));
+                return;
+            }
+            for (int i = 0; i < sessionIds.size(); ++i) {
+                this.expire(sessionIds.get(i), i >= notified);
+            }
+        }
+    }
+
+    private void expire(String sessionId, boolean notify) {
+        try (Batch batch = this.batcher.createBatch()) {
+            try {
+                if (notify) {
+                    this.remover.remove(sessionId);
+                } else {
+                    this.remover.purge(sessionId);
+                }
+            } catch (Throwable e) {
+                batch.discard();
+                throw e;
+            }
+        } catch (Throwable e) {
+            InfinispanWebLogger.ROOT_LOGGER.failedToExpireSession(e, sessionId);
+        }
+    }
+}
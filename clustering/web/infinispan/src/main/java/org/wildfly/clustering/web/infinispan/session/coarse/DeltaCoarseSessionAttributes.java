@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.coarse;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.marshall.NotSerializableException;
+import org.infinispan.context.Flag;
+import org.wildfly.clustering.ee.infinispan.CacheProperties;
+import org.wildfly.clustering.marshalling.spi.Marshaller;
+import org.wildfly.clustering.web.infinispan.session.SessionAttributes;
+import org.wildfly.clustering.web.session.SessionAttributeImmutability;
+
+/**
+ * Exposes session attributes for a coarse granularity session, replicating only those attributes that changed.
+ * Changed attributes are shipped to the owner of the session attributes cache entry, where they are applied to the existing entry.
+ * Unlike {@link CoarseSessionAttributes}, which marshals all attributes as a single object graph, each attribute is marshalled separately.
+ * Consequently, an object referenced by more than one attribute is no longer shared once replicated, i.e. each attribute will reference its own copy.
+ * Applications relying on the identity of objects shared between attributes should not use delta replication.
+ */
+public class DeltaCoarseSessionAttributes<V> extends CoarseImmutableSessionAttributes implements SessionAttributes {
+    private final SessionAttributesKey key;
+    private final Map<String, Object> attributes;
+    private final Set<String> mutations = ConcurrentHashMap.newKeySet();
+    private final Cache<SessionAttributesKey, Map<String, V>> cache;
+    private final Marshaller<Object, V> marshaller;
+    private final CacheProperties properties;
+
+    public DeltaCoarseSessionAttributes(SessionAttributesKey key, Map<String, Object> attributes, Cache<SessionAttributesKey, Map<String, V>> cache, Marshaller<Object, V> marshaller, CacheProperties properties) {
+        super(attributes);
+        this.key = key;
+        this.attributes = attributes;
+        this.cache = cache;
+        this.marshaller = marshaller;
+        this.properties = properties;
+    }
+
+    @Override
+    public Object removeAttribute(String name) {
+        Object value = this.attributes.remove(name);
+        if (value != null) {
+            this.mutations.add(name);
+        }
+        return value;
+    }
+
+    @Override
+    public Object setAttribute(String name, Object value) {
+        if (value == null) {
+            return this.removeAttribute(name);
+        }
+        if (this.properties.isMarshalling() && !this.marshaller.isMarshallable(value)) {
+            throw new IllegalArgumentException(new NotSerializableException(value.getClass().getName()));
+        }
+        Object old = this.attributes.put(name, value);
+        this.mutations.add(name);
+        return old;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        Object value = this.attributes.get(name);
+        if (!SessionAttributeImmutability.INSTANCE.test(value)) {
+            this.mutations.add(name);
+        }
+        return value;
+    }
+
+    @Override
+    public void close() {
+        if (!this.mutations.isEmpty()) {
+            Map<String, V> delta = new HashMap<>();
+            for (String name : this.mutations) {
+                Object value = this.attributes.get(name);
+                delta.put(name, (value != null) ? this.marshaller.write(value) : null);
+            }
+            this.cache.getAdvancedCache().withFlags(Flag.FORCE_SYNCHRONOUS, Flag.IGNORE_RETURN_VALUES).compute(this.key, new SessionAttributesDeltaFunction<>(delta));
+            this.mutations.clear();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.coarse;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Function that applies a set of changed session attributes to the session attributes cache entry on its owner.
+ * A null attribute value indicates that the attribute was removed.
+ * If the cache entry no longer exists, e.g. the session was concurrently invalidated, the delta is discarded.
+ * @param <V> the marshalled attribute value type
+ */
+public class SessionAttributesDeltaFunction<V> implements BiFunction<SessionAttributesKey, Map<String, V>, Map<String, V>> {
+
+    private final Map<String, V> delta;
+
+    public SessionAttributesDeltaFunction(Map<String, V> delta) {
+        this.delta = delta;
+    }
+
+    @Override
+    public Map<String, V> apply(SessionAttributesKey key, Map<String, V> attributes) {
+        if (attributes == null) return null;
+        // Cache entry values must never be modified in place
+        Map<String, V> result = new HashMap<>(attributes);
+        for (Map.Entry<String, V> entry : this.delta.entrySet()) {
+            V value = entry.getValue();
+            if (value != null) {
+                result.put(entry.getKey(), value);
+            } else {
+                result.remove(entry.getKey());
+            }
+        }
+        return result;
+    }
+
+    Map<String, V> getDelta() {
+        return this.delta;
+    }
+}
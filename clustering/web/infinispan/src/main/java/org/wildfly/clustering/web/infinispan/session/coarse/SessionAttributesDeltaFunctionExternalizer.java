@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.coarse;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.kohsuke.MetaInfServices;
+import org.wildfly.clustering.marshalling.Externalizer;
+import org.wildfly.clustering.marshalling.spi.IndexSerializer;
+
+/**
+ * Externalizer for {@link SessionAttributesDeltaFunction}.
+ */
+@MetaInfServices(Externalizer.class)
+public class SessionAttributesDeltaFunctionExternalizer<V> implements Externalizer<SessionAttributesDeltaFunction<V>> {
+
+    @Override
+    public void writeObject(ObjectOutput output, SessionAttributesDeltaFunction<V> function) throws IOException {
+        Map<String, V> delta = function.getDelta();
+        IndexSerializer.VARIABLE.writeInt(output, delta.size());
+        for (Map.Entry<String, V> entry : delta.entrySet()) {
+            output.writeUTF(entry.getKey());
+            output.writeObject(entry.getValue());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public SessionAttributesDeltaFunction<V> readObject(ObjectInput input) throws IOException, ClassNotFoundException {
+        int size = IndexSerializer.VARIABLE.readInt(input);
+        Map<String, V> delta = new HashMap<>();
+        for (int i = 0; i < size; ++i) {
+            delta.put(input.readUTF(), (V) input.readObject());
+        }
+        return new SessionAttributesDeltaFunction<>(delta);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Class<SessionAttributesDeltaFunction<V>> getTargetClass() {
+        return (Class<SessionAttributesDeltaFunction<V>>) (Class<?>) SessionAttributesDeltaFunction.class;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.fine;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.marshall.NotSerializableException;
+import org.infinispan.context.Flag;
+import org.wildfly.clustering.ee.Mutator;
+import org.wildfly.clustering.ee.infinispan.CacheProperties;
+import org.wildfly.clustering.marshalling.spi.Marshaller;
+import org.wildfly.clustering.web.infinispan.session.SessionAttributes;
+import org.wildfly.clustering.web.session.SessionAttributeImmutability;
+
+/**
+ * Exposes session attributes for fine granularity sessions, using bulk cache operations.
+ * All attributes of the session are fetched via a single bulk read upon first access.
+ * Attribute mutations are collected for the duration of the request and written via a single bulk write on {@link #close()}.
+ * The cache round trips saved, compared to reading and writing each attribute individually, are added to a shared counter on {@link #close()}.
+ */
+public class BulkFineSessionAttributes<V> extends FineImmutableSessionAttributes<V> implements SessionAttributes {
+    private final AtomicInteger sequence;
+    private final ConcurrentMap<String, Integer> names;
+    private final Mutator namesMutator;
+    private final AtomicBoolean namesMutated = new AtomicBoolean(false);
+    private final Cache<SessionAttributeKey, V> cache;
+    private final Marshaller<Object, V> marshaller;
+    private final CacheProperties properties;
+    private final Map<SessionAttributeKey, V> updates = new ConcurrentHashMap<>();
+    private final Set<SessionAttributeKey> removals = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger reads = new AtomicInteger();
+    private final AtomicLong savedRoundTrips;
+    private volatile Map<SessionAttributeKey, V> values;
+
+    public BulkFineSessionAttributes(String id, AtomicInteger sequence, ConcurrentMap<String, Integer> names, Mutator namesMutator, Cache<SessionAttributeKey, V> cache, Marshaller<Object, V> marshaller, CacheProperties properties, AtomicLong savedRoundTrips) {
+        super(id, names, cache, marshaller);
+        this.sequence = sequence;
+        this.names = names;
+        this.namesMutator = namesMutator;
+        this.cache = cache;
+        this.marshaller = marshaller;
+        this.properties = properties;
+        this.savedRoundTrips = savedRoundTrips;
+    }
+
+    @Override
+    public Object removeAttribute(String name) {
+        Integer attributeId = this.names.remove(name);
+        if (attributeId == null) return null;
+        this.namesMutated.set(true);
+        SessionAttributeKey key = this.createKey(attributeId);
+        V value = this.getValues().remove(key);
+        this.updates.remove(key);
+        this.removals.add(key);
+        return this.read(name, value);
+    }
+
+    @Override
+    public Object setAttribute(String name, Object attribute) {
+        if (attribute == null) {
+            return this.removeAttribute(name);
+        }
+        if (this.properties.isMarshalling() && !this.marshaller.isMarshallable(attribute)) {
+            throw new IllegalArgumentException(new NotSerializableException(attribute.getClass().getName()));
+        }
+        V value = this.marshaller.write(attribute);
+        Map<SessionAttributeKey, V> values = this.getValues();
+        int currentId = this.sequence.get();
+        int attributeId = this.names.computeIfAbsent(name, key -> this.sequence.incrementAndGet());
+        if (attributeId > currentId) {
+            this.namesMutated.set(true);
+        }
+        SessionAttributeKey key = this.createKey(attributeId);
+        V result = values.put(key, value);
+        this.removals.remove(key);
+        this.updates.put(key, value);
+        return this.read(name, result);
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        Integer attributeId = this.names.get(name);
+        if (attributeId == null) return null;
+        this.reads.incrementAndGet();
+        SessionAttributeKey key = this.createKey(attributeId);
+        V value = this.getValues().get(key);
+        Object attribute = this.read(name, value);
+        if (attribute != null) {
+            // If the object is mutable, we need to indicate that the attribute should be replicated
+            if (!SessionAttributeImmutability.INSTANCE.test(attribute)) {
+                this.updates.putIfAbsent(key, value);
+            }
+        }
+        return attribute;
+    }
+
+    @Override
+    public void close() {
+        // Write attributes before their names, and remove attributes after their names, so that a concurrent reader never observes a name without its attribute
+        int writes = this.updates.size();
+        if (writes > 0) {
+            this.cache.getAdvancedCache().withFlags(Flag.FORCE_SYNCHRONOUS, Flag.IGNORE_RETURN_VALUES).putAll(this.updates);
+        }
+        if (this.namesMutated.compareAndSet(true, false)) {
+            this.namesMutator.mutate();
+        }
+        for (SessionAttributeKey key : this.removals) {
+            this.cache.getAdvancedCache().withFlags(Flag.FORCE_SYNCHRONOUS, Flag.IGNORE_RETURN_VALUES).remove(key);
+        }
+        this.updates.clear();
+        this.removals.clear();
+        this.values = null;
+        // A single bulk read and a single bulk write replace a round trip per attribute read and written
+        int reads = this.reads.getAndSet(0);
+        int saved = Math.max(reads - 1, 0) + Math.max(writes - 1, 0);
+        if (saved > 0) {
+            this.savedRoundTrips.addAndGet(saved);
+        }
+    }
+
+    private Map<SessionAttributeKey, V> getValues() {
+        Map<SessionAttributeKey, V> values = this.values;
+        if (values == null) {
+            synchronized (this) {
+                values = this.values;
+                if (values == null) {
+                    Set<SessionAttributeKey> keys = new HashSet<>();
+                    for (Integer attributeId : this.names.values()) {
+                        keys.add(this.createKey(attributeId));
+                    }
+                    values = new ConcurrentHashMap<>();
+                    if (!keys.isEmpty()) {
+                        for (Map.Entry<SessionAttributeKey, V> entry : this.cache.getAdvancedCache().getAll(keys).entrySet()) {
+                            if (entry.getValue() != null) {
+                                values.put(entry.getKey(), entry.getValue());
+                            }
+                        }
+                    }
+                    this.values = values;
+                }
+            }
+        }
+        return values;
+    }
+}
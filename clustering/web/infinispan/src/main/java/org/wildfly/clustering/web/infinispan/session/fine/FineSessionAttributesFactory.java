@@ -22,11 +22,13 @@
 
 package org.wildfly.clustering.web.infinispan.session.fine;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.infinispan.Cache;
 import org.infinispan.context.Flag;
@@ -44,26 +46,35 @@ import org.wildfly.clustering.web.infinispan.session.SessionAttributes;
 import org.wildfly.clustering.web.infinispan.session.SessionAttributesFactory;
 import org.wildfly.clustering.web.infinispan.session.SessionCreationMetaDataKey;
 import org.wildfly.clustering.web.session.ImmutableSessionAttributes;
+import org.wildfly.clustering.web.session.SessionAttributeStatistics;
 
 /**
  * {@link SessionAttributesFactory} for fine granularity sessions.
  * A given session's attributes are mapped to N+1 co-located cache entries, where N is the number of session attributes.
  * A separate cache entry stores the activate attribute names for the session.
+ * If bulk operations are enabled, attribute entries are read and written via multi-key cache operations, and the cache round trips saved thereby are counted.
  * @author Paul Ferraro
  */
 @Listener(sync = false)
-public class FineSessionAttributesFactory<V> implements SessionAttributesFactory<SessionAttributeNamesEntry> {
+public class FineSessionAttributesFactory<V> implements SessionAttributesFactory<SessionAttributeNamesEntry>, SessionAttributeStatistics {
 
     private final Cache<SessionAttributeNamesKey, SessionAttributeNamesEntry> namesCache;
     private final Cache<SessionAttributeKey, V> attributeCache;
     private final Marshaller<Object, V> marshaller;
     private final CacheProperties properties;
+    private final boolean bulk;
+    private final AtomicLong savedRoundTrips = new AtomicLong();
 
     public FineSessionAttributesFactory(Cache<SessionAttributeNamesKey, SessionAttributeNamesEntry> namesCache, Cache<SessionAttributeKey, V> attributeCache, Marshaller<Object, V> marshaller, CacheProperties properties) {
+        this(namesCache, attributeCache, marshaller, properties, false);
+    }
+
+    public FineSessionAttributesFactory(Cache<SessionAttributeNamesKey, SessionAttributeNamesEntry> namesCache, Cache<SessionAttributeKey, V> attributeCache, Marshaller<Object, V> marshaller, CacheProperties properties, boolean bulk) {
         this.namesCache = namesCache;
         this.attributeCache = attributeCache;
         this.marshaller = marshaller;
         this.properties = properties;
+        this.bulk = bulk;
     }
 
     @Override
@@ -77,8 +88,10 @@ public class FineSessionAttributesFactory<V> implements SessionAttributesFactory
     public SessionAttributeNamesEntry findValue(String id) {
         SessionAttributeNamesEntry entry = this.namesCache.get(new SessionAttributeNamesKey(id));
         if (entry != null) {
+            Map<SessionAttributeKey, V> values = this.bulk ? this.getAll(id, entry) : null;
             for (Map.Entry<String, Integer> nameEntry : entry.getNames().entrySet()) {
-                V value = this.attributeCache.get(new SessionAttributeKey(id, nameEntry.getValue()));
+                SessionAttributeKey key = new SessionAttributeKey(id, nameEntry.getValue());
+                V value = (values != null) ? values.get(key) : this.attributeCache.get(key);
                 if (value != null) {
                     try {
                         this.marshaller.read(value);
@@ -96,6 +109,16 @@ public class FineSessionAttributesFactory<V> implements SessionAttributesFactory
         return entry;
     }
 
+    private Map<SessionAttributeKey, V> getAll(String id, SessionAttributeNamesEntry entry) {
+        Set<SessionAttributeKey> keys = new HashSet<>();
+        for (Integer attributeId : entry.getNames().values()) {
+            keys.add(new SessionAttributeKey(id, attributeId));
+        }
+        if (keys.isEmpty()) return Collections.emptyMap();
+        this.savedRoundTrips.addAndGet(keys.size() - 1);
+        return this.attributeCache.getAdvancedCache().getAll(keys);
+    }
+
     @Override
     public boolean remove(String id) {
         SessionAttributeNamesEntry entry = this.namesCache.getAdvancedCache().withFlags(Flag.FORCE_SYNCHRONOUS).remove(new SessionAttributeNamesKey(id));
@@ -110,7 +133,12 @@ public class FineSessionAttributesFactory<V> implements SessionAttributesFactory
     public SessionAttributes createSessionAttributes(String id, SessionAttributeNamesEntry entry) {
         SessionAttributeNamesKey key = new SessionAttributeNamesKey(id);
         Mutator mutator = this.properties.isTransactional() && this.namesCache.getAdvancedCache().getCacheEntry(key).isCreated() ? Mutator.PASSIVE : new CacheEntryMutator<>(this.namesCache, key, entry);
-        return new FineSessionAttributes<>(id, entry.getSequence(), entry.getNames(), mutator, this.attributeCache, this.marshaller, this.properties);
+        return this.bulk ? new BulkFineSessionAttributes<>(id, entry.getSequence(), entry.getNames(), mutator, this.attributeCache, this.marshaller, this.properties, this.savedRoundTrips) : new FineSessionAttributes<>(id, entry.getSequence(), entry.getNames(), mutator, this.attributeCache, this.marshaller, this.properties);
+    }
+
+    @Override
+    public long getSavedAttributeRoundTrips() {
+        return this.savedRoundTrips.get();
     }
 
     @Override
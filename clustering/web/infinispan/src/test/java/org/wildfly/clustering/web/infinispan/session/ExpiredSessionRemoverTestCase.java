@@ -87,4 +87,32 @@ public class ExpiredSessionRemoverTestCase {
             verify(listener).sessionExpired(expiredSession);
         }
     }
+
+    @Test
+    public void purge() {
+        SessionFactory<UUID, UUID, Object> factory = mock(SessionFactory.class);
+        SessionMetaDataFactory<UUID, Object> metaDataFactory = mock(SessionMetaDataFactory.class);
+        SessionAttributesFactory<UUID> attributesFactory = mock(SessionAttributesFactory.class);
+        SessionExpirationListener listener = mock(SessionExpirationListener.class);
+        ImmutableSessionMetaData expiredMetaData = mock(ImmutableSessionMetaData.class);
+
+        String expiredSessionId = "expired";
+        UUID expiredMetaDataValue = UUID.randomUUID();
+
+        ExpiredSessionRemover<UUID, UUID, Object> subject = new ExpiredSessionRemover<>(factory);
+
+        try (Registration regisration = subject.register(listener)) {
+            when(factory.getMetaDataFactory()).thenReturn(metaDataFactory);
+            when(factory.getAttributesFactory()).thenReturn(attributesFactory);
+            when(metaDataFactory.tryValue(expiredSessionId)).thenReturn(expiredMetaDataValue);
+            when(metaDataFactory.createImmutableSessionMetaData(expiredSessionId, expiredMetaDataValue)).thenReturn(expiredMetaData);
+            when(expiredMetaData.isExpired()).thenReturn(true);
+
+            subject.purge(expiredSessionId);
+
+            verify(factory).remove(expiredSessionId);
+            verify(attributesFactory, never()).findValue(expiredSessionId);
+            verify(listener, never()).sessionExpired(any());
+        }
+    }
 }
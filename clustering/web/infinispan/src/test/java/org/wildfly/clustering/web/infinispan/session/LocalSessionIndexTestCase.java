@@ -0,0 +1,219 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.infinispan.session;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.CacheSet;
+import org.infinispan.commons.util.Closeables;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.notifications.cachelistener.event.CacheEntryActivatedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryCreatedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryPassivatedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryRemovedEvent;
+import org.infinispan.notifications.cachelistener.event.TopologyChangedEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.clustering.infinispan.spi.distribution.Key;
+import org.wildfly.clustering.infinispan.spi.distribution.Locality;
+
+/**
+ * Unit test for {@link LocalSessionIndex}.
+ * Verifies that the local and active sessions of the index match those found via a full scan of the cache.
+ */
+public class LocalSessionIndexTestCase {
+
+    private final Cache<Key<String>, ?> cache = mock(Cache.class);
+    // Simulates the data container and cache store of the local member
+    private final Set<Key<String>> memory = ConcurrentHashMap.newKeySet();
+    private final Set<Key<String>> store = ConcurrentHashMap.newKeySet();
+    // The local member is the primary owner of a session if its hash maps to the first of the current members
+    private final AtomicInteger members = new AtomicInteger(1);
+    private final Locality locality = key -> Math.floorMod(((Key<?>) key).getValue().hashCode(), this.members.get()) == 0;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private LocalSessionIndex index;
+
+    @Before
+    public void init() throws Exception {
+        AdvancedCache<Key<String>, ?> advancedCache = mock(AdvancedCache.class);
+        AdvancedCache<Key<String>, ?> memoryCache = mock(AdvancedCache.class);
+        AdvancedCache<Key<String>, ?> localCache = mock(AdvancedCache.class);
+        CacheSet<Key<String>> memoryKeys = mock(CacheSet.class);
+        CacheSet<Key<String>> localKeys = mock(CacheSet.class);
+
+        when(this.cache.getCacheConfiguration()).thenReturn(new ConfigurationBuilder().persistence().passivation(true).addSingleFileStore().build());
+        when(this.cache.getAdvancedCache()).thenReturn((AdvancedCache) advancedCache);
+        when(advancedCache.withFlags(Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD)).thenReturn((AdvancedCache) memoryCache);
+        when(advancedCache.withFlags(Flag.CACHE_MODE_LOCAL)).thenReturn((AdvancedCache) localCache);
+        when(memoryCache.keySet()).thenReturn(memoryKeys);
+        when(localCache.keySet()).thenReturn(localKeys);
+        when(memoryKeys.iterator()).thenAnswer(invocation -> Closeables.iterator(this.memory.iterator()));
+        when(localKeys.iterator()).thenAnswer(invocation -> {
+            Set<Key<String>> keys = new HashSet<>(this.memory);
+            keys.addAll(this.store);
+            return Closeables.iterator(keys.iterator());
+        });
+
+        this.index = new LocalSessionIndex(this.cache, () -> this.locality, this.executor);
+        // Wait for initial build to complete
+        this.executor.submit(() -> { }).get(1, TimeUnit.MINUTES);
+    }
+
+    @After
+    public void destroy() throws InterruptedException {
+        this.index.close();
+        this.executor.shutdownNow();
+        this.executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    @Test
+    public void test() {
+        for (int i = 0; i < 100; ++i) {
+            this.create(String.valueOf(i));
+        }
+        // Non-session creation meta data entries must be ignored
+        this.memory.add(new SessionAccessMetaDataKey("0"));
+        for (int i = 0; i < 100; i += 3) {
+            this.passivate(String.valueOf(i));
+        }
+        for (int i = 0; i < 100; i += 6) {
+            this.activate(String.valueOf(i));
+        }
+        for (int i = 0; i < 100; i += 5) {
+            this.remove(String.valueOf(i));
+        }
+
+        this.verify();
+        assertEquals(80, this.index.getLocalSessions().size());
+    }
+
+    @Test
+    public void rebalance() throws Exception {
+        Random random = new Random(0);
+        int sessions = 10000;
+        for (int i = 0; i < sessions; ++i) {
+            this.create(String.valueOf(i));
+        }
+        for (int i = 0; i < sessions; i += 10) {
+            this.passivate(String.valueOf(i));
+        }
+        this.verify();
+
+        // Simulate members joining the cluster, while sessions continue to be created, accessed, passivated, and removed
+        // The rebuild following the first topology change is superseded by that of the second
+        TopologyChangedEvent<Key<String>, ?> event = mock(TopologyChangedEvent.class);
+        when(event.isPre()).thenReturn(false);
+        this.members.set(3);
+        this.index.topologyChanged(event);
+        this.members.set(2);
+        this.index.topologyChanged(event);
+
+        for (int i = 0; i < sessions; ++i) {
+            String id = String.valueOf(random.nextInt(sessions * 2));
+            Key<String> key = new SessionCreationMetaDataKey(id);
+            if (this.memory.contains(key)) {
+                if (random.nextBoolean()) {
+                    this.passivate(id);
+                } else {
+                    this.remove(id);
+                }
+            } else if (this.store.contains(key)) {
+                this.activate(id);
+            } else {
+                this.create(id);
+            }
+        }
+
+        // Wait for rebuild to complete
+        this.executor.submit(() -> { }).get(1, TimeUnit.MINUTES);
+
+        this.verify();
+    }
+
+    private void verify() {
+        Set<Key<String>> local = new HashSet<>(this.memory);
+        local.addAll(this.store);
+        assertEquals(this.scan(local), this.index.getLocalSessions());
+        assertEquals(this.scan(this.memory), this.index.getActiveSessions());
+    }
+
+    // Equivalent to a full scan of the cache for local sessions
+    private Set<String> scan(Set<Key<String>> keys) {
+        return keys.stream().filter(new SessionCreationMetaDataKeyFilter().and(this.locality::isLocal)).map(Key::getValue).collect(Collectors.toSet());
+    }
+
+    private void create(String id) {
+        Key<String> key = new SessionCreationMetaDataKey(id);
+        this.memory.add(key);
+        CacheEntryCreatedEvent<Key<String>, ?> event = mock(CacheEntryCreatedEvent.class);
+        when(event.isPre()).thenReturn(false);
+        when(event.getKey()).thenReturn(key);
+        this.index.created(event);
+    }
+
+    private void remove(String id) {
+        Key<String> key = new SessionCreationMetaDataKey(id);
+        this.memory.remove(key);
+        this.store.remove(key);
+        CacheEntryRemovedEvent<Key<String>, ?> event = mock(CacheEntryRemovedEvent.class);
+        when(event.isPre()).thenReturn(false);
+        when(event.getKey()).thenReturn(key);
+        this.index.removed(event);
+    }
+
+    private void passivate(String id) {
+        Key<String> key = new SessionCreationMetaDataKey(id);
+        this.store.add(key);
+        this.memory.remove(key);
+        CacheEntryPassivatedEvent<Key<String>, ?> event = mock(CacheEntryPassivatedEvent.class);
+        when(event.isPre()).thenReturn(false);
+        when(event.getKey()).thenReturn(key);
+        this.index.passivated(event);
+    }
+
+    private void activate(String id) {
+        Key<String> key = new SessionCreationMetaDataKey(id);
+        this.memory.add(key);
+        this.store.remove(key);
+        CacheEntryActivatedEvent<Key<String>, ?> event = mock(CacheEntryActivatedEvent.class);
+        when(event.isPre()).thenReturn(false);
+        when(event.getKey()).thenReturn(key);
+        this.index.activated(event);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.clustering.ee.Batcher;
+import org.wildfly.clustering.ee.Remover;
+import org.wildfly.clustering.ee.infinispan.TransactionBatch;
+import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
+
+/**
+ * Unit test for {@link TimingWheelSessionExpirationScheduler}.
+ *
+ */
+public class TimingWheelSessionExpirationSchedulerTestCase {
+
+    private final Batcher<TransactionBatch> batcher = mock(Batcher.class);
+    private final TransactionBatch batch = mock(TransactionBatch.class);
+    private final Remover<String> remover = mock(Remover.class);
+    private final ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+    private final Clock clock = mock(Clock.class);
+    private final AtomicLong time = new AtomicLong(TimeUnit.DAYS.toMillis(1L));
+
+    @Before
+    public void init() {
+        when(this.batcher.createBatch()).thenReturn(this.batch);
+        when(this.executor.scheduleWithFixedDelay(any(), anyLong(), anyLong(), any())).thenReturn(mock(ScheduledFuture.class));
+        when(this.clock.millis()).thenAnswer(invocation -> this.time.get());
+    }
+
+    private TimingWheelSessionExpirationScheduler createScheduler() {
+        return new TimingWheelSessionExpirationScheduler(this.batcher, this.remover, Duration.ofMillis(10L), 16, 10, this.executor, this.clock);
+    }
+
+    private ImmutableSessionMetaData createMetaData(Duration maxInactiveInterval) {
+        ImmutableSessionMetaData metaData = mock(ImmutableSessionMetaData.class);
+        when(metaData.getMaxInactiveInterval()).thenReturn(maxInactiveInterval);
+        when(metaData.getLastAccessedTime()).thenReturn(Instant.ofEpochMilli(this.time.get()));
+        return metaData;
+    }
+
+    @Test
+    public void test() {
+        ImmutableSessionMetaData immortalSessionMetaData = this.createMetaData(Duration.ZERO);
+        ImmutableSessionMetaData expiringSessionMetaData = this.createMetaData(Duration.ofMillis(1L));
+        ImmutableSessionMetaData canceledSessionMetaData = this.createMetaData(Duration.ofSeconds(100L));
+        String immortalSessionId = "immortal";
+        String expiringSessionId = "expiring";
+        String canceledSessionId = "canceled";
+
+        try (TimingWheelSessionExpirationScheduler scheduler = this.createScheduler()) {
+            scheduler.schedule(immortalSessionId, immortalSessionMetaData);
+            scheduler.schedule(canceledSessionId, canceledSessionMetaData);
+            scheduler.schedule(expiringSessionId, expiringSessionMetaData);
+
+            // Advance by more than a full rotation of the wheel
+            this.time.addAndGet(TimeUnit.SECONDS.toMillis(1L));
+            scheduler.advance();
+
+            scheduler.cancel(canceledSessionId);
+            scheduler.schedule(canceledSessionId, canceledSessionMetaData);
+
+            this.time.addAndGet(TimeUnit.SECONDS.toMillis(1L));
+            scheduler.advance();
+        }
+
+        verify(this.remover, never()).remove(immortalSessionId);
+        verify(this.remover).remove(expiringSessionId);
+        verify(this.remover, never()).remove(canceledSessionId);
+        verify(this.batch).close();
+    }
+
+    @Test
+    public void failedCommit() {
+        List<String> sessionIds = Arrays.asList("a", "b", "c");
+        ImmutableSessionMetaData metaData = this.createMetaData(Duration.ofMillis(1L));
+        doThrow(new IllegalStateException()).doNothing().when(this.batch).close();
+
+        try (TimingWheelSessionExpirationScheduler scheduler = this.createScheduler()) {
+            for (String sessionId : sessionIds) {
+                scheduler.schedule(sessionId, metaData);
+            }
+
+            this.time.addAndGet(TimeUnit.SECONDS.toMillis(1L));
+            scheduler.advance();
+
+            // Subsequent expirations are unaffected
+            scheduler.schedule("d", this.createMetaData(Duration.ofMillis(1L)));
+
+            this.time.addAndGet(TimeUnit.SECONDS.toMillis(1L));
+            scheduler.advance();
+        }
+
+        // Listeners were notified before the commit failed, so sessions must only be purged on retry
+        for (String sessionId : sessionIds) {
+            verify(this.remover).remove(sessionId);
+            verify(this.remover).purge(sessionId);
+        }
+        verify(this.remover).remove("d");
+        verify(this.batch, times(sessionIds.size() + 2)).close();
+    }
+
+    @Test
+    public void failedRemove() {
+        List<String> sessionIds = Arrays.asList("a", "b", "c", "d");
+        String failedSessionId = "b";
+        ImmutableSessionMetaData metaData = this.createMetaData(Duration.ofMillis(1L));
+        when(this.remover.remove(failedSessionId)).thenThrow(new IllegalStateException()).thenReturn(true);
+
+        try (TimingWheelSessionExpirationScheduler scheduler = this.createScheduler()) {
+            for (String sessionId : sessionIds) {
+                scheduler.schedule(sessionId, metaData);
+            }
+
+            this.time.addAndGet(TimeUnit.SECONDS.toMillis(1L));
+            scheduler.advance();
+        }
+
+        verify(this.batch).discard();
+        // The failed session is retried, and all others are removed exactly once, regardless of their order within the batch
+        verify(this.remover, times(2)).remove(failedSessionId);
+        verify(this.remover, never()).purge(failedSessionId);
+        for (String sessionId : sessionIds) {
+            if (!sessionId.equals(failedSessionId)) {
+                verify(this.remover).remove(sessionId);
+            }
+        }
+    }
+}
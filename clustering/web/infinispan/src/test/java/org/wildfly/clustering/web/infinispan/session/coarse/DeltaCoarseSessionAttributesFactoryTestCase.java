@@ -0,0 +1,151 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.infinispan.session.coarse;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.junit.Before;
+import org.junit.Test;
+import org.wildfly.clustering.ee.infinispan.CacheProperties;
+import org.wildfly.clustering.marshalling.spi.InvalidSerializedFormException;
+import org.wildfly.clustering.marshalling.spi.Marshaller;
+import org.wildfly.clustering.web.infinispan.session.SessionAttributes;
+import org.wildfly.clustering.web.infinispan.session.SessionAttributesFactory;
+import org.wildfly.clustering.web.session.ImmutableSessionAttributes;
+
+/**
+ * Unit test for {@link DeltaCoarseSessionAttributesFactory}.
+ */
+public class DeltaCoarseSessionAttributesFactoryTestCase {
+    private final Cache<SessionAttributesKey, Map<String, Object>> cache = mock(Cache.class);
+    private final AdvancedCache<SessionAttributesKey, Map<String, Object>> advancedCache = mock(AdvancedCache.class);
+    private final Marshaller<Object, Object> marshaller = mock(Marshaller.class);
+    private final CacheProperties properties = mock(CacheProperties.class);
+
+    private final SessionAttributesFactory<Map<String, Object>> factory = new DeltaCoarseSessionAttributesFactory<>(this.cache, this.marshaller, this.properties);
+
+    @Before
+    public void init() {
+        when(this.cache.getAdvancedCache()).thenReturn(this.advancedCache);
+        when(this.advancedCache.withFlags(Flag.IGNORE_RETURN_VALUES)).thenReturn(this.advancedCache);
+    }
+
+    @Test
+    public void createValue() {
+        String id = "id";
+
+        when(this.properties.isLockOnRead()).thenReturn(false);
+
+        Map<String, Object> result = this.factory.createValue(id, null);
+
+        assertTrue(result.isEmpty());
+        // Without pessimistic locking, attributes may be accessed concurrently
+        assertTrue(result instanceof ConcurrentHashMap);
+        verify(this.advancedCache).put(new SessionAttributesKey(id), Collections.emptyMap());
+
+        when(this.properties.isLockOnRead()).thenReturn(true);
+
+        result = this.factory.createValue(id, null);
+
+        assertTrue(result.isEmpty());
+        assertTrue(result instanceof HashMap);
+    }
+
+    @Test
+    public void findValue() throws InvalidSerializedFormException {
+        String missingId = "missing";
+        String existingId = "existing";
+        Object marshalledValue = new Object();
+        Object value = new Object();
+
+        when(this.cache.get(new SessionAttributesKey(missingId))).thenReturn(null);
+        when(this.cache.get(new SessionAttributesKey(existingId))).thenReturn(Collections.singletonMap("name", marshalledValue));
+        when(this.marshaller.read(marshalledValue)).thenReturn(value);
+
+        assertNull(this.factory.findValue(missingId));
+
+        Map<String, Object> result = this.factory.findValue(existingId);
+
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        assertSame(value, result.get("name"));
+        verify(this.advancedCache, never()).remove(any());
+    }
+
+    @Test
+    public void findInvalidValue() throws InvalidSerializedFormException {
+        String id = "id";
+        Object marshalledValue = new Object();
+
+        when(this.cache.get(new SessionAttributesKey(id))).thenReturn(Collections.singletonMap("name", marshalledValue));
+        when(this.marshaller.read(marshalledValue)).thenThrow(new InvalidSerializedFormException("invalid"));
+
+        assertNull(this.factory.findValue(id));
+
+        // Session attributes that cannot be read are removed
+        verify(this.advancedCache).remove(new SessionAttributesKey(id));
+    }
+
+    @Test
+    public void remove() {
+        String id = "id";
+
+        assertTrue(this.factory.remove(id));
+
+        verify(this.advancedCache).remove(new SessionAttributesKey(id));
+    }
+
+    @Test
+    public void createSessionAttributes() {
+        Map<String, Object> attributes = new HashMap<>();
+        Object value = new Object();
+        attributes.put("name", value);
+
+        SessionAttributes result = this.factory.createSessionAttributes("id", attributes);
+
+        assertTrue(result instanceof DeltaCoarseSessionAttributes);
+        assertEquals(attributes.keySet(), result.getAttributeNames());
+        assertSame(value, result.getAttribute("name"));
+    }
+
+    @Test
+    public void createImmutableSessionAttributes() {
+        Map<String, Object> attributes = new HashMap<>();
+        Object value = new Object();
+        attributes.put("name", value);
+
+        ImmutableSessionAttributes result = this.factory.createImmutableSessionAttributes("id", attributes);
+
+        assertEquals(attributes.keySet(), result.getAttributeNames());
+        assertSame(value, result.getAttribute("name"));
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.infinispan.session.coarse;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.wildfly.clustering.ee.infinispan.CacheProperties;
+import org.wildfly.clustering.marshalling.spi.Marshaller;
+import org.wildfly.clustering.web.infinispan.session.SessionAttributes;
+
+/**
+ * Unit test for {@link DeltaCoarseSessionAttributes}.
+ * Verifies that only the attributes mutated by a request are replicated on {@link SessionAttributes#close()}.
+ */
+public class DeltaCoarseSessionAttributesTestCase {
+    private final SessionAttributesKey key = new SessionAttributesKey("session");
+    private final Map<String, Object> attributes = new HashMap<>();
+    private final Cache<SessionAttributesKey, Map<String, Object>> cache = mock(Cache.class);
+    private final AdvancedCache<SessionAttributesKey, Map<String, Object>> advancedCache = mock(AdvancedCache.class);
+    private final Marshaller<Object, Object> marshaller = mock(Marshaller.class);
+    private final CacheProperties properties = mock(CacheProperties.class);
+
+    private final SessionAttributes sessionAttributes = new DeltaCoarseSessionAttributes<>(this.key, this.attributes, this.cache, this.marshaller, this.properties);
+
+    @Before
+    public void init() {
+        when(this.cache.getAdvancedCache()).thenReturn(this.advancedCache);
+        when(this.advancedCache.withFlags(Flag.FORCE_SYNCHRONOUS, Flag.IGNORE_RETURN_VALUES)).thenReturn(this.advancedCache);
+    }
+
+    @Test
+    public void setAttribute() {
+        String name = "name";
+        Object value = "value";
+        Object marshalledValue = new Object();
+        this.attributes.put("unchanged", "unchanged");
+
+        when(this.properties.isMarshalling()).thenReturn(true);
+        when(this.marshaller.isMarshallable(value)).thenReturn(true);
+        when(this.marshaller.write(value)).thenReturn(marshalledValue);
+
+        assertNull(this.sessionAttributes.setAttribute(name, value));
+        assertSame(value, this.attributes.get(name));
+
+        this.sessionAttributes.close();
+
+        Map<String, Object> delta = this.captureDelta();
+        assertEquals(1, delta.size());
+        assertSame(marshalledValue, delta.get(name));
+
+        // Mutations are cleared on close
+        this.sessionAttributes.close();
+
+        verify(this.advancedCache).compute(same(this.key), any(BiFunction.class));
+    }
+
+    @Test
+    public void setNonMarshallableAttribute() {
+        String name = "name";
+        Object value = new Object();
+
+        when(this.properties.isMarshalling()).thenReturn(true);
+        when(this.marshaller.isMarshallable(value)).thenReturn(false);
+
+        try {
+            this.sessionAttributes.setAttribute(name, value);
+            fail("Non-marshallable attribute should have been rejected");
+        } catch (IllegalArgumentException e) {
+            assertFalse(this.attributes.containsKey(name));
+        }
+
+        this.sessionAttributes.close();
+
+        verify(this.advancedCache, never()).compute(any(), any(BiFunction.class));
+    }
+
+    @Test
+    public void setNullAttribute() {
+        String name = "name";
+        Object value = "value";
+        this.attributes.put(name, value);
+
+        assertSame(value, this.sessionAttributes.setAttribute(name, null));
+        assertFalse(this.attributes.containsKey(name));
+
+        this.sessionAttributes.close();
+
+        Map<String, Object> delta = this.captureDelta();
+        assertEquals(1, delta.size());
+        assertTrue(delta.containsKey(name));
+        assertNull(delta.get(name));
+    }
+
+    @Test
+    public void removeAttribute() {
+        String name = "name";
+        Object value = "value";
+        this.attributes.put(name, value);
+
+        assertSame(value, this.sessionAttributes.removeAttribute(name));
+        assertFalse(this.attributes.containsKey(name));
+
+        this.sessionAttributes.close();
+
+        Map<String, Object> delta = this.captureDelta();
+        assertEquals(1, delta.size());
+        assertTrue(delta.containsKey(name));
+        assertNull(delta.get(name));
+
+        verify(this.marshaller, never()).write(any());
+    }
+
+    @Test
+    public void removeMissingAttribute() {
+        assertNull(this.sessionAttributes.removeAttribute("missing"));
+
+        this.sessionAttributes.close();
+
+        verify(this.advancedCache, never()).compute(any(), any(BiFunction.class));
+    }
+
+    @Test
+    public void getImmutableAttribute() {
+        String name = "name";
+        Object value = "value";
+        this.attributes.put(name, value);
+
+        assertSame(value, this.sessionAttributes.getAttribute(name));
+        assertNull(this.sessionAttributes.getAttribute("missing"));
+
+        this.sessionAttributes.close();
+
+        verify(this.advancedCache, never()).compute(any(), any(BiFunction.class));
+    }
+
+    @Test
+    public void getMutableAttribute() {
+        String mutableName = "mutable";
+        Object mutableValue = new AtomicInteger();
+        String immutableName = "immutable";
+        Object immutableValue = "value";
+        Object marshalledValue = new Object();
+        this.attributes.put(mutableName, mutableValue);
+        this.attributes.put(immutableName, immutableValue);
+
+        when(this.marshaller.write(mutableValue)).thenReturn(marshalledValue);
+
+        assertSame(mutableValue, this.sessionAttributes.getAttribute(mutableName));
+        assertSame(immutableValue, this.sessionAttributes.getAttribute(immutableName));
+
+        this.sessionAttributes.close();
+
+        // Mutable attributes may have been modified by the application, and must be replicated
+        Map<String, Object> delta = this.captureDelta();
+        assertEquals(1, delta.size());
+        assertSame(marshalledValue, delta.get(mutableName));
+    }
+
+    @Test
+    public void getAttributeNames() {
+        this.attributes.put("name", "value");
+
+        assertEquals(this.attributes.keySet(), this.sessionAttributes.getAttributeNames());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> captureDelta() {
+        ArgumentCaptor<SessionAttributesDeltaFunction> capturedFunction = ArgumentCaptor.forClass(SessionAttributesDeltaFunction.class);
+        verify(this.advancedCache).compute(same(this.key), capturedFunction.capture());
+        return capturedFunction.getValue().getDelta();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.coarse;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.clustering.marshalling.ExternalizerTester;
+
+/**
+ * Unit test for {@link SessionAttributesDeltaFunctionExternalizer}.
+ */
+public class SessionAttributesDeltaFunctionExternalizerTestCase {
+
+    @Test
+    public void test() throws ClassNotFoundException, IOException {
+        Map<String, String> delta = new HashMap<>();
+        delta.put("a", "1");
+        delta.put("b", null);
+        new ExternalizerTester<>(new SessionAttributesDeltaFunctionExternalizer<String>(), SessionAttributesDeltaFunctionExternalizerTestCase::assertEquals).test(new SessionAttributesDeltaFunction<>(delta));
+    }
+
+    @Test
+    public void apply() {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("a", "0");
+        attributes.put("b", "0");
+        attributes.put("c", "0");
+        Map<String, String> delta = new HashMap<>();
+        delta.put("a", "1");
+        delta.put("b", null);
+        delta.put("d", "1");
+        SessionAttributesKey key = new SessionAttributesKey("session");
+
+        Map<String, String> result = new SessionAttributesDeltaFunction<>(delta).apply(key, attributes);
+
+        Assert.assertNotSame(attributes, result);
+        Assert.assertEquals(3, result.size());
+        Assert.assertEquals("1", result.get("a"));
+        Assert.assertFalse(result.containsKey("b"));
+        Assert.assertEquals("0", result.get("c"));
+        Assert.assertEquals("1", result.get("d"));
+
+        Assert.assertNull(new SessionAttributesDeltaFunction<>(delta).apply(key, null));
+    }
+
+    static void assertEquals(SessionAttributesDeltaFunction<String> function1, SessionAttributesDeltaFunction<String> function2) {
+        Assert.assertEquals(function1.getDelta(), function2.getDelta());
+    }
+}
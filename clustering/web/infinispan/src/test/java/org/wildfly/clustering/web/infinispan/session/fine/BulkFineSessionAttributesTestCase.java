@@ -0,0 +1,293 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.clustering.web.infinispan.session.fine;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.wildfly.clustering.ee.Mutator;
+import org.wildfly.clustering.ee.infinispan.CacheProperties;
+import org.wildfly.clustering.marshalling.spi.InvalidSerializedFormException;
+import org.wildfly.clustering.marshalling.spi.Marshaller;
+import org.wildfly.clustering.web.infinispan.session.SessionAttributes;
+
+/**
+ * Unit test for {@link BulkFineSessionAttributes}.
+ * Verifies that a request reads attributes via a single getAll(...), writes attributes via a single putAll(...) on close, and records the round trips saved thereby.
+ */
+public class BulkFineSessionAttributesTestCase {
+    private static final String ID = "session";
+
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final ConcurrentMap<String, Integer> names = new ConcurrentHashMap<>();
+    private final Mutator namesMutator = mock(Mutator.class);
+    private final Cache<SessionAttributeKey, Object> cache = mock(Cache.class);
+    private final AdvancedCache<SessionAttributeKey, Object> advancedCache = mock(AdvancedCache.class);
+    private final Marshaller<Object, Object> marshaller = mock(Marshaller.class);
+    private final CacheProperties properties = mock(CacheProperties.class);
+    private final AtomicLong savedRoundTrips = new AtomicLong();
+    // Marshalled attribute values of the cache
+    private final Map<SessionAttributeKey, Object> values = new HashMap<>();
+    // Copies of the attributes written via each bulk write
+    private final List<Map<SessionAttributeKey, Object>> puts = new LinkedList<>();
+
+    private SessionAttributes attributes;
+
+    @Before
+    public void init() throws InvalidSerializedFormException {
+        when(this.cache.getAdvancedCache()).thenReturn(this.advancedCache);
+        when(this.advancedCache.withFlags(Flag.FORCE_SYNCHRONOUS, Flag.IGNORE_RETURN_VALUES)).thenReturn(this.advancedCache);
+        when(this.advancedCache.getAll(any())).thenAnswer(invocation -> {
+            Map<SessionAttributeKey, Object> result = new HashMap<>();
+            @SuppressWarnings("unchecked")
+            Set<SessionAttributeKey> keys = (Set<SessionAttributeKey>) invocation.getArguments()[0];
+            for (SessionAttributeKey key : keys) {
+                result.put(key, this.values.get(key));
+            }
+            return result;
+        });
+        when(this.marshaller.read(any())).thenAnswer(invocation -> {
+            Object value = invocation.getArguments()[0];
+            return (value != null) ? ((Marshalled) value).value : null;
+        });
+        when(this.marshaller.write(any())).thenAnswer(invocation -> new Marshalled(invocation.getArguments()[0]));
+        // Capture a copy of the bulk write, since its map is cleared on close
+        doAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            Map<SessionAttributeKey, Object> updates = (Map<SessionAttributeKey, Object>) invocation.getArguments()[0];
+            this.puts.add(new HashMap<>(updates));
+            return null;
+        }).when(this.advancedCache).putAll(any());
+
+        this.attributes = new BulkFineSessionAttributes<>(ID, this.sequence, this.names, this.namesMutator, this.cache, this.marshaller, this.properties, this.savedRoundTrips);
+    }
+
+    @Test
+    public void getAttribute() {
+        this.add("a", "A");
+        this.add("b", "B");
+        this.add("c", "C");
+
+        assertEquals("A", this.attributes.getAttribute("a"));
+        assertEquals("B", this.attributes.getAttribute("b"));
+        assertEquals("C", this.attributes.getAttribute("c"));
+        assertNull(this.attributes.getAttribute("missing"));
+
+        // All attributes are prefetched via a single bulk read
+        verify(this.advancedCache).getAll(any());
+        verify(this.cache, never()).get(any());
+
+        this.attributes.close();
+
+        // Immutable attributes need not be replicated
+        verify(this.advancedCache, never()).putAll(any());
+        verify(this.namesMutator, never()).mutate();
+        // 3 reads via 1 round trip
+        assertEquals(2L, this.savedRoundTrips.get());
+    }
+
+    @Test
+    public void getMutableAttribute() {
+        Object mutable = new AtomicInteger();
+        this.add("a", "A");
+        this.add("mutable", mutable);
+
+        assertEquals("A", this.attributes.getAttribute("a"));
+        assertSame(mutable, this.attributes.getAttribute("mutable"));
+
+        this.attributes.close();
+
+        // Mutable attributes are replicated on close, since they may have been modified by the application
+        Map<SessionAttributeKey, Object> updates = this.capturePutAll();
+        assertEquals(1, updates.size());
+        assertSame(mutable, ((Marshalled) updates.get(this.key("mutable"))).value);
+        verify(this.namesMutator, never()).mutate();
+        // 2 reads via 1 round trip
+        assertEquals(1L, this.savedRoundTrips.get());
+    }
+
+    @Test
+    public void setAttribute() {
+        this.add("a", "A");
+
+        assertEquals("A", this.attributes.setAttribute("a", "A2"));
+        assertNull(this.attributes.setAttribute("b", "B"));
+        assertNull(this.attributes.setAttribute("c", "C"));
+
+        // Writes are deferred until close
+        verify(this.advancedCache, never()).put(any(), any());
+        verify(this.advancedCache, never()).putAll(any());
+        verify(this.namesMutator, never()).mutate();
+        // Written values are visible to subsequent reads of the same request
+        assertEquals("B", this.attributes.getAttribute("b"));
+
+        this.attributes.close();
+
+        InOrder order = inOrder(this.advancedCache, this.namesMutator);
+        order.verify(this.advancedCache).putAll(any());
+        order.verify(this.namesMutator).mutate();
+
+        Map<SessionAttributeKey, Object> updates = this.capturePutAll();
+        assertEquals(3, updates.size());
+        assertEquals("A2", ((Marshalled) updates.get(this.key("a"))).value);
+        assertEquals("B", ((Marshalled) updates.get(this.key("b"))).value);
+        assertEquals("C", ((Marshalled) updates.get(this.key("c"))).value);
+        verify(this.advancedCache).getAll(any());
+        // 3 writes via 1 round trip, 1 read via 1 round trip
+        assertEquals(2L, this.savedRoundTrips.get());
+
+        // Mutations are cleared on close
+        this.attributes.close();
+
+        verify(this.advancedCache).putAll(any());
+        verify(this.namesMutator).mutate();
+        assertEquals(2L, this.savedRoundTrips.get());
+    }
+
+    @Test
+    public void removeAttribute() {
+        this.add("a", "A");
+        this.add("b", "B");
+        SessionAttributeKey removedKey = this.key("a");
+
+        assertEquals("A", this.attributes.removeAttribute("a"));
+        assertNull(this.attributes.removeAttribute("missing"));
+        assertNull(this.attributes.getAttribute("a"));
+        assertEquals("B", this.attributes.setAttribute("b", "B2"));
+
+        verify(this.advancedCache, never()).remove(any());
+
+        this.attributes.close();
+
+        // Attributes are written before, and removed after, their names
+        InOrder order = inOrder(this.advancedCache, this.namesMutator);
+        order.verify(this.advancedCache).putAll(any());
+        order.verify(this.namesMutator).mutate();
+        order.verify(this.advancedCache).remove(removedKey);
+
+        Map<SessionAttributeKey, Object> updates = this.capturePutAll();
+        assertEquals(1, updates.size());
+        assertEquals("B2", ((Marshalled) updates.get(this.key("b"))).value);
+        assertFalse(this.names.containsKey("a"));
+        // A single read and a single write save no round trips
+        assertEquals(0L, this.savedRoundTrips.get());
+    }
+
+    @Test
+    public void removeThenSetAttribute() {
+        this.add("a", "A");
+        SessionAttributeKey removedKey = this.key("a");
+
+        this.attributes.removeAttribute("a");
+        assertNull(this.attributes.setAttribute("a", "A2"));
+
+        this.attributes.close();
+
+        // A re-added attribute is written under a new identifier, and its previous value is removed
+        SessionAttributeKey addedKey = this.key("a");
+        assertNotEquals(removedKey, addedKey);
+        Map<SessionAttributeKey, Object> updates = this.capturePutAll();
+        assertEquals(1, updates.size());
+        assertEquals("A2", ((Marshalled) updates.get(addedKey)).value);
+        verify(this.advancedCache).remove(removedKey);
+        verify(this.advancedCache, never()).remove(addedKey);
+    }
+
+    @Test
+    public void getAttributeAfterClose() {
+        this.add("a", "A");
+        this.add("b", "B");
+
+        assertEquals("A", this.attributes.getAttribute("a"));
+        assertEquals("B", this.attributes.getAttribute("b"));
+
+        this.attributes.close();
+
+        // Modified by a concurrent request
+        this.values.put(this.key("a"), new Marshalled("A2"));
+
+        // A subsequent request prefetches attributes again
+        assertEquals("A2", this.attributes.getAttribute("a"));
+        assertEquals("B", this.attributes.getAttribute("b"));
+
+        verify(this.advancedCache, times(2)).getAll(any());
+        verify(this.cache, never()).get(any());
+
+        this.attributes.close();
+
+        // 2 reads via 1 round trip, per request
+        assertEquals(2L, this.savedRoundTrips.get());
+    }
+
+    @Test
+    public void close() {
+        this.attributes.close();
+
+        verify(this.advancedCache, never()).getAll(any());
+        verify(this.advancedCache, never()).putAll(any());
+        verify(this.advancedCache, never()).remove(any());
+        verify(this.namesMutator, never()).mutate();
+        assertEquals(0L, this.savedRoundTrips.get());
+    }
+
+    private void add(String name, Object value) {
+        int attributeId = this.sequence.incrementAndGet();
+        this.names.put(name, attributeId);
+        this.values.put(new SessionAttributeKey(ID, attributeId), new Marshalled(value));
+    }
+
+    private SessionAttributeKey key(String name) {
+        return new SessionAttributeKey(ID, this.names.get(name));
+    }
+
+    private Map<SessionAttributeKey, Object> capturePutAll() {
+        verify(this.advancedCache).putAll(any());
+        assertEquals(1, this.puts.size());
+        return this.puts.get(0);
+    }
+
+    // Simulates the marshalled form of an attribute value
+    private static class Marshalled {
+        final Object value;
+
+        Marshalled(Object value) {
+            this.value = value;
+        }
+    }
+}
@@ -36,6 +36,12 @@ public interface SessionManagerFactoryConfiguration<C extends Marshallability, L
 
     SessionAttributePersistenceStrategy getAttributePersistenceStrategy();
 
+    boolean isBulkAttributeAccess();
+
+    boolean isDeltaAttributeReplication();
+
+    boolean isLocalSessionIndex();
+
     String getServerName();
 
     String getDeploymentName();
@@ -101,7 +101,7 @@ public class DistributableSessionManagerFactory implements io.undertow.servlet.a
                 };
             }
         });
-        RecordableSessionManagerStatistics statistics = (inactiveSessionStatistics != null) ? new DistributableSessionManagerStatistics(manager, inactiveSessionStatistics, this.config.getMaxActiveSessions()) : null;
+        RecordableSessionManagerStatistics statistics = (inactiveSessionStatistics != null) ? new DistributableSessionManagerStatistics(manager, manager, inactiveSessionStatistics, this.config.getMaxActiveSessions()) : null;
         return new DistributableSessionManager(info.getDeploymentName(), manager, this.listeners, statistics);
     }
 }
@@ -116,6 +116,21 @@ public class DistributableSessionManagerFactoryServiceConfigurator extends Simpl
                 return strategies.get(config.getGranularity());
             }
 
+            @Override
+            public boolean isBulkAttributeAccess() {
+                return config.isBulkAttributeAccess();
+            }
+
+            @Override
+            public boolean isDeltaAttributeReplication() {
+                return config.isDeltaAttributeReplication();
+            }
+
+            @Override
+            public boolean isLocalSessionIndex() {
+                return config.isLocalSessionIndex();
+            }
+
             @Override
             public String getServerName() {
                 return config.getServerName();
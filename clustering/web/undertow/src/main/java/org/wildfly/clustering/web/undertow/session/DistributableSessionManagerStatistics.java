@@ -26,22 +26,26 @@ import java.util.concurrent.atomic.AtomicLong;
 
 import org.wildfly.clustering.web.session.ActiveSessionStatistics;
 import org.wildfly.clustering.web.session.InactiveSessionStatistics;
+import org.wildfly.clustering.web.session.SessionAttributeStatistics;
+import org.wildfly.extension.undertow.session.DistributableSessionStatistics;
 
 import io.undertow.server.session.Session;
 
 /**
  * @author Paul Ferraro
  */
-public class DistributableSessionManagerStatistics implements RecordableSessionManagerStatistics {
+public class DistributableSessionManagerStatistics implements RecordableSessionManagerStatistics, DistributableSessionStatistics {
 
     private final InactiveSessionStatistics inactiveSessionStatistics;
     private final ActiveSessionStatistics activeSessionStatistics;
+    private final SessionAttributeStatistics attributeStatistics;
     private final int maxActiveSessions;
     private volatile long startTime = System.currentTimeMillis();
     private final AtomicLong createdSessionCount = new AtomicLong();
 
-    public DistributableSessionManagerStatistics(ActiveSessionStatistics activeSessionStatistics, InactiveSessionStatistics inactiveSessionStatistics, int maxActiveSessions) {
+    public DistributableSessionManagerStatistics(ActiveSessionStatistics activeSessionStatistics, SessionAttributeStatistics attributeStatistics, InactiveSessionStatistics inactiveSessionStatistics, int maxActiveSessions) {
         this.activeSessionStatistics = activeSessionStatistics;
+        this.attributeStatistics = attributeStatistics;
         this.inactiveSessionStatistics = inactiveSessionStatistics;
         this.maxActiveSessions = maxActiveSessions;
         this.reset();
@@ -94,6 +98,11 @@ public class DistributableSessionManagerStatistics implements RecordableSessionM
         return this.inactiveSessionStatistics.getMeanSessionLifetime().toMillis();
     }
 
+    @Override
+    public long getSavedAttributeRoundTrips() {
+        return this.attributeStatistics.getSavedAttributeRoundTrips();
+    }
+
     @Override
     public long getStartTime() {
         return this.startTime;
@@ -23,6 +23,12 @@
 package org.jboss.as.connector.services.workmanager.transport;
 
 import java.io.Serializable;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -31,6 +37,10 @@ import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import javax.resource.spi.work.DistributableWork;
 import javax.resource.spi.work.WorkException;
@@ -38,8 +48,11 @@ import javax.resource.spi.work.WorkException;
 import org.jboss.as.connector.logging.ConnectorLogger;
 import org.jboss.jca.core.api.workmanager.DistributedWorkManager;
 import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.spi.workmanager.notification.NotificationListener;
+import org.jboss.jca.core.workmanager.WorkManagerCoordinator;
 import org.jboss.jca.core.workmanager.transport.remote.AbstractRemoteTransport;
 import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
+import org.jboss.threads.JBossThreadFactory;
 import org.wildfly.clustering.Registration;
 import org.wildfly.clustering.dispatcher.Command;
 import org.wildfly.clustering.dispatcher.CommandDispatcher;
@@ -52,25 +65,46 @@ import org.wildfly.clustering.service.concurrent.ServiceExecutor;
 import org.wildfly.clustering.service.concurrent.StampedLockServiceExecutor;
 import org.wildfly.common.function.ExceptionRunnable;
 import org.wildfly.common.function.ExceptionSupplier;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * {@link DistributedWorkManager}-specific transport based on a {@link CommandDispatcher}.
- * The current implementation is a direct translation of {@link org.jboss.jca.core.workmanager.transport.remote.jgroups.JGroupsTransport}.
+ * The current implementation is a direct translation of {@link org.jboss.jca.core.workmanager.transport.remote.jgroups.JGroupsTransport},
+ * except that statistics deltas are accumulated per member and sent as a single {@link DeltaStatisticsCommand} per statistics interval.
  * @author Paul Ferraro
  */
 public class CommandDispatcherTransport extends AbstractRemoteTransport<Node> implements GroupListener {
 
+    /**
+     * Interval, in milliseconds, at which accumulated statistics deltas are sent; 0, the default, sends each delta immediately.
+     * Members of releases that predate {@link DeltaStatisticsCommand} cannot process it, so this should only be enabled once all members of the cluster support it.
+     */
+    public static final String STATISTICS_INTERVAL_PROPERTY = "org.jboss.as.connector.workmanager.distributed.statistics-interval";
+    private static final Duration DEFAULT_STATISTICS_INTERVAL = Duration.ofMillis(Long.parseLong(WildFlySecurityManager.getPropertyPrivileged(STATISTICS_INTERVAL_PROPERTY, "0")));
+
     private final ServiceExecutor executor = new StampedLockServiceExecutor();
     private final CommandDispatcherFactory dispatcherFactory;
     private final String name;
+    private final Duration statisticsInterval;
+    // Statistics deltas not yet sent, per member, per work manager address, indexed by StatisticsDelta ordinal
+    private final Map<Node, Map<Address, int[]>> pendingDeltas = new HashMap<>();
 
     private volatile CommandDispatcher<CommandDispatcherTransport> dispatcher;
     private volatile Registration groupListenerRegistration;
+    private volatile ScheduledExecutorService statisticsExecutor;
     private volatile boolean initialized = false;
 
     public CommandDispatcherTransport(CommandDispatcherFactory dispatcherFactory, String name) {
+        this(dispatcherFactory, name, DEFAULT_STATISTICS_INTERVAL);
+    }
+
+    /**
+     * @param statisticsInterval the interval at which accumulated statistics deltas are sent to other members, or zero to send each delta immediately
+     */
+    public CommandDispatcherTransport(CommandDispatcherFactory dispatcherFactory, String name, Duration statisticsInterval) {
         this.dispatcherFactory = dispatcherFactory;
         this.name = name;
+        this.statisticsInterval = statisticsInterval;
     }
 
     @Override
@@ -82,13 +116,34 @@ public class CommandDispatcherTransport extends AbstractRemoteTransport<Node> im
     public void startup() throws Exception {
         this.dispatcher = this.dispatcherFactory.createCommandDispatcher(this.name, this);
         this.groupListenerRegistration = this.dispatcherFactory.getGroup().register(this);
+        if (!this.statisticsInterval.isZero() && !this.statisticsInterval.isNegative()) {
+            ThreadGroup group = new ThreadGroup(CommandDispatcherTransport.class.getSimpleName());
+            String pattern = "DistributedWorkManager statistics -- " + this.name;
+            ThreadFactory factory = AccessController.doPrivileged(new PrivilegedAction<ThreadFactory>() {
+                @Override
+                public ThreadFactory run() {
+                    return new JBossThreadFactory(group, Boolean.TRUE, null, pattern, null, null);
+                }
+            });
+            this.statisticsExecutor = Executors.newSingleThreadScheduledExecutor(factory);
+            long interval = this.statisticsInterval.toMillis();
+            this.statisticsExecutor.scheduleWithFixedDelay(this::sendStatistics, interval, interval, TimeUnit.MILLISECONDS);
+        }
         this.broadcast(new JoinCommand());
     }
 
     @Override
     public void shutdown() {
+        ScheduledExecutorService statisticsExecutor = this.statisticsExecutor;
+        if (statisticsExecutor != null) {
+            statisticsExecutor.shutdownNow();
+        }
         this.executor.close(() -> {
             try {
+                // Send remaining statistics deltas directly, since the executor no longer accepts tasks
+                for (Map.Entry<Node, Map<Address, int[]>> entry : this.removeStatistics().entrySet()) {
+                    this.createStatisticsTask(entry.getKey(), entry.getValue()).run();
+                }
                 this.broadcast(new LeaveCommand(this.getOwnAddress()));
             } catch (WorkException e) {
                 ConnectorLogger.ROOT_LOGGER.warn(e.getLocalizedMessage(), e);
@@ -116,6 +171,22 @@ public class CommandDispatcherTransport extends AbstractRemoteTransport<Node> im
 
     @Override
     protected Serializable sendMessage(Node physicalAddress, Request request, Serializable... parameters) throws WorkException {
+        if (this.statisticsExecutor != null) {
+            StatisticsDelta delta = StatisticsDelta.forRequest(request);
+            if (delta != null) {
+                this.addStatisticsDelta(physicalAddress, (Address) parameters[0], delta);
+                return null;
+            }
+            if (request == Request.CLEAR_DISTRIBUTED_STATISTICS) {
+                // Deltas accumulated before clearing must not be applied afterwards
+                synchronized (this.pendingDeltas) {
+                    this.pendingDeltas.remove(physicalAddress);
+                }
+            } else if (request == Request.GET_DISTRIBUTED_STATISTICS) {
+                // Make sure the member has seen our deltas before reporting its statistics
+                this.sendStatistics(physicalAddress);
+            }
+        }
         Command<?, CommandDispatcherTransport> command = createCommand(request, parameters);
         CommandDispatcher<CommandDispatcherTransport> dispatcher = this.dispatcher;
         ExceptionSupplier<Optional<Serializable>, WorkException> task = new ExceptionSupplier<Optional<Serializable>, WorkException>() {
@@ -134,6 +205,77 @@ public class CommandDispatcherTransport extends AbstractRemoteTransport<Node> im
         return this.executor.execute(task).orElse(null).orElse(null);
     }
 
+    /**
+     * Applies the accumulated statistics deltas of a remote member to the specified local work manager.
+     * The work manager and its listeners are resolved once for all deltas.
+     * @param address a work manager address
+     * @param counts the number of occurrences of each delta, indexed by {@link StatisticsDelta} ordinal
+     */
+    public void localDeltas(Address address, int[] counts) {
+        DistributedWorkManager dwm = WorkManagerCoordinator.getInstance().resolveDistributedWorkManager(address);
+        if (dwm != null) {
+            Collection<NotificationListener> listeners = new ArrayList<>(dwm.getNotificationListeners());
+            for (StatisticsDelta delta : StatisticsDelta.values()) {
+                int count = counts[delta.ordinal()];
+                if (count > 0) {
+                    for (NotificationListener listener : listeners) {
+                        delta.apply(listener, count);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addStatisticsDelta(Node member, Address address, StatisticsDelta delta) {
+        synchronized (this.pendingDeltas) {
+            this.pendingDeltas.computeIfAbsent(member, key -> new HashMap<>()).computeIfAbsent(address, key -> new int[StatisticsDelta.values().length])[delta.ordinal()] += 1;
+        }
+    }
+
+    /**
+     * Sends the statistics deltas accumulated for all members.
+     */
+    private void sendStatistics() {
+        for (Map.Entry<Node, Map<Address, int[]>> entry : this.removeStatistics().entrySet()) {
+            this.executor.execute(this.createStatisticsTask(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    /**
+     * Sends the statistics deltas accumulated for the specified member.
+     */
+    private void sendStatistics(Node member) {
+        Map<Address, int[]> deltas;
+        synchronized (this.pendingDeltas) {
+            deltas = this.pendingDeltas.remove(member);
+        }
+        if (deltas != null) {
+            this.executor.execute(this.createStatisticsTask(member, deltas));
+        }
+    }
+
+    private Map<Node, Map<Address, int[]>> removeStatistics() {
+        synchronized (this.pendingDeltas) {
+            if (this.pendingDeltas.isEmpty()) return Collections.emptyMap();
+            Map<Node, Map<Address, int[]>> deltas = new HashMap<>(this.pendingDeltas);
+            this.pendingDeltas.clear();
+            return deltas;
+        }
+    }
+
+    private Runnable createStatisticsTask(Node member, Map<Address, int[]> deltas) {
+        CommandDispatcher<CommandDispatcherTransport> dispatcher = this.dispatcher;
+        return () -> {
+            try {
+                dispatcher.executeOnMember(new DeltaStatisticsCommand(deltas), member).toCompletableFuture().join();
+            } catch (CancellationException e) {
+                // Ignore
+            } catch (CommandDispatcherException | CompletionException e) {
+                ConnectorLogger.ROOT_LOGGER.warn(e.getLocalizedMessage(), e);
+            }
+        };
+    }
+
     private void broadcast(Command<Void, CommandDispatcherTransport> command) throws WorkException {
         CommandDispatcher<CommandDispatcherTransport> dispatcher = this.dispatcher;
         ExceptionRunnable<WorkException> task = new ExceptionRunnable<WorkException>() {
@@ -232,6 +374,9 @@ public class CommandDispatcherTransport extends AbstractRemoteTransport<Node> im
         Runnable task = () -> {
             Set<Node> leavers = new HashSet<>(previousMembership.getMembers());
             leavers.removeAll(membership.getMembers());
+            synchronized (this.pendingDeltas) {
+                this.pendingDeltas.keySet().removeAll(leavers);
+            }
             // Handle abrupt leavers
             for (Node leaver : leavers) {
                 this.leave(leaver);
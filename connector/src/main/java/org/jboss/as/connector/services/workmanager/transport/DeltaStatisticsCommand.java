@@ -0,0 +1,55 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.services.workmanager.transport;
+
+import java.util.Map;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.wildfly.clustering.dispatcher.Command;
+
+/**
+ * Applies the statistics deltas accumulated by a member since its previous statistics update.
+ * Replaces the individual Delta*Command messages when statistics propagation is coalesced.
+ */
+public class DeltaStatisticsCommand implements Command<Void, CommandDispatcherTransport> {
+    private static final long serialVersionUID = 3585146374532585418L;
+
+    // Counts per work manager address, indexed by StatisticsDelta ordinal
+    private final Map<Address, int[]> deltas;
+
+    public DeltaStatisticsCommand(Map<Address, int[]> deltas) {
+        this.deltas = deltas;
+    }
+
+    Map<Address, int[]> getDeltas() {
+        return this.deltas;
+    }
+
+    @Override
+    public Void execute(CommandDispatcherTransport transport) {
+        for (Map.Entry<Address, int[]> entry : this.deltas.entrySet()) {
+            transport.localDeltas(entry.getKey(), entry.getValue());
+        }
+        return null;
+    }
+}
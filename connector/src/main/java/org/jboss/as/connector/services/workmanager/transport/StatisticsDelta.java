@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.services.workmanager.transport;
+
+import org.jboss.jca.core.spi.workmanager.notification.NotificationListener;
+import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
+
+/**
+ * The statistics deltas propagated by a {@link CommandDispatcherTransport}, and how they are applied to the notification listeners of a work manager.
+ */
+enum StatisticsDelta {
+    DO_WORK_ACCEPTED(Request.DELTA_DOWORK_ACCEPTED) {
+        @Override
+        void apply(NotificationListener listener) {
+            listener.deltaDoWorkAccepted();
+        }
+    },
+    DO_WORK_REJECTED(Request.DELTA_DOWORK_REJECTED) {
+        @Override
+        void apply(NotificationListener listener) {
+            listener.deltaDoWorkRejected();
+        }
+    },
+    SCHEDULE_WORK_ACCEPTED(Request.DELTA_SCHEDULEWORK_ACCEPTED) {
+        @Override
+        void apply(NotificationListener listener) {
+            listener.deltaScheduleWorkAccepted();
+        }
+    },
+    SCHEDULE_WORK_REJECTED(Request.DELTA_SCHEDULEWORK_REJECTED) {
+        @Override
+        void apply(NotificationListener listener) {
+            listener.deltaScheduleWorkRejected();
+        }
+    },
+    START_WORK_ACCEPTED(Request.DELTA_STARTWORK_ACCEPTED) {
+        @Override
+        void apply(NotificationListener listener) {
+            listener.deltaStartWorkAccepted();
+        }
+    },
+    START_WORK_REJECTED(Request.DELTA_STARTWORK_REJECTED) {
+        @Override
+        void apply(NotificationListener listener) {
+            listener.deltaStartWorkRejected();
+        }
+    },
+    WORK_FAILED(Request.DELTA_WORK_FAILED) {
+        @Override
+        void apply(NotificationListener listener) {
+            listener.deltaWorkFailed();
+        }
+    },
+    WORK_SUCCESSFUL(Request.DELTA_WORK_SUCCESSFUL) {
+        @Override
+        void apply(NotificationListener listener) {
+            listener.deltaWorkSuccessful();
+        }
+    },
+    ;
+    private final Request request;
+
+    StatisticsDelta(Request request) {
+        this.request = request;
+    }
+
+    /**
+     * Applies a single occurrence of this delta to the specified listener.
+     */
+    abstract void apply(NotificationListener listener);
+
+    /**
+     * Applies the specified number of occurrences of this delta to the specified listener.
+     */
+    void apply(NotificationListener listener, int count) {
+        for (int i = 0; i < count; ++i) {
+            this.apply(listener);
+        }
+    }
+
+    /**
+     * Returns the statistics delta sent by the specified request.
+     * @param request a transport request
+     * @return a statistics delta, or null if the request does not send a statistics delta
+     */
+    static StatisticsDelta forRequest(Request request) {
+        for (StatisticsDelta delta : values()) {
+            if (delta.request == request) {
+                return delta;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.services.workmanager.transport;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.wildfly.clustering.Registration;
+import org.wildfly.clustering.dispatcher.Command;
+import org.wildfly.clustering.dispatcher.CommandDispatcher;
+import org.wildfly.clustering.dispatcher.CommandDispatcherFactory;
+import org.wildfly.clustering.group.Group;
+import org.wildfly.clustering.group.Membership;
+import org.wildfly.clustering.group.Node;
+
+/**
+ * Unit test for the statistics propagation of {@link CommandDispatcherTransport}.
+ */
+public class CommandDispatcherTransportTestCase {
+
+    private static final String NAME = "transport";
+
+    private final CommandDispatcherFactory factory = mock(CommandDispatcherFactory.class);
+    private final Group group = mock(Group.class);
+    private final CommandDispatcher<CommandDispatcherTransport> dispatcher = mock(CommandDispatcher.class);
+    private final Node localMember = mock(Node.class);
+    private final Node member1 = mock(Node.class);
+    private final Node member2 = mock(Node.class);
+    private final Address address = new Address("id", "name", NAME);
+
+    @Before
+    public void init() throws Exception {
+        when(this.factory.getGroup()).thenReturn(this.group);
+        when(this.group.register(any())).thenReturn(mock(Registration.class));
+        when(this.group.getLocalMember()).thenReturn(this.localMember);
+        when(this.localMember.getName()).thenReturn("local");
+        doReturn(Collections.emptyMap()).when(this.dispatcher).executeOnGroup(any());
+        doReturn(CompletableFuture.completedFuture(null)).when(this.dispatcher).executeOnMember(any(), any());
+    }
+
+    private CommandDispatcherTransport startTransport(CommandDispatcherTransport transport) throws Exception {
+        when(this.factory.createCommandDispatcher(NAME, transport)).thenReturn(this.dispatcher);
+        transport.startup();
+        return transport;
+    }
+
+    private List<Command<?, CommandDispatcherTransport>> sentCommands(Node member) throws Exception {
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Command<?, CommandDispatcherTransport>> captor = ArgumentCaptor.forClass(Command.class);
+        verify(this.dispatcher, atLeast(0)).executeOnMember(captor.capture(), same(member));
+        return captor.getAllValues();
+    }
+
+    private static int[] counts(StatisticsDelta... deltas) {
+        int[] counts = new int[StatisticsDelta.values().length];
+        for (StatisticsDelta delta : deltas) {
+            counts[delta.ordinal()] += 1;
+        }
+        return counts;
+    }
+
+    private static void assertDeltas(Command<?, CommandDispatcherTransport> command, Address address, int[] expected) {
+        assertTrue(command.getClass().getName(), command instanceof DeltaStatisticsCommand);
+        Map<Address, int[]> deltas = ((DeltaStatisticsCommand) command).getDeltas();
+        assertEquals(Collections.singleton(address), deltas.keySet());
+        assertArrayEquals(expected, deltas.get(address));
+    }
+
+    @Test
+    public void immediateByDefault() throws Exception {
+        CommandDispatcherTransport transport = this.startTransport(new CommandDispatcherTransport(this.factory, NAME));
+
+        assertNull(transport.sendMessage(this.member1, Request.DELTA_DOWORK_ACCEPTED, this.address));
+
+        List<Command<?, CommandDispatcherTransport>> commands = this.sentCommands(this.member1);
+        assertEquals(1, commands.size());
+        assertTrue(commands.get(0) instanceof DeltaDoWorkAcceptedCommand);
+
+        transport.shutdown();
+
+        assertEquals(1, this.sentCommands(this.member1).size());
+    }
+
+    @Test
+    public void coalesce() throws Exception {
+        CommandDispatcherTransport transport = this.startTransport(new CommandDispatcherTransport(this.factory, NAME, Duration.ofHours(1)));
+
+        transport.sendMessage(this.member1, Request.DELTA_DOWORK_ACCEPTED, this.address);
+        transport.sendMessage(this.member1, Request.DELTA_DOWORK_ACCEPTED, this.address);
+        transport.sendMessage(this.member1, Request.DELTA_DOWORK_ACCEPTED, this.address);
+        transport.sendMessage(this.member1, Request.DELTA_WORK_SUCCESSFUL, this.address);
+        transport.sendMessage(this.member2, Request.DELTA_DOWORK_REJECTED, this.address);
+
+        // Nothing is sent until the next statistics interval
+        verify(this.dispatcher, never()).executeOnMember(any(), any());
+
+        // Pending deltas are sent on shutdown
+        transport.shutdown();
+
+        List<Command<?, CommandDispatcherTransport>> commands = this.sentCommands(this.member1);
+        assertEquals(1, commands.size());
+        assertDeltas(commands.get(0), this.address, counts(StatisticsDelta.DO_WORK_ACCEPTED, StatisticsDelta.DO_WORK_ACCEPTED, StatisticsDelta.DO_WORK_ACCEPTED, StatisticsDelta.WORK_SUCCESSFUL));
+
+        commands = this.sentCommands(this.member2);
+        assertEquals(1, commands.size());
+        assertDeltas(commands.get(0), this.address, counts(StatisticsDelta.DO_WORK_REJECTED));
+    }
+
+    @Test
+    public void flushBeforeRead() throws Exception {
+        CommandDispatcherTransport transport = this.startTransport(new CommandDispatcherTransport(this.factory, NAME, Duration.ofHours(1)));
+
+        transport.sendMessage(this.member1, Request.DELTA_STARTWORK_ACCEPTED, this.address);
+        transport.sendMessage(this.member2, Request.DELTA_STARTWORK_REJECTED, this.address);
+
+        transport.sendMessage(this.member1, Request.GET_DISTRIBUTED_STATISTICS, this.address);
+
+        // The member receives our deltas before it reports its statistics
+        List<Command<?, CommandDispatcherTransport>> commands = this.sentCommands(this.member1);
+        assertEquals(2, commands.size());
+        assertDeltas(commands.get(0), this.address, counts(StatisticsDelta.START_WORK_ACCEPTED));
+        assertTrue(commands.get(1) instanceof DistributedStatisticsCommand);
+
+        // Deltas for other members remain pending
+        assertTrue(this.sentCommands(this.member2).isEmpty());
+
+        transport.shutdown();
+
+        assertEquals(2, this.sentCommands(this.member1).size());
+        assertEquals(1, this.sentCommands(this.member2).size());
+    }
+
+    @Test
+    public void clear() throws Exception {
+        CommandDispatcherTransport transport = this.startTransport(new CommandDispatcherTransport(this.factory, NAME, Duration.ofHours(1)));
+
+        transport.sendMessage(this.member1, Request.DELTA_WORK_FAILED, this.address);
+
+        transport.sendMessage(this.member1, Request.CLEAR_DISTRIBUTED_STATISTICS, this.address);
+
+        transport.shutdown();
+
+        // Deltas accumulated before clearing are dropped
+        List<Command<?, CommandDispatcherTransport>> commands = this.sentCommands(this.member1);
+        assertEquals(1, commands.size());
+        assertTrue(commands.get(0) instanceof ClearDistributedStatisticsCommand);
+    }
+
+    @Test
+    public void departedMember() throws Exception {
+        CommandDispatcherTransport transport = this.startTransport(new CommandDispatcherTransport(this.factory, NAME, Duration.ofHours(1)));
+
+        transport.sendMessage(this.member1, Request.DELTA_SCHEDULEWORK_ACCEPTED, this.address);
+        transport.sendMessage(this.member2, Request.DELTA_SCHEDULEWORK_ACCEPTED, this.address);
+
+        Membership previousMembership = mock(Membership.class);
+        Membership membership = mock(Membership.class);
+        when(previousMembership.getMembers()).thenReturn(Arrays.asList(this.localMember, this.member1, this.member2));
+        when(membership.getMembers()).thenReturn(Arrays.asList(this.localMember, this.member1));
+
+        transport.membershipChanged(previousMembership, membership, false);
+
+        transport.shutdown();
+
+        // Deltas for departed members are discarded
+        assertTrue(this.sentCommands(this.member2).isEmpty());
+
+        List<Command<?, CommandDispatcherTransport>> commands = this.sentCommands(this.member1);
+        assertEquals(1, commands.size());
+        assertDeltas(commands.get(0), this.address, counts(StatisticsDelta.SCHEDULE_WORK_ACCEPTED));
+    }
+}
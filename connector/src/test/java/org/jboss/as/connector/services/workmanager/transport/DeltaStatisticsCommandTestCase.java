@@ -0,0 +1,97 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.services.workmanager.transport;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.jca.core.spi.workmanager.Address;
+import org.jboss.jca.core.spi.workmanager.notification.NotificationListener;
+import org.jboss.jca.core.workmanager.transport.remote.ProtocolMessages.Request;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link DeltaStatisticsCommand} and {@link StatisticsDelta}.
+ */
+public class DeltaStatisticsCommandTestCase {
+
+    @Test
+    public void execute() {
+        CommandDispatcherTransport transport = mock(CommandDispatcherTransport.class);
+        Address address1 = new Address("id1", "name1", "transport");
+        Address address2 = new Address("id2", "name2", "transport");
+        int[] counts1 = new int[StatisticsDelta.values().length];
+        int[] counts2 = new int[StatisticsDelta.values().length];
+        counts1[StatisticsDelta.DO_WORK_ACCEPTED.ordinal()] = 1000;
+        counts2[StatisticsDelta.WORK_FAILED.ordinal()] = 2;
+        Map<Address, int[]> deltas = new HashMap<>();
+        deltas.put(address1, counts1);
+        deltas.put(address2, counts2);
+
+        new DeltaStatisticsCommand(deltas).execute(transport);
+
+        // Each work manager applies all of its deltas at once
+        verify(transport).localDeltas(address1, counts1);
+        verify(transport).localDeltas(address2, counts2);
+        verifyNoMoreInteractions(transport);
+    }
+
+    @Test
+    public void apply() {
+        NotificationListener listener = mock(NotificationListener.class);
+
+        StatisticsDelta.DO_WORK_ACCEPTED.apply(listener, 1);
+        StatisticsDelta.DO_WORK_REJECTED.apply(listener, 2);
+        StatisticsDelta.SCHEDULE_WORK_ACCEPTED.apply(listener, 3);
+        StatisticsDelta.SCHEDULE_WORK_REJECTED.apply(listener, 4);
+        StatisticsDelta.START_WORK_ACCEPTED.apply(listener, 5);
+        StatisticsDelta.START_WORK_REJECTED.apply(listener, 6);
+        StatisticsDelta.WORK_FAILED.apply(listener, 7);
+        StatisticsDelta.WORK_SUCCESSFUL.apply(listener, 0);
+
+        verify(listener, times(1)).deltaDoWorkAccepted();
+        verify(listener, times(2)).deltaDoWorkRejected();
+        verify(listener, times(3)).deltaScheduleWorkAccepted();
+        verify(listener, times(4)).deltaScheduleWorkRejected();
+        verify(listener, times(5)).deltaStartWorkAccepted();
+        verify(listener, times(6)).deltaStartWorkRejected();
+        verify(listener, times(7)).deltaWorkFailed();
+        verify(listener, never()).deltaWorkSuccessful();
+    }
+
+    @Test
+    public void forRequest() {
+        assertSame(StatisticsDelta.DO_WORK_ACCEPTED, StatisticsDelta.forRequest(Request.DELTA_DOWORK_ACCEPTED));
+        assertSame(StatisticsDelta.DO_WORK_REJECTED, StatisticsDelta.forRequest(Request.DELTA_DOWORK_REJECTED));
+        assertSame(StatisticsDelta.SCHEDULE_WORK_ACCEPTED, StatisticsDelta.forRequest(Request.DELTA_SCHEDULEWORK_ACCEPTED));
+        assertSame(StatisticsDelta.SCHEDULE_WORK_REJECTED, StatisticsDelta.forRequest(Request.DELTA_SCHEDULEWORK_REJECTED));
+        assertSame(StatisticsDelta.START_WORK_ACCEPTED, StatisticsDelta.forRequest(Request.DELTA_STARTWORK_ACCEPTED));
+        assertSame(StatisticsDelta.START_WORK_REJECTED, StatisticsDelta.forRequest(Request.DELTA_STARTWORK_REJECTED));
+        assertSame(StatisticsDelta.WORK_FAILED, StatisticsDelta.forRequest(Request.DELTA_WORK_FAILED));
+        assertSame(StatisticsDelta.WORK_SUCCESSFUL, StatisticsDelta.forRequest(Request.DELTA_WORK_SUCCESSFUL));
+        assertNull(StatisticsDelta.forRequest(Request.GET_DISTRIBUTED_STATISTICS));
+    }
+}
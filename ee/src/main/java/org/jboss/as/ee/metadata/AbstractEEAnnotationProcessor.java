@@ -21,6 +21,7 @@
  */
 package org.jboss.as.ee.metadata;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -46,15 +47,14 @@ public abstract class AbstractEEAnnotationProcessor implements DeploymentUnitPro
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
 
         final EEModuleDescription eeModuleDescription = deploymentUnit.getAttachment(Attachments.EE_MODULE_DESCRIPTION);
-        final CompositeIndex index = deploymentUnit.getAttachment(org.jboss.as.server.deployment.Attachments.COMPOSITE_ANNOTATION_INDEX);
+        final CompositeIndex index = getCompositeIndex(deploymentUnit);
         PropertyReplacer propertyReplacer = EJBAnnotationPropertyReplacement.propertyReplacer(deploymentUnit);
         if (index == null || eeModuleDescription == null) {
             return;
         }
 
         final List<ClassAnnotationInformationFactory> factories = annotationInformationFactories();
-        for (final ClassAnnotationInformationFactory factory : factories) {
-            final Map<String, ClassAnnotationInformation<?, ?>> data = factory.createAnnotationInformation(index, propertyReplacer);
+        for (final Map<String, ClassAnnotationInformation<?, ?>> data : createAnnotationInformation(deploymentUnit, factories, index, propertyReplacer)) {
             for (Map.Entry<String, ClassAnnotationInformation<?, ?>> entry : data.entrySet()) {
                 EEModuleClassDescription clazz = eeModuleDescription.addOrGetLocalClassDescription(entry.getKey());
                 clazz.addAnnotationInformation(entry.getValue());
@@ -64,6 +64,33 @@ public abstract class AbstractEEAnnotationProcessor implements DeploymentUnitPro
         afterAnnotationsProcessed(phaseContext, deploymentUnit);
     }
 
+    /**
+     * Returns the annotation index that the annotation information factories are applied to.
+     * @param deploymentUnit The deployment unit
+     * @return the annotation index, or null if the deployment unit has no annotation index
+     */
+    protected CompositeIndex getCompositeIndex(final DeploymentUnit deploymentUnit) {
+        return deploymentUnit.getAttachment(org.jboss.as.server.deployment.Attachments.COMPOSITE_ANNOTATION_INDEX);
+    }
+
+    /**
+     * Applies the specified factories to the specified index. The factories are applied in order by default, subclasses
+     * may override this method to apply them concurrently, as long as the results are returned in factory order.
+     * @param deploymentUnit The deployment unit
+     * @param factories The annotation information factories
+     * @param index The annotation index
+     * @param propertyReplacer The property replacer
+     * @return the annotation information created by each factory, keyed by class name, in factory order
+     * @throws DeploymentUnitProcessingException if the annotation information could not be created
+     */
+    protected List<Map<String, ClassAnnotationInformation<?, ?>>> createAnnotationInformation(final DeploymentUnit deploymentUnit, final List<ClassAnnotationInformationFactory> factories, final CompositeIndex index, final PropertyReplacer propertyReplacer) throws DeploymentUnitProcessingException {
+        final List<Map<String, ClassAnnotationInformation<?, ?>>> result = new ArrayList<>(factories.size());
+        for (final ClassAnnotationInformationFactory factory : factories) {
+            result.add(factory.createAnnotationInformation(index, propertyReplacer));
+        }
+        return result;
+    }
+
     /**
      * Method that can be overridden to do any additional processing
      * @param phaseContext The phase context
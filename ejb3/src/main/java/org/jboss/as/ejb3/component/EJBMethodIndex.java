@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.as.ee.component.ComponentView;
+import org.jboss.ejb.client.EJBMethodLocator;
+
+/**
+ * Immutable index of the methods of an EJB view, keyed by {@link EJBMethodLocator}.
+ * Built once per view, and attached to the view as private data, so that the method targeted by an incoming invocation
+ * can be resolved without scanning the view methods.
+ */
+public final class EJBMethodIndex {
+
+    private final Map<EJBMethodLocator, Method> methods;
+
+    public EJBMethodIndex(final Collection<Method> methods) {
+        final Map<EJBMethodLocator, Method> index = new HashMap<>(methods.size() * 4 / 3 + 1);
+        for (final Method method : methods) {
+            index.put(createLocator(method), method);
+        }
+        this.methods = Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * Returns the indexed method matching the specified locator.
+     *
+     * @param locator a method locator
+     * @return the matching method, or null if no indexed method matches
+     */
+    public Method getMethod(final EJBMethodLocator locator) {
+        return this.methods.get(locator);
+    }
+
+    /**
+     * Resolves the method of the specified view matching the specified locator.
+     * Uses the index attached to the view, if present, otherwise scans the view methods.
+     *
+     * @param view a component view
+     * @param locator a method locator
+     * @return the matching view method, or null if the view has no matching method
+     */
+    public static Method findMethod(final ComponentView view, final EJBMethodLocator locator) {
+        final EJBMethodIndex index = view.getPrivateData(EJBMethodIndex.class);
+        if (index != null) {
+            return index.getMethod(locator);
+        }
+        for (final Method method : view.getViewMethods()) {
+            if (method.getName().equals(locator.getMethodName())) {
+                final Class<?>[] methodParamTypes = method.getParameterTypes();
+                if (methodParamTypes.length != locator.getParameterCount()) {
+                    continue;
+                }
+                boolean found = true;
+                for (int i = 0; i < methodParamTypes.length; i++) {
+                    if (!methodParamTypes[i].getName().equals(locator.getParameterTypeName(i))) {
+                        found = false;
+                        break;
+                    }
+                }
+                if (found) {
+                    return method;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static EJBMethodLocator createLocator(final Method method) {
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        final String[] parameterTypeNames = new String[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            parameterTypeNames[i] = parameterTypes[i].getName();
+        }
+        return new EJBMethodLocator(method.getName(), parameterTypeNames);
+    }
+}
@@ -64,6 +64,10 @@ public class EJBViewDescription extends ViewDescription {
             @Override
             public void configure(final DeploymentPhaseContext context, final ComponentConfiguration componentConfiguration, final ViewDescription description, final ViewConfiguration configuration) throws DeploymentUnitProcessingException {
                 configuration.putPrivateData(MethodIntf.class, getMethodIntf());
+                // index the methods of remotely accessible views, for resolving the targets of incoming invocations
+                if (getMethodIntf() == MethodIntf.REMOTE || getMethodIntf() == MethodIntf.HOME) {
+                    configuration.putPrivateData(EJBMethodIndex.class, new EJBMethodIndex(configuration.getProxyFactory().getCachedMethods()));
+                }
             }
         });
         // add a view configurator for setting up application specific container interceptors for the EJB view
@@ -19,6 +19,7 @@
  * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
  * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
  */
+
 package org.jboss.as.ejb3.component.invocationmetrics;
 
 import java.lang.reflect.Method;
@@ -29,10 +30,15 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
+ * Invocation metrics of an EJB component.
+ * Metrics are recorded into striped counters, so that concurrent invocations neither contend nor allocate.
+ *
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
  */
 public class InvocationMetrics {
@@ -40,11 +46,13 @@ public class InvocationMetrics {
         final long invocations;
         final long executionTime;
         final long waitTime;
+        private final LatencyHistogram histogram;
 
-        private Values(final long invocations, final long waitTime, final long executionTime) {
+        private Values(final long invocations, final long waitTime, final long executionTime, final LatencyHistogram histogram) {
             this.invocations = invocations;
             this.executionTime = executionTime;
             this.waitTime = waitTime;
+            this.histogram = histogram;
         }
 
         public long getExecutionTime() {
@@ -58,40 +66,81 @@ public class InvocationMetrics {
         public long getWaitTime() {
             return waitTime;
         }
+
+        /**
+         * @param percentile a percentile, between 0 and 1
+         * @return an upper bound, in microseconds, of the specified percentile of the execution time of an invocation
+         */
+        public long getExecutionTimePercentile(final double percentile) {
+            return histogram.getPercentile(percentile);
+        }
+
+        /**
+         * @return the maximum execution time, in microseconds, of an invocation
+         */
+        public long getPeakExecutionTime() {
+            return histogram.getMax();
+        }
+    }
+
+    private static class Recorder {
+        final LongAdder invocations = new LongAdder();
+        final LongAdder waitTime = new LongAdder();
+        // in nanoseconds
+        final LongAdder executionTime = new LongAdder();
+
+        void record(final long invocationWaitTime, final long invocationExecutionTime) {
+            invocations.increment();
+            waitTime.add(invocationWaitTime);
+            executionTime.add(invocationExecutionTime);
+        }
+
+        long getExecutionTime() {
+            return TimeUnit.NANOSECONDS.toMillis(executionTime.sum());
+        }
+    }
+
+    private static class MethodRecorder extends Recorder {
+        // in microseconds
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        @Override
+        void record(final long invocationWaitTime, final long invocationExecutionTime) {
+            super.record(invocationWaitTime, invocationExecutionTime);
+            histogram.record(TimeUnit.NANOSECONDS.toMicros(invocationExecutionTime));
+        }
+
+        Values getValues() {
+            return new Values(invocations.sum(), waitTime.sum(), getExecutionTime(), histogram);
+        }
     }
 
-    private final AtomicReference<Values> values = new AtomicReference<Values>(new Values(0, 0, 0));
+    private final Recorder values = new Recorder();
     private final AtomicLong concurrent = new AtomicLong(0);
-    private final AtomicLong peakConcurrent = new AtomicLong(0);
+    private final LongAccumulator peakConcurrent = new LongAccumulator(Math::max, 0);
 
-    private final ConcurrentMap<String, AtomicReference<Values>> methods = new ConcurrentHashMap<String, AtomicReference<Values>>();
+    private final ConcurrentMap<String, MethodRecorder> methods = new ConcurrentHashMap<String, MethodRecorder>();
 
+    /**
+     * @param method the invoked method
+     * @param invocationWaitTime the time, in milliseconds, spent waiting for an instance
+     * @param invocationExecutionTime the time, in nanoseconds, spent within the method
+     */
     void finishInvocation(final Method method, final long invocationWaitTime, final long invocationExecutionTime) {
         concurrent.decrementAndGet();
-        for(;;) {
-            final Values oldv = values.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (values.compareAndSet(oldv, newv))
-                break;
-        }
-        final AtomicReference<Values> methodValues = ref(methods, method.getName());
-        for (;;) {
-            final Values oldv = methodValues.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (methodValues.compareAndSet(oldv, newv))
-                break;
-        }
+        values.record(invocationWaitTime, invocationExecutionTime);
+        recorder(methods, method.getName()).record(invocationWaitTime, invocationExecutionTime);
     }
 
-    private static AtomicReference<Values> ref(final ConcurrentMap<String, AtomicReference<Values>> map, final String key) {
-        AtomicReference<Values> ref = map.get(key);
-        if (ref == null) {
-            ref = new AtomicReference<Values>(new Values(0, 0, 0));
-            final AtomicReference<Values> prevRef = map.putIfAbsent(key, ref);
-            if (prevRef != null)
-                ref = prevRef;
+    private static MethodRecorder recorder(final ConcurrentMap<String, MethodRecorder> map, final String key) {
+        MethodRecorder recorder = map.get(key);
+        if (recorder == null) {
+            recorder = new MethodRecorder();
+            final MethodRecorder prevRecorder = map.putIfAbsent(key, recorder);
+            if (prevRecorder != null)
+                recorder = prevRecorder;
         }
-        return ref;
+        return recorder;
     }
 
     public long getConcurrent() {
@@ -99,11 +148,11 @@ public class InvocationMetrics {
     }
 
     public long getExecutionTime() {
-        return values.get().executionTime;
+        return values.getExecutionTime();
     }
 
     public long getInvocations() {
-        return values.get().invocations;
+        return values.invocations.sum();
     }
 
     public Map<String, Values> getMethods() {
@@ -113,7 +162,7 @@ public class InvocationMetrics {
                 return new AbstractSet<Entry<String, Values>>() {
                     @Override
                     public Iterator<Entry<String, Values>> iterator() {
-                        final Iterator<Entry<String, AtomicReference<Values>>> delegate = methods.entrySet().iterator();
+                        final Iterator<Entry<String, MethodRecorder>> delegate = methods.entrySet().iterator();
                         return new Iterator<Entry<String, Values>>() {
                             @Override
                             public boolean hasNext() {
@@ -122,7 +171,7 @@ public class InvocationMetrics {
 
                             @Override
                             public Entry<String, Values> next() {
-                                final Entry<String, AtomicReference<Values>> next = delegate.next();
+                                final Entry<String, MethodRecorder> next = delegate.next();
                                 return new Entry<String, Values>() {
                                     @Override
                                     public String getKey() {
@@ -131,7 +180,7 @@ public class InvocationMetrics {
 
                                     @Override
                                     public Values getValue() {
-                                        return next.getValue().get();
+                                        return next.getValue().getValues();
                                     }
 
                                     @Override
@@ -162,13 +211,10 @@ public class InvocationMetrics {
     }
 
     public long getWaitTime() {
-        return values.get().waitTime;
+        return values.waitTime.sum();
     }
 
     void startInvocation() {
-        final long v = concurrent.incrementAndGet();
-        // concurrent might decrement here, but we take that missing peak for granted.
-        if (peakConcurrent.get() < v)
-            peakConcurrent.incrementAndGet();
+        peakConcurrent.accumulate(concurrent.incrementAndGet());
     }
 }
@@ -0,0 +1,153 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.deployment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.ejb.ApplicationException;
+import javax.ejb.EJB;
+import javax.ejb.EJBs;
+import javax.ejb.MessageDriven;
+import javax.ejb.PostActivate;
+import javax.ejb.PrePassivate;
+import javax.ejb.Singleton;
+import javax.ejb.Stateful;
+import javax.ejb.Stateless;
+import javax.interceptor.AroundTimeout;
+
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.annotation.CompositeIndex;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+
+/**
+ * Annotation index of a deployment unit shared by the EJB deployment unit processors.
+ * <p/>
+ * The composite annotation index answers every query by visiting the index of each module of the deployment unit, and
+ * every EJB processor queries it independently. This index looks up the annotations consumed by the EJB processors
+ * once, and memoizes any other annotation or class lookup, so that each query is answered by a single map lookup.
+ * This index is safe for concurrent use.
+ */
+public class EjbAnnotationIndex extends CompositeIndex {
+
+    private static final List<DotName> EJB_ANNOTATIONS = Collections.unmodifiableList(createSimple(
+            Stateless.class, Stateful.class, Singleton.class, MessageDriven.class,
+            ApplicationException.class, EJB.class, EJBs.class,
+            AroundTimeout.class, PostActivate.class, PrePassivate.class));
+
+    private final ConcurrentMap<DotName, List<AnnotationInstance>> annotations = new ConcurrentHashMap<>();
+    // ConcurrentHashMap does not accept null values, so unknown classes are mapped to Boolean.FALSE
+    private final ConcurrentMap<DotName, Object> classes = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the EJB annotation index of the specified deployment unit, creating it on first use.
+     * @param deploymentUnit a deployment unit
+     * @return the EJB annotation index, or null if the deployment unit has no composite annotation index
+     */
+    public static EjbAnnotationIndex getIndex(final DeploymentUnit deploymentUnit) {
+        EjbAnnotationIndex index = deploymentUnit.getAttachment(EjbDeploymentAttachmentKeys.EJB_ANNOTATION_INDEX);
+        if (index == null) {
+            final CompositeIndex compositeIndex = deploymentUnit.getAttachment(Attachments.COMPOSITE_ANNOTATION_INDEX);
+            if (compositeIndex == null) {
+                return null;
+            }
+            index = new EjbAnnotationIndex(compositeIndex);
+            deploymentUnit.putAttachment(EjbDeploymentAttachmentKeys.EJB_ANNOTATION_INDEX, index);
+        }
+        return index;
+    }
+
+    EjbAnnotationIndex(final CompositeIndex compositeIndex) {
+        this(copy(compositeIndex.getIndexes()));
+    }
+
+    private EjbAnnotationIndex(final List<Index> indexes) {
+        super(indexes);
+        final List<Map<DotName, List<AnnotationInstance>>> moduleAnnotations = new ArrayList<>(indexes.size());
+        for (Index index : indexes) {
+            moduleAnnotations.add(findEjbAnnotations(index));
+        }
+        // Merge in module order, so that the results are identical to those of the composite index
+        for (DotName name : EJB_ANNOTATIONS) {
+            final List<AnnotationInstance> instances = new ArrayList<>();
+            for (Map<DotName, List<AnnotationInstance>> module : moduleAnnotations) {
+                instances.addAll(module.get(name));
+            }
+            this.annotations.put(name, Collections.unmodifiableList(instances));
+        }
+    }
+
+    @Override
+    public List<AnnotationInstance> getAnnotations(final DotName annotationName) {
+        List<AnnotationInstance> instances = this.annotations.get(annotationName);
+        if (instances == null) {
+            instances = this.annotations.computeIfAbsent(annotationName, name -> Collections.unmodifiableList(super.getAnnotations(name)));
+        }
+        return instances;
+    }
+
+    @Override
+    public ClassInfo getClassByName(final DotName className) {
+        Object info = this.classes.get(className);
+        if (info == null) {
+            info = this.classes.computeIfAbsent(className, name -> {
+                final ClassInfo result = super.getClassByName(name);
+                return (result != null) ? result : Boolean.FALSE;
+            });
+        }
+        return (info instanceof ClassInfo) ? (ClassInfo) info : null;
+    }
+
+    private static Map<DotName, List<AnnotationInstance>> findEjbAnnotations(final Index index) {
+        final Map<DotName, List<AnnotationInstance>> result = new HashMap<>();
+        for (DotName name : EJB_ANNOTATIONS) {
+            result.put(name, index.getAnnotations(name));
+        }
+        return result;
+    }
+
+    private static List<Index> copy(final Iterable<Index> indexes) {
+        final List<Index> result = new ArrayList<>();
+        for (Index index : indexes) {
+            result.add(index);
+        }
+        return result;
+    }
+
+    private static List<DotName> createSimple(final Class<?>... annotationTypes) {
+        final List<DotName> result = new ArrayList<>(annotationTypes.length);
+        for (Class<?> annotationType : annotationTypes) {
+            result.add(DotName.createSimple(annotationType.getName()));
+        }
+        return result;
+    }
+}
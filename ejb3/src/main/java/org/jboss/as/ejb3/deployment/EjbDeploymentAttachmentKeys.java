@@ -63,5 +63,15 @@ public class EjbDeploymentAttachmentKeys {
 
     public static final AttachmentKey<AttachmentList<EjbJaccConfig>> JACC_PERMISSIONS = AttachmentKey.createList(EjbJaccConfig.class);
 
+    /**
+     * Annotation index shared by the EJB deployment unit processors, see {@link EjbAnnotationIndex#getIndex(org.jboss.as.server.deployment.DeploymentUnit)}
+     */
+    public static final AttachmentKey<EjbAnnotationIndex> EJB_ANNOTATION_INDEX = AttachmentKey.create(EjbAnnotationIndex.class);
+
+    /**
+     * Time spent in each EJB deployment unit processor for a deployment unit
+     */
+    public static final AttachmentKey<EjbDeploymentProcessorTimes> EJB_DEPLOYMENT_PROCESSOR_TIMES = AttachmentKey.create(EjbDeploymentProcessorTimes.class);
+
 }
 
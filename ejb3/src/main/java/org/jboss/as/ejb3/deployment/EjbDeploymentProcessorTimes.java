@@ -0,0 +1,70 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.deployment;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the time spent by each EJB deployment unit processor on a deployment unit, in the order in which the
+ * processors were first run.
+ */
+public class EjbDeploymentProcessorTimes {
+
+    private final Map<String, Long> times = new LinkedHashMap<>();
+
+    /**
+     * Adds the specified duration to the time spent by the specified processor.
+     * @param processor the name of a deployment unit processor
+     * @param nanos a duration in nanoseconds
+     */
+    public synchronized void record(final String processor, final long nanos) {
+        this.times.merge(processor, nanos, Long::sum);
+    }
+
+    /**
+     * Returns the time spent by each processor, in milliseconds.
+     * @return a map of processor names to durations in milliseconds
+     */
+    public synchronized Map<String, Long> getTimes() {
+        final Map<String, Long> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : this.times.entrySet()) {
+            result.put(entry.getKey(), TimeUnit.NANOSECONDS.toMillis(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Returns the total time spent by all processors, in milliseconds.
+     * @return a duration in milliseconds
+     */
+    public synchronized long getTotalTime() {
+        long total = 0L;
+        for (long nanos : this.times.values()) {
+            total += nanos;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(total);
+    }
+}
@@ -27,10 +27,10 @@ import java.util.List;
 import javax.ejb.ApplicationException;
 
 import org.jboss.as.ee.metadata.MetadataCompleteMarker;
+import org.jboss.as.ejb3.deployment.EjbAnnotationIndex;
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.deployment.ApplicationExceptionDescriptions;
 import org.jboss.as.ejb3.deployment.EjbDeploymentAttachmentKeys;
-import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
@@ -55,7 +55,7 @@ public class ApplicationExceptionAnnotationProcessor implements DeploymentUnitPr
             return;
         }
 
-        final CompositeIndex compositeIndex = deploymentUnit.getAttachment(Attachments.COMPOSITE_ANNOTATION_INDEX);
+        final CompositeIndex compositeIndex = EjbAnnotationIndex.getIndex(deploymentUnit);
         if (compositeIndex == null) {
             return;
         }
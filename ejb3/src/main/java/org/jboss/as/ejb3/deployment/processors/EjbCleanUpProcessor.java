@@ -21,11 +21,20 @@
  */
 package org.jboss.as.ejb3.deployment.processors;
 
+import java.util.Map;
+
 import org.jboss.as.ejb3.deployment.EjbDeploymentAttachmentKeys;
+import org.jboss.as.ejb3.deployment.EjbDeploymentProcessorTimes;
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.subsystem.EJB3Extension;
+import org.jboss.as.ejb3.subsystem.EJB3SubsystemModel;
+import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
+import org.jboss.as.server.deployment.DeploymentResourceSupport;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+import org.jboss.dmr.ModelNode;
 
 /**
  * @author Stuart Douglas
@@ -38,10 +47,23 @@ public class EjbCleanUpProcessor implements DeploymentUnitProcessor {
         deploymentUnit.removeAttachment(EjbDeploymentAttachmentKeys.APPLICATION_EXCEPTION_DETAILS);
         deploymentUnit.removeAttachment(EjbDeploymentAttachmentKeys.EJB_JAR_DESCRIPTION);
         deploymentUnit.removeAttachment(EjbDeploymentAttachmentKeys.EJB_JAR_METADATA);
+        deploymentUnit.removeAttachment(EjbDeploymentAttachmentKeys.EJB_ANNOTATION_INDEX);
+        final EjbDeploymentProcessorTimes times = deploymentUnit.getAttachment(EjbDeploymentAttachmentKeys.EJB_DEPLOYMENT_PROCESSOR_TIMES);
+        if (times != null) {
+            EjbLogger.DEPLOYMENT_LOGGER.debugf("EJB deployment unit processors spent %d ms on deployment unit %s: %s", times.getTotalTime(), deploymentUnit.getName(), times.getTimes());
+            // Expose the times via the management resource of deployments containing EJBs
+            final DeploymentResourceSupport deploymentResourceSupport = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_RESOURCE_SUPPORT);
+            if (deploymentResourceSupport != null && deploymentResourceSupport.hasDeploymentSubsystemModel(EJB3Extension.SUBSYSTEM_NAME)) {
+                final ModelNode model = deploymentResourceSupport.getDeploymentSubsystemModel(EJB3Extension.SUBSYSTEM_NAME).get(EJB3SubsystemModel.DEPLOYMENT_PROCESSOR_TIMES);
+                for (Map.Entry<String, Long> entry : times.getTimes().entrySet()) {
+                    model.get(entry.getKey()).set(entry.getValue());
+                }
+            }
+        }
     }
 
     @Override
     public void undeploy(final DeploymentUnit context) {
-
+        context.removeAttachment(EjbDeploymentAttachmentKeys.EJB_DEPLOYMENT_PROCESSOR_TIMES);
     }
 }
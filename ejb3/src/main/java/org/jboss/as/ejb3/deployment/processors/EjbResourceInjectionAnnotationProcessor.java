@@ -33,6 +33,7 @@ import org.jboss.as.ee.component.LookupInjectionSource;
 import org.jboss.as.ee.component.MethodInjectionTarget;
 import org.jboss.as.ee.component.ResourceInjectionConfiguration;
 import org.jboss.as.ee.structure.EJBAnnotationPropertyReplacement;
+import org.jboss.as.ejb3.deployment.EjbAnnotationIndex;
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.deployment.EjbDeploymentAttachmentKeys;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
@@ -76,7 +77,7 @@ public class EjbResourceInjectionAnnotationProcessor implements DeploymentUnitPr
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
 
         final EEModuleDescription moduleDescription = deploymentUnit.getAttachment(Attachments.EE_MODULE_DESCRIPTION);
-        final CompositeIndex index = deploymentUnit.getAttachment(org.jboss.as.server.deployment.Attachments.COMPOSITE_ANNOTATION_INDEX);
+        final CompositeIndex index = EjbAnnotationIndex.getIndex(deploymentUnit);
         final List<AnnotationInstance> resourceAnnotations = index.getAnnotations(EJB_ANNOTATION_NAME);
 
         PropertyReplacer propertyReplacer = EJBAnnotationPropertyReplacement.propertyReplacer(deploymentUnit);
@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.deployment.processors;
+
+import org.jboss.as.ejb3.deployment.EjbDeploymentAttachmentKeys;
+import org.jboss.as.ejb3.deployment.EjbDeploymentProcessorTimes;
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.server.deployment.DeploymentPhaseContext;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+
+/**
+ * Decorates a deployment unit processor, recording the time it spends deploying each deployment unit in the
+ * {@link EjbDeploymentAttachmentKeys#EJB_DEPLOYMENT_PROCESSOR_TIMES} attachment of the deployment unit.
+ */
+public class TimedDeploymentUnitProcessor implements DeploymentUnitProcessor {
+
+    private final DeploymentUnitProcessor processor;
+    private final String name;
+
+    public TimedDeploymentUnitProcessor(final DeploymentUnitProcessor processor) {
+        this.processor = processor;
+        this.name = processor.getClass().getSimpleName();
+    }
+
+    @Override
+    public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+        final long start = System.nanoTime();
+        try {
+            this.processor.deploy(phaseContext);
+        } finally {
+            final long nanos = System.nanoTime() - start;
+            final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
+            EjbDeploymentProcessorTimes times = deploymentUnit.getAttachment(EjbDeploymentAttachmentKeys.EJB_DEPLOYMENT_PROCESSOR_TIMES);
+            if (times == null) {
+                times = new EjbDeploymentProcessorTimes();
+                deploymentUnit.putAttachment(EjbDeploymentAttachmentKeys.EJB_DEPLOYMENT_PROCESSOR_TIMES, times);
+            }
+            times.record(this.name, nanos);
+            EjbLogger.DEPLOYMENT_LOGGER.debugf("%s processed deployment unit %s in %d us", this.name, deploymentUnit.getName(), nanos / 1000L);
+        }
+    }
+
+    @Override
+    public void undeploy(final DeploymentUnit deploymentUnit) {
+        this.processor.undeploy(deploymentUnit);
+    }
+}
@@ -22,9 +22,15 @@
 
 package org.jboss.as.ejb3.deployment.processors.annotation;
 
+import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import javax.annotation.security.DenyAll;
 import javax.annotation.security.PermitAll;
@@ -36,7 +42,16 @@ import javax.ejb.Startup;
 
 import org.jboss.as.ee.component.deployers.BooleanAnnotationInformationFactory;
 import org.jboss.as.ee.metadata.AbstractEEAnnotationProcessor;
+import org.jboss.as.ee.metadata.ClassAnnotationInformation;
 import org.jboss.as.ee.metadata.ClassAnnotationInformationFactory;
+import org.jboss.as.ejb3.deployment.EjbAnnotationIndex;
+import org.jboss.as.server.Services;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.as.server.deployment.annotation.CompositeIndex;
+import org.jboss.metadata.property.PropertyReplacer;
+import org.jboss.msc.service.ServiceController;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Processes EJB annotations and attaches them to the {@link org.jboss.as.ee.component.EEModuleClassDescription}
@@ -101,4 +116,46 @@ public class EjbAnnotationProcessor extends AbstractEEAnnotationProcessor {
     protected List<ClassAnnotationInformationFactory> annotationInformationFactories() {
         return factories;
     }
+
+    @Override
+    protected CompositeIndex getCompositeIndex(final DeploymentUnit deploymentUnit) {
+        return EjbAnnotationIndex.getIndex(deploymentUnit);
+    }
+
+    /**
+     * The factories only read the annotation index, which is safe for concurrent use, so they are applied concurrently
+     * by the server executor, if it is available.
+     */
+    @Override
+    protected List<Map<String, ClassAnnotationInformation<?, ?>>> createAnnotationInformation(final DeploymentUnit deploymentUnit, final List<ClassAnnotationInformationFactory> factories, final CompositeIndex index, final PropertyReplacer propertyReplacer) throws DeploymentUnitProcessingException {
+        final ServiceController<?> executorController = deploymentUnit.getServiceRegistry().getService(Services.JBOSS_SERVER_EXECUTOR);
+        if (executorController == null || executorController.getState() != ServiceController.State.UP) {
+            return super.createAnnotationInformation(deploymentUnit, factories, index, propertyReplacer);
+        }
+        final ExecutorService executor = (ExecutorService) executorController.getValue();
+        final List<Callable<Map<String, ClassAnnotationInformation<?, ?>>>> tasks = new ArrayList<>(factories.size());
+        for (final ClassAnnotationInformationFactory factory : factories) {
+            final PrivilegedAction<Map<String, ClassAnnotationInformation<?, ?>>> action = () -> factory.createAnnotationInformation(index, propertyReplacer);
+            tasks.add(() -> WildFlySecurityManager.isChecking() ? WildFlySecurityManager.doUnchecked(action) : action.run());
+        }
+        final List<Map<String, ClassAnnotationInformation<?, ?>>> result = new ArrayList<>(factories.size());
+        try {
+            for (Future<Map<String, ClassAnnotationInformation<?, ?>>> future : executor.invokeAll(tasks)) {
+                result.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeploymentUnitProcessingException(e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new DeploymentUnitProcessingException(cause);
+        }
+        return result;
+    }
 }
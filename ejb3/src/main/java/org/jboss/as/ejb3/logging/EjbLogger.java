@@ -3184,4 +3184,19 @@ public interface EjbLogger extends BasicLogger {
     @Message(id = 509, value = "Clustered EJBs in Node: %s are bound to INADDR_ANY(%s). Client cannot reach back the cluster when they are not in the same local network.")
     void clusteredEJBsBoundToINADDRANY(String nodeName, String ip);
 
+    @LogMessage(level = ERROR)
+    @Message(id = 510, value = "Cannot add the %s column to the table for timer persistence")
+    void couldNotMigrateTable(String column, @Cause SQLException e);
+
+    @LogMessage(level = INFO)
+    @Message(id = 511, value = "Imported %d persistent timers of %s into the timer journal")
+    void importedTimersIntoJournal(int count, String timedObjectId);
+
+    @LogMessage(level = INFO)
+    @Message(id = 512, value = "Exported %d persistent timers of %s from the timer journal into timer files")
+    void exportedTimersFromJournal(int count, String timedObjectId);
+
+    @Message(id = 513, value = "Failed to execute %d timer statements deferred to the completion of the transaction")
+    RuntimeException failedToExecuteDeferredTimerStatements(int count, @Cause SQLException e);
+
 }
@@ -0,0 +1,252 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.pool.striped;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
+
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * A pool with a maximum size, whose idle instances are striped across a number of LIFO stacks.
+ * <p/>
+ * Each thread releases instances to, and first acquires instances from, its own stripe, favoring recently used (and thus cache-warm) instances,
+ * while avoiding contention with threads using other stripes.
+ * Unlike {@link org.jboss.as.ejb3.pool.strictmax.StrictMaxPool}, a permit is held by each instance, rather than by each invocation,
+ * so the semaphore is only consulted when no idle instance is available, i.e. to create a new instance or to wait for one to be released.
+ */
+public class StripedStrictMaxPool<T> extends AbstractPool<T> {
+
+    /**
+     * The maximum duration of a single wait for a permit, after which we recheck the stripes for an idle instance.
+     */
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * A semaphore whose permits represent the instances that may yet be created.
+     */
+    private final Semaphore semaphore;
+    /**
+     * The maximum number of instances allowed in the pool
+     */
+    private final int maxSize;
+    /**
+     * The time to wait for an instance.
+     */
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    /**
+     * Idle instances, each of which holds a permit.
+     */
+    private final Deque<T>[] stripes;
+    private final int mask;
+    /**
+     * Idle instances handed off to waiting threads, none of which hold a permit.
+     */
+    private final Queue<T> handoff = new ConcurrentLinkedQueue<>();
+
+    public StripedStrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit) {
+        this(factory, maxSize, timeout, timeUnit, Runtime.getRuntime().availableProcessors());
+    }
+
+    @SuppressWarnings("unchecked")
+    public StripedStrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit, int concurrency) {
+        super(factory);
+        this.maxSize = maxSize;
+        this.semaphore = new Semaphore(maxSize, false);
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        // Use a power of 2 number of stripes, so that a stripe can be selected via a mask
+        int size = Integer.highestOneBit(Math.max(Math.min(concurrency, maxSize) - 1, 1)) << 1;
+        this.mask = size - 1;
+        this.stripes = new Deque[size];
+        for (int i = 0; i < size; ++i) {
+            this.stripes[i] = new ConcurrentLinkedDeque<>();
+        }
+    }
+
+    @Override
+    public void discard(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Discard instance %s#%s", this, ctx);
+        }
+
+        // The discarded instance relinquishes its permit
+        this.semaphore.release();
+
+        super.doRemove(ctx);
+    }
+
+    @Override
+    public int getCurrentSize() {
+        return this.getCreateCount() - this.getRemoveCount();
+    }
+
+    @Override
+    public int getAvailableCount() {
+        int idle = 0;
+        for (Deque<T> stripe : this.stripes) {
+            idle += stripe.size();
+        }
+        return this.semaphore.availablePermits() + idle;
+    }
+
+    @Override
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    @Override
+    public void setMaxSize(int maxSize) {
+        throw EjbLogger.ROOT_LOGGER.methodNotImplemented();
+    }
+
+    @Override
+    public T get() {
+        T bean = this.poll();
+        if (bean != null) {
+            return bean;
+        }
+
+        long deadline = System.nanoTime() + this.timeUnit.toNanos(this.timeout);
+        try {
+            while (true) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw EjbLogger.ROOT_LOGGER.failedToAcquirePermit(this.timeout, this.timeUnit);
+                }
+                if (this.semaphore.tryAcquire(Math.min(remaining, MAX_WAIT_NANOS), TimeUnit.NANOSECONDS)) {
+                    break;
+                }
+                // An instance may have been released to a stripe while we were waiting
+                bean = this.poll();
+                if (bean != null) {
+                    return bean;
+                }
+            }
+        } catch (InterruptedException e) {
+            throw EjbLogger.ROOT_LOGGER.acquireSemaphoreInterrupted();
+        }
+
+        // We now hold a permit, use it for a handed off instance, if one exists
+        bean = this.handoff.poll();
+        if (bean != null) {
+            return bean;
+        }
+
+        try {
+            // Pool is empty, create an instance
+            bean = this.create();
+        } finally {
+            if (bean == null) {
+                this.semaphore.release();
+            }
+        }
+        return bean;
+    }
+
+    @Override
+    public void release(T obj) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("%s/%s Free instance: %s", this.getAvailableCount(), this.maxSize, this);
+        }
+
+        if (this.semaphore.hasQueuedThreads()) {
+            this.handoff(obj);
+            return;
+        }
+
+        Deque<T> stripe = this.stripe();
+        stripe.offerFirst(obj);
+
+        // Recheck, in case a thread started waiting concurrently
+        if (this.semaphore.hasQueuedThreads()) {
+            T bean = stripe.pollFirst();
+            if (bean != null) {
+                this.handoff(bean);
+            }
+        }
+    }
+
+    @Override
+    @Deprecated
+    public void remove(T ctx) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Removing instance: %s#%s", this, ctx);
+        }
+
+        this.semaphore.release();
+        super.doRemove(ctx);
+    }
+
+    @Override
+    public void start() {
+        // Nothing to start
+    }
+
+    @Override
+    public void stop() {
+        for (Deque<T> stripe : this.stripes) {
+            for (T obj = stripe.pollFirst(); obj != null; obj = stripe.pollFirst()) {
+                this.destroy(obj);
+            }
+        }
+        for (T obj = this.handoff.poll(); obj != null; obj = this.handoff.poll()) {
+            this.destroy(obj);
+        }
+    }
+
+    private Deque<T> stripe() {
+        return this.stripes[(int) Thread.currentThread().getId() & this.mask];
+    }
+
+    /**
+     * Polls for the most recently released idle instance of the current stripe, falling back to the remaining stripes.
+     */
+    private T poll() {
+        int index = (int) Thread.currentThread().getId() & this.mask;
+        for (int i = 0; i < this.stripes.length; ++i) {
+            T bean = this.stripes[(index + i) & this.mask].pollFirst();
+            if (bean != null) {
+                return bean;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Hands off the specified instance to a waiting thread, relinquishing its permit.
+     */
+    private void handoff(T bean) {
+        this.handoff.add(bean);
+        this.semaphore.release();
+    }
+}
@@ -27,6 +27,7 @@ import org.jboss.as.ee.component.ComponentIsStoppedException;
 import org.jboss.as.ee.component.ComponentView;
 import org.jboss.as.ee.component.interceptors.InvocationType;
 import org.jboss.as.ejb3.component.EJBComponentUnavailableException;
+import org.jboss.as.ejb3.component.EJBMethodIndex;
 import org.jboss.as.ejb3.component.interceptors.CancellationFlag;
 import org.jboss.as.ejb3.component.session.SessionBeanComponent;
 import org.jboss.as.ejb3.component.stateful.StatefulSessionComponent;
@@ -44,7 +45,6 @@ import org.jboss.ejb.client.ClusterAffinity;
 import org.jboss.ejb.client.EJBClientInvocationContext;
 import org.jboss.ejb.client.EJBIdentifier;
 import org.jboss.ejb.client.EJBLocator;
-import org.jboss.ejb.client.EJBMethodLocator;
 import org.jboss.ejb.client.EJBModuleIdentifier;
 import org.jboss.ejb.client.SessionID;
 import org.jboss.ejb.client.StatefulEJBLocator;
@@ -146,7 +146,7 @@ final class AssociationImpl implements Association, AutoCloseable {
 
         final ComponentView componentView = ejbDeploymentInformation.getView(viewClassName);
 
-        final Method invokedMethod = findMethod(componentView, invocationRequest.getMethodLocator());
+        final Method invokedMethod = EJBMethodIndex.findMethod(componentView, invocationRequest.getMethodLocator());
         if (invokedMethod == null) {
             invocationRequest.writeNoSuchMethod();
             return CancelHandle.NULL;
@@ -565,29 +565,6 @@ final class AssociationImpl implements Association, AutoCloseable {
         return securityIdentity == null ? componentView.invoke(interceptorContext) : securityIdentity.runAsFunctionEx(ComponentView::invoke, componentView, interceptorContext);
     }
 
-    private static Method findMethod(final ComponentView componentView, final EJBMethodLocator ejbMethodLocator) {
-        final Set<Method> viewMethods = componentView.getViewMethods();
-        for (final Method method : viewMethods) {
-            if (method.getName().equals(ejbMethodLocator.getMethodName())) {
-                final Class<?>[] methodParamTypes = method.getParameterTypes();
-                if (methodParamTypes.length != ejbMethodLocator.getParameterCount()) {
-                    continue;
-                }
-                boolean found = true;
-                for (int i = 0; i < methodParamTypes.length; i++) {
-                    if (!methodParamTypes[i].getName().equals(ejbMethodLocator.getParameterTypeName(i))) {
-                        found = false;
-                        break;
-                    }
-                }
-                if (found) {
-                    return method;
-                }
-            }
-        }
-        return null;
-    }
-
     private static Affinity getWeakAffinity(final StatefulSessionComponent statefulSessionComponent, final StatefulEJBLocator<?> statefulEJBLocator) {
         final SessionID sessionID = statefulEJBLocator.getSessionId();
         return getWeakAffinity(statefulSessionComponent, sessionID);
@@ -27,6 +27,7 @@ import org.jboss.as.ee.component.ComponentView;
 import org.jboss.as.ee.component.deployers.StartupCountdown;
 import org.jboss.as.ee.utils.DescriptorUtils;
 import org.jboss.as.ejb3.component.EJBComponent;
+import org.jboss.as.ejb3.component.EJBMethodIndex;
 import org.jboss.as.ejb3.component.interceptors.CancellationFlag;
 import org.jboss.as.ejb3.component.session.SessionBeanComponent;
 import org.jboss.as.ejb3.component.stateful.StatefulSessionComponent;
@@ -48,9 +49,7 @@ import org.jboss.ejb.client.StatelessEJBLocator;
 import org.jboss.ejb.client.TransactionID;
 import org.jboss.invocation.InterceptorContext;
 import org.jboss.marshalling.cloner.ClassLoaderClassCloner;
-import org.jboss.marshalling.cloner.ClonerConfiguration;
 import org.jboss.marshalling.cloner.ObjectCloner;
-import org.jboss.marshalling.cloner.ObjectCloners;
 import org.jboss.security.SecurityContext;
 import org.jboss.security.SecurityContextAssociation;
 import org.wildfly.security.auth.server.SecurityDomain;
@@ -105,11 +104,9 @@ public class LocalEjbReceiver extends EJBReceiver {
         if (!ejb.isRemoteView(viewClass.getName())) {
             throw EjbLogger.ROOT_LOGGER.viewNotFound(viewClass.getName(), ejb.getEjbName());
         }
-        final ClonerConfiguration paramConfig = new ClonerConfiguration();
-        paramConfig.setClassCloner(new ClassLoaderClassCloner(ejb.getDeploymentClassLoader()));
-        final ObjectCloner parameterCloner = createCloner(paramConfig);
-        //TODO: this is not very efficient
-        final Method method = view.getMethod(invocation.getInvokedMethod().getName(), DescriptorUtils.methodDescriptor(invocation.getInvokedMethod()));
+        final ObjectCloner parameterCloner = new LocalInvocationObjectCloner(new ClassLoaderClassCloner(ejb.getDeploymentClassLoader()), ejb.getDeploymentClassLoader());
+        final Method indexedMethod = EJBMethodIndex.findMethod(view, invocation.getMethodLocator());
+        final Method method = (indexedMethod != null) ? indexedMethod : view.getMethod(invocation.getInvokedMethod().getName(), DescriptorUtils.methodDescriptor(invocation.getInvokedMethod()));
 
         final boolean async = view.isAsynchronous(method) || invocation.isClientAsync();
 
@@ -165,9 +162,8 @@ public class LocalEjbReceiver extends EJBReceiver {
             throw EjbLogger.ROOT_LOGGER.ejbNotFoundInDeployment(locator);
         }
 
-        final ClonerConfiguration config = new ClonerConfiguration();
-        config.setClassCloner(new LocalInvocationClassCloner(WildFlySecurityManager.getClassLoaderPrivileged(invocation.getInvokedProxy().getClass())));
-        final ObjectCloner resultCloner = createCloner(config);
+        final ClassLoader invokerClassLoader = WildFlySecurityManager.getClassLoaderPrivileged(invocation.getInvokedProxy().getClass());
+        final ObjectCloner resultCloner = new LocalInvocationObjectCloner(new LocalInvocationClassCloner(invokerClassLoader), invokerClassLoader);
         if (async) {
             if (ejbComponent instanceof SessionBeanComponent) {
                 final CancellationFlag flag = new CancellationFlag();
@@ -325,16 +321,6 @@ public class LocalEjbReceiver extends EJBReceiver {
 
 
 
-    private ObjectCloner createCloner(final ClonerConfiguration paramConfig) {
-        ObjectCloner parameterCloner;
-        if(WildFlySecurityManager.isChecking()) {
-            parameterCloner = WildFlySecurityManager.doUnchecked((PrivilegedAction<ObjectCloner>) () -> ObjectCloners.getSerializingObjectClonerFactory().createCloner(paramConfig));
-        } else {
-            parameterCloner = ObjectCloners.getSerializingObjectClonerFactory().createCloner(paramConfig);
-        }
-        return parameterCloner;
-    }
-
     protected SessionID createSession(final EJBReceiverSessionCreationContext receiverContext) throws Exception {
         final StatelessEJBLocator<?> statelessLocator = receiverContext.getClientInvocationContext().getLocator().asStateless();
         final EjbDeploymentInformation ejbInfo = findBean(statelessLocator);
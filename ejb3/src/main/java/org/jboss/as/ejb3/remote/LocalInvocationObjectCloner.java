@@ -0,0 +1,124 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.remote;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.security.PrivilegedAction;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.MonthDay;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.Period;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+import org.jboss.marshalling.cloner.ClassCloner;
+import org.jboss.marshalling.cloner.ClonerConfiguration;
+import org.jboss.marshalling.cloner.ObjectCloner;
+import org.jboss.marshalling.cloner.ObjectCloners;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * {@link ObjectCloner} used to pass values between an in-vm caller and the remote interface of an EJB.
+ * Values of immutable types whose class is shared by both sides are passed as is.
+ * All other values are copied by a serializing cloner, which is only created once a value requires copying.
+ */
+final class LocalInvocationObjectCloner implements ObjectCloner {
+
+    // Exact classes only, since subclasses of non-final types, e.g. BigDecimal, may be mutable
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<>(Arrays.asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+            BigInteger.class, BigDecimal.class, UUID.class, URI.class, Locale.class,
+            Duration.class, Instant.class, LocalDate.class, LocalDateTime.class, LocalTime.class, MonthDay.class, OffsetDateTime.class, OffsetTime.class,
+            Period.class, Year.class, YearMonth.class, ZonedDateTime.class, ZoneOffset.class));
+
+    private final ClassCloner classCloner;
+    private final ClassLoader destClassLoader;
+    private ObjectCloner cloner;
+
+    /**
+     * @param classCloner the class cloner of the serializing cloner
+     * @param destClassLoader the class loader of the receiving side
+     */
+    LocalInvocationObjectCloner(final ClassCloner classCloner, final ClassLoader destClassLoader) {
+        this.classCloner = classCloner;
+        this.destClassLoader = destClassLoader;
+    }
+
+    @Override
+    public void reset() {
+        if (this.cloner != null) {
+            this.cloner.reset();
+        }
+    }
+
+    @Override
+    public Object clone(final Object original) throws IOException, ClassNotFoundException {
+        if (original == null) {
+            return null;
+        }
+        if (this.isImmutable(original)) {
+            PassByValueStatistics.recordShared();
+            return original;
+        }
+        if (this.cloner == null) {
+            this.cloner = createCloner(this.classCloner);
+        }
+        PassByValueStatistics.recordCloned();
+        return this.cloner.clone(original);
+    }
+
+    private boolean isImmutable(final Object object) {
+        if (IMMUTABLE_TYPES.contains(object.getClass())) {
+            return true;
+        }
+        if (object instanceof Enum) {
+            // An enum constant can only be shared if the receiving side sees the same enum class
+            final ClassLoader loader = ((Enum<?>) object).getDeclaringClass().getClassLoader();
+            return (loader == null) || (loader == this.destClassLoader);
+        }
+        return false;
+    }
+
+    private static ObjectCloner createCloner(final ClassCloner classCloner) {
+        final ClonerConfiguration config = new ClonerConfiguration();
+        config.setClassCloner(classCloner);
+        if (WildFlySecurityManager.isChecking()) {
+            return WildFlySecurityManager.doUnchecked((PrivilegedAction<ObjectCloner>) () -> ObjectCloners.getSerializingObjectClonerFactory().createCloner(config));
+        }
+        return ObjectCloners.getSerializingObjectClonerFactory().createCloner(config);
+    }
+}
@@ -32,6 +32,7 @@ import org.jboss.as.controller.ServiceRemoveStepHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.validation.ModelTypeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
@@ -85,6 +86,17 @@ public class DatabaseDataStoreResourceDefinition extends SimpleResourceDefinitio
                     .setDefaultValue(new ModelNode(true))
                     .build();
 
+    public static final SimpleAttributeDefinition LAST_REFRESH_DURATION =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.LAST_REFRESH_DURATION, ModelType.LONG)
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setStorageRuntime()
+                    .build();
+
+    public static final SimpleAttributeDefinition LAST_REFRESH_ROWS =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.LAST_REFRESH_ROWS, ModelType.LONG)
+                    .setStorageRuntime()
+                    .build();
+
     public static final Map<String, AttributeDefinition> ATTRIBUTES ;
 
     static {
@@ -110,6 +122,8 @@ public class DatabaseDataStoreResourceDefinition extends SimpleResourceDefinitio
         for (AttributeDefinition attr : ATTRIBUTES.values()) {
             resourceRegistration.registerReadWriteAttribute(attr, null, new ReloadRequiredWriteAttributeHandler(attr));
         }
+        resourceRegistration.registerMetric(LAST_REFRESH_DURATION, DatabaseDataStoreRefreshMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(LAST_REFRESH_ROWS, DatabaseDataStoreRefreshMetricsHandler.INSTANCE);
     }
 
 }
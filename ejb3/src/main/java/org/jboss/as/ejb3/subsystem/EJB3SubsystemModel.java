@@ -44,6 +44,8 @@ public interface EJB3SubsystemModel {
 
     String CONNECTOR_REF = "connector-ref";
     String IN_VM_REMOTE_INTERFACE_INVOCATION_PASS_BY_VALUE = "in-vm-remote-interface-invocation-pass-by-value";
+    String IN_VM_REMOTE_INTERFACE_INVOCATION_CLONED_OBJECTS = "in-vm-remote-interface-invocation-cloned-objects";
+    String IN_VM_REMOTE_INTERFACE_INVOCATION_SHARED_OBJECTS = "in-vm-remote-interface-invocation-shared-objects";
 
     String DATASOURCE_JNDI_NAME = "datasource-jndi-name";
     String DEFAULT_DISTINCT_NAME = "default-distinct-name";
@@ -69,12 +71,14 @@ public interface EJB3SubsystemModel {
     String STATISTICS_ENABLED = "statistics-enabled";
 
     String FILE_DATA_STORE = "file-data-store";
+    String FORMAT = "format";
 
     String MAX_POOL_SIZE = "max-pool-size";
     String DERIVE_SIZE = "derive-size";
     String DERIVED_SIZE = "derived-size";
 
     String STRICT_MAX_BEAN_INSTANCE_POOL = "strict-max-bean-instance-pool";
+    String STRIPED = "striped";
 
     String MAX_THREADS = "max-threads";
     String KEEPALIVE_TIME = "keepalive-time";
@@ -122,6 +126,7 @@ public interface EJB3SubsystemModel {
 
     @Deprecated String CLUSTER_PASSIVATION_STORE = "cluster-passivation-store";
     String BEAN_CACHE = "bean-cache";
+    String GRANULARITY = "granularity";
     String CACHE_CONTAINER = "cache-container";
     @Deprecated String CLIENT_MAPPINGS_CACHE = "client-mappings-cache";
     @Deprecated String PASSIVATE_EVENTS_ON_REPLICATE = "passivate-events-on-replicate";
@@ -135,6 +140,9 @@ public interface EJB3SubsystemModel {
     String PARTITION  = "partition";
     String REFRESH_INTERVAL = "refresh-interval";
     String ALLOW_EXECUTION = "allow-execution";
+    String LAST_REFRESH_DURATION = "last-refresh-duration";
+    String LAST_REFRESH_ROWS = "last-refresh-rows";
+    String DEPLOYMENT_PROCESSOR_TIMES = "deployment-processor-times";
 
     String STATIC_URLS = "static-urls";
 
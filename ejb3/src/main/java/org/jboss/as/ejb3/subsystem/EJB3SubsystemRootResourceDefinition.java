@@ -125,6 +125,16 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
                     .setDefaultValue(new ModelNode(false))
                     .build();
 
+    static final SimpleAttributeDefinition IN_VM_REMOTE_INTERFACE_INVOCATION_CLONED_OBJECTS =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.IN_VM_REMOTE_INTERFACE_INVOCATION_CLONED_OBJECTS, ModelType.LONG)
+                    .setStorageRuntime()
+                    .build();
+
+    static final SimpleAttributeDefinition IN_VM_REMOTE_INTERFACE_INVOCATION_SHARED_OBJECTS =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.IN_VM_REMOTE_INTERFACE_INVOCATION_SHARED_OBJECTS, ModelType.LONG)
+                    .setStorageRuntime()
+                    .build();
+
     static final SimpleAttributeDefinition DEFAULT_DISTINCT_NAME =
             new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.DEFAULT_DISTINCT_NAME, ModelType.STRING, true)
                     .setAllowExpression(true)
@@ -256,6 +266,10 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
         });
         resourceRegistration.registerReadWriteAttribute(STATISTICS_ENABLED, null, StatisticsEnabledWriteHandler.INSTANCE);
         resourceRegistration.registerReadWriteAttribute(PASS_BY_VALUE, null, EJBRemoteInvocationPassByValueWriteHandler.INSTANCE);
+        if (registerRuntimeOnly) {
+            resourceRegistration.registerMetric(IN_VM_REMOTE_INTERFACE_INVOCATION_CLONED_OBJECTS, PassByValueMetricsHandler.INSTANCE);
+            resourceRegistration.registerMetric(IN_VM_REMOTE_INTERFACE_INVOCATION_SHARED_OBJECTS, PassByValueMetricsHandler.INSTANCE);
+        }
         resourceRegistration.registerReadWriteAttribute(DEFAULT_DISTINCT_NAME, null, EJBDefaultDistinctNameWriteHandler.INSTANCE);
         resourceRegistration.registerReadWriteAttribute(LOG_EJB_EXCEPTIONS, null, ExceptionLoggingWriteHandler.INSTANCE);
         resourceRegistration.registerReadWriteAttribute(ALLOW_EJB_NAME_REGEX, null, EJBNameRegexWriteHandler.INSTANCE);
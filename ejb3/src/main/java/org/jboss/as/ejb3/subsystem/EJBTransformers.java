@@ -74,6 +74,7 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
     private static final ModelVersion VERSION_1_3_0 = ModelVersion.create(1, 3, 0);
     private static final ModelVersion VERSION_3_0_0 = ModelVersion.create(3, 0, 0);
     private static final ModelVersion VERSION_4_0_0 = ModelVersion.create(4, 0, 0);
+    private static final ModelVersion VERSION_5_0_0 = ModelVersion.create(5, 0, 0);
 
     @Override
     public String getSubsystemName() {
@@ -86,6 +87,7 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
         registerTimerTransformers_1_3_0(subsystemRegistration);
         registerTransformers_3_0_0(subsystemRegistration);
         registerTransformers_4_0_0(subsystemRegistration);
+        registerTransformers_5_0_0(subsystemRegistration);
     }
 
     private static void registerTransformers_1_2_1(SubsystemTransformerRegistration subsystemRegistration) {
@@ -164,6 +166,8 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
         registerStrictMaxPoolTransformers(builder);
         registerApplicationSecurityDomainDTransformers(builder);
         registerIdentityTransformers(builder);
+        registerFileDataStoreFormatTransformers(builder.addChildResource(EJB3SubsystemModel.TIMER_SERVICE_PATH).addChildResource(EJB3SubsystemModel.FILE_DATA_STORE_PATH));
+        registerPassivationStoreGranularityTransformers(builder.addChildResource(PassivationStoreResourceDefinition.INSTANCE.getPathElement()));
 
         // Rename new statistics-enabled attribute to old enable-statistics
         builder.getAttributeBuilder().addRename(EJB3SubsystemModel.STATISTICS_ENABLED, EJB3SubsystemModel.ENABLE_STATISTICS);
@@ -185,6 +189,10 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
         builder.getAttributeBuilder().setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), EJB3SubsystemRootResourceDefinition.ENABLE_GRACEFUL_TXN_SHUTDOWN);
         builder.getAttributeBuilder().addRejectCheck(RejectAttributeChecker.DEFINED, EJB3SubsystemRootResourceDefinition.ENABLE_GRACEFUL_TXN_SHUTDOWN);
 
+        registerStripedStrictMaxPoolTransformers(builder.addChildResource(PathElement.pathElement(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL)));
+        registerFileDataStoreFormatTransformers(builder.addChildResource(EJB3SubsystemModel.TIMER_SERVICE_PATH).addChildResource(EJB3SubsystemModel.FILE_DATA_STORE_PATH));
+        registerPassivationStoreGranularityTransformers(builder.addChildResource(PassivationStoreResourceDefinition.INSTANCE.getPathElement()));
+
         // Rename new statistics-enabled attribute to old enable-statistics
         builder.getAttributeBuilder()
                .addRename(EJB3SubsystemModel.STATISTICS_ENABLED, EJB3SubsystemModel.ENABLE_STATISTICS);
@@ -192,6 +200,16 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
         TransformationDescription.Tools.register(builder.build(), subsystemRegistration, VERSION_4_0_0);
     }
 
+    private static void registerTransformers_5_0_0(SubsystemTransformerRegistration subsystemRegistration) {
+        final ResourceTransformationDescriptionBuilder builder = TransformationDescriptionBuilder.Factory.createSubsystemInstance();
+
+        registerStripedStrictMaxPoolTransformers(builder.addChildResource(PathElement.pathElement(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL)));
+        registerFileDataStoreFormatTransformers(builder.addChildResource(EJB3SubsystemModel.TIMER_SERVICE_PATH).addChildResource(EJB3SubsystemModel.FILE_DATA_STORE_PATH));
+        registerPassivationStoreGranularityTransformers(builder.addChildResource(PassivationStoreResourceDefinition.INSTANCE.getPathElement()));
+
+        TransformationDescription.Tools.register(builder.build(), subsystemRegistration, VERSION_5_0_0);
+    }
+
     private static void registerRemoteTransformers(ResourceTransformationDescriptionBuilder parent) {
         ResourceTransformationDescriptionBuilder remoteService = parent.addChildResource(EJB3SubsystemModel.REMOTE_SERVICE_PATH);
         remoteService.getAttributeBuilder()
@@ -210,10 +228,33 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
     }
 
     private static void registerStrictMaxPoolTransformers(ResourceTransformationDescriptionBuilder parent) {
-        parent.addChildResource(PathElement.pathElement(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL))
-                .getAttributeBuilder()
+        ResourceTransformationDescriptionBuilder strictMaxPool = parent.addChildResource(PathElement.pathElement(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL));
+        strictMaxPool.getAttributeBuilder()
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(StrictMaxPoolResourceDefinition.DeriveSize.NONE.toString())), DERIVE_SIZE)
-                .addRejectCheck(RejectAttributeChecker.DEFINED, DERIVE_SIZE);
+                .addRejectCheck(RejectAttributeChecker.DEFINED, DERIVE_SIZE)
+                .end();
+        registerStripedStrictMaxPoolTransformers(strictMaxPool);
+    }
+
+    private static void registerStripedStrictMaxPoolTransformers(ResourceTransformationDescriptionBuilder strictMaxPool) {
+        strictMaxPool.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), StrictMaxPoolResourceDefinition.STRIPED)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, StrictMaxPoolResourceDefinition.STRIPED)
+                .end();
+    }
+
+    private static void registerFileDataStoreFormatTransformers(ResourceTransformationDescriptionBuilder fileDataStore) {
+        fileDataStore.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(FileDataStoreResourceDefinition.Format.XML.toString())), FileDataStoreResourceDefinition.FORMAT)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, FileDataStoreResourceDefinition.FORMAT)
+                .end();
+    }
+
+    private static void registerPassivationStoreGranularityTransformers(ResourceTransformationDescriptionBuilder passivationStore) {
+        passivationStore.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(BeanManagerFactoryServiceConfiguratorConfiguration.Granularity.GROUP.name())), PassivationStoreResourceDefinition.GRANULARITY)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, PassivationStoreResourceDefinition.GRANULARITY)
+                .end();
     }
 
     private static void registerMdbDeliveryGroupTransformers(ResourceTransformationDescriptionBuilder parent) {
@@ -235,6 +276,7 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
         timerService.setCustomResourceTransformer(dataStoreTransformer);
         timerService.rejectChildResource(EJB3SubsystemModel.DATABASE_DATA_STORE_PATH);
         ResourceTransformationDescriptionBuilder fileDataStore = timerService.addChildRedirection(EJB3SubsystemModel.FILE_DATA_STORE_PATH, (current, builder) -> builder.getCurrent());
+        registerFileDataStoreFormatTransformers(fileDataStore);
 
         fileDataStore.addOperationTransformationOverride(ModelDescriptionConstants.ADD)
                 .inheritResourceAttributeDefinitions()
@@ -250,6 +292,7 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
                         .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(-1)), REFRESH_INTERVAL)
                         .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(true)), ALLOW_EXECUTION)
                         .addRejectCheck(RejectAttributeChecker.DEFINED, REFRESH_INTERVAL, ALLOW_EXECUTION);
+        registerFileDataStoreFormatTransformers(timerService.addChildResource(EJB3SubsystemModel.FILE_DATA_STORE_PATH));
     }
 
     private static class DataStoreTransformer implements CombinedTransformer {
@@ -295,6 +338,10 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
                     && untransformedModel.get(EJB3SubsystemModel.DATABASE_DATA_STORE).keys().size() > 0)
                     || untransformedModel.get(EJB3SubsystemModel.FILE_DATA_STORE).keys().size() > 1) {
                 rejectIncompatibleDataStores(context, address);
+            } else if (fileStore.hasDefined(EJB3SubsystemModel.FORMAT)
+                    && !FileDataStoreResourceDefinition.Format.XML.toString().equals(fileStore.get(EJB3SubsystemModel.FORMAT).asString())) {
+                //the legacy timer service only supports the xml format
+                rejectIncompatibleDataStores(context, address);
             }
 
             ModelNode path = fileStore.get(EJB3SubsystemModel.PATH);
@@ -325,6 +372,7 @@ public class EJBTransformers implements ExtensionTransformerRegistration {
                 .setValueConverter(AttributeConverter.Factory.createHardCoded(new ModelNode().set(Long.valueOf(Integer.MAX_VALUE)), true), EJB3SubsystemModel.IDLE_TIMEOUT)
                 .setValueConverter(AttributeConverter.Factory.createHardCoded(new ModelNode().set(TimeUnit.SECONDS.name()), true), EJB3SubsystemModel.IDLE_TIMEOUT_UNIT)
         ;
+        registerPassivationStoreGranularityTransformers(child);
     }
 
     /**
@@ -32,6 +32,7 @@ import org.jboss.as.ejb3.cache.distributable.DistributableCacheFactoryBuilderSer
 import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceController;
 import org.wildfly.clustering.ejb.BeanManagerFactoryServiceConfiguratorConfiguration;
+import org.wildfly.clustering.ejb.BeanManagerFactoryServiceConfiguratorConfiguration.Granularity;
 
 /**
  * @author Paul Ferraro
@@ -57,10 +58,15 @@ public class PassivationStoreAdd extends AbstractAddStepHandler {
         String containerName = PassivationStoreResourceDefinition.CACHE_CONTAINER.resolveModelAttribute(context, model).asString();
         ModelNode beanCacheNode = PassivationStoreResourceDefinition.BEAN_CACHE.resolveModelAttribute(context, model);
         String cacheName = beanCacheNode.isDefined() ? beanCacheNode.asString() : null;
-        this.install(context, operation, initialMaxSize, containerName, cacheName);
+        Granularity granularity = Granularity.valueOf(PassivationStoreResourceDefinition.GRANULARITY.resolveModelAttribute(context, model).asString());
+        this.install(context, operation, initialMaxSize, containerName, cacheName, granularity);
     }
 
     protected void install(OperationContext context, ModelNode operation, final int initialMaxSize, final String containerName, final String cacheName) {
+        this.install(context, operation, initialMaxSize, containerName, cacheName, Granularity.GROUP);
+    }
+
+    protected void install(OperationContext context, ModelNode operation, final int initialMaxSize, final String containerName, final String cacheName, final Granularity granularity) {
         final String name = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.ADDRESS)).getLastElement().getValue();
         BeanManagerFactoryServiceConfiguratorConfiguration config = new BeanManagerFactoryServiceConfiguratorConfiguration() {
             private volatile int maxSize = initialMaxSize;
@@ -75,6 +81,11 @@ public class PassivationStoreAdd extends AbstractAddStepHandler {
                 return cacheName;
             }
 
+            @Override
+            public Granularity getGranularity() {
+                return granularity;
+            }
+
             @Override
             public int getMaxSize() {
                 return this.maxSize;
@@ -9,6 +9,7 @@ import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.operations.validation.EnumValidator;
 import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -43,9 +44,17 @@ public class PassivationStoreResourceDefinition extends SimpleResourceDefinition
             .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
             .build()
     ;
+    static final SimpleAttributeDefinition GRANULARITY = new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.GRANULARITY, ModelType.STRING, true)
+            .setXmlName(EJB3SubsystemXMLAttribute.GRANULARITY.getLocalName())
+            .setDefaultValue(new ModelNode(BeanManagerFactoryServiceConfiguratorConfiguration.Granularity.GROUP.name()))
+            .setAllowExpression(true)
+            .setValidator(EnumValidator.create(BeanManagerFactoryServiceConfiguratorConfiguration.Granularity.class, true, true))
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .build()
+    ;
 
-    static final AttributeDefinition[] ATTRIBUTES = { MAX_SIZE, CACHE_CONTAINER, BEAN_CACHE };
-    static final AttributeDefinition[] READ_ONLY_ATTRIBUTES = { CACHE_CONTAINER, BEAN_CACHE };
+    static final AttributeDefinition[] ATTRIBUTES = { MAX_SIZE, CACHE_CONTAINER, BEAN_CACHE, GRANULARITY };
+    static final AttributeDefinition[] READ_ONLY_ATTRIBUTES = { CACHE_CONTAINER, BEAN_CACHE, GRANULARITY };
     static final AttributeDefinition[] READ_WRITE_ATTRIBUTES = { MAX_SIZE };
 
     static final PassivationStoreAdd ADD_HANDLER = new PassivationStoreAdd(ATTRIBUTES);
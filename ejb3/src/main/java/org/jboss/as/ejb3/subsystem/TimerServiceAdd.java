@@ -34,6 +34,7 @@ import org.jboss.as.ejb3.deployment.processors.AroundTimeoutAnnotationParsingPro
 import org.jboss.as.ejb3.deployment.processors.TimerServiceDeploymentProcessor;
 import org.jboss.as.ejb3.deployment.processors.annotation.TimerServiceAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.merging.TimerMethodMergingProcessor;
+import org.jboss.as.ejb3.timerservice.TimerScheduler;
 import org.jboss.as.server.AbstractDeploymentChainStep;
 import org.jboss.as.server.DeploymentProcessorTarget;
 import org.jboss.as.server.deployment.Phase;
@@ -91,6 +92,8 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
 
         context.getServiceTarget().addService(TimerServiceDeploymentProcessor.TIMER_SERVICE_NAME, new TimerValueService())
                 .install();
+        context.getServiceTarget().addService(TimerServiceDeploymentProcessor.TIMER_SCHEDULER_SERVICE_NAME, new TimerSchedulerService())
+                .install();
 
     }
 
@@ -114,4 +117,25 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
             return timer;
         }
     }
+
+    private static final class TimerSchedulerService implements Service<TimerScheduler> {
+
+        private TimerScheduler scheduler;
+
+        @Override
+        public synchronized void start(final StartContext context) throws StartException {
+            scheduler = new TimerScheduler();
+        }
+
+        @Override
+        public synchronized void stop(final StopContext context) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+
+        @Override
+        public synchronized TimerScheduler getValue() throws IllegalStateException, IllegalArgumentException {
+            return scheduler;
+        }
+    }
 }
@@ -24,6 +24,8 @@ package org.jboss.as.ejb3.subsystem.deployment;
 
 import java.util.Map;
 
+import javax.ejb.TimerService;
+
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ListAttributeDefinition;
 import org.jboss.as.controller.ObjectTypeAttributeDefinition;
@@ -34,6 +36,7 @@ import org.jboss.as.controller.PrimitiveListAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -41,6 +44,8 @@ import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.component.invocationmetrics.InvocationMetrics;
 import org.jboss.as.ejb3.component.stateful.StatefulSessionComponent;
 import org.jboss.as.ejb3.subsystem.EJB3Extension;
+import org.jboss.as.ejb3.timerservice.TimeoutMetrics;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
@@ -80,7 +85,31 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
 
-    private static final AttributeDefinition METHODS = ObjectTypeAttributeDefinition.Builder.of("methods", EXECUTION_TIME, INVOCATIONS, WAIT_TIME)
+    private static final AttributeDefinition EXECUTION_TIME_P50 = new SimpleAttributeDefinitionBuilder("execution-time-p50", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition EXECUTION_TIME_P99 = new SimpleAttributeDefinitionBuilder("execution-time-p99", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition EXECUTION_TIME_P999 = new SimpleAttributeDefinitionBuilder("execution-time-p999", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition PEAK_EXECUTION_TIME = new SimpleAttributeDefinitionBuilder("peak-execution-time", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition METHODS = ObjectTypeAttributeDefinition.Builder.of("methods", EXECUTION_TIME, INVOCATIONS, WAIT_TIME, EXECUTION_TIME_P50, EXECUTION_TIME_P99, EXECUTION_TIME_P999, PEAK_EXECUTION_TIME)
             .setRequired(false)
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
@@ -107,6 +136,23 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
 
+    private static final AttributeDefinition TIMEOUTS = new SimpleAttributeDefinitionBuilder("timeouts", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition TIMEOUT_LAG = new SimpleAttributeDefinitionBuilder("timeout-lag", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    private static final AttributeDefinition PEAK_TIMEOUT_LAG = new SimpleAttributeDefinitionBuilder("peak-timeout-lag", ModelType.LONG)
+            .setUndefinedMetricValue(new ModelNode(0))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
     private static final AttributeDefinition TOTAL_SIZE = new SimpleAttributeDefinitionBuilder("total-size", ModelType.LONG)
             .setUndefinedMetricValue(new ModelNode(0))
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
@@ -145,6 +191,33 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
         resourceRegistration.registerReadOnlyAttribute(DECLARED_ROLES, handler);
         if (componentType.hasTimer()) {
             resourceRegistration.registerReadOnlyAttribute(TimerAttributeDefinition.INSTANCE, handler);
+            resourceRegistration.registerMetric(TIMEOUTS, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    TimeoutMetrics metrics = getTimeoutMetrics(component);
+                    if (metrics != null) {
+                        context.getResult().set(metrics.getTimeouts());
+                    }
+                }
+            });
+            resourceRegistration.registerMetric(TIMEOUT_LAG, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    TimeoutMetrics metrics = getTimeoutMetrics(component);
+                    if (metrics != null) {
+                        context.getResult().set(metrics.getAverageLag());
+                    }
+                }
+            });
+            resourceRegistration.registerMetric(PEAK_TIMEOUT_LAG, new AbstractRuntimeMetricsHandler() {
+                @Override
+                protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                    TimeoutMetrics metrics = getTimeoutMetrics(component);
+                    if (metrics != null) {
+                        context.getResult().set(metrics.getPeakLag());
+                    }
+                }
+            });
         }
 
         if (componentType.hasPool()) {
@@ -211,12 +284,22 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                     result.get("execution-time").set(values.getExecutionTime());
                     result.get("invocations").set(values.getInvocations());
                     result.get("wait-time").set(values.getWaitTime());
+                    result.get(EXECUTION_TIME_P50.getName()).set(values.getExecutionTimePercentile(0.5));
+                    result.get(EXECUTION_TIME_P99.getName()).set(values.getExecutionTimePercentile(0.99));
+                    result.get(EXECUTION_TIME_P999.getName()).set(values.getExecutionTimePercentile(0.999));
+                    result.get(PEAK_EXECUTION_TIME.getName()).set(values.getPeakExecutionTime());
                     context.getResult().get(entry.getKey()).set(result);
                 }
             }
         });
     }
 
+    private static TimeoutMetrics getTimeoutMetrics(final EJBComponent component) {
+        // Components without timeout methods use a non-functional timer service
+        final TimerService timerService = component.getTimerService();
+        return (timerService instanceof TimerServiceImpl) ? ((TimerServiceImpl) timerService).getTimeoutMetrics() : null;
+    }
+
     /* (non-Javadoc)
      * @see org.jboss.as.controller.SimpleResourceDefinition#registerChildren(org.jboss.as.controller.registry.ManagementResourceRegistration)
      */
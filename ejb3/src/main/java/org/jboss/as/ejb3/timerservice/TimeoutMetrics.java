@@ -0,0 +1,63 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks the lag between the scheduled and actual times at which the timeouts of a timed object are invoked.
+ */
+public class TimeoutMetrics {
+
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder totalLag = new LongAdder();
+    private final LongAccumulator peakLag = new LongAccumulator(Math::max, 0L);
+
+    void timeoutStarted(long lag) {
+        this.timeouts.increment();
+        this.totalLag.add(lag);
+        this.peakLag.accumulate(lag);
+    }
+
+    /**
+     * @return the number of timeouts invoked
+     */
+    public long getTimeouts() {
+        return this.timeouts.sum();
+    }
+
+    /**
+     * @return the average lag, in milliseconds, between the scheduled and actual time of a timeout
+     */
+    public long getAverageLag() {
+        long timeouts = this.timeouts.sum();
+        return (timeouts > 0) ? this.totalLag.sum() / timeouts : 0L;
+    }
+
+    /**
+     * @return the maximum lag, in milliseconds, between the scheduled and actual time of a timeout
+     */
+    public long getPeakLag() {
+        return this.peakLag.get();
+    }
+}
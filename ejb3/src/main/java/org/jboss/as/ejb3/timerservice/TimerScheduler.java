@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice;
+
+import static java.security.AccessController.doPrivileged;
+
+import java.security.PrivilegedAction;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.threads.JBossThreadFactory;
+
+/**
+ * Schedules the timeouts of EJB timers.
+ * <p/>
+ * Timeouts are sharded across a number of independent delay queues, each serviced by a single thread, by hashing the timer id.
+ * Thus the scheduling, cancellation and expiration of a given timer only ever contends with those timers sharing its shard.
+ * Expired tasks are expected to dispatch the timeout itself to a separate executor, so that a slow timeout never delays
+ * the expiration of other timers.
+ */
+public class TimerScheduler {
+
+    private static final int DEFAULT_SHARDS = Integer.getInteger("jboss.timer.scheduler.shards", Runtime.getRuntime().availableProcessors());
+
+    private static final ThreadFactory THREAD_FACTORY = doPrivileged(new PrivilegedAction<JBossThreadFactory>() {
+        @Override
+        public JBossThreadFactory run() {
+            return new JBossThreadFactory(new ThreadGroup(TimerScheduler.class.getSimpleName()), Boolean.TRUE, null, "%G - %t", null, null);
+        }
+    });
+
+    private final ScheduledThreadPoolExecutor[] shards;
+    private final int mask;
+
+    public TimerScheduler() {
+        this(DEFAULT_SHARDS);
+    }
+
+    public TimerScheduler(int shards) {
+        // Use a power of 2 number of shards, so that a shard can be selected via a mask
+        int size = Integer.highestOneBit(Math.max(shards - 1, 1)) << 1;
+        this.mask = size - 1;
+        this.shards = new ScheduledThreadPoolExecutor[size];
+        for (int i = 0; i < size; ++i) {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, THREAD_FACTORY);
+            // Don't retain cancelled tasks within the delay queue, see WFLY-3823
+            executor.setRemoveOnCancelPolicy(true);
+            executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+            executor.setContinueExistingPeriodicTasksAfterShutdownPolicy(false);
+            this.shards[i] = executor;
+        }
+    }
+
+    /**
+     * Schedules the specified task to run once after the specified delay.
+     * @param id the identifier of the timer, used to select a shard
+     * @param task a task
+     * @param delay the delay in milliseconds
+     * @return a future, used to cancel the task
+     */
+    public ScheduledFuture<?> schedule(String id, Runnable task, long delay) {
+        return this.shard(id).schedule(task, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedules the specified task to run periodically, at a fixed rate, after the specified delay.
+     * @param id the identifier of the timer, used to select a shard
+     * @param task a task
+     * @param delay the initial delay in milliseconds
+     * @param period the period in milliseconds
+     * @return a future, used to cancel the task
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(String id, Runnable task, long delay, long period) {
+        return this.shard(id).scheduleAtFixedRate(task, delay, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cancels all scheduled tasks.
+     */
+    public void shutdown() {
+        for (ScheduledThreadPoolExecutor executor : this.shards) {
+            executor.shutdownNow();
+        }
+    }
+
+    private ScheduledThreadPoolExecutor shard(String id) {
+        int hash = id.hashCode();
+        // Spread the higher bits of the hash, as per HashMap
+        return this.shards[(hash ^ (hash >>> 16)) & this.mask];
+    }
+}
@@ -36,7 +36,9 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import javax.ejb.EJBException;
 import javax.ejb.ScheduleExpression;
@@ -100,7 +102,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
 
     private final InjectedValue<ExecutorService> executorServiceInjectedValue = new InjectedValue<ExecutorService>();
 
-    private final InjectedValue<java.util.Timer> timerInjectedValue = new InjectedValue<java.util.Timer>();
+    private final InjectedValue<TimerScheduler> timerSchedulerInjectedValue = new InjectedValue<TimerScheduler>();
 
     private final InjectedValue<TimedObjectInvoker> timedObjectInvoker = new InjectedValue<TimedObjectInvoker>();
 
@@ -117,12 +119,17 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
     /**
      * All timers which were created by this {@link TimerService}
      */
-    private final Map<String, TimerImpl> timers = Collections.synchronizedMap(new HashMap<String, TimerImpl>());
+    private final Map<String, TimerImpl> timers = new ConcurrentHashMap<String, TimerImpl>();
 
     /**
-     * Holds the {@link java.util.concurrent.Future} of each of the timer tasks that have been scheduled
+     * Holds the {@link Task} of each of the timers that have been scheduled
      */
-    private final Map<String, java.util.TimerTask> scheduledTimerFutures = new HashMap<String, java.util.TimerTask>();
+    private final Map<String, Task> scheduledTimerFutures = new ConcurrentHashMap<String, Task>();
+
+    /**
+     * Tracks the lag of the timeouts of this timer service
+     */
+    private final TimeoutMetrics timeoutMetrics = new TimeoutMetrics();
 
     /**
      * Key that is used to store timers that are waiting on transaction completion in the transaction local
@@ -205,7 +212,6 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         started = false;
         IoUtils.safeClose(listenerHandle);
         listenerHandle = null;
-        timerInjectedValue.getValue().purge(); //WFLY-3823
     }
 
 
@@ -394,13 +400,11 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         Object pk = currentPrimaryKey();
         final Set<Timer> activeTimers = new HashSet<Timer>();
         // get all active timers for this timerservice
-        synchronized (this.timers) {
-            for (final TimerImpl timer : this.timers.values()) {
-                // Less disruptive way to get WFLY-8457 fixed.
-                if (timer.isActive() || (!timer.isActive() && timer.getState() == TimerState.ACTIVE)) {
-                    if (timer.getPrimaryKey() == null || timer.getPrimaryKey().equals(pk)) {
-                        activeTimers.add(timer);
-                    }
+        for (final TimerImpl timer : this.timers.values()) {
+            // Less disruptive way to get WFLY-8457 fixed.
+            if (timer.isActive() || (!timer.isActive() && timer.getState() == TimerState.ACTIVE)) {
+                if (timer.getPrimaryKey() == null || timer.getPrimaryKey().equals(pk)) {
+                    activeTimers.add(timer);
                 }
             }
         }
@@ -871,43 +875,42 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
      * Creates and schedules a {@link TimerTask} for the next timeout of the passed <code>timer</code>
      */
     protected void scheduleTimeout(TimerImpl timer, boolean newTimer) {
-        synchronized (scheduledTimerFutures) {
-            if (!newTimer && !scheduledTimerFutures.containsKey(timer.getId())) {
+        // Scheduling is atomic per timer, but does not contend with the scheduling of other timers
+        this.scheduledTimerFutures.compute(timer.getId(), (id, existing) -> {
+            if (!newTimer && existing == null) {
                 //this timer has been cancelled by another thread. We just return
-                return;
+                return null;
             }
 
             Date nextExpiration = timer.getNextExpiration();
             if (nextExpiration == null) {
                 EJB3_TIMER_LOGGER.nextExpirationIsNull(timer);
-                return;
+                return existing;
             }
             // create the timer task
             final TimerTask<?> timerTask = timer.getTimerTask();
             // find out how long is it away from now
-            long delay = nextExpiration.getTime() - System.currentTimeMillis();
+            long now = System.currentTimeMillis();
+            long delay = nextExpiration.getTime() - now;
             // if in past, then trigger immediately
             if (delay < 0) {
                 delay = 0;
             }
             long intervalDuration = timer.getInterval();
-            final Task task = new Task(timerTask, ejbComponentInjectedValue.getValue().getControlPoint());
+            final Task task = new Task(timerTask, ejbComponentInjectedValue.getValue().getControlPoint(), now + delay, intervalDuration);
             if (intervalDuration > 0) {
                 EJB3_TIMER_LOGGER.debugv("Scheduling timer {0} at fixed rate, starting at {1} milliseconds from now with repeated interval={2}",
                         timer, delay, intervalDuration);
                 // schedule the task
-                this.timerInjectedValue.getValue().scheduleAtFixedRate(task, delay, intervalDuration);
-                // maintain it in timerservice for future use (like cancellation)
-                this.scheduledTimerFutures.put(timer.getId(), task);
+                task.setFuture(this.timerSchedulerInjectedValue.getValue().scheduleAtFixedRate(id, task, delay, intervalDuration));
             } else {
                 EJB3_TIMER_LOGGER.debugv("Scheduling a single action timer {0} starting at {1} milliseconds from now", timer, delay);
                 // schedule the task
-                this.timerInjectedValue.getValue().schedule(task, delay);
-                // maintain it in timerservice for future use (like cancellation)
-                this.scheduledTimerFutures.put(timer.getId(), task);
-
+                task.setFuture(this.timerSchedulerInjectedValue.getValue().schedule(id, task, delay));
             }
-        }
+            // maintain it in timerservice for future use (like cancellation)
+            return task;
+        });
     }
 
     /**
@@ -916,18 +919,14 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
      * @param timer
      */
     protected void cancelTimeout(final TimerImpl timer) {
-        synchronized (this.scheduledTimerFutures) {
-            java.util.TimerTask timerTask = this.scheduledTimerFutures.remove(timer.getId());
-            if (timerTask != null) {
-                timerTask.cancel();
-            }
+        Task task = this.scheduledTimerFutures.remove(timer.getId());
+        if (task != null) {
+            task.cancel();
         }
     }
 
     public boolean isScheduled(final String tid){
-        synchronized (this.scheduledTimerFutures) {
-            return this.scheduledTimerFutures.containsKey(tid);
-        }
+        return this.scheduledTimerFutures.containsKey(tid);
     }
 
     /**
@@ -1095,8 +1094,12 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         return executorServiceInjectedValue;
     }
 
-    public InjectedValue<java.util.Timer> getTimerInjectedValue() {
-        return timerInjectedValue;
+    public InjectedValue<TimerScheduler> getTimerSchedulerInjectedValue() {
+        return timerSchedulerInjectedValue;
+    }
+
+    public TimeoutMetrics getTimeoutMetrics() {
+        return timeoutMetrics;
     }
 
     public InjectedValue<TimerPersistence> getTimerPersistence() {
@@ -1214,7 +1217,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         }
     }
 
-    private class TaskPostPersist extends java.util.TimerTask {
+    private class TaskPostPersist implements Runnable {
         private final TimerImpl timer;
         private long delta = 0;
         private long nextExpirationPristine = 0;
@@ -1256,9 +1259,9 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
                     if (delta == 0L) {
                         delta = nextExpirationDelay / (1L + MAX_RETRY.longValue());
                     }
-                    timerInjectedValue
+                    timerSchedulerInjectedValue
                             .getValue()
-                            .schedule(new TaskPostPersist(timer, delta, nextExpirationPristine), delta);
+                            .schedule(timer.getId(), new TaskPostPersist(timer, delta, nextExpirationPristine), delta);
                 } else {
                     EJB3_TIMER_LOGGER.exceptionPersistPostTimerState(timer, e);
                 }
@@ -1266,46 +1269,77 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         }
     }
 
-    private class Task extends java.util.TimerTask {
+    private class Task implements Runnable {
 
         private final TimerTask<?> delegate;
         private final ControlPoint controlPoint;
+        private final long intervalDuration;
+        /**
+         * The time, in milliseconds, at which the next expiration of this task is scheduled.
+         * Only accessed by the scheduler thread.
+         */
+        private long scheduledTime;
         /**
          * This is true if a task is queued up to be run by the request controller,
          * used to stop timer tasks banking up when the container is suspended.
          */
         private volatile boolean queued = false;
+        private volatile Future<?> future;
 
-        public Task(final TimerTask<?> delegate, ControlPoint controlPoint) {
+        Task(final TimerTask<?> delegate, ControlPoint controlPoint, long scheduledTime, long intervalDuration) {
             this.delegate = delegate;
             this.controlPoint = controlPoint;
+            this.scheduledTime = scheduledTime;
+            this.intervalDuration = intervalDuration;
+        }
+
+        void setFuture(Future<?> future) {
+            this.future = future;
         }
 
         @Override
         public void run() {
+            final long scheduledTime = this.scheduledTime;
+            this.scheduledTime += this.intervalDuration;
             final ExecutorService executor = executorServiceInjectedValue.getOptionalValue();
             if (executor != null) {
-                if(controlPoint == null) {
-                    executor.submit(delegate);
-                } else if(!queued) {
-                    queued = true;
-                    controlPoint.queueTask(new Runnable() {
-                        @Override
-                        public void run() {
-                            queued = false;
-                            delegate.run();
-                        }
-                    }, executor, -1, null, false);
-                } else {
-                    EjbLogger.EJB3_INVOCATION_LOGGER.debug("Skipping timer invocation as existing request is already queued.");
+                // Dispatch the timeout to the executor, so that a slow timeout never delays the expiration of other timers
+                final Runnable timeout = new Runnable() {
+                    @Override
+                    public void run() {
+                        timeoutMetrics.timeoutStarted(Math.max(System.currentTimeMillis() - scheduledTime, 0L));
+                        delegate.run();
+                    }
+                };
+                try {
+                    if(controlPoint == null) {
+                        executor.submit(timeout);
+                    } else if(!queued) {
+                        queued = true;
+                        controlPoint.queueTask(new Runnable() {
+                            @Override
+                            public void run() {
+                                queued = false;
+                                timeout.run();
+                            }
+                        }, executor, -1, null, false);
+                    } else {
+                        EjbLogger.EJB3_INVOCATION_LOGGER.debug("Skipping timer invocation as existing request is already queued.");
+                    }
+                } catch (RuntimeException e) {
+                    // An exception would otherwise suppress subsequent executions of a periodic task
+                    queued = false;
+                    EJB3_TIMER_LOGGER.exceptionRunningTimerTask(getTimer(delegate.timerId), delegate.timedObjectId, e);
                 }
             }
         }
 
-        @Override
-        public boolean cancel() {
+        void cancel() {
             delegate.cancel();
-            return super.cancel();
+            Future<?> future = this.future;
+            if (future != null) {
+                future.cancel(false);
+            }
         }
     }
 
@@ -39,6 +39,7 @@ import java.sql.Timestamp;
 import java.sql.Types;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Collections;
@@ -51,6 +52,7 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.sql.DataSource;
@@ -58,7 +60,10 @@ import javax.transaction.HeuristicMixedException;
 import javax.transaction.HeuristicRollbackException;
 import javax.transaction.NotSupportedException;
 import javax.transaction.RollbackException;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
 import javax.transaction.SystemException;
+import javax.transaction.Transaction;
 import javax.transaction.TransactionManager;
 
 import org.jboss.as.ejb3.logging.EjbLogger;
@@ -85,6 +90,7 @@ import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 import org.wildfly.transaction.client.ContextTransactionManager;
+import org.wildfly.transaction.client.ContextTransactionSynchronizationRegistry;
 
 /**
  * <p>
@@ -123,6 +129,12 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     private MarshallerFactory factory;
     private MarshallingConfiguration configuration;
     private RefreshTask refreshTask;
+    /** Key of the statement batch of the current transaction */
+    private final Object batchKey = new Object();
+    /** Duration in millis of the most recent refresh*/
+    private volatile long lastRefreshDuration;
+    /** Number of timer rows loaded by the most recent refresh*/
+    private volatile long lastRefreshRows;
 
     /** Names for the different SQL commands stored in the properties*/
     private static final String CREATE_TABLE = "create-table";
@@ -132,6 +144,12 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     private static final String LOAD_TIMER = "load-timer";
     private static final String DELETE_TIMER = "delete-timer";
     private static final String UPDATE_RUNNING = "update-running";
+    private static final String LOAD_TIMER_IDS = "load-timer-ids";
+    private static final String LOAD_CHANGED_TIMERS = "load-changed-timers";
+    private static final String CHECK_LAST_MODIFIED = "check-last-modified";
+    private static final String ADD_LAST_MODIFIED = "add-last-modified";
+    /** The column tracking the time of the last modification of a timer, used for incremental refresh*/
+    private static final String LAST_MODIFIED_COLUMN = "LAST_MODIFIED";
     /** The format for scheduler start and end date*/
     private static final String SCHEDULER_DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
 
@@ -284,6 +302,8 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             preparedStatement.setString(2, "NON-EXISTENT");
             preparedStatement.setString(3, "NON-EXISTENT");
             resultSet = preparedStatement.executeQuery();
+            // the table exists, add any column missing from a table created by a previous version
+            migrateTable(connection);
         } catch (SQLException e) {
             //the query failed, assume it is because the table does not exist
             if (connection != null) {
@@ -312,6 +332,40 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         }
     }
 
+    /**
+     * Adds the LAST_MODIFIED column to a timer table that was created without it.
+     * Rows persisted prior to the migration have no modification time, and are thus always considered changed by the refresh.
+     */
+    private void migrateTable(final Connection connection) {
+        PreparedStatement preparedStatement = null;
+        ResultSet resultSet = null;
+        try {
+            preparedStatement = connection.prepareStatement(sql(CHECK_LAST_MODIFIED));
+            preparedStatement.setString(1, "NON-EXISTENT");
+            resultSet = preparedStatement.executeQuery();
+            return;
+        } catch (SQLException e) {
+            //the query failed, assume it is because the column does not exist
+            EjbLogger.EJB3_TIMER_LOGGER.debugf("Adding %s column to timer table", LAST_MODIFIED_COLUMN);
+        } finally {
+            safeClose(resultSet);
+            safeClose(preparedStatement);
+        }
+        Statement statement = null;
+        try {
+            for (final String sql : sql(ADD_LAST_MODIFIED).split(";")) {
+                try {
+                    statement = connection.createStatement();
+                    statement.executeUpdate(sql);
+                } finally {
+                    safeClose(statement);
+                }
+            }
+        } catch (SQLException e) {
+            EjbLogger.EJB3_TIMER_LOGGER.couldNotMigrateTable(LAST_MODIFIED_COLUMN, e);
+        }
+    }
+
     private String sql(final String key) {
         if (database != null) {
             String result = sql.getProperty(key + "." + database);
@@ -325,70 +379,117 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     @Override
     public void addTimer(final TimerImpl timerEntity) {
         String createTimer = sql(CREATE_TIMER);
-        Connection connection = null;
-        PreparedStatement statement = null;
-        ResultSet resultSet = null;
         try {
             synchronized (this) {
                 knownTimerIds.get(timerEntity.getTimedObjectId()).add(timerEntity.getId());
             }
-            connection = dataSource.getConnection();
-            statement = connection.prepareStatement(createTimer);
-            statementParameters(timerEntity, statement);
-            statement.execute();
+            // capture the state of the timer now, as the statement may only be executed on completion of the transaction
+            final TimerState state = timerEntity.getState();
+            final Date nextExpiration = timerEntity.getNextExpiration();
+            final Date previousRun = timerEntity.getPreviousRun();
+            final String primaryKey = serialize((Serializable) timerEntity.getPrimaryKey());
+            final String info = serialize(timerEntity.getTimerInfo());
+            final long lastModified = System.currentTimeMillis();
+            execute(createTimer, statement -> statementParameters(timerEntity, state, nextExpiration, previousRun, primaryKey, info, lastModified, statement));
         } catch (SQLException e) {
             throw new RuntimeException(e);
-        } finally {
-            safeClose(resultSet);
-            safeClose(statement);
-            safeClose(connection);
         }
     }
 
     @Override
     public void persistTimer(final TimerImpl timerEntity) {
-        Connection connection = null;
-        PreparedStatement statement = null;
-        ResultSet resultSet = null;
+        final String timedObjectId = timerEntity.getTimedObjectId();
+        final String id = timerEntity.getId();
+        final TimerState state = timerEntity.getState();
         try {
-            connection = dataSource.getConnection();
-            if (timerEntity.getState() == TimerState.CANCELED ||
-                    timerEntity.getState() == TimerState.EXPIRED) {
+            if (state == TimerState.CANCELED ||
+                    state == TimerState.EXPIRED) {
                 String deleteTimer = sql(DELETE_TIMER);
-                statement = connection.prepareStatement(deleteTimer);
-                statement.setString(1, timerEntity.getTimedObjectId());
-                statement.setString(2, timerEntity.getId());
-                statement.setString(3, partition);
-                statement.execute();
+                execute(deleteTimer, statement -> {
+                    statement.setString(1, timedObjectId);
+                    statement.setString(2, id);
+                    statement.setString(3, partition);
+                });
                 synchronized (this) {
-                    knownTimerIds.get(timerEntity.getTimedObjectId()).remove(timerEntity.getId());
+                    knownTimerIds.get(timedObjectId).remove(id);
                 }
             } else {
                 synchronized (this) {
-                    knownTimerIds.get(timerEntity.getTimedObjectId()).add(timerEntity.getId());
+                    knownTimerIds.get(timedObjectId).add(id);
                 }
                 String updateTimer = sql(UPDATE_TIMER);
-                statement = connection.prepareStatement(updateTimer);
-                statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
-                statement.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
-                statement.setString(3, timerEntity.getState().name());
-                setNodeName(timerEntity.getState(), statement, 4);
-                // WHERE CLAUSE
-                statement.setString(5, timerEntity.getTimedObjectId());
-                statement.setString(6, timerEntity.getId());
-                statement.setString(7, partition);
-                statement.setString(8, nodeName);   // only persist if this node or empty
-                statement.execute();
+                final Timestamp nextExpiration = timestamp(timerEntity.getNextExpiration());
+                final Timestamp previousRun = timestamp(timerEntity.getPreviousRun());
+                final long lastModified = System.currentTimeMillis();
+                execute(updateTimer, statement -> {
+                    statement.setTimestamp(1, nextExpiration);
+                    statement.setTimestamp(2, previousRun);
+                    statement.setString(3, state.name());
+                    setNodeName(state, statement, 4);
+                    statement.setLong(5, lastModified);
+                    // WHERE CLAUSE
+                    statement.setString(6, timedObjectId);
+                    statement.setString(7, id);
+                    statement.setString(8, partition);
+                    statement.setString(9, nodeName);   // only persist if this node or empty
+                });
             }
         } catch (SQLException e) {
             throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Executes the given statement.
+     * If a transaction is active, the statement is instead deferred until the completion of the transaction,
+     * where it is executed as part of a JDBC batch along with the other timer statements of the transaction.
+     */
+    private void execute(final String sql, final StatementParameters parameters) throws SQLException {
+        final StatementBatch batch = getStatementBatch();
+        if (batch != null && batch.add(sql, parameters)) {
+            return;
+        }
+        Connection connection = null;
+        PreparedStatement statement = null;
+        try {
+            connection = dataSource.getConnection();
+            statement = connection.prepareStatement(sql);
+            parameters.setParameters(statement);
+            statement.execute();
         } finally {
-            safeClose(resultSet);
             safeClose(statement);
             safeClose(connection);
         }
     }
 
+    /**
+     * Returns the statement batch associated with the active transaction, creating it if necessary.
+     *
+     * @return the statement batch, or null if no transaction is active
+     */
+    StatementBatch getStatementBatch() {
+        final ContextTransactionSynchronizationRegistry registry = ContextTransactionSynchronizationRegistry.getInstance();
+        if (registry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+            return null;
+        }
+        StatementBatch batch = (StatementBatch) registry.getResource(batchKey);
+        if (batch == null) {
+            batch = new StatementBatch();
+            try {
+                final Transaction transaction = ContextTransactionManager.getInstance().getTransaction();
+                if (transaction == null) {
+                    return null;
+                }
+                transaction.registerSynchronization(batch);
+            } catch (RollbackException | SystemException | IllegalStateException e) {
+                EjbLogger.EJB3_TIMER_LOGGER.debugf(e, "Unable to defer timer statements to the completion of the transaction");
+                return null;
+            }
+            registry.putResource(batchKey, batch);
+        }
+        return batch;
+    }
+
     @Override
     public boolean shouldRun(TimerImpl timer, @Deprecated TransactionManager ignored) {
         final ContextTransactionManager tm = ContextTransactionManager.getInstance();
@@ -406,13 +507,14 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
                 statement = connection.prepareStatement(loadTimer);
                 statement.setString(1, TimerState.IN_TIMEOUT.name());
                 setNodeName(TimerState.IN_TIMEOUT, statement, 2);
-                statement.setString(3, timer.getId());
-                statement.setString(4, TimerState.IN_TIMEOUT.name());
-                statement.setString(5, TimerState.RETRY_TIMEOUT.name());
+                statement.setLong(3, System.currentTimeMillis());
+                statement.setString(4, timer.getId());
+                statement.setString(5, TimerState.IN_TIMEOUT.name());
+                statement.setString(6, TimerState.RETRY_TIMEOUT.name());
                 if (timer.getNextExpiration() == null) {
-                    statement.setTimestamp(6, null);
+                    statement.setTimestamp(7, null);
                 } else {
-                    statement.setTimestamp(6, timestamp(timer.getNextExpiration()));
+                    statement.setTimestamp(7, timestamp(timer.getNextExpiration()));
                 }
             } catch (SQLException e) {
                 try {
@@ -593,16 +695,16 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         return new Holder(ret, requiresReset);
     }
 
-    private void statementParameters(final TimerImpl timerEntity, final PreparedStatement statement) throws SQLException {
+    private void statementParameters(final TimerImpl timerEntity, final TimerState state, final Date nextExpiration, final Date previousRun, final String primaryKey, final String info, final long lastModified, final PreparedStatement statement) throws SQLException {
         statement.setString(1, timerEntity.getId());
         statement.setString(2, timerEntity.getTimedObjectId());
         statement.setTimestamp(3, timestamp(timerEntity.getInitialExpiration()));
         statement.setLong(4, timerEntity.getInterval());
-        statement.setTimestamp(5, timestamp(timerEntity.getNextExpiration()));
-        statement.setTimestamp(6, timestamp(timerEntity.getPreviousRun()));
-        statement.setString(7, serialize((Serializable) timerEntity.getPrimaryKey()));
-        statement.setString(8, serialize(timerEntity.getTimerInfo()));
-        statement.setString(9, timerEntity.getState().name());
+        statement.setTimestamp(5, timestamp(nextExpiration));
+        statement.setTimestamp(6, timestamp(previousRun));
+        statement.setString(7, primaryKey);
+        statement.setString(8, info);
+        statement.setString(9, state.name());
 
         if (timerEntity instanceof CalendarTimer) {
             final CalendarTimer c = (CalendarTimer) timerEntity;
@@ -655,7 +757,8 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             statement.setBoolean(24, false);
         }
         statement.setString(25, partition);
-        setNodeName(timerEntity.getState(), statement, 26);
+        setNodeName(state, statement, 26);
+        statement.setLong(27, lastModified);
     }
 
     private String serialize(final Serializable serializable) {
@@ -753,6 +856,20 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         return timerInjectedValue;
     }
 
+    /**
+     * @return the duration in milliseconds of the most recent refresh of the timers from the database
+     */
+    public long getLastRefreshDuration() {
+        return lastRefreshDuration;
+    }
+
+    /**
+     * @return the number of rows read from the database by the most recent refresh, i.e. the identifier rows of all timers and the full rows of changed timers
+     */
+    public long getLastRefreshRows() {
+        return lastRefreshRows;
+    }
+
     private static void safeClose(final Closeable resource) {
         try {
             if (resource != null) {
@@ -793,6 +910,100 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         }
     }
 
+    /**
+     * Refreshes the timers of each timed object with a registered change listener from the database.
+     * Only the identifiers of the persistent timers are read; full rows are only loaded for timers not yet known to this node.
+     */
+    void refresh() {
+        long start = System.nanoTime();
+        long rows = 0;
+        Set<String> timedObjects;
+        synchronized (this) {
+            timedObjects = new HashSet<>(knownTimerIds.keySet());
+        }
+        for (String timedObjectId : timedObjects) {
+            TimerChangeListener listener = changeListeners.get(timedObjectId);
+            if (listener == null) {
+                continue;
+            }
+            final Set<String> existing;
+            synchronized (this) {
+                existing = new HashSet<>(knownTimerIds.get(timedObjectId));
+            }
+            Connection connection = null;
+            PreparedStatement statement = null;
+            ResultSet resultSet = null;
+            try {
+                connection = dataSource.getConnection();
+                // Only read the identifiers of the timers to determine which timers were added or removed
+                final Set<String> added = new HashSet<>();
+                Long since = null;
+                statement = connection.prepareStatement(sql(LOAD_TIMER_IDS));
+                statement.setString(1, timedObjectId);
+                statement.setString(2, partition);
+                resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    rows += 1;
+                    String id = resultSet.getString(1);
+                    if (!existing.remove(id)) {
+                        added.add(id);
+                        long lastModified = resultSet.getLong(2);
+                        // Rows persisted prior to the introduction of the last modified column are always loaded
+                        if (!resultSet.wasNull()) {
+                            since = (since == null) ? lastModified : Math.min(since, lastModified);
+                        }
+                    }
+                }
+                safeClose(resultSet);
+                safeClose(statement);
+                resultSet = null;
+                statement = null;
+
+                if (!added.isEmpty()) {
+                    // Only load the rows modified since the oldest modification of an added timer
+                    statement = connection.prepareStatement(sql(LOAD_CHANGED_TIMERS));
+                    statement.setString(1, timedObjectId);
+                    statement.setString(2, partition);
+                    statement.setLong(3, (since != null) ? since : Long.MAX_VALUE);
+                    resultSet = statement.executeQuery();
+                    while (resultSet.next()) {
+                        rows += 1;
+                        try {
+                            String id = resultSet.getString(1);
+                            if (added.remove(id)) {
+                                synchronized (this) {
+                                    knownTimerIds.get(timedObjectId).add(id);
+                                }
+                                final Holder holder = timerFromResult(resultSet, listener.getTimerService());
+                                if(holder != null) {
+                                    listener.timerAdded(holder.timer);
+                                }
+                            }
+                        } catch (Exception e) {
+                            EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
+                        }
+                    }
+                }
+
+                synchronized (this) {
+                    Set<String> timers = knownTimerIds.get(timedObjectId);
+                    for (String timer : existing) {
+                        timers.remove(timer);
+                        listener.timerRemoved(timer);
+                    }
+                }
+            } catch (SQLException e) {
+                EjbLogger.EJB3_TIMER_LOGGER.failedToRefreshTimers(timedObjectId);
+            } finally {
+                safeClose(resultSet);
+                safeClose(statement);
+                safeClose(connection);
+            }
+        }
+        lastRefreshRows = rows;
+        lastRefreshDuration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
     private class RefreshTask extends TimerTask {
 
         private volatile AtomicBoolean running = new AtomicBoolean();
@@ -801,70 +1012,82 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         public void run() {
             if (running.compareAndSet(false, true)) {
                 try {
-                    Set<String> timedObjects;
-                    synchronized (DatabaseTimerPersistence.this) {
-                        timedObjects = new HashSet<>(knownTimerIds.keySet());
-                    }
-                    for (String timedObjectId : timedObjects) {
-                        TimerChangeListener listener = changeListeners.get(timedObjectId);
-                        if (listener == null) {
-                            continue;
-                        }
-                        final Set<String> existing;
-                        synchronized (DatabaseTimerPersistence.this) {
-                            existing = new HashSet<>(knownTimerIds.get(timedObjectId));
-                        }
-                        String loadTimer = sql(LOAD_ALL_TIMERS);
-                        Connection connection = null;
-                        PreparedStatement statement = null;
-                        ResultSet resultSet = null;
-                        try {
-                            connection = dataSource.getConnection();
-                            statement = connection.prepareStatement(loadTimer);
-                            statement.setString(1, timedObjectId);
-                            statement.setString(2, partition);
-                            resultSet = statement.executeQuery();
-                            while (resultSet.next()) {
-                                try {
-                                    String id = resultSet.getString(1);
-                                    if (!existing.remove(id)) {
-                                        synchronized (DatabaseTimerPersistence.this) {
-                                            knownTimerIds.get(timedObjectId).add(id);
-                                        }
-                                        final Holder holder = timerFromResult(resultSet, listener.getTimerService());
-                                        if(holder != null) {
-                                            listener.timerAdded(holder.timer);
-                                        }
-                                    }
-                                } catch (Exception e) {
-                                    EjbLogger.EJB3_TIMER_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
-                                }
-                            }
+                    refresh();
+                } finally {
+                    running.set(false);
+                }
+            }
 
-                            synchronized (DatabaseTimerPersistence.this) {
-                                Set<String> timers = knownTimerIds.get(timedObjectId);
-                                for (String timer : existing) {
-                                    timers.remove(timer);
-                                    listener.timerRemoved(timer);
-                                }
-                            }
-                        } catch (SQLException e) {
-                            EjbLogger.EJB3_TIMER_LOGGER.failedToRefreshTimers(timedObjectId);
-                        } finally {
-                            safeClose(resultSet);
+        }
+    }
+
+    /**
+     * Sets the parameters of a timer statement.
+     */
+    @FunctionalInterface
+    private interface StatementParameters {
+        void setParameters(PreparedStatement statement) throws SQLException;
+    }
+
+    /**
+     * The timer statements of a transaction, executed as JDBC batches before the transaction completes.
+     * Consecutive executions of the same statement are grouped into a single batch, preserving the order of the statements.
+     */
+    class StatementBatch implements Synchronization {
+        private final List<Map.Entry<String, StatementParameters>> statements = new ArrayList<>();
+        private boolean executed = false;
+
+        /**
+         * Adds the given statement to this batch.
+         *
+         * @return false, if this batch was already executed, in which case the statement must be executed by the caller
+         */
+        synchronized boolean add(final String sql, final StatementParameters parameters) {
+            if (executed) {
+                return false;
+            }
+            statements.add(new AbstractMap.SimpleImmutableEntry<>(sql, parameters));
+            return true;
+        }
+
+        @Override
+        public synchronized void beforeCompletion() {
+            executed = true;
+            if (statements.isEmpty()) {
+                return;
+            }
+            Connection connection = null;
+            PreparedStatement statement = null;
+            String current = null;
+            try {
+                connection = dataSource.getConnection();
+                for (Map.Entry<String, StatementParameters> entry : statements) {
+                    if (!entry.getKey().equals(current)) {
+                        if (statement != null) {
+                            statement.executeBatch();
                             safeClose(statement);
-                            safeClose(connection);
                         }
+                        current = entry.getKey();
+                        statement = connection.prepareStatement(current);
                     }
-                } finally {
-                    running.set(false);
+                    entry.getValue().setParameters(statement);
+                    statement.addBatch();
                 }
+                statement.executeBatch();
+            } catch (SQLException e) {
+                throw EjbLogger.EJB3_TIMER_LOGGER.failedToExecuteDeferredTimerStatements(statements.size(), e);
+            } finally {
+                statements.clear();
+                safeClose(statement);
+                safeClose(connection);
             }
+        }
 
+        @Override
+        public void afterCompletion(int status) {
         }
     }
 
-
     static final class Holder {
         final TimerImpl timer;
         final boolean requiresReset;
@@ -38,6 +38,7 @@ import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
 import org.jboss.staxmapper.XMLExtendedStreamWriter;
 import org.jboss.staxmapper.XMLMapper;
+import org.jboss.threads.JBossThreadFactory;
 import org.wildfly.security.manager.WildFlySecurityManager;
 import org.wildfly.transaction.client.ContextTransactionManager;
 
@@ -58,14 +59,24 @@ import java.io.FileOutputStream;
 import java.io.FilePermission;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -83,10 +94,25 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     private static final FilePermission FILE_PERMISSION = new FilePermission("<<ALL FILES>>", "read,write,delete");
     private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+    // Number of locks per timed object, timers are assigned to a lock by their id
+    private static final int LOCK_STRIPES = 64;
+    // Number of timer files loaded by a single task
+    private static final int LOAD_BATCH_SIZE = 256;
+    private static final ThreadFactory LOAD_THREAD_FACTORY = doPrivileged(new PrivilegedAction<JBossThreadFactory>() {
+        @Override
+        public JBossThreadFactory run() {
+            return new JBossThreadFactory(new ThreadGroup(FileTimerPersistence.class.getSimpleName()), Boolean.TRUE, null, "%G - %t", null, null);
+        }
+    });
+
+    static {
+        setIfSupported(INPUT_FACTORY, XMLInputFactory.IS_VALIDATING, Boolean.FALSE);
+        setIfSupported(INPUT_FACTORY, XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+    }
 
     private final boolean createIfNotExists;
-    private MarshallerFactory factory;
-    private MarshallingConfiguration configuration;
+    MarshallerFactory factory;
+    MarshallingConfiguration configuration;
     private final InjectedValue<TransactionSynchronizationRegistry> transactionSynchronizationRegistry = new InjectedValue<TransactionSynchronizationRegistry>();
     private final InjectedValue<ModuleLoader> moduleLoader = new InjectedValue<ModuleLoader>();
     private final InjectedValue<PathManager> pathManager = new InjectedValue<PathManager>();
@@ -94,8 +120,9 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
     private final String pathRelativeTo;
     private File baseDir;
     private PathManager.Callback.Handle callbackHandle;
+    private ThreadPoolExecutor loadPool;
 
-    private final ConcurrentMap<String, Lock> locks = new ConcurrentHashMap<String, Lock>();
+    private final ConcurrentMap<String, TimerLocks> locks = new ConcurrentHashMap<String, TimerLocks>();
     private final ConcurrentMap<String, String> directories = new ConcurrentHashMap<String, String>();
 
     public FileTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo) {
@@ -146,6 +173,10 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         if (!baseDir.isDirectory()) {
             throw EJB3_TIMER_LOGGER.invalidTimerFileStoreDir(baseDir);
         }
+        final int loadThreads = Runtime.getRuntime().availableProcessors();
+        loadPool = new ThreadPoolExecutor(loadThreads, loadThreads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), LOAD_THREAD_FACTORY);
+        // Timers are only loaded on deployment, so do not keep idle threads around
+        loadPool.allowCoreThreadTimeOut(true);
     }
 
     @Override
@@ -155,6 +186,10 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         if (callbackHandle != null) {
             callbackHandle.remove();
         }
+        if (loadPool != null) {
+            loadPool.shutdown();
+            loadPool = null;
+        }
         factory = null;
         configuration = null;
     }
@@ -200,7 +235,6 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
     }
 
     private void persistTimer(final TimerImpl timer, boolean newTimer) {
-        final Lock lock = getLock(timer.getTimedObjectId());
         try {
             final int status = ContextTransactionManager.getInstance().getStatus();
             if (status == Status.STATUS_MARKED_ROLLBACK || status == Status.STATUS_ROLLEDBACK ||
@@ -209,20 +243,15 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                 return;
             }
 
-            lock.lock();
             if (status == Status.STATUS_NO_TRANSACTION ||
                     status == Status.STATUS_UNKNOWN || isBeforeCompletion()
                     || status == Status.STATUS_COMMITTED) {
-                Map<String, TimerImpl> map = getTimers(timer.getTimedObjectId(), timer.getTimerService());
-                if (timer.getState() == TimerState.CANCELED ||
-                        timer.getState() == TimerState.EXPIRED) {
-                    map.remove(timer.getId());
-                    writeFile(timer);
-                } else if (newTimer || map.containsKey(timer.getId())) {
-                    //if it is not a new timer and is not in the map then it has
-                    //been removed by another thread.
-                    map.put(timer.getId(), timer);
-                    writeFile(timer);
+                final Lock lock = getLock(timer);
+                lock.lock();
+                try {
+                    storeTimer(timer, newTimer);
+                } finally {
+                    lock.unlock();
                 }
             } else {
 
@@ -230,15 +259,31 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                 Object existing = transactionSynchronizationRegistry.getValue().getResource(key);
                 //check is there is already a persist sync for this timer
                 if (existing == null) {
-                    transactionSynchronizationRegistry.getValue().registerInterposedSynchronization(new PersistTransactionSynchronization(lock, key, newTimer));
+                    transactionSynchronizationRegistry.getValue().registerInterposedSynchronization(new PersistTransactionSynchronization(key, newTimer));
                 }
                 //update the most recent version of the timer to be persisted
                 transactionSynchronizationRegistry.getValue().putResource(key, timer);
             }
         } catch (SystemException e) {
             throw new RuntimeException(e);
-        } finally {
-            lock.unlock();
+        }
+    }
+
+    /**
+     * Persists the specified timer, unless it is an existing timer that was already removed by another thread.
+     * Should be called under the lock of the timer.
+     *
+     * @param timer    The timer
+     * @param newTimer Whether the timer was just created
+     */
+    void storeTimer(final TimerImpl timer, final boolean newTimer) {
+        if (timer.getState() == TimerState.CANCELED ||
+                timer.getState() == TimerState.EXPIRED) {
+            writeFile(timer);
+        } else if (newTimer || fileName(timer.getTimedObjectId(), timer.getId()).exists()) {
+            //if it is not a new timer and its file does not exist then it has
+            //been removed by another thread.
+            writeFile(timer);
         }
     }
 
@@ -248,13 +293,13 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     @Override
     public void timerUndeployed(final String timedObjectId) {
-        final Lock lock = getLock(timedObjectId);
+        final TimerLocks locks = getLocks(timedObjectId);
+        locks.lockAll();
         try {
-            lock.lock();
-            locks.remove(timedObjectId);
+            this.locks.remove(timedObjectId);
             directories.remove(timedObjectId);
         } finally {
-            lock.unlock();
+            locks.unlockAll();
         }
 
     }
@@ -269,9 +314,9 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     @Override
     public List<TimerImpl> loadActiveTimers(final String timedObjectId, final TimerServiceImpl timerService) {
-        final Lock lock = getLock(timedObjectId);
+        final TimerLocks locks = getLocks(timedObjectId);
+        locks.lockAll();
         try {
-            lock.lock();
             final Map<String, TimerImpl> timers = getTimers(timedObjectId, timerService);
 
             final List<TimerImpl> entities = new ArrayList<TimerImpl>();
@@ -280,7 +325,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             }
             return entities;
         } finally {
-            lock.unlock();
+            locks.unlockAll();
         }
     }
 
@@ -312,10 +357,14 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         }
     }
 
-    private Lock getLock(final String timedObjectId) {
-        Lock lock = locks.get(timedObjectId);
+    private Lock getLock(final TimerImpl timer) {
+        return getLocks(timer.getTimedObjectId()).get(timer.getId());
+    }
+
+    private TimerLocks getLocks(final String timedObjectId) {
+        TimerLocks lock = locks.get(timedObjectId);
         if (lock == null) {
-            final Lock addedLock = new ReentrantLock();
+            final TimerLocks addedLock = new TimerLocks(getLockStripes());
             lock = locks.putIfAbsent(timedObjectId, addedLock);
             if (lock == null) {
                 lock = addedLock;
@@ -324,13 +373,23 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         return lock;
     }
 
+    /**
+     * Returns the number of locks guarding the timers of a timed object. Timers guarded by different locks can be
+     * persisted concurrently.
+     *
+     * @return The number of locks per timed object
+     */
+    int getLockStripes() {
+        return LOCK_STRIPES;
+    }
+
     /**
      * Gets the timer map, loading from the persistent store if necessary. Should be called under lock
      *
      * @param timedObjectId The timed object id
      * @return The timers for the object
      */
-    private Map<String, TimerImpl> getTimers(final String timedObjectId, final TimerServiceImpl timerService) {
+    Map<String, TimerImpl> getTimers(final String timedObjectId, final TimerServiceImpl timerService) {
         return loadTimersFromFile(timedObjectId, timerService);
     }
 
@@ -352,20 +411,79 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             return timers;
         }
 
+        exportJournal(timedObjectId, file, timerService);
+
+        final File[] timerFiles = file.listFiles((dir, name) -> name.endsWith(".xml"));
+        if (timerFiles == null) {
+            return timers;
+        }
         final XMLMapper mapper = createMapper(timerService);
+        final List<File> files = Arrays.asList(timerFiles);
+        if (files.size() <= LOAD_BATCH_SIZE) {
+            timers.putAll(loadTimerFiles(mapper, files));
+            return timers;
+        }
+
+        // Parse the timer files of large timed objects in parallel
+        final List<Callable<Map<String, TimerImpl>>> tasks = new ArrayList<>();
+        for (int i = 0; i < files.size(); i += LOAD_BATCH_SIZE) {
+            final List<File> batch = files.subList(i, Math.min(i + LOAD_BATCH_SIZE, files.size()));
+            final PrivilegedAction<Map<String, TimerImpl>> action = () -> loadTimerFiles(mapper, batch);
+            tasks.add(() -> WildFlySecurityManager.isChecking() ? WildFlySecurityManager.doUnchecked(action) : action.run());
+        }
+        try {
+            for (Future<Map<String, TimerImpl>> future : loadPool.invokeAll(tasks)) {
+                timers.putAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        return timers;
+    }
 
-        for (File timerFile : file.listFiles()) {
-            if (!timerFile.getName().endsWith(".xml")) {
-                continue;
+    /**
+     * Exports the timers of a journal, i.e. written by {@link JournalTimerPersistence}, into timer files, and then deletes the journal.
+     * Any timer files present alongside a journal were written by an export interrupted by a crash, and are overwritten.
+     */
+    private void exportJournal(final String timedObjectId, final File directory, final TimerServiceImpl timerService) {
+        final TimerJournal journal = new TimerJournal(directory, JournalTimerPersistence.MAX_SEGMENT_SIZE);
+        if (!journal.exists()) {
+            return;
+        }
+        final TimerJournalCodec codec = new TimerJournalCodec(factory, configuration);
+        try {
+            int count = 0;
+            for (Map.Entry<String, byte[]> entry : journal.replay().entrySet()) {
+                final TimerImpl timer = codec.read(timedObjectId, entry.getKey(), entry.getValue(), timerService);
+                if (timer != null) {
+                    writeFile(timer);
+                    // Ensure the timer file is durable before the journal is deleted
+                    try (FileChannel channel = FileChannel.open(fileName(timedObjectId, timer.getId()).toPath(), StandardOpenOption.WRITE)) {
+                        channel.force(true);
+                    }
+                    count += 1;
+                }
             }
+            journal.delete();
+            EJB3_TIMER_LOGGER.exportedTimersFromJournal(count, timedObjectId);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            journal.close();
+        }
+    }
+
+    private static Map<String, TimerImpl> loadTimerFiles(final XMLMapper mapper, final List<File> timerFiles) {
+        final Map<String, TimerImpl> timers = new HashMap<>();
+        for (File timerFile : timerFiles) {
             FileInputStream in = null;
 
             try {
                 in = new FileInputStream(timerFile);
-                final XMLInputFactory inputFactory = INPUT_FACTORY;
-                setIfSupported(inputFactory, XMLInputFactory.IS_VALIDATING, Boolean.FALSE);
-                setIfSupported(inputFactory, XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
-                final XMLStreamReader streamReader = inputFactory.createXMLStreamReader(in);
+                final XMLStreamReader streamReader = INPUT_FACTORY.createXMLStreamReader(in);
                 try {
                     List<TimerImpl> timerList = new ArrayList<>();
                     mapper.parseDocument(timerList, streamReader);
@@ -412,7 +530,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
      * @param timedObjectId The timed object
      * @return The directory
      */
-    private String getDirectory(String timedObjectId) {
+    String getDirectory(String timedObjectId) {
         String dirName = directories.get(timedObjectId);
         if (dirName == null) {
             dirName = baseDir.getAbsolutePath() + File.separator + timedObjectId.replace(File.separator, "-");
@@ -431,12 +549,10 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
     private final class PersistTransactionSynchronization implements Synchronization {
 
         private final String transactionKey;
-        private final Lock lock;
         private final boolean newTimer;
         private volatile TimerImpl timer;
 
-        public PersistTransactionSynchronization(final Lock lock, final String transactionKey, final boolean newTimer) {
-            this.lock = lock;
+        public PersistTransactionSynchronization(final String transactionKey, final boolean newTimer) {
             this.transactionKey = transactionKey;
             this.newTimer = newTimer;
         }
@@ -457,23 +573,14 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                     if (timer == null) {
                         return null;
                     }
-                    try {
+                    if (status == Status.STATUS_COMMITTED) {
+                        final Lock lock = getLock(timer);
                         lock.lock();
-                        if (status == Status.STATUS_COMMITTED) {
-                            final Map<String, TimerImpl> map = getTimers(timer.getTimedObjectId(), timer.getTimerService());
-                            if (timer.getState() == TimerState.CANCELED ||
-                                    timer.getState() == TimerState.EXPIRED) {
-                                map.remove(timer.getId());
-                            } else {
-                                if (newTimer || map.containsKey(timer.getId())) {
-                                    //if an existing timer is not in the map it has been cancelled by another thread
-                                    map.put(timer.getId(), timer);
-                                }
-                            }
-                            writeFile(timer);
+                        try {
+                            storeTimer(timer, newTimer);
+                        } finally {
+                            lock.unlock();
                         }
-                    } finally {
-                        lock.unlock();
                     }
                     return null;
                 }
@@ -483,7 +590,40 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     }
 
-    private void writeFile(TimerImpl timer) {
+    /**
+     * Locks guarding the timers of a timed object, each timer being guarded by one of the locks.
+     * Operations on all the timers of the timed object acquire all the locks, always in the same order.
+     */
+    private static final class TimerLocks {
+
+        private final Lock[] stripes;
+
+        TimerLocks(final int stripes) {
+            this.stripes = new Lock[stripes];
+            for (int i = 0; i < stripes; ++i) {
+                this.stripes[i] = new ReentrantLock();
+            }
+        }
+
+        Lock get(final String timerId) {
+            final int hash = timerId.hashCode();
+            return stripes[((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % stripes.length];
+        }
+
+        void lockAll() {
+            for (Lock lock : stripes) {
+                lock.lock();
+            }
+        }
+
+        void unlockAll() {
+            for (int i = stripes.length - 1; i >= 0; --i) {
+                stripes[i].unlock();
+            }
+        }
+    }
+
+    void writeFile(TimerImpl timer) {
         final File file = fileName(timer.getTimedObjectId(), timer.getId());
 
         //if the timer is expired or cancelled delete the file
@@ -523,7 +663,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         return pathManager;
     }
 
-    private void setIfSupported(final XMLInputFactory inputFactory, final String property, final Object value) {
+    private static void setIfSupported(final XMLInputFactory inputFactory, final String property, final Object value) {
         if (inputFactory.isPropertySupported(property)) {
             inputFactory.setProperty(property, value);
         }
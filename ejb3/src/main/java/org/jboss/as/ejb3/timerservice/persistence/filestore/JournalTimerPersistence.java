@@ -0,0 +1,185 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.EJB3_TIMER_LOGGER;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.msc.service.StopContext;
+
+/**
+ * File based persistent timer store that records timer changes in an append-only {@link TimerJournal} per timed object,
+ * rather than rewriting a file per timer.
+ * <p/>
+ * The timers of a timed object are recovered by replaying its journal once, and are cached thereafter.
+ * If no journal exists yet, any timers previously persisted by {@link FileTimerPersistence} are imported into a new journal.
+ * Conversely, {@link FileTimerPersistence} exports the journal back into timer files.
+ */
+public class JournalTimerPersistence extends FileTimerPersistence {
+
+    static final long MAX_SEGMENT_SIZE = Long.getLong("jboss.timer.journal.segmentSize", 4L * 1024L * 1024L);
+
+    private final ConcurrentMap<String, TimerJournal> journals = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Map<String, TimerImpl>> timers = new ConcurrentHashMap<>();
+
+    public JournalTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo) {
+        super(createIfNotExists, path, pathRelativeTo);
+    }
+
+    @Override
+    public void stop(final StopContext context) {
+        for (TimerJournal journal : this.journals.values()) {
+            journal.close();
+        }
+        this.journals.clear();
+        this.timers.clear();
+        super.stop(context);
+    }
+
+    @Override
+    public void timerUndeployed(final String timedObjectId) {
+        super.timerUndeployed(timedObjectId);
+        // Cached timers reference the timer service of the undeployed timed object
+        this.timers.remove(timedObjectId);
+        TimerJournal journal = this.journals.remove(timedObjectId);
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Override
+    Map<String, TimerImpl> getTimers(final String timedObjectId, final TimerServiceImpl timerService) {
+        Map<String, TimerImpl> timers = this.timers.get(timedObjectId);
+        if (timers == null) {
+            timers = this.load(timedObjectId, timerService);
+            this.timers.put(timedObjectId, timers);
+        }
+        return timers;
+    }
+
+    private Map<String, TimerImpl> load(final String timedObjectId, final TimerServiceImpl timerService) {
+        File directory = new File(getDirectory(timedObjectId));
+        TimerJournal journal = new TimerJournal(directory, MAX_SEGMENT_SIZE);
+        this.journals.put(timedObjectId, journal);
+        Map<String, TimerImpl> timers = new HashMap<>();
+        TimerJournalCodec codec = new TimerJournalCodec(this.factory, this.configuration);
+        try {
+            if (journal.exists()) {
+                for (Map.Entry<String, byte[]> entry : journal.replay().entrySet()) {
+                    TimerImpl timer = codec.read(timedObjectId, entry.getKey(), entry.getValue(), timerService);
+                    if (timer != null) {
+                        timers.put(timer.getId(), timer);
+                    }
+                }
+                // Remove any timer files whose import completed, but whose deletion was interrupted
+                deleteTimerFiles(directory);
+            } else {
+                Map<String, TimerImpl> imported = super.getTimers(timedObjectId, timerService);
+                Map<String, byte[]> image = new LinkedHashMap<>();
+                for (TimerImpl timer : imported.values()) {
+                    image.put(timer.getId(), codec.write(timer));
+                    timers.put(timer.getId(), timer);
+                }
+                // The imported timers are committed as a single image, which is durable once the journal exists.
+                // Thus an import interrupted by a crash leaves no journal, and is redone from the timer files.
+                journal.compact(image);
+                // The journal now supersedes the timer files
+                deleteTimerFiles(directory);
+                if (!imported.isEmpty()) {
+                    EJB3_TIMER_LOGGER.importedTimersIntoJournal(imported.size(), timedObjectId);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return timers;
+    }
+
+    private static void deleteTimerFiles(File directory) {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(".xml") && !file.delete()) {
+                    EJB3_TIMER_LOGGER.debugf("Failed to delete imported timer file %s", file);
+                }
+            }
+        }
+    }
+
+    @Override
+    int getLockStripes() {
+        // The cached timers and the journal of a timed object are not thread-safe
+        return 1;
+    }
+
+    @Override
+    void storeTimer(final TimerImpl timer, final boolean newTimer) {
+        Map<String, TimerImpl> timers = this.getTimers(timer.getTimedObjectId(), timer.getTimerService());
+        if (timer.getState() == TimerState.CANCELED || timer.getState() == TimerState.EXPIRED) {
+            timers.remove(timer.getId());
+            this.writeFile(timer);
+        } else if (newTimer || timers.containsKey(timer.getId())) {
+            // If it is not a new timer and is not cached then it has been removed by another thread
+            timers.put(timer.getId(), timer);
+            this.writeFile(timer);
+        }
+    }
+
+    @Override
+    void writeFile(TimerImpl timer) {
+        String timedObjectId = timer.getTimedObjectId();
+        Map<String, TimerImpl> timers = this.timers.get(timedObjectId);
+        // Timers written while importing timer files are journaled by the import itself
+        if (timers == null) return;
+        TimerJournal journal = this.journals.get(timedObjectId);
+        TimerJournalCodec codec = new TimerJournalCodec(this.factory, this.configuration);
+        try {
+            if (timer.getState() == TimerState.CANCELED || timer.getState() == TimerState.EXPIRED) {
+                journal.remove(timer.getId());
+            } else if (timers.containsKey(timer.getId())) {
+                journal.put(timer.getId(), codec.write(timer));
+            } else {
+                // Timer was removed by another thread
+                return;
+            }
+            if (journal.isCompactionRequired(timers.size())) {
+                Map<String, byte[]> live = new LinkedHashMap<>();
+                for (TimerImpl liveTimer : timers.values()) {
+                    live.put(liveTimer.getId(), codec.write(liveTimer));
+                }
+                journal.compact(live);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,401 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.EJB3_TIMER_LOGGER;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of the persistent timers of a single timed object.
+ * <p/>
+ * The journal consists of a sequence of segment files, each containing a sequence of records.
+ * A record either puts the serialized form of a timer, removes a timer, or begins or commits an image of the journal.
+ * Each record is framed by its length and checksum, so that a record torn by a crash is detected, and discarded, during replay.
+ * Once a segment exceeds its maximum size, subsequent records are appended to a new segment.
+ * <p/>
+ * Compaction writes an image of the live timers, i.e. a reset record, followed by the records of the live timers, followed by a commit record,
+ * to a temporary file, which is forced to disk and then atomically renamed to become the next segment, before all preceding segments are deleted.
+ * During replay, an image only replaces the previously replayed timers once its commit record was replayed,
+ * so an incomplete image, e.g. one torn by a crash, never loses, nor resurrects, a timer.
+ * <p/>
+ * This class is not thread-safe, callers are expected to hold the lock of the timed object.
+ */
+class TimerJournal implements Closeable {
+
+    static final String SEGMENT_PREFIX = "timers-";
+    static final String SEGMENT_SUFFIX = ".journal";
+    static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final byte RESET = 3;
+    private static final byte COMMIT = 4;
+    // length + checksum
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    // Minimum number of records before compaction is considered
+    private static final int MIN_COMPACTION_RECORDS = 1024;
+
+    private final File directory;
+    private final long maxSegmentSize;
+    private FileChannel channel;
+    private long segment;
+    // Number of records since the last committed image
+    private long records;
+
+    TimerJournal(File directory, long maxSegmentSize) {
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+    }
+
+    /**
+     * Indicates whether this journal contains any segments.
+     */
+    boolean exists() {
+        return !this.segments().isEmpty();
+    }
+
+    /**
+     * Replays the records of this journal, and prepares it for appending.
+     *
+     * @return the serialized form of the live timers, keyed by timer id
+     * @throws IOException if the journal could not be read
+     */
+    Map<String, byte[]> replay() throws IOException {
+        this.deleteTemporaryFiles();
+        Replay replay = new Replay();
+        List<Long> segments = this.segments();
+        long validLength = 0;
+        for (long segment : segments) {
+            validLength = this.replay(segment, replay);
+            if (replay.image != null) {
+                // Discard an image whose commit record is missing
+                EJB3_TIMER_LOGGER.debugf("Discarding incomplete image of timer journal %s", this.file(segment));
+                validLength = replay.imagePosition;
+                replay.image = null;
+            }
+        }
+        this.records = replay.records;
+        if (segments.isEmpty()) {
+            this.open(1L);
+        } else {
+            this.segment = segments.get(segments.size() - 1);
+            this.channel = FileChannel.open(this.file(this.segment).toPath(), StandardOpenOption.WRITE);
+            // Discard any torn record or incomplete image at the end of the last segment
+            if (this.channel.size() > validLength) {
+                this.channel.truncate(validLength);
+            }
+            this.channel.position(validLength);
+        }
+        return replay.timers;
+    }
+
+    private long replay(long segment, Replay replay) throws IOException {
+        File file = this.file(segment);
+        long position = 0;
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                int length;
+                try {
+                    length = input.readInt();
+                } catch (EOFException e) {
+                    return position;
+                }
+                int checksum = input.readInt();
+                if (length <= 0) {
+                    throw new IOException();
+                }
+                byte[] body = new byte[length];
+                input.readFully(body);
+                if (checksum(body) != checksum) {
+                    throw new IOException();
+                }
+                replay.apply(body, position);
+                position += HEADER_SIZE + length;
+            }
+        } catch (IOException e) {
+            EJB3_TIMER_LOGGER.debugf(e, "Discarding incomplete record at position %d of timer journal %s", position, file);
+            return position;
+        }
+    }
+
+    /**
+     * The state of a replay of this journal.
+     */
+    private static class Replay {
+        final Map<String, byte[]> timers = new HashMap<>();
+        // Number of records since the last committed image
+        long records = 0;
+        // The timers of an image whose commit record was not yet replayed
+        Map<String, byte[]> image = null;
+        // The position of the reset record of the current image
+        long imagePosition;
+
+        void apply(byte[] body, long position) throws IOException {
+            try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(body))) {
+                byte type = input.readByte();
+                Map<String, byte[]> timers = (this.image != null) ? this.image : this.timers;
+                switch (type) {
+                    case PUT: {
+                        String id = input.readUTF();
+                        byte[] timer = new byte[input.readInt()];
+                        input.readFully(timer);
+                        timers.put(id, timer);
+                        this.records += 1;
+                        break;
+                    }
+                    case REMOVE: {
+                        timers.remove(input.readUTF());
+                        this.records += 1;
+                        break;
+                    }
+                    case RESET: {
+                        this.image = new HashMap<>();
+                        this.imagePosition = position;
+                        break;
+                    }
+                    case COMMIT: {
+                        if (this.image != null) {
+                            this.timers.clear();
+                            this.timers.putAll(this.image);
+                            this.records = this.image.size();
+                            this.image = null;
+                        }
+                        break;
+                    }
+                    default: {
+                        throw new IOException(Byte.toString(type));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends a record of the specified timer.
+     */
+    void put(String id, byte[] timer) throws IOException {
+        this.append(record(PUT, id, timer));
+    }
+
+    /**
+     * Appends a removal record of the specified timer.
+     */
+    void remove(String id) throws IOException {
+        this.append(record(REMOVE, id, null));
+    }
+
+    /**
+     * Indicates whether the number of records in this journal is disproportionate to the specified number of live timers.
+     */
+    boolean isCompactionRequired(int liveTimers) {
+        return (this.records >= MIN_COMPACTION_RECORDS) && (this.records > 2L * liveTimers);
+    }
+
+    /**
+     * Compacts this journal, such that it contains only records of the specified timers.
+     * This journal is unchanged if compaction fails.
+     */
+    void compact(Map<String, byte[]> timers) throws IOException {
+        List<Long> segments = this.segments();
+        long previous = segments.isEmpty() ? this.segment : Math.max(this.segment, segments.get(segments.size() - 1));
+        long next = previous + 1;
+        File file = this.file(next);
+        File temporaryFile = new File(this.directory, file.getName() + TEMPORARY_SUFFIX);
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                write(channel, record(RESET, null, null));
+                for (Map.Entry<String, byte[]> entry : timers.entrySet()) {
+                    write(channel, record(PUT, entry.getKey(), entry.getValue()));
+                }
+                write(channel, record(COMMIT, null, null));
+                // Ensure the image is durable before it becomes visible
+                channel.force(false);
+            }
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            if (!temporaryFile.delete()) {
+                EJB3_TIMER_LOGGER.debugf("Failed to delete temporary timer journal %s", temporaryFile);
+            }
+            throw e;
+        }
+        // Ensure the new segment is durable before deleting its predecessors
+        this.forceDirectory();
+        this.close();
+        this.segment = next;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE);
+        this.channel.position(this.channel.size());
+        this.records = timers.size();
+        for (long segment : segments) {
+            File predecessor = this.file(segment);
+            if (!predecessor.delete()) {
+                EJB3_TIMER_LOGGER.debugf("Failed to delete compacted timer journal %s", predecessor);
+            }
+        }
+    }
+
+    /**
+     * Deletes this journal.
+     * The journal is first compacted into an empty image, so that a deletion interrupted by a crash never resurrects a removed timer.
+     *
+     * @throws IOException if the journal could not be deleted
+     */
+    void delete() throws IOException {
+        this.compact(Collections.emptyMap());
+        this.close();
+        File file = this.file(this.segment);
+        if (!file.delete()) {
+            throw new IOException(file.getPath());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (this.channel != null) {
+            try {
+                this.channel.close();
+            } catch (IOException e) {
+                EJB3_TIMER_LOGGER.failToCloseFile(e);
+            }
+            this.channel = null;
+        }
+    }
+
+    private void append(ByteBuffer record) throws IOException {
+        if (this.channel == null) {
+            this.replay();
+        }
+        if (this.channel.position() >= this.maxSegmentSize) {
+            this.channel.force(false);
+            long previous = this.segment;
+            this.close();
+            this.open(previous + 1);
+        }
+        write(this.channel, record);
+        this.records += 1;
+    }
+
+    private void forceDirectory() {
+        // Not supported on all platforms
+        try (FileChannel channel = FileChannel.open(this.directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            EJB3_TIMER_LOGGER.debugf(e, "Failed to force timer journal directory %s", this.directory);
+        }
+    }
+
+    /**
+     * Deletes the temporary files of any compaction interrupted by a crash.
+     */
+    private void deleteTemporaryFiles() {
+        File[] files = this.directory.listFiles();
+        if (files == null) return;
+        for (File file : files) {
+            String name = file.getName();
+            if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX + TEMPORARY_SUFFIX) && !file.delete()) {
+                EJB3_TIMER_LOGGER.debugf("Failed to delete temporary timer journal %s", file);
+            }
+        }
+    }
+
+    private void open(long segment) throws IOException {
+        this.segment = segment;
+        this.channel = FileChannel.open(this.file(segment).toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private File file(long segment) {
+        return new File(this.directory, String.format("%s%019d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Returns the sequence numbers of the segments of this journal, in ascending order.
+     */
+    private List<Long> segments() {
+        String[] names = this.directory.list();
+        if (names == null) return Collections.emptyList();
+        List<Long> segments = new ArrayList<>();
+        for (String name : names) {
+            if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                try {
+                    segments.add(Long.valueOf(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    // Not a journal segment
+                }
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private static ByteBuffer record(byte type, String id, byte[] timer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(type);
+            if (id != null) {
+                output.writeUTF(id);
+            }
+            if (timer != null) {
+                output.writeInt(timer.length);
+                output.write(timer);
+            }
+        }
+        byte[] body = bytes.toByteArray();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + body.length);
+        buffer.putInt(body.length);
+        buffer.putInt(checksum(body));
+        buffer.put(body);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static int checksum(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body, 0, body.length);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.EJB3_TIMER_LOGGER;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.Date;
+
+import javax.ejb.ScheduleExpression;
+
+import org.jboss.as.ejb3.timerservice.CalendarTimer;
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.persistence.TimeoutMethod;
+import org.jboss.marshalling.ByteBufferInput;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.marshalling.Unmarshaller;
+
+/**
+ * Serialized form of a timer, as recorded by a {@link TimerJournal}.
+ */
+class TimerJournalCodec {
+
+    private static final byte VERSION = 1;
+
+    private final MarshallerFactory factory;
+    private final MarshallingConfiguration configuration;
+
+    TimerJournalCodec(MarshallerFactory factory, MarshallingConfiguration configuration) {
+        this.factory = factory;
+        this.configuration = configuration;
+    }
+
+    byte[] write(TimerImpl timer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(VERSION);
+            boolean calendar = timer instanceof CalendarTimer;
+            output.writeBoolean(calendar);
+            writeDate(output, timer.getInitialExpiration());
+            output.writeLong(timer.getInterval());
+            writeDate(output, timer.getNextExpiration());
+            writeDate(output, timer.getPreviousRun());
+            output.writeUTF(timer.getState().name());
+            this.writeObject(output, timer.getTimerInfo());
+            this.writeObject(output, timer.getPrimaryKey());
+            if (calendar) {
+                CalendarTimer calendarTimer = (CalendarTimer) timer;
+                ScheduleExpression expression = calendarTimer.getScheduleExpression();
+                writeString(output, expression.getSecond());
+                writeString(output, expression.getMinute());
+                writeString(output, expression.getHour());
+                writeString(output, expression.getDayOfWeek());
+                writeString(output, expression.getDayOfMonth());
+                writeString(output, expression.getMonth());
+                writeString(output, expression.getYear());
+                writeDate(output, expression.getStart());
+                writeDate(output, expression.getEnd());
+                writeString(output, expression.getTimezone());
+                output.writeBoolean(calendarTimer.isAutoTimer());
+                if (calendarTimer.isAutoTimer()) {
+                    Method method = calendarTimer.getTimeoutMethod();
+                    output.writeUTF(method.getDeclaringClass().getName());
+                    output.writeUTF(method.getName());
+                    Class<?>[] parameterTypes = method.getParameterTypes();
+                    output.writeInt(parameterTypes.length);
+                    for (Class<?> parameterType : parameterTypes) {
+                        output.writeUTF(parameterType.getName());
+                    }
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    TimerImpl read(String timedObjectId, String id, byte[] bytes, TimerServiceImpl timerService) {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            byte version = input.readByte();
+            if (version != VERSION) {
+                throw new IOException(Byte.toString(version));
+            }
+            boolean calendar = input.readBoolean();
+            CalendarTimer.Builder calendarBuilder = calendar ? CalendarTimer.builder() : null;
+            TimerImpl.Builder builder = calendar ? calendarBuilder : TimerImpl.builder();
+            builder.setId(id);
+            builder.setTimedObjectId(timedObjectId);
+            builder.setInitialDate(readDate(input));
+            builder.setRepeatInterval(input.readLong());
+            builder.setNextDate(readDate(input));
+            builder.setPreviousRun(readDate(input));
+            builder.setTimerState(TimerState.valueOf(input.readUTF()));
+            builder.setInfo((Serializable) this.readObject(input));
+            builder.setPrimaryKey(this.readObject(input));
+            builder.setPersistent(true);
+            if (calendar) {
+                calendarBuilder.setScheduleExprSecond(readString(input));
+                calendarBuilder.setScheduleExprMinute(readString(input));
+                calendarBuilder.setScheduleExprHour(readString(input));
+                calendarBuilder.setScheduleExprDayOfWeek(readString(input));
+                calendarBuilder.setScheduleExprDayOfMonth(readString(input));
+                calendarBuilder.setScheduleExprMonth(readString(input));
+                calendarBuilder.setScheduleExprYear(readString(input));
+                calendarBuilder.setScheduleExprStartDate(readDate(input));
+                calendarBuilder.setScheduleExprEndDate(readDate(input));
+                calendarBuilder.setScheduleExprTimezone(readString(input));
+                boolean autoTimer = input.readBoolean();
+                calendarBuilder.setAutoTimer(autoTimer);
+                if (autoTimer) {
+                    String declaringClass = input.readUTF();
+                    String methodName = input.readUTF();
+                    String[] parameterTypes = new String[input.readInt()];
+                    for (int i = 0; i < parameterTypes.length; ++i) {
+                        parameterTypes[i] = input.readUTF();
+                    }
+                    ClassLoader loader = timerService.getTimedObjectInvoker().getValue().getClassLoader();
+                    Method method = CalendarTimer.getTimeoutMethod(new TimeoutMethod(declaringClass, methodName, parameterTypes), loader);
+                    if (method == null) {
+                        EJB3_TIMER_LOGGER.timerReinstatementFailed(timedObjectId, id, null);
+                        return null;
+                    }
+                    calendarBuilder.setTimeoutMethod(method);
+                }
+            }
+            return builder.build(timerService);
+        } catch (Exception e) {
+            EJB3_TIMER_LOGGER.timerReinstatementFailed(timedObjectId, id, e);
+            return null;
+        }
+    }
+
+    private void writeObject(DataOutputStream output, Object object) throws IOException {
+        if (object == null) {
+            output.writeInt(-1);
+            return;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Marshaller marshaller = this.factory.createMarshaller(this.configuration);
+        marshaller.start(new OutputStreamByteOutput(bytes));
+        marshaller.writeObject(object);
+        marshaller.finish();
+        output.writeInt(bytes.size());
+        bytes.writeTo(output);
+    }
+
+    private Object readObject(DataInputStream input) throws IOException, ClassNotFoundException {
+        int length = input.readInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        Unmarshaller unmarshaller = this.factory.createUnmarshaller(this.configuration);
+        unmarshaller.start(new ByteBufferInput(ByteBuffer.wrap(bytes)));
+        try {
+            return unmarshaller.readObject();
+        } finally {
+            unmarshaller.close();
+        }
+    }
+
+    private static void writeDate(DataOutputStream output, Date date) throws IOException {
+        output.writeBoolean(date != null);
+        if (date != null) {
+            output.writeLong(date.getTime());
+        }
+    }
+
+    private static Date readDate(DataInputStream input) throws IOException {
+        return input.readBoolean() ? new Date(input.readLong()) : null;
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import org.jboss.ejb.client.EJBMethodLocator;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link EJBMethodIndex}.
+ */
+public class EJBMethodIndexTestCase {
+
+    @Test
+    public void getMethod() throws NoSuchMethodException {
+        EJBMethodIndex index = new EJBMethodIndex(Arrays.asList(Business.class.getMethods()));
+
+        assertEquals(Business.class.getMethod("echo"), index.getMethod(new EJBMethodLocator("echo")));
+        assertEquals(Business.class.getMethod("echo", String.class), index.getMethod(new EJBMethodLocator("echo", String.class.getName())));
+        assertEquals(Business.class.getMethod("echo", int.class, String[].class), index.getMethod(new EJBMethodLocator("echo", "int", String[].class.getName())));
+        assertEquals(Business.class.getMethod("echo", Integer.class, String[].class), index.getMethod(new EJBMethodLocator("echo", Integer.class.getName(), String[].class.getName())));
+
+        assertNull(index.getMethod(new EJBMethodLocator("echo", Object.class.getName())));
+        assertNull(index.getMethod(new EJBMethodLocator("unknown")));
+    }
+
+    @Test
+    public void overloads() {
+        Method[] methods = Business.class.getMethods();
+        EJBMethodIndex index = new EJBMethodIndex(Arrays.asList(methods));
+        for (Method method : methods) {
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            String[] parameterTypeNames = new String[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; ++i) {
+                parameterTypeNames[i] = parameterTypes[i].getName();
+            }
+            assertEquals(method, index.getMethod(new EJBMethodLocator(method.getName(), parameterTypeNames)));
+        }
+    }
+
+    public interface Business {
+        String echo();
+
+        String echo(String value);
+
+        String echo(int count, String... values);
+
+        String echo(Integer count, String... values);
+    }
+}
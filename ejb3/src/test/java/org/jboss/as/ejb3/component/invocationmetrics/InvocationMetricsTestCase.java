@@ -0,0 +1,103 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.invocationmetrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link InvocationMetrics} and {@link LatencyHistogram}.
+ */
+public class InvocationMetricsTestCase {
+
+    @Test
+    public void buckets() {
+        for (long value = 0; value < 1_000_000; ++value) {
+            long upperBound = LatencyHistogram.upperBound(LatencyHistogram.index(value));
+            assertTrue(upperBound >= value);
+            // Relative error is at most 12.5%
+            assertTrue(upperBound - value <= value / 8);
+        }
+    }
+
+    @Test
+    public void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0L, histogram.getPercentile(0.5));
+        for (long value = 1; value <= 1000; ++value) {
+            histogram.record(value);
+        }
+        assertEquals(1000L, histogram.getMax());
+        assertEquals(500L, histogram.getPercentile(0.5), 500L / 8);
+        assertEquals(990L, histogram.getPercentile(0.99), 990L / 8);
+        assertEquals(1000L, histogram.getPercentile(0.999), 999L / 8);
+        assertEquals(1000L, histogram.getPercentile(1));
+    }
+
+    @Test
+    public void concurrentInvocations() throws Exception {
+        int threads = 16;
+        int invocations = 10000;
+        InvocationMetrics metrics = new InvocationMetrics();
+        Method method = Object.class.getMethod("toString");
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; ++i) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < invocations; ++j) {
+                        metrics.startInvocation();
+                        metrics.finishInvocation(method, 1L, TimeUnit.MILLISECONDS.toNanos(1));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long expected = (long) threads * invocations;
+        assertEquals(0L, metrics.getConcurrent());
+        assertTrue(metrics.getPeakConcurrent() <= threads);
+        assertEquals(expected, metrics.getInvocations());
+        assertEquals(expected, metrics.getWaitTime());
+        assertEquals(expected, metrics.getExecutionTime());
+        InvocationMetrics.Values values = metrics.getMethods().get("toString");
+        assertEquals(expected, values.getInvocations());
+        assertEquals(expected, values.getExecutionTime());
+        assertEquals(1000L, values.getPeakExecutionTime());
+        assertEquals(1000L, values.getExecutionTimePercentile(0.99));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.ejb.Remove;
+import javax.ejb.Singleton;
+import javax.ejb.Stateful;
+import javax.ejb.Stateless;
+
+import org.jboss.as.server.deployment.annotation.CompositeIndex;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link EjbAnnotationIndex}.
+ */
+public class EjbAnnotationIndexTestCase {
+
+    private static final DotName STATELESS = DotName.createSimple(Stateless.class.getName());
+    private static final DotName STATEFUL = DotName.createSimple(Stateful.class.getName());
+    private static final DotName SINGLETON = DotName.createSimple(Singleton.class.getName());
+    private static final DotName REMOVE = DotName.createSimple(Remove.class.getName());
+
+    @Test
+    public void annotations() throws IOException {
+        CompositeIndex compositeIndex = new CompositeIndex(Arrays.asList(index(StatelessBean1.class, StatefulBean.class), index(StatelessBean2.class), index(SingletonBean.class)));
+        EjbAnnotationIndex index = new EjbAnnotationIndex(compositeIndex);
+
+        // Precomputed annotations
+        assertTargets(compositeIndex.getAnnotations(STATELESS), index.getAnnotations(STATELESS));
+        assertEquals(2, index.getAnnotations(STATELESS).size());
+        assertTargets(compositeIndex.getAnnotations(STATEFUL), index.getAnnotations(STATEFUL));
+        assertTargets(compositeIndex.getAnnotations(SINGLETON), index.getAnnotations(SINGLETON));
+
+        // Memoized annotations
+        List<AnnotationInstance> removes = index.getAnnotations(REMOVE);
+        assertTargets(compositeIndex.getAnnotations(REMOVE), removes);
+        assertEquals(1, removes.size());
+        assertSame(removes, index.getAnnotations(REMOVE));
+    }
+
+    @Test
+    public void classes() throws IOException {
+        EjbAnnotationIndex index = new EjbAnnotationIndex(new CompositeIndex(Arrays.asList(index(StatelessBean1.class), index(StatelessBean2.class))));
+
+        assertNotNull(index.getClassByName(DotName.createSimple(StatelessBean2.class.getName())));
+        assertSame(index.getClassByName(DotName.createSimple(StatelessBean2.class.getName())), index.getClassByName(DotName.createSimple(StatelessBean2.class.getName())));
+        assertNull(index.getClassByName(DotName.createSimple(SingletonBean.class.getName())));
+        assertNull(index.getClassByName(DotName.createSimple(SingletonBean.class.getName())));
+    }
+
+    private static void assertTargets(List<AnnotationInstance> expected, List<AnnotationInstance> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i).target().toString(), actual.get(i).target().toString());
+        }
+    }
+
+    private static Index index(Class<?>... classes) throws IOException {
+        Indexer indexer = new Indexer();
+        for (Class<?> clazz : classes) {
+            try (InputStream input = clazz.getClassLoader().getResourceAsStream(clazz.getName().replace('.', '/') + ".class")) {
+                indexer.index(input);
+            }
+        }
+        return indexer.complete();
+    }
+
+    @Stateless
+    public static class StatelessBean1 {
+    }
+
+    @Stateless
+    public static class StatelessBean2 {
+    }
+
+    @Stateful
+    public static class StatefulBean {
+        @Remove
+        public void remove() {
+        }
+    }
+
+    @Singleton
+    public static class SingletonBean {
+    }
+}
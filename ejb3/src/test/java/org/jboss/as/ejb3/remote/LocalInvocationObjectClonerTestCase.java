@@ -0,0 +1,106 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.remote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.marshalling.cloner.ClassLoaderClassCloner;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link LocalInvocationObjectCloner}.
+ */
+public class LocalInvocationObjectClonerTestCase {
+
+    @Test
+    public void immutable() throws Exception {
+        ClassLoader loader = this.getClass().getClassLoader();
+        LocalInvocationObjectCloner cloner = new LocalInvocationObjectCloner(new ClassLoaderClassCloner(loader), loader);
+        long shared = PassByValueStatistics.getSharedObjects();
+
+        assertNull(cloner.clone(null));
+        for (Object value : Arrays.asList("value", 1, 1L, 'c', true, new BigDecimal("1.5"), LocalDate.now(), TimeUnit.SECONDS, Color.RED)) {
+            assertSame(value, cloner.clone(value));
+        }
+        assertEquals(shared + 9, PassByValueStatistics.getSharedObjects());
+    }
+
+    @Test
+    public void mutable() throws Exception {
+        ClassLoader loader = this.getClass().getClassLoader();
+        LocalInvocationObjectCloner cloner = new LocalInvocationObjectCloner(new ClassLoaderClassCloner(loader), loader);
+        long cloned = PassByValueStatistics.getClonedObjects();
+
+        List<String> list = new ArrayList<>(Arrays.asList("a", "b"));
+        Object clone = cloner.clone(list);
+        assertNotSame(list, clone);
+        assertEquals(list, clone);
+
+        Dto dto = new Dto("name");
+        Dto dtoClone = (Dto) cloner.clone(dto);
+        assertNotSame(dto, dtoClone);
+        assertEquals(dto.name, dtoClone.name);
+
+        // Subclasses of otherwise immutable types are copied
+        BigDecimal decimal = new Decimal("1.5");
+        assertNotSame(decimal, cloner.clone(decimal));
+
+        assertEquals(cloned + 3, PassByValueStatistics.getClonedObjects());
+    }
+
+    enum Color {
+        RED {
+            @Override
+            public String toString() {
+                return "red";
+            }
+        },
+    }
+
+    static class Decimal extends BigDecimal {
+        private static final long serialVersionUID = 1L;
+
+        Decimal(String value) {
+            super(value);
+        }
+    }
+
+    static class Dto implements Serializable {
+        private static final long serialVersionUID = 1L;
+        final String name;
+
+        Dto(String name) {
+            this.name = name;
+        }
+    }
+}
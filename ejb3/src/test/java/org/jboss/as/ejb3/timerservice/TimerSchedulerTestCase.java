@@ -0,0 +1,73 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link TimerScheduler}.
+ */
+public class TimerSchedulerTestCase {
+
+    private final TimerScheduler scheduler = new TimerScheduler(4);
+
+    @After
+    public void destroy() {
+        this.scheduler.shutdown();
+    }
+
+    @Test
+    public void schedule() throws InterruptedException {
+        int count = 100;
+        CountDownLatch latch = new CountDownLatch(count);
+        for (int i = 0; i < count; ++i) {
+            this.scheduler.schedule(String.valueOf(i), latch::countDown, i % 10);
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void scheduleAtFixedRate() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(3);
+        Future<?> future = this.scheduler.scheduleAtFixedRate("timer", latch::countDown, 0, 10);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        future.cancel(false);
+    }
+
+    @Test
+    public void cancel() throws InterruptedException {
+        AtomicInteger invocations = new AtomicInteger();
+        Future<?> future = this.scheduler.schedule("timer", invocations::incrementAndGet, 100);
+        assertTrue(future.cancel(false));
+        Thread.sleep(200);
+        assertEquals(0, invocations.get());
+    }
+}
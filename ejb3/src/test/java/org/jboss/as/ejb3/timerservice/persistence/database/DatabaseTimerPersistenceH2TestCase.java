@@ -0,0 +1,359 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence.TimerChangeListener;
+import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
+import org.jboss.as.naming.ImmediateManagedReferenceFactory;
+import org.jboss.modules.ModuleLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Tests the statement batching, table migration and incremental refresh of {@link DatabaseTimerPersistence} against an H2 database.
+ */
+public class DatabaseTimerPersistenceH2TestCase {
+
+    private static final String TIMED_OBJECT_ID = "timed-object";
+    private static final String PARTITION = "partition";
+
+    private final TimerServiceImpl service = mock(TimerServiceImpl.class);
+    private String url;
+    private CountingDataSource dataSource;
+    private Connection connection;
+
+    @Before
+    public void init() throws SQLException {
+        this.url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        this.dataSource = new CountingDataSource();
+        this.dataSource.setURL(this.url);
+        // Keeps the in-memory database open for the duration of the test
+        this.connection = DriverManager.getConnection(this.url);
+        TimedObjectInvoker invoker = mock(TimedObjectInvoker.class);
+        when(invoker.getTimedObjectId()).thenReturn(TIMED_OBJECT_ID);
+        when(this.service.getInvoker()).thenReturn(invoker);
+    }
+
+    @After
+    public void destroy() throws SQLException {
+        try (Statement statement = this.connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    @Test
+    public void batchWithinTransaction() throws SQLException {
+        BatchingDatabaseTimerPersistence persistence = this.start(new BatchingDatabaseTimerPersistence("node1"));
+        persistence.loadActiveTimers(TIMED_OBJECT_ID, this.service);
+
+        DatabaseTimerPersistence.StatementBatch batch = persistence.begin();
+        int connections = this.dataSource.connections.get();
+        persistence.addTimer(this.timer("1"));
+        persistence.addTimer(this.timer("2"));
+        TimerImpl timer = this.timer("3");
+        persistence.addTimer(timer);
+        timer.setTimerState(TimerState.CANCELED);
+        persistence.persistTimer(timer);
+
+        // Nothing is executed until the transaction completes
+        assertEquals(connections, this.dataSource.connections.get());
+        assertEquals(0, this.count());
+
+        batch.beforeCompletion();
+
+        // All statements of the transaction were executed using a single connection, in order
+        assertEquals(connections + 1, this.dataSource.connections.get());
+        assertEquals(2, this.count());
+        assertEquals(timerIds("1", "2"), this.ids());
+    }
+
+    @Test
+    public void executeAfterBeforeCompletion() throws SQLException {
+        BatchingDatabaseTimerPersistence persistence = this.start(new BatchingDatabaseTimerPersistence("node1"));
+        persistence.loadActiveTimers(TIMED_OBJECT_ID, this.service);
+
+        DatabaseTimerPersistence.StatementBatch batch = persistence.begin();
+        persistence.addTimer(this.timer("1"));
+        batch.beforeCompletion();
+        assertEquals(1, this.count());
+
+        // e.g. a timer created by another synchronization of the same transaction, the batch was already flushed
+        persistence.addTimer(this.timer("2"));
+        assertEquals(2, this.count());
+
+        // An empty batch that was already completed must not swallow statements either
+        batch = persistence.begin();
+        batch.beforeCompletion();
+        persistence.addTimer(this.timer("3"));
+        assertEquals(3, this.count());
+    }
+
+    @Test
+    public void migrateTable() throws SQLException, IOException {
+        Properties sql = new Properties();
+        try (InputStream input = DatabaseTimerPersistence.class.getClassLoader().getResourceAsStream("timer-sql.properties")) {
+            sql.load(input);
+        }
+        String createTable = sql.getProperty("create-table");
+        assertTrue(createTable.contains(", LAST_MODIFIED BIGINT"));
+        try (Statement statement = this.connection.createStatement()) {
+            // The table as created by a previous release
+            statement.executeUpdate(createTable.replace(", LAST_MODIFIED BIGINT", ""));
+        }
+        this.insertLegacyTimer("legacy");
+
+        DatabaseTimerPersistence persistence = this.start(new DatabaseTimerPersistence("h2", PARTITION, "node1", 0, true));
+
+        try (Statement statement = this.connection.createStatement(); ResultSet results = statement.executeQuery("SELECT LAST_MODIFIED FROM JBOSS_EJB_TIMER WHERE ID='legacy'")) {
+            assertTrue(results.next());
+            // Rows persisted prior to the migration have no modification time
+            results.getLong(1);
+            assertTrue(results.wasNull());
+        }
+
+        List<TimerImpl> timers = persistence.loadActiveTimers(TIMED_OBJECT_ID, this.service);
+        assertEquals(1, timers.size());
+        assertEquals("legacy", timers.get(0).getId());
+
+        persistence.addTimer(this.timer("1"));
+        try (Statement statement = this.connection.createStatement(); ResultSet results = statement.executeQuery("SELECT LAST_MODIFIED FROM JBOSS_EJB_TIMER WHERE ID='1'")) {
+            assertTrue(results.next());
+            assertTrue(results.getLong(1) > 0);
+        }
+
+        // Migration is idempotent
+        this.start(new DatabaseTimerPersistence("h2", PARTITION, "node2", 0, true));
+        assertEquals(2, this.count());
+    }
+
+    @Test
+    public void refresh() throws SQLException {
+        DatabaseTimerPersistence local = this.start(new DatabaseTimerPersistence("h2", PARTITION, "node1", 0, true));
+        DatabaseTimerPersistence remote = this.start(new DatabaseTimerPersistence("h2", PARTITION, "node2", 0, true));
+        assertTrue(local.loadActiveTimers(TIMED_OBJECT_ID, this.service).isEmpty());
+        assertTrue(remote.loadActiveTimers(TIMED_OBJECT_ID, this.service).isEmpty());
+
+        // Timers created by another node are unknown to this node
+        remote.addTimer(this.timer("1"));
+        remote.addTimer(this.timer("2"));
+        this.setLastModified("1", 1000L);
+        this.setLastModified("2", 2000L);
+
+        TimerChangeListener listener = this.register(local);
+        local.refresh();
+
+        assertEquals(timerIds("1", "2"), added(listener, 2));
+        verify(listener, never()).timerRemoved(anyString());
+        // 2 identifier rows + 2 full rows
+        assertEquals(4L, local.getLastRefreshRows());
+
+        // Only rows modified since the oldest unknown timer are loaded, which includes changed rows of known timers
+        remote.addTimer(this.timer("3"));
+        this.setLastModified("3", 3000L);
+        this.setLastModified("1", 4000L);
+
+        listener = this.register(local);
+        local.refresh();
+
+        assertEquals(timerIds("3"), added(listener, 1));
+        verify(listener, never()).timerRemoved(anyString());
+        // 3 identifier rows + 2 full rows
+        assertEquals(5L, local.getLastRefreshRows());
+
+        // Nothing is loaded if no timer was added
+        TimerImpl timer = this.timer("2");
+        timer.setTimerState(TimerState.CANCELED);
+        remote.persistTimer(timer);
+
+        listener = this.register(local);
+        local.refresh();
+
+        verify(listener, never()).timerAdded(any());
+        verify(listener).timerRemoved("2");
+        // 2 identifier rows only
+        assertEquals(2L, local.getLastRefreshRows());
+
+        // Rows persisted by a previous release have no modification time, and are always loaded
+        this.insertLegacyTimer("legacy");
+
+        listener = this.register(local);
+        local.refresh();
+
+        assertEquals(timerIds("legacy"), added(listener, 1));
+        // 3 identifier rows + 1 full row
+        assertEquals(4L, local.getLastRefreshRows());
+
+        // Known timers are not reported again
+        listener = this.register(local);
+        local.refresh();
+
+        verify(listener, never()).timerAdded(any());
+        verify(listener, never()).timerRemoved(anyString());
+        // 3 identifier rows only
+        assertEquals(3L, local.getLastRefreshRows());
+    }
+
+    private <P extends DatabaseTimerPersistence> P start(P persistence) {
+        persistence.getDataSourceInjectedValue().inject(new ImmediateManagedReferenceFactory(this.dataSource));
+        persistence.getModuleLoader().inject(mock(ModuleLoader.class));
+        try {
+            persistence.start(null);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return persistence;
+    }
+
+    private TimerChangeListener register(DatabaseTimerPersistence persistence) {
+        TimerChangeListener listener = mock(TimerChangeListener.class);
+        when(listener.getTimerService()).thenReturn(this.service);
+        persistence.registerChangeListener(TIMED_OBJECT_ID, listener);
+        return listener;
+    }
+
+    private static Set<String> added(TimerChangeListener listener, int expected) {
+        ArgumentCaptor<TimerImpl> captor = ArgumentCaptor.forClass(TimerImpl.class);
+        verify(listener, times(expected)).timerAdded(captor.capture());
+        Set<String> ids = new HashSet<>();
+        for (TimerImpl timer : captor.getAllValues()) {
+            assertEquals(TIMED_OBJECT_ID, timer.getTimedObjectId());
+            ids.add(timer.getId());
+        }
+        return ids;
+    }
+
+    private static Set<String> timerIds(String... ids) {
+        Set<String> result = new HashSet<>();
+        for (String id : ids) {
+            result.add(id);
+        }
+        return result;
+    }
+
+    private TimerImpl timer(String id) {
+        return TimerImpl.builder()
+                .setId(id)
+                .setTimedObjectId(TIMED_OBJECT_ID)
+                .setInitialDate(new Date(System.currentTimeMillis() + 60000L))
+                .setRepeatInterval(60000L)
+                .setTimerState(TimerState.ACTIVE)
+                .setPersistent(true)
+                .setNewTimer(true)
+                .build(this.service);
+    }
+
+    private void insertLegacyTimer(String id) throws SQLException {
+        try (Statement statement = this.connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO JBOSS_EJB_TIMER (ID, TIMED_OBJECT_ID, INITIAL_DATE, REPEAT_INTERVAL, NEXT_DATE, TIMER_STATE, AUTO_TIMER, CALENDAR_TIMER, PARTITION_NAME) VALUES ('" + id + "', '" + TIMED_OBJECT_ID + "', CURRENT_TIMESTAMP, 0, CURRENT_TIMESTAMP, 'ACTIVE', FALSE, FALSE, '" + PARTITION + "')");
+        }
+    }
+
+    private void setLastModified(String id, long lastModified) throws SQLException {
+        try (Statement statement = this.connection.createStatement()) {
+            assertEquals(1, statement.executeUpdate("UPDATE JBOSS_EJB_TIMER SET LAST_MODIFIED=" + lastModified + " WHERE ID='" + id + "'"));
+        }
+    }
+
+    private int count() throws SQLException {
+        try (Statement statement = this.connection.createStatement(); ResultSet results = statement.executeQuery("SELECT COUNT(*) FROM JBOSS_EJB_TIMER")) {
+            assertTrue(results.next());
+            return results.getInt(1);
+        }
+    }
+
+    private Set<String> ids() throws SQLException {
+        Set<String> ids = new HashSet<>();
+        try (Statement statement = this.connection.createStatement(); ResultSet results = statement.executeQuery("SELECT ID FROM JBOSS_EJB_TIMER")) {
+            while (results.next()) {
+                ids.add(results.getString(1));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Counts the connections obtained from the data source.
+     */
+    private static class CountingDataSource extends JdbcDataSource {
+        private static final long serialVersionUID = -4117474186316357226L;
+
+        final AtomicInteger connections = new AtomicInteger();
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            this.connections.incrementAndGet();
+            return super.getConnection();
+        }
+    }
+
+    /**
+     * Associates timer statements with an explicitly begun batch, rather than with the batch of the current transaction.
+     */
+    private static class BatchingDatabaseTimerPersistence extends DatabaseTimerPersistence {
+        private volatile StatementBatch batch;
+
+        BatchingDatabaseTimerPersistence(String nodeName) {
+            super("h2", PARTITION, nodeName, 0, true);
+        }
+
+        StatementBatch begin() {
+            this.batch = new StatementBatch();
+            return this.batch;
+        }
+
+        @Override
+        StatementBatch getStatementBatch() {
+            return this.batch;
+        }
+    }
+}
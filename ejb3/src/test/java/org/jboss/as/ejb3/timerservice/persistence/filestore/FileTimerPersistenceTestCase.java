@@ -0,0 +1,318 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
+import org.jboss.modules.ModuleLoader;
+import org.jboss.msc.value.InjectedValue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests the striped timer locks and the batched loading of {@link FileTimerPersistence}, and switching to and from the
+ * journal format of {@link JournalTimerPersistence}.
+ */
+public class FileTimerPersistenceTestCase {
+
+    private static final String TIMED_OBJECT_ID = "timed-object";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final TimerServiceImpl service = mock(TimerServiceImpl.class);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private File directory;
+
+    @Before
+    public void init() throws IOException {
+        this.directory = this.folder.newFolder();
+        TimedObjectInvoker invoker = mock(TimedObjectInvoker.class);
+        when(invoker.getTimedObjectId()).thenReturn(TIMED_OBJECT_ID);
+        when(invoker.getClassLoader()).thenReturn(FileTimerPersistenceTestCase.class.getClassLoader());
+        InjectedValue<TimedObjectInvoker> invokerValue = new InjectedValue<>();
+        invokerValue.inject(invoker);
+        when(this.service.getInvoker()).thenReturn(invoker);
+        when(this.service.getTimedObjectInvoker()).thenReturn(invokerValue);
+    }
+
+    @After
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void loadBatches() {
+        FileTimerPersistence persistence = this.start(new FileTimerPersistence(true, this.directory.getAbsolutePath(), null));
+        Set<String> expected = new HashSet<>();
+        try {
+            // Enough timers to be loaded by several tasks
+            for (int i = 0; i < 1000; ++i) {
+                TimerImpl timer = this.timer(String.valueOf(i));
+                persistence.addTimer(timer);
+                if (i % 10 == 0) {
+                    timer.setTimerState(TimerState.CANCELED);
+                    persistence.persistTimer(timer);
+                } else {
+                    expected.add(timer.getId());
+                }
+            }
+        } finally {
+            persistence.stop(null);
+        }
+
+        persistence = this.start(new FileTimerPersistence(true, this.directory.getAbsolutePath(), null));
+        try {
+            assertEquals(expected, ids(persistence.loadActiveTimers(TIMED_OBJECT_ID, this.service)));
+        } finally {
+            persistence.stop(null);
+        }
+    }
+
+    @Test
+    public void switchFormats() {
+        FileTimerPersistence persistence = this.start(new JournalTimerPersistence(true, this.directory.getAbsolutePath(), null));
+        try {
+            for (String id : ids("1", "2", "3")) {
+                persistence.addTimer(this.timer(id));
+            }
+            TimerImpl timer = this.timer("2");
+            timer.setTimerState(TimerState.CANCELED);
+            persistence.persistTimer(timer);
+            assertFalse(journalSegments(this.directory).isEmpty());
+        } finally {
+            persistence.stop(null);
+        }
+
+        // The journal is exported into timer files
+        persistence = this.start(new FileTimerPersistence(true, this.directory.getAbsolutePath(), null));
+        try {
+            assertEquals(ids("1", "3"), ids(persistence.loadActiveTimers(TIMED_OBJECT_ID, this.service)));
+            assertTrue(journalSegments(this.directory).isEmpty());
+            persistence.addTimer(this.timer("4"));
+        } finally {
+            persistence.stop(null);
+        }
+
+        // The timer files are imported into a new journal
+        persistence = this.start(new JournalTimerPersistence(true, this.directory.getAbsolutePath(), null));
+        try {
+            assertEquals(ids("1", "3", "4"), ids(persistence.loadActiveTimers(TIMED_OBJECT_ID, this.service)));
+            assertFalse(journalSegments(this.directory).isEmpty());
+        } finally {
+            persistence.stop(null);
+        }
+    }
+
+    @Test
+    public void removedTimerIsNotUpdated() {
+        FileTimerPersistence persistence = this.start(new FileTimerPersistence(true, this.directory.getAbsolutePath(), null));
+        try {
+            TimerImpl timer = this.timer("1");
+            persistence.addTimer(timer);
+            timer.setTimerState(TimerState.CANCELED);
+            persistence.persistTimer(timer);
+
+            // e.g. an update of the timer by a thread that did not see the cancellation
+            persistence.persistTimer(this.timer("1"));
+
+            assertTrue(persistence.loadActiveTimers(TIMED_OBJECT_ID, this.service).isEmpty());
+        } finally {
+            persistence.stop(null);
+        }
+    }
+
+    @Test
+    public void concurrentPersistAndRemove() throws Exception {
+        FileTimerPersistence persistence = this.start(new FileTimerPersistence(true, this.directory.getAbsolutePath(), null));
+        try {
+            int threads = 8;
+            int timersPerThread = 100;
+            CountDownLatch startLatch = new CountDownLatch(1);
+            List<Future<Set<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; ++i) {
+                int thread = i;
+                futures.add(this.executor.submit(() -> {
+                    startLatch.await();
+                    Set<String> active = new HashSet<>();
+                    for (int j = 0; j < timersPerThread; ++j) {
+                        TimerImpl timer = this.timer(thread + "-" + j);
+                        persistence.addTimer(timer);
+                        persistence.persistTimer(timer);
+                        if (j % 2 == 0) {
+                            timer.setTimerState(TimerState.CANCELED);
+                            persistence.persistTimer(timer);
+                        } else {
+                            active.add(timer.getId());
+                        }
+                    }
+                    return active;
+                }));
+            }
+            // Load the timers while they are being persisted and removed
+            Future<?> loader = this.executor.submit(() -> {
+                startLatch.await();
+                for (int i = 0; i < 10; ++i) {
+                    for (TimerImpl timer : persistence.loadActiveTimers(TIMED_OBJECT_ID, this.service)) {
+                        assertEquals(TIMED_OBJECT_ID, timer.getTimedObjectId());
+                    }
+                }
+                return null;
+            });
+            startLatch.countDown();
+
+            Set<String> expected = new HashSet<>();
+            for (Future<Set<String>> future : futures) {
+                expected.addAll(future.get(60, TimeUnit.SECONDS));
+            }
+            loader.get(60, TimeUnit.SECONDS);
+
+            assertEquals(threads * timersPerThread / 2, expected.size());
+            assertEquals(expected, ids(persistence.loadActiveTimers(TIMED_OBJECT_ID, this.service)));
+        } finally {
+            persistence.stop(null);
+        }
+    }
+
+    @Test
+    public void stripedLocks() throws Exception {
+        CountDownLatch storing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FileTimerPersistence persistence = this.start(new FileTimerPersistence(true, this.directory.getAbsolutePath(), null) {
+            @Override
+            void storeTimer(TimerImpl timer, boolean newTimer) {
+                if (timer.getId().equals("a")) {
+                    storing.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                super.storeTimer(timer, newTimer);
+            }
+        });
+        try {
+            // "a" and "b" are guarded by different locks
+            Future<?> blocked = this.executor.submit(() -> persistence.addTimer(this.timer("a")));
+            assertTrue(storing.await(10, TimeUnit.SECONDS));
+
+            this.executor.submit(() -> persistence.addTimer(this.timer("b"))).get(10, TimeUnit.SECONDS);
+
+            // Loading all timers needs every lock
+            Future<List<TimerImpl>> load = this.executor.submit(() -> persistence.loadActiveTimers(TIMED_OBJECT_ID, this.service));
+            try {
+                load.get(100, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Expected
+            }
+            assertFalse(load.isDone());
+
+            release.countDown();
+            blocked.get(10, TimeUnit.SECONDS);
+            assertEquals(ids("a", "b"), ids(load.get(10, TimeUnit.SECONDS)));
+        } finally {
+            release.countDown();
+            persistence.stop(null);
+        }
+    }
+
+    private FileTimerPersistence start(FileTimerPersistence persistence) {
+        PathManager pathManager = mock(PathManager.class);
+        when(pathManager.resolveRelativePathEntry(this.directory.getAbsolutePath(), null)).thenReturn(this.directory.getAbsolutePath());
+        persistence.getPathManager().inject(pathManager);
+        persistence.getModuleLoader().inject(mock(ModuleLoader.class));
+        persistence.start(null);
+        return persistence;
+    }
+
+    private TimerImpl timer(String id) {
+        return TimerImpl.builder()
+                .setId(id)
+                .setTimedObjectId(TIMED_OBJECT_ID)
+                .setInitialDate(new Date(System.currentTimeMillis() + 60000L))
+                .setRepeatInterval(60000L)
+                .setTimerState(TimerState.ACTIVE)
+                .setPersistent(true)
+                .setNewTimer(true)
+                .build(this.service);
+    }
+
+    private static List<File> journalSegments(File directory) {
+        List<File> segments = new ArrayList<>();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    segments.addAll(journalSegments(file));
+                } else if (file.getName().endsWith(TimerJournal.SEGMENT_SUFFIX)) {
+                    segments.add(file);
+                }
+            }
+        }
+        return segments;
+    }
+
+    private static Set<String> ids(List<TimerImpl> timers) {
+        Set<String> ids = new HashSet<>();
+        for (TimerImpl timer : timers) {
+            ids.add(timer.getId());
+        }
+        assertEquals(timers.size(), ids.size());
+        return ids;
+    }
+
+    private static Set<String> ids(String... ids) {
+        Set<String> result = new HashSet<>();
+        for (String id : ids) {
+            result.add(id);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,333 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit test for {@link TimerJournal}.
+ */
+public class TimerJournalTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replay() throws IOException {
+        File directory = this.folder.newFolder();
+        TimerJournal journal = new TimerJournal(directory, 1024);
+        assertFalse(journal.exists());
+        assertTrue(journal.replay().isEmpty());
+        try {
+            for (int i = 0; i < 100; ++i) {
+                journal.put(String.valueOf(i), bytes(i));
+            }
+            for (int i = 0; i < 100; i += 2) {
+                journal.remove(String.valueOf(i));
+            }
+            journal.put("1", bytes(-1));
+        } finally {
+            journal.close();
+        }
+
+        journal = new TimerJournal(directory, 1024);
+        assertTrue(journal.exists());
+        try {
+            Map<String, byte[]> timers = journal.replay();
+            assertEquals(50, timers.size());
+            assertArrayEquals(bytes(-1), timers.get("1"));
+            for (int i = 3; i < 100; i += 2) {
+                assertArrayEquals(bytes(i), timers.get(String.valueOf(i)));
+            }
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void tornRecord() throws IOException {
+        File directory = this.folder.newFolder();
+        TimerJournal journal = new TimerJournal(directory, Long.MAX_VALUE);
+        journal.replay();
+        try {
+            journal.put("1", bytes(1));
+            journal.put("2", bytes(2));
+        } finally {
+            journal.close();
+        }
+
+        // Simulate a crash in the middle of appending the last record
+        File[] segments = directory.listFiles();
+        assertEquals(1, segments.length);
+        try (RandomAccessFile file = new RandomAccessFile(segments[0], "rw")) {
+            file.setLength(file.length() - 1);
+        }
+
+        journal = new TimerJournal(directory, Long.MAX_VALUE);
+        try {
+            Map<String, byte[]> timers = journal.replay();
+            assertEquals(1, timers.size());
+            assertArrayEquals(bytes(1), timers.get("1"));
+            // Records appended after recovery must not be obscured by the torn record
+            journal.put("3", bytes(3));
+        } finally {
+            journal.close();
+        }
+
+        journal = new TimerJournal(directory, Long.MAX_VALUE);
+        try {
+            Map<String, byte[]> timers = journal.replay();
+            assertEquals(2, timers.size());
+            assertArrayEquals(bytes(3), timers.get("3"));
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void compact() throws IOException {
+        File directory = this.folder.newFolder();
+        TimerJournal journal = new TimerJournal(directory, 1024);
+        journal.replay();
+        Map<String, byte[]> live = new HashMap<>();
+        try {
+            live.put("live", bytes(0));
+            journal.put("live", bytes(0));
+            for (int i = 0; !journal.isCompactionRequired(live.size()); ++i) {
+                journal.put("expired", bytes(i));
+                journal.remove("expired");
+            }
+            assertTrue(directory.listFiles().length > 1);
+            journal.compact(live);
+            assertEquals(1, directory.listFiles().length);
+            assertFalse(journal.isCompactionRequired(live.size()));
+            journal.put("new", bytes(1));
+        } finally {
+            journal.close();
+        }
+
+        journal = new TimerJournal(directory, 1024);
+        try {
+            Map<String, byte[]> timers = journal.replay();
+            assertEquals(2, timers.size());
+            assertArrayEquals(bytes(0), timers.get("live"));
+            assertArrayEquals(bytes(1), timers.get("new"));
+        } finally {
+            journal.close();
+        }
+    }
+
+    /**
+     * Simulates a crash during compaction, after the compacted segment became visible, but before its predecessors were deleted,
+     * where only part of the compacted segment was written.
+     */
+    @Test
+    public void incompleteCompaction() throws IOException {
+        File directory = this.folder.newFolder();
+        Map<String, byte[]> live = this.populate(directory);
+        Map<String, byte[]> predecessors = contents(directory);
+        assertTrue(predecessors.size() > 1);
+
+        TimerJournal journal = new TimerJournal(directory, 1024);
+        try {
+            assertEquals(live.keySet(), journal.replay().keySet());
+            journal.compact(live);
+        } finally {
+            journal.close();
+        }
+        Map<String, byte[]> compacted = contents(directory);
+        assertEquals(1, compacted.size());
+        Map.Entry<String, byte[]> segment = compacted.entrySet().iterator().next();
+        byte[] image = segment.getValue();
+
+        for (int length = 0; length < image.length; length += 7) {
+            File crashed = this.folder.newFolder();
+            for (Map.Entry<String, byte[]> entry : predecessors.entrySet()) {
+                Files.write(new File(crashed, entry.getKey()).toPath(), entry.getValue());
+            }
+            Files.write(new File(crashed, segment.getKey()).toPath(), Arrays.copyOf(image, length));
+
+            journal = new TimerJournal(crashed, 1024);
+            try {
+                assertTimers(live, journal.replay());
+                // Records appended after recovery must not be obscured by the incomplete image
+                journal.put("new", bytes(-1));
+            } finally {
+                journal.close();
+            }
+
+            journal = new TimerJournal(crashed, 1024);
+            try {
+                Map<String, byte[]> timers = journal.replay();
+                assertEquals(live.size() + 1, timers.size());
+                assertArrayEquals(bytes(-1), timers.get("new"));
+            } finally {
+                journal.close();
+            }
+        }
+    }
+
+    /**
+     * Simulates a crash during compaction, before the compacted segment became visible.
+     */
+    @Test
+    public void interruptedCompaction() throws IOException {
+        File directory = this.folder.newFolder();
+        Map<String, byte[]> live = this.populate(directory);
+        Map<String, byte[]> predecessors = contents(directory);
+
+        File temporaryDirectory = this.folder.newFolder();
+        TimerJournal journal = new TimerJournal(temporaryDirectory, 1024);
+        try {
+            journal.compact(live);
+        } finally {
+            journal.close();
+        }
+        Map.Entry<String, byte[]> segment = contents(temporaryDirectory).entrySet().iterator().next();
+
+        // A partially written image of the next segment
+        String last = Collections.max(predecessors.keySet());
+        long next = Long.parseLong(last.substring(TimerJournal.SEGMENT_PREFIX.length(), last.length() - TimerJournal.SEGMENT_SUFFIX.length())) + 1;
+        File temporaryFile = new File(directory, String.format("%s%019d%s%s", TimerJournal.SEGMENT_PREFIX, next, TimerJournal.SEGMENT_SUFFIX, TimerJournal.TEMPORARY_SUFFIX));
+        Files.write(temporaryFile.toPath(), Arrays.copyOf(segment.getValue(), segment.getValue().length / 2));
+
+        journal = new TimerJournal(directory, 1024);
+        try {
+            assertTrue(journal.exists());
+            assertTimers(live, journal.replay());
+            assertFalse(temporaryFile.exists());
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void failedCompaction() throws IOException {
+        File directory = this.folder.newFolder();
+        Map<String, byte[]> live = this.populate(directory);
+        String last = Collections.max(contents(directory).keySet());
+        long next = Long.parseLong(last.substring(TimerJournal.SEGMENT_PREFIX.length(), last.length() - TimerJournal.SEGMENT_SUFFIX.length())) + 1;
+
+        TimerJournal journal = new TimerJournal(directory, 1024);
+        try {
+            journal.replay();
+            // Prevent the creation of the temporary file
+            File blocker = new File(directory, String.format("%s%019d%s%s", TimerJournal.SEGMENT_PREFIX, next, TimerJournal.SEGMENT_SUFFIX, TimerJournal.TEMPORARY_SUFFIX));
+            assertTrue(blocker.mkdir());
+            try {
+                journal.compact(live);
+                fail();
+            } catch (IOException e) {
+                // Expected
+            }
+            // The journal remains usable
+            journal.put("new", bytes(-1));
+        } finally {
+            journal.close();
+        }
+
+        journal = new TimerJournal(directory, 1024);
+        try {
+            Map<String, byte[]> timers = journal.replay();
+            assertEquals(live.size() + 1, timers.size());
+            assertArrayEquals(bytes(-1), timers.get("new"));
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void delete() throws IOException {
+        File directory = this.folder.newFolder();
+        this.populate(directory);
+        TimerJournal journal = new TimerJournal(directory, 1024);
+        try {
+            journal.replay();
+            journal.delete();
+        } finally {
+            journal.close();
+        }
+        assertFalse(journal.exists());
+        assertEquals(0, directory.listFiles().length);
+    }
+
+    /**
+     * Populates a journal spanning multiple segments.
+     * @return the live timers
+     */
+    private Map<String, byte[]> populate(File directory) throws IOException {
+        Map<String, byte[]> live = new HashMap<>();
+        TimerJournal journal = new TimerJournal(directory, 1024);
+        journal.replay();
+        try {
+            for (int i = 0; i < 100; ++i) {
+                journal.put(String.valueOf(i), bytes(i));
+                live.put(String.valueOf(i), bytes(i));
+            }
+            for (int i = 0; i < 100; i += 3) {
+                journal.remove(String.valueOf(i));
+                live.remove(String.valueOf(i));
+            }
+        } finally {
+            journal.close();
+        }
+        return live;
+    }
+
+    private static Map<String, byte[]> contents(File directory) throws IOException {
+        Map<String, byte[]> contents = new TreeMap<>();
+        for (File file : directory.listFiles()) {
+            contents.put(file.getName(), Files.readAllBytes(file.toPath()));
+        }
+        return contents;
+    }
+
+    private static void assertTimers(Map<String, byte[]> expected, Map<String, byte[]> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        for (Map.Entry<String, byte[]> entry : expected.entrySet()) {
+            assertArrayEquals(entry.getValue(), actual.get(entry.getKey()));
+        }
+    }
+
+    private static byte[] bytes(int value) {
+        return ("timer-" + value).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -127,6 +127,10 @@ public class BroadcastGroupDefinition extends PersistentResourceDefinition {
         }
 
         BroadcastGroupControlHandler.INSTANCE.registerAttributes(registry);
+
+        if (registerRuntimeOnly) {
+            BroadcastManagerMetricsHandler.INSTANCE.registerMetrics(registry);
+        }
     }
 
     @Override
@@ -0,0 +1,71 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.messaging.activemq;
+
+import static org.wildfly.extension.messaging.activemq.CommonAttributes.DROPPED_BROADCASTS;
+import static org.wildfly.extension.messaging.activemq.CommonAttributes.JGROUPS_CLUSTER;
+import static org.wildfly.extension.messaging.activemq.CommonAttributes.QUEUED_BROADCASTS;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.wildfly.extension.messaging.activemq.broadcast.BroadcastManager;
+import org.wildfly.extension.messaging.activemq.broadcast.CommandDispatcherBroadcastEndpointFactory;
+import org.wildfly.extension.messaging.activemq.logging.MessagingLogger;
+
+/**
+ * Handler for the metrics of the {@link BroadcastManager} used by broadcast and discovery groups that are based on a
+ * JGroups cluster. The metrics are 0 for groups based on a socket binding.
+ */
+public class BroadcastManagerMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    public static final BroadcastManagerMetricsHandler INSTANCE = new BroadcastManagerMetricsHandler();
+
+    private BroadcastManagerMetricsHandler() {
+    }
+
+    public void registerMetrics(ManagementResourceRegistration registry) {
+        registry.registerMetric(QUEUED_BROADCASTS, this);
+        registry.registerMetric(DROPPED_BROADCASTS, this);
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String attributeName = operation.require(ModelDescriptionConstants.NAME).asString();
+        final ModelNode model = context.readResource(PathAddress.EMPTY_ADDRESS, false).getModel();
+        final ModelNode cluster = JGROUPS_CLUSTER.resolveModelAttribute(context, model);
+        final BroadcastManager manager = cluster.isDefined() ? CommandDispatcherBroadcastEndpointFactory.getBroadcastManager(cluster.asString()) : null;
+
+        if (QUEUED_BROADCASTS.getName().equals(attributeName)) {
+            context.getResult().set((manager != null) ? manager.getQueuedBroadcasts() : 0);
+        } else if (DROPPED_BROADCASTS.getName().equals(attributeName)) {
+            context.getResult().set((manager != null) ? manager.getDroppedBroadcasts() : 0L);
+        } else {
+            throw MessagingLogger.ROOT_LOGGER.unsupportedAttribute(attributeName);
+        }
+    }
+}
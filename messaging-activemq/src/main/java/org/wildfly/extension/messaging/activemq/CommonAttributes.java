@@ -151,6 +151,11 @@ public interface CommonAttributes {
             .setRestartAllServices()
             .build();
 
+    AttributeDefinition DROPPED_BROADCASTS = create("dropped-broadcasts", LONG)
+            .setStorageRuntime()
+            .setUndefinedMetricValue(new ModelNode(0))
+            .build();
+
     SimpleAttributeDefinition DURABLE = create("durable", BOOLEAN)
             .setDefaultValue(new ModelNode().set(true))
             .setRequired(false)
@@ -274,6 +279,11 @@ public interface CommonAttributes {
             .setMaxSize(Integer.MAX_VALUE)
             .build();
 
+    AttributeDefinition QUEUED_BROADCASTS = create("queued-broadcasts", INT)
+            .setStorageRuntime()
+            .setUndefinedMetricValue(new ModelNode(0))
+            .build();
+
     /**
      * @see ActiveMQClient.DEFAULT_RETRY_INTERVAL
      */
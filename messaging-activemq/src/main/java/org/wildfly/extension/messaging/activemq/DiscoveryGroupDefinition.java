@@ -115,6 +115,10 @@ public class DiscoveryGroupDefinition extends PersistentResourceDefinition {
                 registry.registerReadWriteAttribute(attr, null, reloadRequiredWriteAttributeHandler);
             }
         }
+
+        if (registerRuntimeOnly) {
+            BroadcastManagerMetricsHandler.INSTANCE.registerMetrics(registry);
+        }
     }
 
     @Override
@@ -34,4 +34,17 @@ public interface BroadcastManager extends BroadcastReceiver {
     byte[] getBroadcast(long timeout, TimeUnit unit) throws InterruptedException;
 
     void clear();
+
+    /**
+     * Returns the number of received broadcasts that were not yet consumed.
+     * @return the number of queued broadcasts
+     */
+    int getQueuedBroadcasts();
+
+    /**
+     * Returns the number of received broadcasts that were dropped before they could be consumed, either because they
+     * were superseded by a later broadcast from the same node or because the queue was full.
+     * @return the number of dropped broadcasts
+     */
+    long getDroppedBroadcasts();
 }
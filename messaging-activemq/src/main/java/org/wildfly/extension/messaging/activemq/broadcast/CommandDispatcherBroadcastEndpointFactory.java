@@ -48,6 +48,15 @@ public class CommandDispatcherBroadcastEndpointFactory implements BroadcastEndpo
         this.manager = BROADCAST_MANAGERS.computeIfAbsent(name, key -> new QueueBroadcastManager());
     }
 
+    /**
+     * Returns the broadcast manager of the specified logical cluster, if any endpoint factory was created for it.
+     * @param name the logical cluster name
+     * @return the broadcast manager, or null if none exists
+     */
+    public static BroadcastManager getBroadcastManager(String name) {
+        return BROADCAST_MANAGERS.get(name);
+    }
+
     @Override
     public BroadcastEndpoint createBroadcastEndpoint() throws Exception {
         return new CommandDispatcherBroadcastEndpoint(this.factory, this.name, this.manager);
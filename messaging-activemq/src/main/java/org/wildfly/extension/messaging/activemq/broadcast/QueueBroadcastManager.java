@@ -22,33 +22,148 @@
 
 package org.wildfly.extension.messaging.activemq.broadcast;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.activemq.artemis.api.core.ActiveMQBuffers;
 
 /**
+ * A bounded {@link BroadcastManager} that retains only the latest broadcast of each originating node.
+ * A broadcast received while an earlier broadcast of the same node is still queued replaces it in place, since each
+ * broadcast of a node describes its complete set of connectors.
+ * If the queue is full, the oldest queued broadcast is dropped.
  * @author Paul Ferraro
  */
 public class QueueBroadcastManager implements BroadcastManager {
-    private final BlockingQueue<byte[]> broadcasts = new LinkedBlockingDeque<>();
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final int capacity;
+    // Queued broadcasts, in order of arrival of the first pending broadcast of each node
+    private final Map<Object, byte[]> broadcasts = new LinkedHashMap<>();
+    private final Lock lock = new ReentrantLock();
+    private final Condition notEmpty = this.lock.newCondition();
+    private long dropped = 0;
+
+    public QueueBroadcastManager() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public QueueBroadcastManager(int capacity) {
+        this.capacity = capacity;
+    }
 
     @Override
     public void receive(byte[] broadcast) {
-        this.broadcasts.add(broadcast);
+        Object origin = origin(broadcast);
+        this.lock.lock();
+        try {
+            if (this.broadcasts.put(origin, broadcast) != null) {
+                this.dropped += 1;
+            } else {
+                if (this.broadcasts.size() > this.capacity) {
+                    Iterator<byte[]> eldest = this.broadcasts.values().iterator();
+                    eldest.next();
+                    eldest.remove();
+                    this.dropped += 1;
+                }
+                this.notEmpty.signal();
+            }
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     @Override
     public byte[] getBroadcast() throws InterruptedException {
-        return this.broadcasts.take();
+        this.lock.lockInterruptibly();
+        try {
+            while (this.broadcasts.isEmpty()) {
+                this.notEmpty.await();
+            }
+            return this.poll();
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     @Override
     public byte[] getBroadcast(long timeout, TimeUnit unit) throws InterruptedException {
-        return this.broadcasts.poll(timeout, unit);
+        long nanos = unit.toNanos(timeout);
+        this.lock.lockInterruptibly();
+        try {
+            while (this.broadcasts.isEmpty()) {
+                if (nanos <= 0L) {
+                    return null;
+                }
+                nanos = this.notEmpty.awaitNanos(nanos);
+            }
+            return this.poll();
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     @Override
     public void clear() {
-        this.broadcasts.clear();
+        this.lock.lock();
+        try {
+            this.broadcasts.clear();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public int getQueuedBroadcasts() {
+        this.lock.lock();
+        try {
+            return this.broadcasts.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    @Override
+    public long getDroppedBroadcasts() {
+        this.lock.lock();
+        try {
+            return this.dropped;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private byte[] poll() {
+        Iterator<byte[]> values = this.broadcasts.values().iterator();
+        byte[] broadcast = values.next();
+        values.remove();
+        return broadcast;
+    }
+
+    /**
+     * Returns the identifier of the node that sent the specified broadcast.
+     * Artemis broadcasts start with the node id of the broadcasting server, see DiscoveryGroup.
+     * Broadcasts that cannot be decoded are never considered superseded.
+     */
+    private static Object origin(byte[] broadcast) {
+        // The node id is prefixed by its length in characters, which cannot exceed the length of the broadcast
+        if (broadcast.length >= Integer.BYTES) {
+            int length = ByteBuffer.wrap(broadcast).getInt();
+            if ((length >= 0) && (length < broadcast.length)) {
+                try {
+                    return ActiveMQBuffers.wrappedBuffer(broadcast).readString();
+                } catch (RuntimeException e) {
+                    // Fall through
+                }
+            }
+        }
+        return new Object();
     }
 }
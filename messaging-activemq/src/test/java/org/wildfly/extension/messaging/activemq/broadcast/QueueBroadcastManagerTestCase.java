@@ -0,0 +1,174 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.messaging.activemq.broadcast;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.api.core.ActiveMQBuffers;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link QueueBroadcastManager}.
+ */
+public class QueueBroadcastManagerTestCase {
+
+    @Test
+    public void supersede() throws InterruptedException {
+        BroadcastManager manager = new QueueBroadcastManager();
+        manager.receive(broadcast("node1", 1));
+        manager.receive(broadcast("node2", 1));
+        manager.receive(broadcast("node1", 2));
+
+        assertEquals(2, manager.getQueuedBroadcasts());
+        assertEquals(1L, manager.getDroppedBroadcasts());
+        // The superseding broadcast keeps the position of the superseded one
+        assertArrayEquals(broadcast("node1", 2), manager.getBroadcast());
+        assertArrayEquals(broadcast("node2", 1), manager.getBroadcast());
+        assertNull(manager.getBroadcast(10, TimeUnit.MILLISECONDS));
+        assertEquals(0, manager.getQueuedBroadcasts());
+    }
+
+    @Test
+    public void capacity() throws InterruptedException {
+        BroadcastManager manager = new QueueBroadcastManager(10);
+        for (int i = 0; i < 20; ++i) {
+            manager.receive(broadcast("node" + i, 1));
+        }
+
+        assertEquals(10, manager.getQueuedBroadcasts());
+        assertEquals(10L, manager.getDroppedBroadcasts());
+        for (int i = 10; i < 20; ++i) {
+            assertArrayEquals(broadcast("node" + i, 1), manager.getBroadcast(0, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    public void undecodable() {
+        BroadcastManager manager = new QueueBroadcastManager();
+        manager.receive(new byte[] { 1 });
+        manager.receive(new byte[] { 1 });
+        manager.receive(new byte[] { 127, 0, 0, 0, 0 });
+        manager.receive(new byte[] { 127, 0, 0, 0, 0 });
+
+        assertEquals(4, manager.getQueuedBroadcasts());
+        assertEquals(0L, manager.getDroppedBroadcasts());
+    }
+
+    @Test
+    public void clear() {
+        BroadcastManager manager = new QueueBroadcastManager();
+        manager.receive(broadcast("node1", 1));
+        manager.clear();
+
+        assertEquals(0, manager.getQueuedBroadcasts());
+    }
+
+    /**
+     * Simulates 100 brokers announcing themselves concurrently to a slow receiver.
+     */
+    @Test
+    public void stress() throws Exception {
+        int brokers = 100;
+        int announcements = 1000;
+        BroadcastManager manager = new QueueBroadcastManager();
+        ExecutorService executor = Executors.newFixedThreadPool(brokers + 1);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicBoolean done = new AtomicBoolean(false);
+            Map<String, Integer> latest = new HashMap<>();
+            Future<Integer> receiver = executor.submit(() -> {
+                int received = 0;
+                int maxQueued = 0;
+                while (!done.get() || (manager.getQueuedBroadcasts() > 0)) {
+                    maxQueued = Math.max(maxQueued, manager.getQueuedBroadcasts());
+                    byte[] broadcast = manager.getBroadcast(1, TimeUnit.MILLISECONDS);
+                    if (broadcast != null) {
+                        ActiveMQBuffer buffer = ActiveMQBuffers.wrappedBuffer(broadcast);
+                        String node = buffer.readString();
+                        int sequence = buffer.readInt();
+                        Integer previous = latest.put(node, sequence);
+                        // Broadcasts of the same node must never be received out of order
+                        assertTrue((previous == null) || (previous < sequence));
+                        received += 1;
+                        // Simulate a slow receiver
+                        if ((received % 100) == 0) {
+                            Thread.sleep(1);
+                        }
+                    }
+                }
+                assertTrue(maxQueued <= brokers);
+                return received;
+            });
+            List<Future<?>> senders = new ArrayList<>(brokers);
+            for (int i = 0; i < brokers; ++i) {
+                String node = "node" + i;
+                senders.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < announcements; ++j) {
+                        manager.receive(broadcast(node, j));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> sender : senders) {
+                sender.get(1, TimeUnit.MINUTES);
+            }
+            done.set(true);
+            int received = receiver.get(1, TimeUnit.MINUTES);
+
+            assertEquals((long) brokers * announcements, received + manager.getDroppedBroadcasts());
+            assertEquals(brokers, latest.size());
+            // The last announcement of every broker must have been received
+            for (int sequence : latest.values()) {
+                assertEquals(announcements - 1, sequence);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte[] broadcast(String node, int sequence) {
+        ActiveMQBuffer buffer = ActiveMQBuffers.dynamicBuffer(64);
+        buffer.writeString(node);
+        buffer.writeInt(sequence);
+        byte[] result = new byte[buffer.writerIndex()];
+        buffer.readBytes(result);
+        return result;
+    }
+}
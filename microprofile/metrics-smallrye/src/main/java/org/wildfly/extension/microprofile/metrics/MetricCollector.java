@@ -0,0 +1,208 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.microprofile.metrics;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_UNDEFINED_METRIC_VALUES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ON_RUNTIME_FAILURE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.jboss.as.controller.LocalModelControllerClient;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Reads the values of the WildFly metrics exposed to MicroProfile Metrics.
+ * <p>
+ * When the time-to-live is positive, the values of all collected metrics are read with a single composite operation
+ * and the resulting snapshot is reused until it expires, so that a scrape of the metrics endpoint executes one management
+ * operation instead of one per metric. Otherwise each metric is read with its own {@code read-attribute} operation.
+ * In both cases, the operations are only built once.
+ * <p>
+ * Reading from a valid snapshot does not block. Only a single thread reads a new snapshot once it expires, while concurrent
+ * readers wait for its result.
+ */
+class MetricCollector {
+
+    private final LocalModelControllerClient modelControllerClient;
+    private final long ttl;
+    // read-attribute operations of the collected metrics, indexed by metric; null once a metric is removed
+    private final List<ModelNode> operations = new CopyOnWriteArrayList<>();
+    // guarded by this
+    private ModelNode compositeOperation;
+    private volatile Snapshot snapshot;
+
+    /**
+     * @param modelControllerClient the client used to read the metrics
+     * @param ttl the number of milliseconds during which a snapshot of the metric values is reused, or 0 to read each metric on demand
+     */
+    MetricCollector(LocalModelControllerClient modelControllerClient, long ttl) {
+        this.modelControllerClient = modelControllerClient;
+        this.ttl = TimeUnit.MILLISECONDS.toNanos(ttl);
+    }
+
+    /**
+     * Adds a metric to this collector.
+     *
+     * @return the index used to read the metric
+     */
+    synchronized int add(PathAddress address, String attributeName) {
+        final ModelNode readAttributeOp = new ModelNode();
+        readAttributeOp.get(OP).set(READ_ATTRIBUTE_OPERATION);
+        readAttributeOp.get(OP_ADDR).set(address.toModelNode());
+        readAttributeOp.get(INCLUDE_UNDEFINED_METRIC_VALUES).set(true);
+        readAttributeOp.get(NAME).set(attributeName);
+        operations.add(readAttributeOp);
+        invalidate();
+        return operations.size() - 1;
+    }
+
+    /**
+     * Removes a metric from this collector, so that it is no longer read.
+     */
+    synchronized void remove(int index) {
+        if (operations.set(index, null) != null) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Reads the value of a metric.
+     *
+     * @return the response of the {@code read-attribute} operation of the metric
+     */
+    ModelNode read(int index) {
+        final ModelNode operation = operations.get(index);
+        if (operation == null) {
+            // the metric was removed
+            return new ModelNode();
+        }
+        if (ttl <= 0) {
+            return modelControllerClient.execute(operation);
+        }
+        Snapshot current = snapshot;
+        if (current == null || current.isExpired(System.nanoTime())) {
+            current = refresh(current);
+        }
+        ModelNode response = current.get(index);
+        if (response == null) {
+            // the metric was added after the snapshot was read,
+            // or the composite operation did not report an individual outcome for this metric
+            response = modelControllerClient.execute(operation);
+            current.set(index, response);
+        }
+        return response;
+    }
+
+    /**
+     * Reads a new snapshot, unless another thread already replaced the specified expired snapshot.
+     */
+    private synchronized Snapshot refresh(Snapshot expired) {
+        Snapshot current = snapshot;
+        if (current != null && current != expired && !current.isExpired(System.nanoTime())) {
+            return current;
+        }
+        current = readAll();
+        snapshot = current;
+        return current;
+    }
+
+    private Snapshot readAll() {
+        if (compositeOperation == null) {
+            compositeOperation = new ModelNode();
+            compositeOperation.get(OP).set(COMPOSITE);
+            compositeOperation.get(OP_ADDR).setEmptyList();
+            compositeOperation.get(OPERATION_HEADERS, ROLLBACK_ON_RUNTIME_FAILURE).set(false);
+            final ModelNode steps = compositeOperation.get(STEPS).setEmptyList();
+            for (ModelNode operation : operations) {
+                if (operation != null) {
+                    steps.add(operation);
+                }
+            }
+        }
+        final ModelNode response = modelControllerClient.execute(compositeOperation);
+        final Snapshot values = new Snapshot(operations.size(), System.nanoTime() + ttl);
+        int step = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            if (operations.get(i) != null) {
+                step++;
+                final ModelNode stepResponse = response.get(RESULT).get("step-" + step);
+                // a rolled back step reports neither a result nor a failure of its own
+                if (stepResponse.hasDefined(OUTCOME) && (stepResponse.has(RESULT) || isFailure(stepResponse))) {
+                    values.set(i, stepResponse);
+                }
+            }
+        }
+        return values;
+    }
+
+    private static boolean isFailure(ModelNode response) {
+        return FAILED.equals(response.get(OUTCOME).asString()) && response.hasDefined(FAILURE_DESCRIPTION);
+    }
+
+    private void invalidate() {
+        compositeOperation = null;
+        snapshot = null;
+    }
+
+    /**
+     * The responses of the metrics read by a composite operation, valid until their expiration time.
+     */
+    private static class Snapshot {
+        private final AtomicReferenceArray<ModelNode> values;
+        private final long expiration;
+
+        Snapshot(int size, long expiration) {
+            this.values = new AtomicReferenceArray<>(size);
+            this.expiration = expiration;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiration >= 0;
+        }
+
+        ModelNode get(int index) {
+            return (index < values.length()) ? values.get(index) : null;
+        }
+
+        void set(int index, ModelNode response) {
+            if (index < values.length()) {
+                values.set(index, response);
+            }
+        }
+    }
+}
@@ -25,10 +25,6 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATT
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
-import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
-import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
-import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
-import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
@@ -65,7 +61,6 @@ import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
-import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
@@ -79,6 +74,10 @@ import org.jboss.msc.service.StopContext;
 
 public class MetricsRegistrationService implements Service<MetricsRegistrationService> {
 
+    // number of milliseconds during which the values read by a single management operation are reused by the gauges of the WildFly metrics
+    // (only used once the WildFly metrics are registered again, see WFLY-11399)
+    private static final long METRICS_SNAPSHOT_TTL = 1000;
+
     private final ImmutableManagementResourceRegistration rootResourceRegistration;
     private final Resource rootResource;
     private final Supplier<ModelControllerClientFactory> modelControllerClientFactory;
@@ -204,6 +203,7 @@ public class MetricsRegistrationService implements Service<MetricsRegistrationSe
 
     public Set<String> registerMetrics(Map<PathAddress, Map<String, ModelNode>> metrics, MetricRegistry registry, Function<PathAddress, PathAddress> resourceAddressResolver) {
         Set<String> registeredMetricNames = new HashSet<>();
+        MetricCollector collector = new MetricCollector(modelControllerClient, METRICS_SNAPSHOT_TTL);
 
         for (Map.Entry<PathAddress, Map<String, ModelNode>> entry : metrics.entrySet()) {
             PathAddress resourceAddress = resourceAddressResolver.apply(entry.getKey());
@@ -249,18 +249,15 @@ public class MetricsRegistrationService implements Service<MetricsRegistrationSe
                         LOGGER.debugf("Type %s is not supported for MicroProfile Metrics, the attribute %s on %s will not be registered.", type, attributeName, resourceAddress);
                         continue;
                 }
+                final int index = collector.add(resourceAddress, attributeName);
                 Metric metric = new Gauge() {
                     @Override
                     public Number getValue() {
-                        final ModelNode readAttributeOp = new ModelNode();
-                        readAttributeOp.get(OP).set(READ_ATTRIBUTE_OPERATION);
-                        readAttributeOp.get(OP_ADDR).set(resourceAddress.toModelNode());
-                        readAttributeOp.get(ModelDescriptionConstants.INCLUDE_UNDEFINED_METRIC_VALUES).set(true);
-                        readAttributeOp.get(NAME).set(attributeName);
-                        ModelNode response = modelControllerClient.execute(readAttributeOp);
+                        ModelNode response = collector.read(index);
                         String error = getFailureDescription(response);
                         if (error != null) {
                             registry.remove(metricName);
+                            collector.remove(index);
                             throw LOGGER.unableToReadAttribute(attributeName, resourceAddress, error);
                         }
                         ModelNode result = response.get(RESULT);
@@ -280,6 +277,7 @@ public class MetricsRegistrationService implements Service<MetricsRegistrationSe
                             }
                         } else {
                             registry.remove(metricName);
+                            collector.remove(index);
                             throw LOGGER.undefinedMetric(attributeName, resourceAddress);
                         }
                     }
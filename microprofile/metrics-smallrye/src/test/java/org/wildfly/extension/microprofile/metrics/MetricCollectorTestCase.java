@@ -0,0 +1,201 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.microprofile.metrics;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.controller.LocalModelControllerClient;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link MetricCollector}.
+ */
+public class MetricCollectorTestCase {
+
+    private static final PathAddress ADDRESS = PathAddress.pathAddress(PathElement.pathElement("subsystem", "test"));
+
+    private final LocalModelControllerClient client = mock(LocalModelControllerClient.class);
+    // number of executions of each operation, by operation name
+    private final Map<String, AtomicInteger> executions = new ConcurrentHashMap<>();
+    // attributes for which the composite operation reports no individual outcome
+    private final List<String> rolledBack = new ArrayList<>();
+
+    @Before
+    public void init() {
+        when(this.client.execute(any(ModelNode.class))).thenAnswer(invocation -> {
+            ModelNode operation = invocation.getArgument(0);
+            String name = operation.get(OP).asString();
+            int execution = this.executions.computeIfAbsent(name, key -> new AtomicInteger()).incrementAndGet();
+            ModelNode response = new ModelNode();
+            response.get(OUTCOME).set(SUCCESS);
+            if (COMPOSITE.equals(name)) {
+                List<ModelNode> steps = operation.get(STEPS).asList();
+                for (int i = 0; i < steps.size(); i++) {
+                    String attributeName = steps.get(i).get(NAME).asString();
+                    ModelNode stepResponse = response.get(RESULT, "step-" + (i + 1));
+                    if (!this.rolledBack.contains(attributeName)) {
+                        stepResponse.get(OUTCOME).set(SUCCESS);
+                        stepResponse.get(RESULT).set(attributeName + "-" + execution);
+                    }
+                }
+            } else {
+                response.get(RESULT).set(operation.get(NAME).asString() + "-single");
+            }
+            return response;
+        });
+    }
+
+    private int executions(String operationName) {
+        AtomicInteger count = this.executions.get(operationName);
+        return (count != null) ? count.get() : 0;
+    }
+
+    @Test
+    public void snapshot() throws InterruptedException {
+        MetricCollector collector = new MetricCollector(this.client, 100);
+        int foo = collector.add(ADDRESS, "foo");
+        int bar = collector.add(ADDRESS, "bar");
+
+        assertEquals("foo-1", collector.read(foo).get(RESULT).asString());
+        assertEquals("bar-1", collector.read(bar).get(RESULT).asString());
+        assertEquals("foo-1", collector.read(foo).get(RESULT).asString());
+        assertEquals(1, executions(COMPOSITE));
+        assertEquals(0, executions(READ_ATTRIBUTE_OPERATION));
+
+        // Once expired, the snapshot is read again
+        TimeUnit.MILLISECONDS.sleep(200);
+
+        assertEquals("bar-2", collector.read(bar).get(RESULT).asString());
+        assertEquals("foo-2", collector.read(foo).get(RESULT).asString());
+        assertEquals(2, executions(COMPOSITE));
+        assertEquals(0, executions(READ_ATTRIBUTE_OPERATION));
+    }
+
+    @Test
+    public void noSnapshot() {
+        MetricCollector collector = new MetricCollector(this.client, 0);
+        int foo = collector.add(ADDRESS, "foo");
+
+        assertEquals("foo-single", collector.read(foo).get(RESULT).asString());
+        assertEquals("foo-single", collector.read(foo).get(RESULT).asString());
+        assertEquals(0, executions(COMPOSITE));
+        assertEquals(2, executions(READ_ATTRIBUTE_OPERATION));
+    }
+
+    @Test
+    public void missingOutcome() {
+        this.rolledBack.add("bar");
+        MetricCollector collector = new MetricCollector(this.client, TimeUnit.MINUTES.toMillis(1));
+        int foo = collector.add(ADDRESS, "foo");
+        int bar = collector.add(ADDRESS, "bar");
+
+        assertEquals("foo-1", collector.read(foo).get(RESULT).asString());
+        // Falls back to reading the metric alone, and reuses the result until the snapshot expires
+        assertEquals("bar-single", collector.read(bar).get(RESULT).asString());
+        assertEquals("bar-single", collector.read(bar).get(RESULT).asString());
+        assertEquals(1, executions(COMPOSITE));
+        assertEquals(1, executions(READ_ATTRIBUTE_OPERATION));
+    }
+
+    @Test
+    public void addAndRemove() {
+        MetricCollector collector = new MetricCollector(this.client, TimeUnit.MINUTES.toMillis(1));
+        int foo = collector.add(ADDRESS, "foo");
+
+        assertEquals("foo-1", collector.read(foo).get(RESULT).asString());
+
+        // Adding a metric invalidates the snapshot
+        int bar = collector.add(ADDRESS, "bar");
+
+        assertEquals("bar-2", collector.read(bar).get(RESULT).asString());
+        assertEquals("foo-2", collector.read(foo).get(RESULT).asString());
+
+        // A removed metric is no longer read
+        collector.remove(foo);
+
+        assertFalse(collector.read(foo).isDefined());
+        assertEquals("bar-3", collector.read(bar).get(RESULT).asString());
+        assertEquals(3, executions(COMPOSITE));
+    }
+
+    @Test
+    public void concurrentReads() throws Exception {
+        MetricCollector collector = new MetricCollector(this.client, TimeUnit.MINUTES.toMillis(1));
+        int metrics = 10;
+        for (int i = 0; i < metrics; i++) {
+            collector.add(ADDRESS, "metric" + i);
+        }
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < 1000; j++) {
+                        int index = j % metrics;
+                        assertEquals("metric" + index + "-1", collector.read(index).get(RESULT).asString());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // Concurrent scrapes share a single snapshot
+        assertEquals(1, executions(COMPOSITE));
+        assertEquals(0, executions(READ_ATTRIBUTE_OPERATION));
+    }
+}
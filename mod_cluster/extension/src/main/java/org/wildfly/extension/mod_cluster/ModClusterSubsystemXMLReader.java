@@ -401,6 +401,9 @@ final class ModClusterSubsystemXMLReader implements XMLElementReader<List<ModelN
             XMLAttribute attribute = XMLAttribute.forName(reader.getAttributeLocalName(i));
             switch (attribute) {
                 case TYPE: {
+                    if (type.equals(LoadMetricEnum.RESPONSE_TIME.getType()) && !schema.since(ModClusterSchema.MODCLUSTER_5_0)) {
+                        throw ParseUtils.invalidAttributeValue(reader, i);
+                    }
                     // TODO polish this being both path and required attribute
                     readAttribute(reader, i, operation, LoadMetricResourceDefinition.Attribute.TYPE);
                     break;
@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.mod_cluster;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free histogram of response times, with logarithmic buckets.
+ * Each power of 2 of microseconds is divided into {@value #SUB_BUCKETS} buckets, bounding the relative error of a recorded value to 25%.
+ * Counts are cumulative, such that any number of readers can compute the responses recorded since their previous read.
+ * Requests that were started but have not yet completed are tracked separately, so that readers can account for requests that hang.
+ */
+public class ResponseTimeHistogram {
+
+    /** Histogram of the responses of all web deployments of this node. */
+    public static final ResponseTimeHistogram INSTANCE = new ResponseTimeHistogram();
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Response times of 2^41 microseconds (~25 days) or more are recorded in the last bucket
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKETS = MAX_EXPONENT * SUB_BUCKETS;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final Set<Request> requests = ConcurrentHashMap.newKeySet();
+    private final LongSupplier ticker;
+
+    public ResponseTimeHistogram() {
+        this(System::nanoTime);
+    }
+
+    ResponseTimeHistogram(LongSupplier ticker) {
+        this.ticker = ticker;
+        for (int i = 0; i < BUCKETS; ++i) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a response time.
+     * @param duration a response time
+     * @param unit the unit of the response time
+     */
+    public void record(long duration, TimeUnit unit) {
+        this.buckets[index(unit.toMicros(duration))].increment();
+    }
+
+    /**
+     * Records the start of a request, whose response time is recorded once it completes.
+     * @return a request in progress
+     */
+    public Request start() {
+        Request request = new Request(this.ticker.getAsLong());
+        this.requests.add(request);
+        return request;
+    }
+
+    /**
+     * Returns the number of requests in progress in each bucket, according to the time elapsed since their start.
+     * @return an array of counts, indexed by bucket
+     */
+    long[] getInProgressCounts() {
+        long[] counts = new long[BUCKETS];
+        long now = this.ticker.getAsLong();
+        for (Request request : this.requests) {
+            counts[index(TimeUnit.NANOSECONDS.toMicros(now - request.start))] += 1;
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the number of responses recorded in each bucket since this histogram was created.
+     * @return an array of cumulative counts, indexed by bucket
+     */
+    long[] getCounts() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; ++i) {
+            counts[i] = this.buckets[i].sum();
+        }
+        return counts;
+    }
+
+    static int index(long micros) {
+        if (micros < SUB_BUCKETS) return (int) Math.max(micros, 0L);
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT) return BUCKETS - 1;
+        // The bits following the most significant bit select the sub-bucket
+        int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return ((exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS) + subBucket;
+    }
+
+    /**
+     * Returns the exclusive upper bound of the response times recorded in the specified bucket.
+     * @param index a bucket index
+     * @return a response time in microseconds
+     */
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) return index + 1;
+        int exponent = (index / SUB_BUCKETS) + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        return (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * A request in progress.
+     */
+    public class Request {
+        final long start;
+
+        Request(long start) {
+            this.start = start;
+        }
+
+        /**
+         * Records the response time of this request.
+         */
+        public void complete() {
+            if (ResponseTimeHistogram.this.requests.remove(this)) {
+                ResponseTimeHistogram.this.record(ResponseTimeHistogram.this.ticker.getAsLong() - this.start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.mod_cluster;
+
+import org.jboss.modcluster.container.Engine;
+import org.jboss.modcluster.load.metric.impl.AbstractLoadMetric;
+
+/**
+ * Load metric reporting a percentile of the response times of this node, in milliseconds.
+ * Response times recorded since the previous computation of the load are merged into an exponentially decayed histogram,
+ * so that the reported percentile favors recent responses.
+ * Requests still in progress for longer than the reported percentile are counted as responses of their current duration,
+ * so that a node whose requests hang reports an increasing load, rather than the load of its last completed responses.
+ * Requests in progress for longer than a multiple of the capacity are ignored, so that long-lived requests, e.g. server-sent
+ * events or long polling, do not report an otherwise idle node as fully loaded for as long as they remain open.
+ * Once a node has not recorded any responses for long enough that the decayed histogram is empty, and has no requests in
+ * progress, its load is 0, so that a node that was once slow can receive requests again.
+ * Requires an explicit capacity, i.e. the response time at which the node is considered fully loaded.
+ */
+public class ResponseTimeLoadMetric extends AbstractLoadMetric {
+
+    public static final double DEFAULT_PERCENTILE = 0.95;
+    public static final double DEFAULT_DECAY_FACTOR = 0.5;
+    public static final double DEFAULT_IN_PROGRESS_FACTOR = 10;
+
+    private final ResponseTimeHistogram histogram;
+    // Cumulative counts of the histogram as of the previous computation
+    private long[] previousCounts = new long[ResponseTimeHistogram.BUCKETS];
+    private final double[] decayedCounts = new double[ResponseTimeHistogram.BUCKETS];
+
+    private volatile double percentile = DEFAULT_PERCENTILE;
+    private volatile double decayFactor = DEFAULT_DECAY_FACTOR;
+    private volatile double inProgressFactor = DEFAULT_IN_PROGRESS_FACTOR;
+
+    public ResponseTimeLoadMetric() {
+        this(ResponseTimeHistogram.INSTANCE);
+    }
+
+    ResponseTimeLoadMetric(ResponseTimeHistogram histogram) {
+        this.histogram = histogram;
+    }
+
+    /**
+     * Sets the percentile of response times reported by this metric, e.g. 0.99.
+     * @param percentile a value between 0 (exclusive) and 1 (inclusive)
+     */
+    public void setPercentile(double percentile) {
+        if ((percentile <= 0) || (percentile > 1)) {
+            throw new IllegalArgumentException(String.valueOf(percentile));
+        }
+        this.percentile = percentile;
+    }
+
+    public double getPercentile() {
+        return this.percentile;
+    }
+
+    /**
+     * Sets the factor by which the weight of previously recorded responses decays with each computation of the load.
+     * @param decayFactor a value between 0 (inclusive), i.e. consider only the most recent responses, and 1 (exclusive)
+     */
+    public void setDecayFactor(double decayFactor) {
+        if ((decayFactor < 0) || (decayFactor >= 1)) {
+            throw new IllegalArgumentException(String.valueOf(decayFactor));
+        }
+        this.decayFactor = decayFactor;
+    }
+
+    public double getDecayFactor() {
+        return this.decayFactor;
+    }
+
+    /**
+     * Sets the multiple of the capacity beyond which requests still in progress are ignored.
+     * @param inProgressFactor a non-negative value, where 0 ignores all requests in progress
+     */
+    public void setInProgressFactor(double inProgressFactor) {
+        if (inProgressFactor < 0) {
+            throw new IllegalArgumentException(String.valueOf(inProgressFactor));
+        }
+        this.inProgressFactor = inProgressFactor;
+    }
+
+    public double getInProgressFactor() {
+        return this.inProgressFactor;
+    }
+
+    @Override
+    public synchronized double getLoad(Engine engine) {
+        // Read requests in progress first, so that a request completing concurrently is counted at least once
+        long[] inProgressCounts = this.histogram.getInProgressCounts();
+        long[] counts = this.histogram.getCounts();
+        double decayFactor = this.decayFactor;
+        double percentile = this.percentile;
+        // Capacity is expressed in milliseconds, whereas the histogram records microseconds
+        long maxInProgressMicros = (long) (this.getCapacity() * this.inProgressFactor * 1000);
+        double total = 0;
+        for (int i = 0; i < counts.length; ++i) {
+            this.decayedCounts[i] = (this.decayedCounts[i] * decayFactor) + (counts[i] - this.previousCounts[i]);
+            total += this.decayedCounts[i];
+        }
+        this.previousCounts = counts;
+
+        // A request in progress takes at least as long as it has been running so far
+        // Only count those running longer than the percentile of completed responses, so that they can only increase it
+        // If less than a single response remains, count all requests in progress
+        // Ignore those running longer than the configured multiple of the capacity
+        int start = (total < 1) ? 0 : percentileIndex(this.decayedCounts, total, percentile);
+        int end = (maxInProgressMicros > 0) ? ResponseTimeHistogram.index(maxInProgressMicros) : 0;
+        double[] loadCounts = this.decayedCounts.clone();
+        for (int i = start; i < end; ++i) {
+            loadCounts[i] += inProgressCounts[i];
+            total += inProgressCounts[i];
+        }
+
+        // Less than a single response remains and no request in progress counts
+        if (total < 1) return 0;
+
+        return ResponseTimeHistogram.upperBound(percentileIndex(loadCounts, total, percentile)) / 1000d;
+    }
+
+    private static int percentileIndex(double[] counts, double total, double percentile) {
+        double threshold = total * percentile;
+        double cumulative = 0;
+        for (int i = 0; i < counts.length; ++i) {
+            cumulative += counts[i];
+            if (cumulative >= threshold) {
+                return i;
+            }
+        }
+        // Only reachable due to rounding errors
+        return counts.length - 1;
+    }
+}
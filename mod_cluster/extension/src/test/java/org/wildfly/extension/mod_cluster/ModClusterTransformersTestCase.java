@@ -193,6 +193,10 @@ public class ModClusterTransformersTestCase extends AbstractSubsystemTest {
         PathAddress configurationAddress = subsystemAddress.append(ProxyConfigurationResourceDefinition.pathElement("default"));
         PathAddress dynamicLoadProviderAddress = configurationAddress.append(DynamicLoadProviderResourceDefinition.PATH);
 
+        if (ModClusterModel.VERSION_7_0_0.requiresTransformation(version)) {
+            config.addFailedAttribute(dynamicLoadProviderAddress.append(LoadMetricResourceDefinition.pathElement(LoadMetricEnum.RESPONSE_TIME.getType())), new LoadMetricTypeConfig());
+        }
+
         if (ModClusterModel.VERSION_6_0_0.requiresTransformation(version)) {
 //            config.addFailedAttribute(subsystemAddress.append(ProxyConfigurationResourceDefinition.pathElement("other")), FailedOperationTransformationConfig.REJECTED_RESOURCE);
 
@@ -254,6 +258,27 @@ public class ModClusterTransformersTestCase extends AbstractSubsystemTest {
         }
     }
 
+    static class LoadMetricTypeConfig extends FailedOperationTransformationConfig.AttributesPathAddressConfig<LoadMetricTypeConfig> {
+        LoadMetricTypeConfig() {
+            super(LoadMetricResourceDefinition.Attribute.TYPE.getName());
+        }
+
+        @Override
+        protected boolean isAttributeWritable(String attributeName) {
+            return true;
+        }
+
+        @Override
+        protected boolean checkValue(String attrName, ModelNode attribute, boolean isWriteAttribute) {
+            return attribute.equals(new ModelNode(LoadMetricEnum.RESPONSE_TIME.getType()));
+        }
+
+        @Override
+        protected ModelNode correctValue(ModelNode toResolve, boolean isWriteAttribute) {
+            return new ModelNode(LoadMetricEnum.BUSY_CONNECTORS.getType());
+        }
+    }
+
     static class ModuleAttributeTransformationConfig extends FailedOperationTransformationConfig.AttributesPathAddressConfig<ModuleAttributeTransformationConfig> {
         ModuleAttributeTransformationConfig() {
             super(CustomLoadMetricResourceDefinition.Attribute.MODULE.getName());
@@ -0,0 +1,224 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.mod_cluster;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ResponseTimeLoadMetric}.
+ */
+public class ResponseTimeLoadMetricTestCase {
+
+    private static final int REQUESTS_PER_INTERVAL = 1000;
+
+    @Test
+    public void histogram() {
+        for (long micros = 0; micros < TimeUnit.DAYS.toMicros(1); micros = (micros * 3 / 2) + 1) {
+            int index = ResponseTimeHistogram.index(micros);
+            assertTrue(micros < ResponseTimeHistogram.upperBound(index));
+            if (index > 0) {
+                assertTrue(micros >= ResponseTimeHistogram.upperBound(index - 1));
+            }
+        }
+        assertEquals(ResponseTimeHistogram.BUCKETS - 1, ResponseTimeHistogram.index(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void idle() {
+        ResponseTimeLoadMetric metric = new ResponseTimeLoadMetric(new ResponseTimeHistogram());
+
+        assertEquals(0d, metric.getLoad(null), 0d);
+    }
+
+    /**
+     * Simulates three nodes receiving the same rate of requests, one of which is temporarily slow.
+     */
+    @Test
+    public void slowNode() {
+        Random random = new Random(0);
+        ResponseTimeHistogram[] histograms = new ResponseTimeHistogram[3];
+        ResponseTimeLoadMetric[] metrics = new ResponseTimeLoadMetric[3];
+        for (int i = 0; i < histograms.length; ++i) {
+            histograms[i] = new ResponseTimeHistogram();
+            metrics[i] = new ResponseTimeLoadMetric(histograms[i]);
+        }
+
+        double[] loads = new double[3];
+        for (int interval = 0; interval < 5; ++interval) {
+            record(random, histograms[0], 10);
+            record(random, histograms[1], 10);
+            record(random, histograms[2], 200);
+            for (int i = 0; i < metrics.length; ++i) {
+                loads[i] = metrics[i].getLoad(null);
+            }
+        }
+        // The 95th percentile of responses uniformly distributed between 0 and 10ms is ~10ms
+        assertEquals(10d, loads[0], 2.5d);
+        assertEquals(10d, loads[1], 2.5d);
+        assertTrue(loads[2] > 10 * loads[0]);
+        assertTrue(loads[2] > 10 * loads[1]);
+
+        // Slow node recovers
+        for (int interval = 0; interval < 10; ++interval) {
+            for (ResponseTimeHistogram histogram : histograms) {
+                record(random, histogram, 10);
+            }
+            for (int i = 0; i < metrics.length; ++i) {
+                loads[i] = metrics[i].getLoad(null);
+            }
+        }
+        assertEquals(loads[0], loads[2], 2.5d);
+        assertEquals(loads[1], loads[2], 2.5d);
+
+        // Once idle long enough, nodes report no load
+        for (int interval = 0; interval < 20; ++interval) {
+            for (int i = 0; i < metrics.length; ++i) {
+                loads[i] = metrics[i].getLoad(null);
+            }
+        }
+        for (double load : loads) {
+            assertEquals(0d, load, 0d);
+        }
+    }
+
+    @Test
+    public void inProgress() {
+        AtomicLong time = new AtomicLong();
+        ResponseTimeHistogram histogram = new ResponseTimeHistogram(time::get);
+        ResponseTimeLoadMetric metric = new ResponseTimeLoadMetric(histogram);
+        metric.setCapacity(1000);
+
+        ResponseTimeHistogram.Request request = histogram.start();
+        time.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        // Without any responses, a request in progress counts for its current duration
+        assertEquals(1000d, metric.getLoad(null), 250d);
+
+        time.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        request.complete();
+        // Completing a request more than once records a single response
+        request.complete();
+
+        assertEquals(2000d, metric.getLoad(null), 500d);
+        assertEquals(1L, sum(histogram.getCounts()));
+        assertEquals(0L, sum(histogram.getInProgressCounts()));
+    }
+
+    /**
+     * Simulates a node whose requests start to hang.
+     */
+    @Test
+    public void hungNode() {
+        Random random = new Random(0);
+        AtomicLong time = new AtomicLong();
+        ResponseTimeHistogram histogram = new ResponseTimeHistogram(time::get);
+        ResponseTimeLoadMetric metric = new ResponseTimeLoadMetric(histogram);
+        metric.setCapacity(1000);
+
+        record(random, histogram, 10);
+        List<ResponseTimeHistogram.Request> requests = new ArrayList<>(REQUESTS_PER_INTERVAL);
+        for (int i = 0; i < REQUESTS_PER_INTERVAL; ++i) {
+            requests.add(histogram.start());
+        }
+        time.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+
+        // Requests in progress for less than the percentile do not lower it
+        assertEquals(10d, metric.getLoad(null), 2.5d);
+
+        // No requests complete, though for less than 10 times the capacity
+        double load = 0;
+        for (int interval = 0; interval < 5; ++interval) {
+            time.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            double previousLoad = load;
+            load = metric.getLoad(null);
+            assertTrue(load >= previousLoad);
+        }
+        assertEquals(5000d, load, 1250d);
+
+        // Hung requests eventually complete
+        for (ResponseTimeHistogram.Request request : requests) {
+            request.complete();
+        }
+        assertEquals(5000d, metric.getLoad(null), 1250d);
+
+        // Once idle long enough, the node reports no load
+        for (int interval = 0; interval < 20; ++interval) {
+            load = metric.getLoad(null);
+        }
+        assertEquals(0d, load, 0d);
+    }
+
+    /**
+     * Simulates an idle node with a single long-lived request, e.g. server-sent events.
+     */
+    @Test
+    public void longLivedRequest() {
+        AtomicLong time = new AtomicLong();
+        ResponseTimeHistogram histogram = new ResponseTimeHistogram(time::get);
+        ResponseTimeLoadMetric metric = new ResponseTimeLoadMetric(histogram);
+        metric.setCapacity(1000);
+
+        histogram.start();
+
+        // Counts while running for less than 10 times the capacity
+        time.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1000d, metric.getLoad(null), 250d);
+
+        // Ignored beyond 10 times the capacity, such that the idle node reports no load
+        time.addAndGet(TimeUnit.SECONDS.toNanos(12));
+        assertEquals(0d, metric.getLoad(null), 0d);
+
+        time.addAndGet(TimeUnit.HOURS.toNanos(1));
+        assertEquals(0d, metric.getLoad(null), 0d);
+
+        // A factor of 0 ignores requests in progress altogether
+        metric.setInProgressFactor(0);
+        histogram.start();
+        time.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0d, metric.getLoad(null), 0d);
+    }
+
+    private static long sum(long[] counts) {
+        long sum = 0;
+        for (long count : counts) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    private static void record(Random random, ResponseTimeHistogram histogram, int maxMillis) {
+        long maxMicros = TimeUnit.MILLISECONDS.toMicros(maxMillis);
+        for (int i = 0; i < REQUESTS_PER_INTERVAL; ++i) {
+            histogram.record((long) (random.nextDouble() * maxMicros), TimeUnit.MICROSECONDS);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.naming;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit and miss counters of the lookup caches of all {@link ServiceBasedNamingStore}s.
+ */
+public final class LookupCacheStatistics {
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+
+    private LookupCacheStatistics() {
+    }
+
+    static void recordHit() {
+        HITS.increment();
+    }
+
+    static void recordMiss() {
+        MISSES.increment();
+    }
+
+    /**
+     * @return the number of lookups that were resolved from a lookup cache
+     */
+    public static long getHits() {
+        return HITS.sum();
+    }
+
+    /**
+     * @return the number of lookups that had to be resolved against the service registry
+     */
+    public static long getMisses() {
+        return MISSES.sum();
+    }
+}
@@ -30,7 +30,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.NavigableSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.naming.Binding;
 import javax.naming.CannotProceedException;
@@ -65,6 +68,12 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     private ConcurrentSkipListSet<ServiceName> boundServices = new ConcurrentSkipListSet<ServiceName>();
 
+    // Caches the binder service controllers of successful direct lookups, keyed by the looked up name.
+    // The cache is invalidated whenever a binding is added or removed; the version allows lookups that
+    // raced with an invalidation to detect that the controller they resolved may be stale.
+    private final ConcurrentMap<Name, ServiceController<?>> lookupCache = new ConcurrentHashMap<Name, ServiceController<?>>();
+    private final AtomicLong bindingsVersion = new AtomicLong();
+
     public ServiceBasedNamingStore(final ServiceRegistry serviceRegistry, final ServiceName serviceNameBase) {
         this.serviceRegistry = serviceRegistry;
         this.serviceNameBase = serviceNameBase;
@@ -79,9 +88,22 @@ public class ServiceBasedNamingStore implements NamingStore {
         if (name.isEmpty()) {
             return new NamingContext(EMPTY_NAME, this, null);
         }
+        final ServiceController<?> cachedController = lookupCache.get(name);
+        if (cachedController != null) {
+            if (cachedController.getState() != ServiceController.State.REMOVED) {
+                LookupCacheStatistics.recordHit();
+                return lookup(name.toString(), cachedController, dereference);
+            }
+            lookupCache.remove(name, cachedController);
+        }
+        LookupCacheStatistics.recordMiss();
+        final long version = bindingsVersion.get();
         final ServiceName lookupName = buildServiceName(name);
-        Object obj = lookup(name.toString(), lookupName, dereference);
-        if (obj == null) {
+        final ServiceController<?> controller = serviceRegistry.getService(lookupName);
+        Object obj = lookup(name.toString(), controller, dereference);
+        if (obj != null) {
+            cacheLookup(name, controller, version);
+        } else {
             final ServiceName lower = boundServices.lower(lookupName);
             if (lower != null && lower.isParentOf(lookupName)) {
                 // Parent might be a reference or a link
@@ -109,6 +131,22 @@ public class ServiceBasedNamingStore implements NamingStore {
         return obj;
     }
 
+    private void cacheLookup(final Name name, final ServiceController<?> controller, final long version) {
+        if (bindingsVersion.get() == version) {
+            final Name key = (Name) name.clone();
+            lookupCache.put(key, controller);
+            if (bindingsVersion.get() != version) {
+                // a binding changed concurrently, and its invalidation may have preceded our put
+                lookupCache.remove(key, controller);
+            }
+        }
+    }
+
+    private void invalidateLookupCache() {
+        bindingsVersion.incrementAndGet();
+        lookupCache.clear();
+    }
+
     private void checkReferenceForContinuation(final Name name, final Object object) throws CannotProceedException {
         if (object instanceof Reference) {
             if (((Reference) object).get("nns") != null) {
@@ -125,8 +163,11 @@ public class ServiceBasedNamingStore implements NamingStore {
     }
 
     private Object lookup(final String name, final ServiceName lookupName, boolean dereference) throws NamingException {
+        return lookup(name, serviceRegistry.getService(lookupName), dereference);
+    }
+
+    private Object lookup(final String name, final ServiceController<?> controller, boolean dereference) throws NamingException {
         try {
-            final ServiceController<?> controller = serviceRegistry.getService(lookupName);
             if (controller != null) {
                 final Object object = controller.getValue();
                 if (dereference && object instanceof ManagedReferenceFactory) {
@@ -257,6 +298,7 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     public void close() throws NamingException {
         boundServices.clear();
+        invalidateLookupCache();
     }
 
     public void addNamingListener(Name target, int scope, NamingListener listener) {
@@ -271,10 +313,12 @@ public class ServiceBasedNamingStore implements NamingStore {
             throw NamingLogger.ROOT_LOGGER.serviceAlreadyBound(serviceName);
         }
         boundServices.add(serviceName);
+        invalidateLookupCache();
     }
 
     public void remove(final ServiceName serviceName) {
         boundServices.remove(serviceName);
+        invalidateLookupCache();
     }
 
     protected ServiceName buildServiceName(final Name name) {
@@ -206,6 +206,14 @@ public class SecuritySubsystemParser implements XMLStreamConstants, XMLElementRe
         return list;
     }
 
+    /**
+     * Reads an attribute of the {@code security-domain} element that is not known to this version of the schema.
+     * Subclasses override this method to support the attributes introduced by later versions of the schema.
+     */
+    protected void readSecurityDomainAttribute(XMLExtendedStreamReader reader, int index, Attribute attribute, String value, ModelNode op) throws XMLStreamException {
+        throw unexpectedAttribute(reader, index);
+    }
+
     private void parseSecurityDomain(List<ModelNode> list, XMLExtendedStreamReader reader, PathAddress parentAddress) throws XMLStreamException {
         ModelNode op = Util.createAddOperation();
         list.add(op);
@@ -230,7 +238,7 @@ public class SecuritySubsystemParser implements XMLStreamConstants, XMLElementRe
                     break;
                 }
                 default:
-                    throw unexpectedAttribute(reader, i);
+                    readSecurityDomainAttribute(reader, i, attribute, value, op);
             }
         }
 
@@ -0,0 +1,54 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.security;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLExtendedStreamReader;
+
+/**
+ * This class implements a parser for the 3.0 version of legacy security subsystem. It extends the {@link SecuritySubsystemParser_2_0}
+ * and adds support for the {@code cache-max-entries} and {@code cache-lifespan} attributes of the {@code security-domain} element.
+ */
+public class SecuritySubsystemParser_3_0 extends SecuritySubsystemParser_2_0 {
+
+    protected SecuritySubsystemParser_3_0() {
+    }
+
+    @Override
+    protected void readSecurityDomainAttribute(XMLExtendedStreamReader reader, int index, Attribute attribute, String value, ModelNode op) throws XMLStreamException {
+        switch (attribute) {
+            case CACHE_MAX_ENTRIES: {
+                SecurityDomainResourceDefinition.CACHE_MAX_ENTRIES.parseAndSetParameter(value, op, reader);
+                break;
+            }
+            case CACHE_LIFESPAN: {
+                SecurityDomainResourceDefinition.CACHE_LIFESPAN.parseAndSetParameter(value, op, reader);
+                break;
+            }
+            default: {
+                super.readSecurityDomainAttribute(reader, index, attribute, value, op);
+            }
+        }
+    }
+}
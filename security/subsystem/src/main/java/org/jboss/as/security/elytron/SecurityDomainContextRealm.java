@@ -52,7 +52,7 @@ import org.wildfly.security.evidence.PasswordGuessEvidence;
  * how to export a realm for the security domain {@code mydomain}:
  *
  * <pre>
- *     &lt;subsystem xmlns="urn:jboss:domain:security:2.0"&gt;
+ *     &lt;subsystem xmlns="urn:jboss:domain:security:3.0"&gt;
  *         &lt;security-domains&gt;
  *             &lt;security-domain name="mydomain" cache-type="default"&gt;
  *                 ...
@@ -0,0 +1,101 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.security.lru;
+
+/**
+ * A probabilistic estimate of the recent access frequency of cache keys, based on a count-min sketch of 4-bit counters.
+ * <p/>
+ * Each key is counted in 4 rows, and its frequency is estimated as the minimum of its counters.
+ * Once the number of increments reaches the sample size, all counters are halved, so that the history ages.
+ * <p/>
+ * This class is not thread-safe.
+ */
+final class FrequencySketch {
+    private static final long[] SEEDS = new long[] { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int size;
+
+    FrequencySketch(int maxEntries) {
+        int capacity = Integer.highestOneBit(Math.max(maxEntries - 1, 8)) << 1;
+        this.table = new long[capacity];
+        this.tableMask = capacity - 1;
+        this.sampleSize = capacity * 10;
+    }
+
+    /**
+     * Returns the estimated number of occurrences of the specified key, up to 15.
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < SEEDS.length; ++i) {
+            int shift = (start + i) << 2;
+            int count = (int) ((this.table[this.indexOf(hash, i)] >>> shift) & MAX_COUNT);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments the counters of the specified key, unless they are already saturated.
+     */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        int start = (hash & 3) << 2;
+        boolean incremented = false;
+        for (int i = 0; i < SEEDS.length; ++i) {
+            int index = this.indexOf(hash, i);
+            int shift = (start + i) << 2;
+            if (((this.table[index] >>> shift) & MAX_COUNT) < MAX_COUNT) {
+                this.table[index] += 1L << shift;
+                incremented = true;
+            }
+        }
+        if (incremented && (++this.size == this.sampleSize)) {
+            this.reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < this.table.length; ++i) {
+            this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+        }
+        this.size /= 2;
+    }
+
+    private int indexOf(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return ((int) h) & this.tableMask;
+    }
+
+    private static int spread(int hashCode) {
+        int h = hashCode * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+}
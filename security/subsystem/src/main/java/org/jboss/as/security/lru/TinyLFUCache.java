@@ -0,0 +1,533 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.security.lru;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded cache using the W-TinyLFU admission and eviction policy.
+ * <p/>
+ * New entries enter a small LRU admission window. Entries leaving the window compete with the least recently used entry
+ * of the main segmented LRU for admission, which is granted to whichever has the higher estimated access frequency.
+ * This retains frequently used entries under high cardinality or scanning workloads, where pure LRU degrades.
+ * <p/>
+ * Reads never block: access order and frequency are only recorded if the eviction lock is immediately available.
+ * Entries may optionally expire after a fixed lifespan since they were last written.
+ */
+public class TinyLFUCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+    private static final int WINDOW_PERCENTAGE = 1;
+    private static final int PROTECTED_PERCENTAGE = 80;
+
+    private final int maxEntries;
+    private final int maxWindow;
+    private final int maxProtected;
+    private final long lifespanNanos;
+    private final RemoveCallback<K, V> removeCallback;
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final AccessOrderDeque<K, V> window = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> probation = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> protectedSegment = new AccessOrderDeque<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public TinyLFUCache(int maxEntries) {
+        this(maxEntries, 0, TimeUnit.MILLISECONDS, null);
+    }
+
+    public TinyLFUCache(int maxEntries, RemoveCallback<K, V> removeCallback) {
+        this(maxEntries, 0, TimeUnit.MILLISECONDS, removeCallback);
+    }
+
+    /**
+     * @param maxEntries the maximum number of entries
+     * @param lifespan the duration after which an entry expires since it was last written, or 0 if entries should not expire
+     * @param unit the unit of the lifespan
+     * @param removeCallback an optional callback to notify of removed entries
+     */
+    public TinyLFUCache(int maxEntries, long lifespan, TimeUnit unit, RemoveCallback<K, V> removeCallback) {
+        this.maxEntries = Math.max(maxEntries, 1);
+        this.maxWindow = Math.max(this.maxEntries * WINDOW_PERCENTAGE / 100, 1);
+        this.maxProtected = (this.maxEntries - this.maxWindow) * PROTECTED_PERCENTAGE / 100;
+        this.lifespanNanos = unit.toNanos(lifespan);
+        this.removeCallback = removeCallback;
+        this.sketch = new FrequencySketch(this.maxEntries);
+    }
+
+    @Override
+    public V get(Object key) {
+        Node<K, V> node = this.data.get(key);
+        if ((node == null) || this.expireIfNecessary(node)) {
+            this.misses.increment();
+            return null;
+        }
+        this.hits.increment();
+        this.afterRead(node);
+        return node.value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        Node<K, V> node = this.data.get(key);
+        return (node != null) && !node.isExpired(System.nanoTime());
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return this.put(key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return this.put(key, value, true);
+    }
+
+    private V put(K key, V value, boolean ifAbsent) {
+        long expiration = this.expiration();
+        while (true) {
+            Node<K, V> node = this.data.get(key);
+            if (node == null) {
+                Node<K, V> newNode = new Node<>(key, value, expiration);
+                node = this.data.putIfAbsent(key, newNode);
+                if (node == null) {
+                    this.afterWrite(newNode);
+                    return null;
+                }
+            }
+            if (this.expireIfNecessary(node)) {
+                continue;
+            }
+            V old = node.value;
+            if (!ifAbsent) {
+                node.value = value;
+                node.expiration = expiration;
+            }
+            this.afterRead(node);
+            return old;
+        }
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        Node<K, V> node = this.data.get(key);
+        if ((node == null) || this.expireIfNecessary(node)) return null;
+
+        V old = node.value;
+        node.value = value;
+        node.expiration = this.expiration();
+        this.afterRead(node);
+        if (this.removeCallback != null) {
+            this.removeCallback.afterRemove(key, old);
+        }
+        return old;
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        Node<K, V> node = this.data.get(key);
+        if ((node == null) || this.expireIfNecessary(node) || !node.compareAndSetValue(oldValue, newValue)) {
+            return false;
+        }
+        node.expiration = this.expiration();
+        this.afterRead(node);
+        if (this.removeCallback != null) {
+            this.removeCallback.afterRemove(key, oldValue);
+        }
+        return true;
+    }
+
+    @Override
+    public V remove(Object key) {
+        Node<K, V> node = this.data.remove(key);
+        if (node == null) return null;
+
+        this.unlink(node);
+        if (this.removeCallback != null) {
+            this.removeCallback.afterRemove(node.key, node.value);
+        }
+        return node.value;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        Node<K, V> node = this.data.get(key);
+        if ((node == null) || (node.value != value) || !this.data.remove(key, node)) {
+            return false;
+        }
+        this.unlink(node);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (K key : this.data.keySet()) {
+            this.remove(key);
+        }
+    }
+
+    @Override
+    public int size() {
+        return this.data.size();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    /**
+     * Returns the number of lookups that found a live entry.
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that did not find a live entry.
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Returns the number of entries evicted due to the size bound.
+     */
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    private long expiration() {
+        return (this.lifespanNanos > 0) ? System.nanoTime() + this.lifespanNanos : 0;
+    }
+
+    /**
+     * Removes the specified node if it has expired.
+     * @return true, if the node expired, false otherwise
+     */
+    private boolean expireIfNecessary(Node<K, V> node) {
+        if (!node.isExpired(System.nanoTime())) return false;
+
+        if (this.data.remove(node.key, node)) {
+            this.unlink(node);
+            if (this.removeCallback != null) {
+                this.removeCallback.afterRemove(node.key, node.value);
+            }
+        }
+        return true;
+    }
+
+    private void afterRead(Node<K, V> node) {
+        // Never block a reader, we can afford to lose some access history
+        if (this.evictionLock.tryLock()) {
+            try {
+                this.sketch.increment(node.key);
+                this.onAccess(node);
+            } finally {
+                this.evictionLock.unlock();
+            }
+        }
+    }
+
+    private void afterWrite(Node<K, V> node) {
+        List<Node<K, V>> evicted;
+        this.evictionLock.lock();
+        try {
+            this.sketch.increment(node.key);
+            // Node may have been removed concurrently, before we got the lock
+            if (node.removed) return;
+            this.window.add(node, Region.WINDOW);
+            evicted = this.evict();
+        } finally {
+            this.evictionLock.unlock();
+        }
+        if (this.removeCallback != null) {
+            for (Node<K, V> victim : evicted) {
+                this.removeCallback.afterRemove(victim.key, victim.value);
+            }
+        }
+    }
+
+    private void unlink(Node<K, V> node) {
+        this.evictionLock.lock();
+        try {
+            node.removed = true;
+            this.deque(node.region).remove(node);
+        } finally {
+            this.evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Records an access of the specified node. Must be called while holding the eviction lock.
+     */
+    private void onAccess(Node<K, V> node) {
+        if (node.region == null) return;
+        switch (node.region) {
+            case PROBATION: {
+                // Promote to the protected segment, demoting its least recently used entries if necessary
+                this.probation.remove(node);
+                this.protectedSegment.add(node, Region.PROTECTED);
+                while (this.protectedSegment.size() > this.maxProtected) {
+                    this.probation.add(this.protectedSegment.poll(), Region.PROBATION);
+                }
+                break;
+            }
+            default: {
+                this.deque(node.region).moveToBack(node);
+            }
+        }
+    }
+
+    /**
+     * Moves entries overflowing the admission window into the main segment, and evicts entries while the cache exceeds its bound.
+     * Must be called while holding the eviction lock.
+     * @return the evicted nodes
+     */
+    private List<Node<K, V>> evict() {
+        int candidates = 0;
+        while (this.window.size() > this.maxWindow) {
+            this.probation.add(this.window.poll(), Region.PROBATION);
+            candidates += 1;
+        }
+        List<Node<K, V>> evicted = Collections.emptyList();
+        while (this.window.size() + this.probation.size() + this.protectedSegment.size() > this.maxEntries) {
+            Node<K, V> victim = this.probation.peekFirst();
+            if (victim == null) {
+                victim = (this.protectedSegment.size() > 0) ? this.protectedSegment.peekFirst() : this.window.peekFirst();
+            } else if (candidates > 0) {
+                // The most recent window entry competes against the least recently used probationary entry
+                Node<K, V> candidate = this.probation.peekLast();
+                candidates -= 1;
+                if ((candidate != victim) && (this.sketch.frequency(candidate.key) <= this.sketch.frequency(victim.key))) {
+                    victim = candidate;
+                }
+            }
+            this.deque(victim.region).remove(victim);
+            victim.removed = true;
+            if (this.data.remove(victim.key, victim)) {
+                this.evictions.increment();
+                if (evicted.isEmpty()) {
+                    evicted = new ArrayList<>(1);
+                }
+                evicted.add(victim);
+            }
+        }
+        return evicted;
+    }
+
+    private AccessOrderDeque<K, V> deque(Region region) {
+        if (region == null) return AccessOrderDeque.empty();
+        switch (region) {
+            case WINDOW: return this.window;
+            case PROBATION: return this.probation;
+            default: return this.protectedSegment;
+        }
+    }
+
+    enum Region {
+        WINDOW, PROBATION, PROTECTED;
+    }
+
+    static final class Node<K, V> {
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<Node, Object> VALUE_UPDATER = AtomicReferenceFieldUpdater.newUpdater(Node.class, Object.class, "value");
+
+        final K key;
+        volatile V value;
+        volatile long expiration;
+        // The following fields are guarded by the eviction lock
+        boolean removed;
+        Region region;
+        Node<K, V> previous;
+        Node<K, V> next;
+
+        Node(K key, V value, long expiration) {
+            this.key = key;
+            this.value = value;
+            this.expiration = expiration;
+        }
+
+        boolean isExpired(long now) {
+            long expiration = this.expiration;
+            return (expiration != 0) && (now - expiration >= 0);
+        }
+
+        boolean compareAndSetValue(V expected, V value) {
+            return VALUE_UPDATER.compareAndSet(this, expected, value);
+        }
+    }
+
+    /**
+     * A doubly-linked list of nodes in access order, least recently used first.
+     */
+    static final class AccessOrderDeque<K, V> {
+        @SuppressWarnings("rawtypes")
+        private static final AccessOrderDeque EMPTY = new AccessOrderDeque();
+
+        private Node<K, V> first;
+        private Node<K, V> last;
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        static <K, V> AccessOrderDeque<K, V> empty() {
+            return EMPTY;
+        }
+
+        int size() {
+            return this.size;
+        }
+
+        Node<K, V> peekFirst() {
+            return this.first;
+        }
+
+        Node<K, V> peekLast() {
+            return this.last;
+        }
+
+        void add(Node<K, V> node, Region region) {
+            node.region = region;
+            node.previous = this.last;
+            node.next = null;
+            if (this.last == null) {
+                this.first = node;
+            } else {
+                this.last.next = node;
+            }
+            this.last = node;
+            this.size += 1;
+        }
+
+        Node<K, V> poll() {
+            Node<K, V> node = this.first;
+            if (node != null) {
+                this.remove(node);
+            }
+            return node;
+        }
+
+        void remove(Node<K, V> node) {
+            if (this == EMPTY) return;
+            if (node.previous == null) {
+                this.first = node.next;
+            } else {
+                node.previous.next = node.next;
+            }
+            if (node.next == null) {
+                this.last = node.previous;
+            } else {
+                node.next.previous = node.previous;
+            }
+            node.previous = null;
+            node.next = null;
+            node.region = null;
+            this.size -= 1;
+        }
+
+        void moveToBack(Node<K, V> node) {
+            if (this == EMPTY || this.last == node) return;
+            Region region = node.region;
+            this.remove(node);
+            this.add(node, region);
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            Iterator<Node<K, V>> nodes = TinyLFUCache.this.data.values().iterator();
+            return new Iterator<Entry<K, V>>() {
+                private Node<K, V> current;
+
+                @Override
+                public boolean hasNext() {
+                    return nodes.hasNext();
+                }
+
+                @Override
+                public Entry<K, V> next() {
+                    Node<K, V> node = nodes.next();
+                    this.current = node;
+                    return new AbstractMap.SimpleEntry<K, V>(node.key, node.value) {
+                        @Override
+                        public V setValue(V value) {
+                            super.setValue(value);
+                            V old = node.value;
+                            node.value = value;
+                            return old;
+                        }
+                    };
+                }
+
+                @Override
+                public void remove() {
+                    if (this.current == null) {
+                        throw new IllegalStateException();
+                    }
+                    TinyLFUCache.this.remove(this.current.key);
+                    this.current = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return TinyLFUCache.this.size();
+        }
+
+        @Override
+        public boolean contains(Object object) {
+            if (!(object instanceof Map.Entry)) return false;
+            Entry<?, ?> entry = (Entry<?, ?>) object;
+            Node<K, V> node = TinyLFUCache.this.data.get(entry.getKey());
+            return (node != null) && (node.value != null) && node.value.equals(entry.getValue());
+        }
+
+        @Override
+        public boolean remove(Object object) {
+            if (!(object instanceof Map.Entry)) return false;
+            return TinyLFUCache.this.remove(((Entry<?, ?>) object).getKey()) != null;
+        }
+
+        @Override
+        public void clear() {
+            TinyLFUCache.this.clear();
+        }
+    }
+}
@@ -24,8 +24,9 @@ package org.jboss.as.security.plugins;
 
 import java.security.Principal;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
-import org.jboss.as.security.lru.LRUCache;
+import org.jboss.as.security.lru.TinyLFUCache;
 import org.jboss.security.authentication.JBossCachedAuthenticationManager.DomainInfo;
 
 /**
@@ -35,16 +36,46 @@ import org.jboss.security.authentication.JBossCachedAuthenticationManager.Domain
  */
 public class DefaultAuthenticationCacheFactory implements AuthenticationCacheFactory {
 
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private final int maxEntries;
+    private final long lifespan;
+    private volatile TinyLFUCache<Principal, DomainInfo> cache;
+
+    public DefaultAuthenticationCacheFactory() {
+        this(DEFAULT_MAX_ENTRIES, 0);
+    }
+
+    /**
+     * @param maxEntries the maximum number of entries of the cache
+     * @param lifespan the number of milliseconds after which a cache entry expires, or 0 if entries should not expire
+     */
+    public DefaultAuthenticationCacheFactory(int maxEntries, long lifespan) {
+        this.maxEntries = maxEntries;
+        this.lifespan = lifespan;
+    }
+
     /**
      * Returns a default cache implementation
      *
      * @return cache implementation
      */
     public ConcurrentMap<Principal, DomainInfo> getCache() {
-        return new LRUCache<>(1000, (key, value) -> {
+        TinyLFUCache<Principal, DomainInfo> cache = new TinyLFUCache<>(this.maxEntries, this.lifespan, TimeUnit.MILLISECONDS, (key, value) -> {
             if (value != null) {
                 value.logout();
             }
         });
+        this.cache = cache;
+        return cache;
+    }
+
+    /**
+     * Returns the cache most recently created by this factory.
+     *
+     * @return the cache, or null if no cache was created yet
+     */
+    public TinyLFUCache<Principal, DomainInfo> getCurrentCache() {
+        return this.cache;
     }
 }
@@ -28,6 +28,7 @@ import javax.security.auth.login.Configuration;
 
 import org.jboss.as.security.SecurityExtension;
 import org.jboss.as.security.logging.SecurityLogger;
+import org.jboss.as.security.lru.TinyLFUCache;
 import org.jboss.as.security.plugins.AuthenticationCacheFactory;
 import org.jboss.as.security.plugins.DefaultAuthenticationCacheFactory;
 import org.jboss.as.security.plugins.JNDIBasedSecurityManagement;
@@ -69,12 +70,29 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
 
     private final String cacheType;
 
+    private final int cacheMaxEntries;
+
+    private final long cacheLifespan;
+
+    private volatile DefaultAuthenticationCacheFactory defaultCacheFactory;
+
     public SecurityDomainService(String name, ApplicationPolicy applicationPolicy, JSSESecurityDomain jsseSecurityDomain,
             String cacheType) {
+        this(name, applicationPolicy, jsseSecurityDomain, cacheType, DefaultAuthenticationCacheFactory.DEFAULT_MAX_ENTRIES, 0);
+    }
+
+    /**
+     * @param cacheMaxEntries the maximum number of entries of the default authentication cache
+     * @param cacheLifespan the number of milliseconds after which an entry of the default authentication cache expires, or 0 if entries should not expire
+     */
+    public SecurityDomainService(String name, ApplicationPolicy applicationPolicy, JSSESecurityDomain jsseSecurityDomain,
+            String cacheType, int cacheMaxEntries, long cacheLifespan) {
         this.name = name;
         this.applicationPolicy = applicationPolicy;
         this.jsseSecurityDomain = jsseSecurityDomain;
         this.cacheType = cacheType;
+        this.cacheMaxEntries = cacheMaxEntries;
+        this.cacheLifespan = cacheLifespan;
     }
 
     /** {@inheritDoc} */
@@ -91,7 +109,8 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
         if ("infinispan".equals(cacheType)) {
             cacheFactory = () -> this.cacheValue.getValue();
         } else if ("default".equals(cacheType)) {
-            cacheFactory = new DefaultAuthenticationCacheFactory();
+            this.defaultCacheFactory = new DefaultAuthenticationCacheFactory(cacheMaxEntries, cacheLifespan);
+            cacheFactory = this.defaultCacheFactory;
         }
         SecurityDomainContext sdc;
         try {
@@ -120,6 +139,7 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
         final ApplicationPolicyRegistration applicationPolicyRegistration = (ApplicationPolicyRegistration) configurationValue
                 .getValue();
         applicationPolicyRegistration.removeApplicationPolicy(name);
+        this.defaultCacheFactory = null;
     }
 
     /** {@inheritDoc} */
@@ -128,6 +148,16 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
         return securityDomainContext;
     }
 
+    /**
+     * Returns the default authentication cache of this security domain.
+     *
+     * @return the cache, or null if this security domain does not use the default authentication cache
+     */
+    public TinyLFUCache<?, ?> getDefaultAuthenticationCache() {
+        DefaultAuthenticationCacheFactory factory = this.defaultCacheFactory;
+        return (factory != null) ? factory.getCurrentCache() : null;
+    }
+
     /**
      * Target {@code Injector}
      *
@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.security.lru;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link FrequencySketch}.
+ */
+public class FrequencySketchTestCase {
+
+    @Test
+    public void increment() {
+        FrequencySketch sketch = new FrequencySketch(16);
+
+        assertEquals(0, sketch.frequency("a"));
+
+        for (int i = 1; i <= 15; ++i) {
+            sketch.increment("a");
+            assertEquals(i, sketch.frequency("a"));
+        }
+        // Counters saturate
+        sketch.increment("a");
+        assertEquals(15, sketch.frequency("a"));
+    }
+
+    @Test
+    public void reset() {
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 15; ++i) {
+            sketch.increment("a");
+        }
+        assertEquals(15, sketch.frequency("a"));
+
+        // Incrementing other keys eventually ages the history, halving all counters
+        int increments = 0;
+        while (sketch.frequency("a") == 15) {
+            sketch.increment(increments++);
+            assertTrue(increments < 1000);
+        }
+        assertEquals(7, sketch.frequency("a"));
+        // The sample size is 10 times the table size, i.e. 160 for 16 entries
+        assertTrue(String.valueOf(increments), increments >= 160 - 15);
+    }
+}
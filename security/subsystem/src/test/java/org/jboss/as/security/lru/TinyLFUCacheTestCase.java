@@ -0,0 +1,187 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.security.lru;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link TinyLFUCache}.
+ */
+public class TinyLFUCacheTestCase {
+
+    @Test
+    public void windowAdmission() {
+        TinyLFUCache<Integer, Integer> cache = new TinyLFUCache<>(100);
+        for (int i = 0; i < 1000; ++i) {
+            cache.put(i, i);
+            // The most recently written entry always enters the admission window
+            assertEquals(Integer.valueOf(i), cache.get(i));
+        }
+        assertEquals(100, cache.size());
+    }
+
+    @Test
+    public void frequentEntriesSurviveScan() {
+        TinyLFUCache<Integer, Integer> cache = new TinyLFUCache<>(100);
+        for (int i = 0; i < 100; ++i) {
+            cache.put(i, i);
+        }
+        for (int round = 0; round < 5; ++round) {
+            for (int i = 0; i < 100; ++i) {
+                assertEquals(Integer.valueOf(i), cache.get(i));
+            }
+        }
+        // Scan of entries that are never read again
+        for (int i = 100; i < 1100; ++i) {
+            cache.put(i, i);
+        }
+        assertEquals(100, cache.size());
+
+        int retained = 0;
+        for (int i = 0; i < 100; ++i) {
+            if (cache.containsKey(i)) {
+                retained += 1;
+            }
+        }
+        // A pure LRU policy would retain none of these
+        assertTrue(String.valueOf(retained), retained >= 90);
+    }
+
+    @Test
+    public void expiration() throws InterruptedException {
+        Map<String, String> removed = new ConcurrentHashMap<>();
+        TinyLFUCache<String, String> cache = new TinyLFUCache<>(10, 100, TimeUnit.MILLISECONDS, removed::put);
+
+        cache.put("a", "1");
+        assertEquals("1", cache.get("a"));
+        assertTrue(cache.containsKey("a"));
+
+        TimeUnit.MILLISECONDS.sleep(200);
+
+        assertFalse(cache.containsKey("a"));
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals("1", removed.get("a"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getEvictions());
+
+        // Writing an expired entry starts a new lifespan
+        assertNull(cache.put("a", "2"));
+        assertEquals("2", cache.get("a"));
+    }
+
+    @Test
+    public void noExpiration() throws InterruptedException {
+        TinyLFUCache<String, String> cache = new TinyLFUCache<>(10);
+
+        cache.put("a", "1");
+
+        TimeUnit.MILLISECONDS.sleep(50);
+
+        assertEquals("1", cache.get("a"));
+    }
+
+    @Test
+    public void statistics() {
+        List<Integer> removed = new ArrayList<>();
+        TinyLFUCache<Integer, Integer> cache = new TinyLFUCache<>(10, (key, value) -> removed.add(key));
+
+        assertNull(cache.get(0));
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        for (int i = 0; i < 10; ++i) {
+            cache.put(i, i);
+        }
+        for (int i = 0; i < 10; ++i) {
+            assertEquals(Integer.valueOf(i), cache.get(i));
+        }
+        assertEquals(10, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getEvictions());
+
+        for (int i = 10; i < 20; ++i) {
+            cache.put(i, i);
+        }
+        assertEquals(10, cache.size());
+        assertEquals(10, cache.getEvictions());
+        assertEquals(10, removed.size());
+
+        // Explicit removal is not an eviction
+        Integer key = cache.keySet().iterator().next();
+        assertNotNull(cache.remove(key));
+        assertEquals(10, cache.getEvictions());
+        assertEquals(11, removed.size());
+    }
+
+    @Test
+    public void concurrentAccess() throws Exception {
+        int maxEntries = 100;
+        int threads = 8;
+        TinyLFUCache<Integer, Integer> cache = new TinyLFUCache<>(maxEntries);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int i = 0; i < threads; ++i) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int j = 0; j < 10000; ++j) {
+                        Integer key = random.nextInt(1000);
+                        if (random.nextBoolean()) {
+                            cache.put(key, key);
+                        } else {
+                            Integer value = cache.get(key);
+                            if (value != null) {
+                                assertEquals(key, value);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(String.valueOf(cache.size()), cache.size() <= maxEntries);
+        assertEquals(cache.size(), cache.entrySet().size());
+    }
+}
@@ -44,9 +44,12 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.AbstractMap;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Persistent session manager
@@ -69,19 +72,7 @@ public abstract class AbstractPersistentSessionManager implements SessionPersist
             try {
                 final Map<String, SessionEntry> serializedData = new HashMap<String, SessionEntry>();
                 for (Map.Entry<String, PersistentSession> sessionEntry : sessionData.entrySet()) {
-                    Map<String, byte[]> data = new HashMap<String, byte[]>();
-                    for (Map.Entry<String, Object> sessionAttribute : sessionEntry.getValue().getSessionData().entrySet()) {
-                        try {
-                            final ByteArrayOutputStream out = new ByteArrayOutputStream();
-                            marshaller.start(new OutputStreamByteOutput(out));
-                            marshaller.writeObject(sessionAttribute.getValue());
-                            marshaller.finish();
-                            data.put(sessionAttribute.getKey(), out.toByteArray());
-                        } catch (Exception e) {
-                            UndertowLogger.ROOT_LOGGER.failedToPersistSessionAttribute(sessionAttribute.getKey(), sessionAttribute.getValue(), sessionEntry.getKey(), e);
-                        }
-                    }
-                    serializedData.put(sessionEntry.getKey(), new SessionEntry(sessionEntry.getValue().getExpiration(), data));
+                    serializedData.put(sessionEntry.getKey(), serializeSession(marshaller, sessionEntry.getKey(), sessionEntry.getValue()));
                 }
                 persistSerializedSessions(deploymentName, serializedData);
             } finally {
@@ -93,39 +84,79 @@ public abstract class AbstractPersistentSessionManager implements SessionPersist
 
     }
 
+    /**
+     * Serializes the attributes of a single session. Attributes that cannot be serialized are logged and skipped.
+     */
+    protected SessionEntry serializeSession(Marshaller marshaller, String sessionId, PersistentSession session) {
+        Map<String, byte[]> data = new HashMap<String, byte[]>();
+        for (Map.Entry<String, Object> sessionAttribute : session.getSessionData().entrySet()) {
+            try {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                marshaller.start(new OutputStreamByteOutput(out));
+                marshaller.writeObject(sessionAttribute.getValue());
+                marshaller.finish();
+                data.put(sessionAttribute.getKey(), out.toByteArray());
+            } catch (Exception e) {
+                UndertowLogger.ROOT_LOGGER.failedToPersistSessionAttribute(sessionAttribute.getKey(), sessionAttribute.getValue(), sessionId, e);
+            }
+        }
+        return new SessionEntry(session.getExpiration(), data);
+    }
+
     protected abstract void persistSerializedSessions(String deploymentName, Map<String, SessionEntry> serializedData) throws IOException;
 
     protected abstract Map<String, SessionEntry> loadSerializedSessions(final String deploymentName) throws IOException;
 
+    /**
+     * Loads the persistent sessions of the specified deployment.
+     * The attributes of each restored session are only deserialized upon first access to that session.
+     */
     @Override
     public Map<String, PersistentSession> loadSessionAttributes(String deploymentName, final ClassLoader classLoader) {
+        try {
+            long time = System.currentTimeMillis();
+            Map<String, SessionEntry> data = loadSerializedSessions(deploymentName);
+            if (data != null) {
+                Map<String, PersistentSession> ret = new HashMap<String, PersistentSession>();
+                for (Map.Entry<String, SessionEntry> sessionEntry : data.entrySet()) {
+                    if (sessionEntry.getValue().expiry.getTime() > time) {
+                        String sessionId = sessionEntry.getKey();
+                        Map<String, byte[]> attributes = sessionEntry.getValue().data;
+                        ret.put(sessionId, new PersistentSession(sessionEntry.getValue().expiry, new LazySessionAttributes(() -> deserializeSession(sessionId, attributes))));
+                    }
+                }
+                return ret;
+            }
+        } catch (Exception e) {
+            UndertowServletLogger.ROOT_LOGGER.failedtoLoadPersistentSessions(e);
+        }
+        return null;
+    }
+
+    /**
+     * Deserializes the attributes of a single session. Attributes that cannot be deserialized are logged and skipped.
+     */
+    private Map<String, Object> deserializeSession(String sessionId, Map<String, byte[]> data) {
+        Map<String, Object> session = new HashMap<String, Object>();
         try {
             Unmarshaller unmarshaller = createUnmarshaller();
             try {
-                long time = System.currentTimeMillis();
-                Map<String, SessionEntry> data = loadSerializedSessions(deploymentName);
-                if (data != null) {
-                    Map<String, PersistentSession> ret = new HashMap<String, PersistentSession>();
-                    for (Map.Entry<String, SessionEntry> sessionEntry : data.entrySet()) {
-                        if (sessionEntry.getValue().expiry.getTime() > time) {
-                            Map<String, Object> session = new HashMap<String, Object>();
-                            for (Map.Entry<String, byte[]> sessionAttribute : sessionEntry.getValue().data.entrySet()) {
-                                unmarshaller.start(new ByteBufferInput(ByteBuffer.wrap(sessionAttribute.getValue())));
-                                session.put(sessionAttribute.getKey(), unmarshaller.readObject());
-                                unmarshaller.finish();
-                            }
-                            ret.put(sessionEntry.getKey(), new PersistentSession(sessionEntry.getValue().expiry, session));
-                        }
+                for (Map.Entry<String, byte[]> sessionAttribute : data.entrySet()) {
+                    try {
+                        unmarshaller.start(new ByteBufferInput(ByteBuffer.wrap(sessionAttribute.getValue())));
+                        session.put(sessionAttribute.getKey(), unmarshaller.readObject());
+                        unmarshaller.finish();
+                    } catch (Exception e) {
+                        UndertowLogger.ROOT_LOGGER.failedToRestoreSessionAttribute(sessionAttribute.getKey(), sessionId, e);
                     }
-                    return ret;
                 }
             } finally {
                 unmarshaller.close();
             }
-        } catch (Exception e) {
+        } catch (IOException e) {
             UndertowServletLogger.ROOT_LOGGER.failedtoLoadPersistentSessions(e);
         }
-        return null;
+        return session;
     }
 
     protected Marshaller createMarshaller() throws IOException {
@@ -166,7 +197,7 @@ public abstract class AbstractPersistentSessionManager implements SessionPersist
         private final Date expiry;
         private final Map<String, byte[]> data;
 
-        private SessionEntry(Date expiry, Map<String, byte[]> data) {
+        SessionEntry(Date expiry, Map<String, byte[]> data) {
             this.expiry = expiry;
             this.data = data;
         }
@@ -179,4 +210,26 @@ public abstract class AbstractPersistentSessionManager implements SessionPersist
             return data;
         }
     }
+
+    /**
+     * Session attributes that are deserialized upon first access.
+     */
+    private static final class LazySessionAttributes extends AbstractMap<String, Object> {
+        private Supplier<Map<String, Object>> loader;
+        private Map<String, Object> attributes;
+
+        LazySessionAttributes(Supplier<Map<String, Object>> loader) {
+            this.loader = loader;
+        }
+
+        @Override
+        public synchronized Set<Map.Entry<String, Object>> entrySet() {
+            if (this.attributes == null) {
+                this.attributes = this.loader.get();
+                // Release the serialized form
+                this.loader = null;
+            }
+            return this.attributes.entrySet();
+        }
+    }
 }
@@ -21,10 +21,10 @@
  */
 package org.wildfly.extension.undertow;
 
+import io.undertow.servlet.UndertowServletLogger;
 import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.marshalling.InputStreamByteInput;
 import org.jboss.marshalling.Marshaller;
-import org.jboss.marshalling.OutputStreamByteOutput;
 import org.jboss.marshalling.Unmarshaller;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
@@ -33,11 +33,29 @@ import org.jboss.msc.value.InjectedValue;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
 import org.xnio.IoUtils;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Persistent session manager that stores persistent session information to disk
@@ -45,6 +63,10 @@ import java.util.Map;
  * @author Stuart Douglas
  */
 public class DiskBasedModularPersistentSessionManager extends AbstractPersistentSessionManager {
+    private static final int MAGIC = 0x5E55107E;
+    private static final int VERSION = 1;
+    private static final int BLOCK_SIZE = 64 * 1024;
+
     private final String path;
     private final String pathRelativeTo;
     private File baseDir;
@@ -83,30 +105,147 @@ public class DiskBasedModularPersistentSessionManager extends AbstractPersistent
     }
 
 
+    /**
+     * Streams the sessions of the deployment to disk, such that only a single block of serialized sessions is held in memory at a time.
+     */
     @Override
-    protected void persistSerializedSessions(String deploymentName, Map<String, SessionEntry> serializedData) throws IOException {
-        File file = new File(baseDir, deploymentName);
-        FileOutputStream out = new FileOutputStream(file, false);
+    public void persistSessions(String deploymentName, Map<String, PersistentSession> sessionData) {
         try {
-            Marshaller marshaller = createMarshaller();
+            final Marshaller marshaller = createMarshaller();
             try {
-                marshaller.start(new OutputStreamByteOutput(out));
-                marshaller.writeObject(serializedData);
-                marshaller.finish();
+                Iterator<Map.Entry<String, SessionEntry>> entries = sessionData.entrySet().stream()
+                        .<Map.Entry<String, SessionEntry>>map(entry -> new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), serializeSession(marshaller, entry.getKey(), entry.getValue())))
+                        .iterator();
+                writeSessions(deploymentName, entries);
             } finally {
                 marshaller.close();
             }
-        } finally {
-            IoUtils.safeClose(out);
+        } catch (Exception e) {
+            UndertowServletLogger.ROOT_LOGGER.failedToPersistSessions(e);
+        }
+    }
+
+    @Override
+    protected void persistSerializedSessions(String deploymentName, Map<String, SessionEntry> serializedData) throws IOException {
+        writeSessions(deploymentName, serializedData.entrySet().iterator());
+    }
+
+    /**
+     * Writes the specified sessions as a sequence of length-prefixed blocks.
+     * The sessions are first written to a temporary file, which then replaces any previously persisted sessions
+     * once it is durable.
+     */
+    private void writeSessions(String deploymentName, Iterator<Map.Entry<String, SessionEntry>> entries) throws IOException {
+        File file = new File(baseDir, deploymentName);
+        File tmp = new File(baseDir, deploymentName + ".tmp");
+        FileOutputStream output = new FileOutputStream(tmp, false);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            ByteArrayOutputStream block = new ByteArrayOutputStream(BLOCK_SIZE);
+            DataOutputStream blockOut = new DataOutputStream(block);
+            while (entries.hasNext()) {
+                Map.Entry<String, SessionEntry> entry = entries.next();
+                SessionEntry session = entry.getValue();
+                blockOut.writeUTF(entry.getKey());
+                blockOut.writeLong(session.getExpiry().getTime());
+                blockOut.writeInt(session.getData().size());
+                for (Map.Entry<String, byte[]> attribute : session.getData().entrySet()) {
+                    blockOut.writeUTF(attribute.getKey());
+                    blockOut.writeInt(attribute.getValue().length);
+                    blockOut.write(attribute.getValue());
+                }
+                if (block.size() >= BLOCK_SIZE) {
+                    writeBlock(out, block);
+                }
+            }
+            writeBlock(out, block);
+            // End of blocks
+            out.writeInt(0);
+            out.flush();
+            // Otherwise, following a power loss, the rename could be durable, while the contents of the file are not
+            output.getFD().sync();
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+    }
+
+    /**
+     * Ensures that the rename of the persisted sessions is durable.
+     */
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(baseDir.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on all platforms
+            UndertowLogger.ROOT_LOGGER.debugf(e, "Failed to sync persistent session directory %s", baseDir);
         }
     }
 
+    private static void writeBlock(DataOutputStream out, ByteArrayOutputStream block) throws IOException {
+        if (block.size() > 0) {
+            out.writeInt(block.size());
+            block.writeTo(out);
+            block.reset();
+        }
+    }
+
+    /**
+     * Reads the blocks of persisted sessions sequentially, and parses them in parallel.
+     * Falls back to the format of previous releases, i.e. a single marshalled map, if the file does not start with the expected magic number.
+     */
     @Override
     protected Map<String, SessionEntry> loadSerializedSessions(String deploymentName) throws IOException {
         File file = new File(baseDir, deploymentName);
         if (!file.exists()) {
             return null;
         }
+        List<byte[]> blocks = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if ((file.length() < Integer.BYTES) || (in.readInt() != MAGIC)) {
+                return loadMarshalledSessions(file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException(Integer.toString(version));
+            }
+            for (int length = in.readInt(); length > 0; length = in.readInt()) {
+                byte[] block = new byte[length];
+                in.readFully(block);
+                blocks.add(block);
+            }
+        }
+        Map<String, SessionEntry> sessions = new ConcurrentHashMap<>();
+        try {
+            blocks.parallelStream().forEach(block -> readBlock(block, sessions));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return sessions;
+    }
+
+    private static void readBlock(byte[] block, Map<String, SessionEntry> sessions) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(block))) {
+            while (in.available() > 0) {
+                String sessionId = in.readUTF();
+                Date expiry = new Date(in.readLong());
+                int attributes = in.readInt();
+                Map<String, byte[]> data = new HashMap<>();
+                for (int i = 0; i < attributes; ++i) {
+                    String name = in.readUTF();
+                    byte[] value = new byte[in.readInt()];
+                    in.readFully(value);
+                    data.put(name, value);
+                }
+                sessions.put(sessionId, new SessionEntry(expiry, data));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, SessionEntry> loadMarshalledSessions(File file) throws IOException {
         FileInputStream in = new FileInputStream(file);
         try {
             Unmarshaller unMarshaller = createUnmarshaller();
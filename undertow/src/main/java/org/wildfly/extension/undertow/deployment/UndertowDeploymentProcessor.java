@@ -468,7 +468,7 @@ public class UndertowDeploymentProcessor implements DeploymentUnitProcessor {
         ServiceName name = deploymentServiceName.append("session");
         if (metaData.getDistributable() != null) {
             if (DistributableSessionManagerFactoryServiceConfiguratorProvider.INSTANCE.isPresent()) {
-                DistributableSessionManagerConfiguration config = new SimpleDistributableSessionManagerConfiguration(maxActiveSessions, metaData.getReplicationConfig(), serverName, deploymentName, module);
+                DistributableSessionManagerConfiguration config = new SimpleDistributableSessionManagerConfiguration(maxActiveSessions, metaData.getReplicationConfig(), SimpleDistributableSessionManagerConfiguration.getBooleanContextParam(metaData, SimpleDistributableSessionManagerConfiguration.BULK_ATTRIBUTE_ACCESS), SimpleDistributableSessionManagerConfiguration.getBooleanContextParam(metaData, SimpleDistributableSessionManagerConfiguration.DELTA_ATTRIBUTE_REPLICATION), SimpleDistributableSessionManagerConfiguration.getBooleanContextParam(metaData, SimpleDistributableSessionManagerConfiguration.LOCAL_SESSION_INDEX), serverName, deploymentName, module);
                 return DistributableSessionManagerFactoryServiceConfiguratorProvider.INSTANCE.get().getServiceConfigurator(name, config);
             }
             // Fallback to local session manager if server does not support clustering
@@ -410,4 +410,8 @@ public interface UndertowLogger extends BasicLogger {
     @LogMessage(level = WARN)
     @Message(id = 101, value = "Duplicate servlet mapping %s found")
     void duplicateServletMapping(String mapping);
+
+    @LogMessage(level = WARN)
+    @Message(id = 102, value = "Failed to restore session attribute %s for session %s")
+    void failedToRestoreSessionAttribute(String attributeName, String sessionID, @Cause Exception e);
 }
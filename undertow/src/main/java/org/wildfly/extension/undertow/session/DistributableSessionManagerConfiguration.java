@@ -29,6 +29,12 @@ public interface DistributableSessionManagerConfiguration {
 
     ReplicationGranularity getGranularity();
 
+    boolean isBulkAttributeAccess();
+
+    boolean isDeltaAttributeReplication();
+
+    boolean isLocalSessionIndex();
+
     String getServerName();
 
     String getDeploymentName();
@@ -21,6 +21,9 @@
  */
 package org.wildfly.extension.undertow.session;
 
+import java.util.List;
+
+import org.jboss.metadata.javaee.spec.ParamValueMetaData;
 import org.jboss.metadata.web.jboss.JBossWebMetaData;
 import org.jboss.metadata.web.jboss.ReplicationConfig;
 import org.jboss.metadata.web.jboss.ReplicationGranularity;
@@ -32,23 +35,46 @@ import org.jboss.modules.Module;
  */
 public class SimpleDistributableSessionManagerConfiguration implements DistributableSessionManagerConfiguration {
 
+    /**
+     * Context parameter that enables bulk reads and per-request batched writes of session attributes, for use with ATTRIBUTE granularity.
+     */
+    public static final String BULK_ATTRIBUTE_ACCESS = "org.wildfly.clustering.web.session.bulk-attribute-access";
+    /**
+     * Context parameter that enables replication of changed session attributes only, for use with SESSION granularity.
+     */
+    public static final String DELTA_ATTRIBUTE_REPLICATION = "org.wildfly.clustering.web.session.delta-attribute-replication";
+    /**
+     * Context parameter that enables an index of the local and active sessions, maintained via cache events, in lieu of scanning the cache on each read.
+     */
+    public static final String LOCAL_SESSION_INDEX = "org.wildfly.clustering.web.session.local-session-index";
+
     private final Integer maxActiveSessions;
     private final ReplicationConfig replicationConfig;
+    private final boolean bulkAttributeAccess;
+    private final boolean deltaAttributeReplication;
+    private final boolean localSessionIndex;
     private final String serverName;
     private final String deploymentName;
     private final Module module;
 
     public SimpleDistributableSessionManagerConfiguration(JBossWebMetaData metaData, String serverName, String deploymentName, Module module) {
-        this(metaData.getMaxActiveSessions(), metaData.getReplicationConfig(), serverName, deploymentName, module);
+        this(metaData.getMaxActiveSessions(), metaData.getReplicationConfig(), getBooleanContextParam(metaData, BULK_ATTRIBUTE_ACCESS), getBooleanContextParam(metaData, DELTA_ATTRIBUTE_REPLICATION), getBooleanContextParam(metaData, LOCAL_SESSION_INDEX), serverName, deploymentName, module);
     }
 
     public SimpleDistributableSessionManagerConfiguration(SharedSessionManagerConfig config, String serverName, String deploymentName, Module module) {
-        this(config.getMaxActiveSessions(), config.getReplicationConfig(), serverName, deploymentName, module);
+        this(config.getMaxActiveSessions(), config.getReplicationConfig(), false, false, false, serverName, deploymentName, module);
     }
 
     public SimpleDistributableSessionManagerConfiguration(Integer maxActiveSessions, ReplicationConfig replicationConfig, String serverName, String deploymentName, Module module) {
+        this(maxActiveSessions, replicationConfig, false, false, false, serverName, deploymentName, module);
+    }
+
+    public SimpleDistributableSessionManagerConfiguration(Integer maxActiveSessions, ReplicationConfig replicationConfig, boolean bulkAttributeAccess, boolean deltaAttributeReplication, boolean localSessionIndex, String serverName, String deploymentName, Module module) {
         this.maxActiveSessions = maxActiveSessions;
         this.replicationConfig = replicationConfig;
+        this.bulkAttributeAccess = bulkAttributeAccess;
+        this.deltaAttributeReplication = deltaAttributeReplication;
+        this.localSessionIndex = localSessionIndex;
         this.serverName = serverName;
         this.deploymentName = deploymentName;
         this.module = module;
@@ -64,6 +90,21 @@ public class SimpleDistributableSessionManagerConfiguration implements Distribut
         return ((this.replicationConfig != null) && (this.replicationConfig.getReplicationGranularity() != null)) ? this.replicationConfig.getReplicationGranularity() : ReplicationGranularity.SESSION;
     }
 
+    @Override
+    public boolean isBulkAttributeAccess() {
+        return this.bulkAttributeAccess;
+    }
+
+    @Override
+    public boolean isDeltaAttributeReplication() {
+        return this.deltaAttributeReplication;
+    }
+
+    @Override
+    public boolean isLocalSessionIndex() {
+        return this.localSessionIndex;
+    }
+
     @Override
     public String getServerName() {
         return this.serverName;
@@ -83,4 +124,16 @@ public class SimpleDistributableSessionManagerConfiguration implements Distribut
     public String getCacheName() {
         return (this.replicationConfig != null) ? this.replicationConfig.getCacheName() : null;
     }
+
+    public static boolean getBooleanContextParam(JBossWebMetaData metaData, String name) {
+        List<ParamValueMetaData> params = metaData.getContextParams();
+        if (params != null) {
+            for (ParamValueMetaData param : params) {
+                if (name.equals(param.getParamName())) {
+                    return Boolean.parseBoolean(param.getParamValue());
+                }
+            }
+        }
+        return false;
+    }
 }
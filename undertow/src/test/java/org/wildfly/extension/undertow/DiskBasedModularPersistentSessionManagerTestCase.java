@@ -0,0 +1,212 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2018, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.undertow.servlet.api.SessionPersistenceManager.PersistentSession;
+import org.jboss.as.controller.services.path.PathManager;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.modules.ModuleLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.wildfly.extension.undertow.AbstractPersistentSessionManager.SessionEntry;
+
+/**
+ * Unit test for {@link DiskBasedModularPersistentSessionManager}.
+ */
+public class DiskBasedModularPersistentSessionManagerTestCase {
+    private static final String DEPLOYMENT = "test.war";
+    private static final String PATH = "sessions";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final PathManager pathManager = mock(PathManager.class);
+    private final DiskBasedModularPersistentSessionManager manager = new DiskBasedModularPersistentSessionManager(PATH, null);
+    private File directory;
+
+    @Before
+    public void init() throws Exception {
+        this.directory = this.folder.newFolder(PATH);
+        when(this.pathManager.resolveRelativePathEntry(PATH, null)).thenReturn(this.directory.getAbsolutePath());
+        this.manager.getPathManager().inject(this.pathManager);
+        this.manager.getModuleLoaderInjectedValue().inject(mock(ModuleLoader.class));
+        this.manager.start(null);
+    }
+
+    @After
+    public void destroy() {
+        this.manager.stop(null);
+    }
+
+    @Test
+    public void persistAndLoad() {
+        Date expiration = new Date(System.currentTimeMillis() + 60000L);
+        Map<String, PersistentSession> sessions = new HashMap<>();
+        // Enough sessions to span multiple blocks
+        for (int i = 0; i < 1000; ++i) {
+            Map<String, Object> attributes = new HashMap<>();
+            attributes.put("index", i);
+            attributes.put("value", String.format("%0100d", i));
+            sessions.put("session" + i, new PersistentSession(expiration, attributes));
+        }
+        sessions.put("expired", new PersistentSession(new Date(System.currentTimeMillis() - 60000L), Collections.singletonMap("index", -1)));
+
+        this.manager.persistSessions(DEPLOYMENT, sessions);
+
+        assertTrue(new File(this.directory, DEPLOYMENT).exists());
+        assertFalse(new File(this.directory, DEPLOYMENT + ".tmp").exists());
+
+        Map<String, PersistentSession> result = this.manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader());
+
+        assertNotNull(result);
+        assertEquals(1000, result.size());
+        assertFalse(result.containsKey("expired"));
+        for (int i = 0; i < 1000; ++i) {
+            PersistentSession session = result.get("session" + i);
+            assertNotNull(session);
+            assertEquals(expiration, session.getExpiration());
+            assertEquals(sessions.get("session" + i).getSessionData(), new HashMap<>(session.getSessionData()));
+        }
+    }
+
+    @Test
+    public void loadPreviousFormat() throws Exception {
+        Date expiration = new Date(System.currentTimeMillis() + 60000L);
+        Marshaller marshaller = this.manager.createMarshaller();
+        Map<String, SessionEntry> sessions = new HashMap<>();
+        try {
+            sessions.put("session", this.manager.serializeSession(marshaller, "session", new PersistentSession(expiration, Collections.singletonMap("name", "value"))));
+            // Previous releases marshalled the sessions as a single map
+            try (OutputStream out = new FileOutputStream(new File(this.directory, DEPLOYMENT))) {
+                marshaller.start(new OutputStreamByteOutput(out));
+                marshaller.writeObject(sessions);
+                marshaller.finish();
+            }
+        } finally {
+            marshaller.close();
+        }
+
+        Map<String, PersistentSession> result = this.manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader());
+
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        PersistentSession session = result.get("session");
+        assertNotNull(session);
+        assertEquals(expiration, session.getExpiration());
+        assertEquals(Collections.singletonMap("name", "value"), new HashMap<>(session.getSessionData()));
+    }
+
+    @Test
+    public void loadMissing() {
+        assertNull(this.manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader()));
+    }
+
+    @Test
+    public void lazyDeserialization() {
+        Date expiration = new Date(System.currentTimeMillis() + 60000L);
+        this.manager.persistSessions(DEPLOYMENT, Collections.singletonMap("session", new PersistentSession(expiration, Collections.singletonMap("name", new CountingAttribute("value")))));
+
+        CountingAttribute.DESERIALIZATIONS.set(0);
+
+        Map<String, PersistentSession> result = this.manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader());
+
+        assertNotNull(result);
+        PersistentSession session = result.get("session");
+        assertNotNull(session);
+        assertEquals(0, CountingAttribute.DESERIALIZATIONS.get());
+
+        Map<String, Object> attributes = session.getSessionData();
+
+        assertEquals(new CountingAttribute("value"), attributes.get("name"));
+        assertEquals(1, CountingAttribute.DESERIALIZATIONS.get());
+
+        // Subsequent access must not deserialize again
+        assertEquals(new CountingAttribute("value"), attributes.get("name"));
+        assertEquals(1, CountingAttribute.DESERIALIZATIONS.get());
+    }
+
+    @Test
+    public void skipCorruptAttribute() throws Exception {
+        Date expiration = new Date(System.currentTimeMillis() + 60000L);
+        Map<String, byte[]> data = new HashMap<>();
+        Marshaller marshaller = this.manager.createMarshaller();
+        try {
+            data.putAll(this.manager.serializeSession(marshaller, "session", new PersistentSession(expiration, Collections.singletonMap("valid", "value"))).getData());
+        } finally {
+            marshaller.close();
+        }
+        data.put("corrupt", new byte[] { 1, 2, 3, 4, 5 });
+
+        this.manager.persistSerializedSessions(DEPLOYMENT, Collections.singletonMap("session", new SessionEntry(expiration, data)));
+
+        Map<String, PersistentSession> result = this.manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader());
+
+        assertNotNull(result);
+        PersistentSession session = result.get("session");
+        assertNotNull(session);
+        assertEquals(Collections.singletonMap("valid", "value"), new HashMap<>(session.getSessionData()));
+    }
+
+    static class CountingAttribute implements Serializable {
+        private static final long serialVersionUID = 5829476025749412366L;
+        static final AtomicInteger DESERIALIZATIONS = new AtomicInteger();
+
+        private final String value;
+
+        CountingAttribute(String value) {
+            this.value = value;
+        }
+
+        private Object readResolve() {
+            DESERIALIZATIONS.incrementAndGet();
+            return this;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.value.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            return (object instanceof CountingAttribute) && this.value.equals(((CountingAttribute) object).value);
+        }
+    }
+}